@@ -60,6 +60,7 @@ import org.apache.ivy.core.search.SearchEngine;
 import org.apache.ivy.core.settings.IvySettings;
 import org.apache.ivy.core.sort.SortEngine;
 import org.apache.ivy.core.sort.SortOptions;
+import org.apache.ivy.core.sort.SortedModuleDescriptors;
 import org.apache.ivy.plugins.circular.CircularDependencyException;
 import org.apache.ivy.plugins.matcher.PatternMatcher;
 import org.apache.ivy.plugins.repository.TransferEvent;
@@ -669,6 +670,32 @@ public class Ivy {
         }
     }
 
+    /**
+     * Sorts the given ModuleDescriptors like
+     * {@link #sortModuleDescriptors(Collection, SortOptions)}, and with the same sort groups them by
+     * dependency level, so that the ModuleDescriptors of a level don't depend on each other.
+     *
+     * @param moduleDescriptors
+     *            a Collection of ModuleDescriptor to sort
+     * @param options
+     *            Options to use to sort the descriptors.
+     * @return the sorted ModuleDescriptors, and the sorted ModuleDescriptors of each level, from
+     *         the less dependent level
+     * @throws CircularDependencyException
+     *             if a circular dependency exists and circular dependency strategy decide to throw
+     *             an exception
+     * @see SortEngine#sortModuleDescriptorsWithLevels(Collection, SortOptions)
+     */
+    public SortedModuleDescriptors sortModuleDescriptorsWithLevels(
+            Collection<ModuleDescriptor> moduleDescriptors, SortOptions options) {
+        pushContext();
+        try {
+            return getSortEngine().sortModuleDescriptorsWithLevels(moduleDescriptors, options);
+        } finally {
+            popContext();
+        }
+    }
+
     // ///////////////////////////////////////////////////////////////////////
     // SEARCH
     // ///////////////////////////////////////////////////////////////////////
@@ -28,14 +28,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.apache.ivy.Ivy;
+import org.apache.ivy.core.IvyExecutors;
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
 import org.apache.ivy.core.settings.IvySettings;
 import org.apache.ivy.core.sort.SortOptions;
+import org.apache.ivy.core.sort.SortedModuleDescriptors;
 import org.apache.ivy.plugins.matcher.MapMatcher;
 import org.apache.ivy.plugins.matcher.PatternMatcher;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParserRegistry;
@@ -151,6 +158,10 @@ public class IvyBuildList extends IvyTask {
 
     private String restartFrom = "*";
 
+    private int parallelism = 1;
+
+    private String levelReference;
+
     public void addFileset(FileSet buildFiles) {
         buildFileSets.add(buildFiles);
     }
@@ -249,34 +260,51 @@ public class IvyBuildList extends IvyTask {
         Set<MapMatcher> leafModules = convert(leafs, leaf, settings);
         Set<MapMatcher> restartFromModules = convert(Collections.<BuildListModule>emptyList(), restartFrom, settings);
 
-        for (FileSet fs : buildFileSets) {
-            DirectoryScanner ds = fs.getDirectoryScanner(getProject());
-            for (String build : ds.getIncludedFiles()) {
-                File buildFile = new File(ds.getBasedir(), build);
+        boolean validate = doValidate(settings);
+        ExecutorService executor = parallelism > 1
+                ? IvyExecutors.newFixedThreadPool("buildlist", parallelism) : null;
+        try {
+            // the descriptors are parsed concurrently, but added in the order of the build files
+            List<File> describedBuildFiles = new ArrayList<>();
+            List<Future<ModuleDescriptor>> parsedDescriptors = new ArrayList<>();
+            for (FileSet fs : buildFileSets) {
+                DirectoryScanner ds = fs.getDirectoryScanner(getProject());
+                for (String build : ds.getIncludedFiles()) {
+                    File buildFile = new File(ds.getBasedir(), build);
+                    File ivyFile = getIvyFileFor(buildFile);
+                    if (!ivyFile.exists()) {
+                        onMissingDescriptor(buildFile, ivyFile, noDescriptor);
+                    } else {
+                        describedBuildFiles.add(buildFile);
+                        parsedDescriptors.add(parseDescriptor(executor, settings, ivyFile,
+                            validate));
+                    }
+                }
+            }
+            for (int i = 0; i < describedBuildFiles.size(); i++) {
+                File buildFile = describedBuildFiles.get(i);
                 File ivyFile = getIvyFileFor(buildFile);
-                if (!ivyFile.exists()) {
-                    onMissingDescriptor(buildFile, ivyFile, noDescriptor);
-                } else {
-                    try {
-                        ModuleDescriptor md = ModuleDescriptorParserRegistry.getInstance()
-                                .parseDescriptor(settings, ivyFile.toURI().toURL(),
-                                    doValidate(settings));
-                        buildFiles.put(md, buildFile);
-                        mds.add(md);
-                        Message.debug("Add " + md.getModuleRevisionId().getModuleId());
-                    } catch (Exception ex) {
-                        if (haltOnError) {
-                            throw new BuildException("impossible to parse ivy file for "
-                                    + buildFile + ": ivyfile=" + ivyFile + " exception=" + ex, ex);
-                        } else {
-                            Message.warn("impossible to parse ivy file for " + buildFile
-                                    + ": ivyfile=" + ivyFile + " exception=" + ex.getMessage());
-                            Message.info("\t=> adding it at the beginning of the path");
-                            independent.add(buildFile);
-                        }
+                try {
+                    ModuleDescriptor md = getParsedDescriptor(parsedDescriptors.get(i));
+                    buildFiles.put(md, buildFile);
+                    mds.add(md);
+                    Message.debug("Add " + md.getModuleRevisionId().getModuleId());
+                } catch (Exception ex) {
+                    if (haltOnError) {
+                        throw new BuildException("impossible to parse ivy file for "
+                                + buildFile + ": ivyfile=" + ivyFile + " exception=" + ex, ex);
+                    } else {
+                        Message.warn("impossible to parse ivy file for " + buildFile
+                                + ": ivyfile=" + ivyFile + " exception=" + ex.getMessage());
+                        Message.info("\t=> adding it at the beginning of the path");
+                        independent.add(buildFile);
                     }
                 }
             }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
         }
 
         List<ModuleDescriptor> leafModuleDescriptors =
@@ -295,7 +323,10 @@ public class IvyBuildList extends IvyTask {
             mds = filterModulesFromLeaf(mds, leafModuleDescriptors);
         }
 
-        List<ModuleDescriptor> sortedModules = ivy.sortModuleDescriptors(mds, SortOptions.DEFAULT);
+        SortedModuleDescriptors sorted = ivy.sortModuleDescriptorsWithLevels(mds,
+            SortOptions.DEFAULT);
+        List<ModuleDescriptor> sortedModules = sorted.getSortedModules();
+        List<List<ModuleDescriptor>> levels = levelReference == null ? null : sorted.getLevels();
 
         if (!OnMissingDescriptor.TAIL.equals(onMissingDescriptor)) {
             for (File buildFile : noDescriptor) {
@@ -342,6 +373,95 @@ public class IvyBuildList extends IvyTask {
 
         getProject().addReference(getReference(), path);
         getProject().setProperty("ivy.sorted.modules", order.toString());
+
+        if (levels != null) {
+            addLevelReferences(levels, new HashSet<>(sortedModules), buildFiles, independent,
+                noDescriptor);
+        }
+    }
+
+    /**
+     * Adds a path reference for the build files of each dependency level, the build files of
+     * modules without descriptor being in the first or the last level, according to
+     * onMissingDescriptor.
+     */
+    private void addLevelReferences(List<List<ModuleDescriptor>> levels,
+            Set<ModuleDescriptor> keptModules, Map<ModuleDescriptor, File> buildFiles,
+            List<File> independent, List<File> noDescriptor) {
+        List<Path> levelPaths = new ArrayList<>();
+        for (List<ModuleDescriptor> level : levels) {
+            Path levelPath = new Path(getProject());
+            for (ModuleDescriptor md : level) {
+                if (keptModules.contains(md)) {
+                    addBuildFile(levelPath, buildFiles.get(md));
+                }
+            }
+            if (levelPath.size() > 0) {
+                levelPaths.add(levelPath);
+            }
+        }
+        if (isReverse()) {
+            Collections.reverse(levelPaths);
+        }
+        Path head = new Path(getProject());
+        if (!OnMissingDescriptor.TAIL.equals(onMissingDescriptor)) {
+            for (File buildFile : noDescriptor) {
+                addBuildFile(head, buildFile);
+            }
+        }
+        for (File buildFile : independent) {
+            addBuildFile(head, buildFile);
+        }
+        if (head.size() > 0) {
+            if (levelPaths.isEmpty()) {
+                levelPaths.add(head);
+            } else {
+                levelPaths.get(0).add(head);
+            }
+        }
+        if (OnMissingDescriptor.TAIL.equals(onMissingDescriptor) && !noDescriptor.isEmpty()) {
+            Path tail = new Path(getProject());
+            for (File buildFile : noDescriptor) {
+                addBuildFile(tail, buildFile);
+            }
+            levelPaths.add(tail);
+        }
+        for (int i = 0; i < levelPaths.size(); i++) {
+            getProject().addReference(levelReference + "." + i, levelPaths.get(i));
+        }
+        getProject().setProperty("ivy.sorted.modules.levels", String.valueOf(levelPaths.size()));
+    }
+
+    private Future<ModuleDescriptor> parseDescriptor(ExecutorService executor,
+            final IvySettings settings, final File ivyFile, final boolean validate) {
+        Callable<ModuleDescriptor> parse = new Callable<ModuleDescriptor>() {
+            public ModuleDescriptor call() throws Exception {
+                return ModuleDescriptorParserRegistry.getInstance().parseDescriptor(settings,
+                    ivyFile.toURI().toURL(), validate);
+            }
+        };
+        if (executor == null) {
+            FutureTask<ModuleDescriptor> task = new FutureTask<>(parse);
+            task.run();
+            return task;
+        }
+        return executor.submit(IvyExecutors.inCurrentContext(parse));
+    }
+
+    private ModuleDescriptor getParsedDescriptor(Future<ModuleDescriptor> parsedDescriptor)
+            throws Exception {
+        try {
+            return parsedDescriptor.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BuildException("interrupted while parsing module descriptors", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        }
     }
 
     private Set<MapMatcher> convert(List<BuildListModule> modulesList, String modulesString, IvySettings settings) {
@@ -664,4 +784,20 @@ public class IvyBuildList extends IvyTask {
         this.restartFrom = restartFrom;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public String getLevelReference() {
+        return levelReference;
+    }
+
+    public void setLevelReference(String levelReference) {
+        this.levelReference = levelReference;
+    }
+
 }
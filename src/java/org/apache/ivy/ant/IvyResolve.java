@@ -92,6 +92,10 @@ public class IvyResolve extends IvyTask {
 
     private boolean checkIfChanged = true; // for backward compatibility
 
+    private int parallelism = 1;
+
+    private boolean useFingerprint = false;
+
     private List<IvyDependency> dependencies = new ArrayList<>();
 
     private List<IvyExclude> excludes = new ArrayList<>();
@@ -439,7 +443,8 @@ public class IvyResolve extends IvyTask {
                 .setArtifactFilter(FilterHelper.getArtifactTypeFilter(type)).setRevision(revision)
                 .setDate(getPubDate(pubdate, null)).setUseCacheOnly(useCacheOnly)
                 .setRefresh(refresh).setTransitive(transitive).setResolveMode(resolveMode)
-                .setResolveId(resolveId).setCheckIfChanged(checkIfChanged);
+                .setResolveId(resolveId).setCheckIfChanged(checkIfChanged)
+                .setParallelism(parallelism).setUseFingerprint(useFingerprint);
     }
 
     public String getModule() {
@@ -513,4 +518,20 @@ public class IvyResolve extends IvyTask {
     public void setCheckIfChanged(boolean checkIfChanged) {
         this.checkIfChanged = checkIfChanged;
     }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isUseFingerprint() {
+        return useFingerprint;
+    }
+
+    public void setUseFingerprint(boolean useFingerprint) {
+        this.useFingerprint = useFingerprint;
+    }
 }
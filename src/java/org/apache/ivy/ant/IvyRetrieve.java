@@ -52,6 +52,12 @@ public class IvyRetrieve extends IvyPostResolveTask {
 
     private boolean symlink = false;
 
+    private boolean incremental = false;
+
+    private boolean hardlink = false;
+
+    private int parallelism = 1;
+
     private boolean symlinkmass = false;
 
     private String overwriteMode = RetrieveOptions.OVERWRITEMODE_NEWER;
@@ -102,8 +108,10 @@ public class IvyRetrieve extends IvyPostResolveTask {
             final RetrieveOptions retrieveOptions = (RetrieveOptions) new RetrieveOptions().setLog(getLog());
             retrieveOptions.setConfs(splitToArray(getConf())).setDestArtifactPattern(pattern)
                     .setDestIvyPattern(ivypattern).setArtifactFilter(artifactFilter)
-                    .setSync(sync).setOverwriteMode(getOverwriteMode())
+                    .setSync(sync).setIncremental(incremental)
+                    .setOverwriteMode(getOverwriteMode())
                     .setUseOrigin(isUseOrigin()).setMakeSymlinks(symlink)
+                    .setMakeHardlinks(hardlink).setParallelism(parallelism)
                     .setResolveId(getResolveId())
                     .setMapper(mapper == null ? null : new MapperAdapter(mapper));
             // only set this if the user has explicitly enabled this deprecated option
@@ -171,6 +179,14 @@ public class IvyRetrieve extends IvyPostResolveTask {
         this.sync = sync;
     }
 
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
     /**
      * Option to create symlinks instead of copying.
      *
@@ -180,6 +196,23 @@ public class IvyRetrieve extends IvyPostResolveTask {
         this.symlink = symlink;
     }
 
+    /**
+     * Option to create hard links instead of copying, when the file system allows it.
+     *
+     * @param hardlink boolean
+     */
+    public void setHardlink(boolean hardlink) {
+        this.hardlink = hardlink;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     /**
      * Option to create symlinks in one mass action, instead of separately.
      *
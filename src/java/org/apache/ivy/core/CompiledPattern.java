@@ -0,0 +1,268 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.ivy.util.StringUtils.isNullOrEmpty;
+
+/**
+ * An Ivy pattern parsed once into the sequence of its literal parts, tokens and optional parts,
+ * so that substituting its tokens neither parses it again nor copies the token values.
+ * <p>
+ * Compiled patterns are immutable, and cached per pattern string by {@link #compile(String)}.
+ * </p>
+ */
+final class CompiledPattern {
+    /**
+     * The values of the tokens of a pattern.
+     */
+    interface TokenValues {
+        /**
+         * @param token
+         *            the name of the token
+         * @return the value of this token, <code>null</code> if it isn't set
+         */
+        String getValue(String token);
+    }
+
+    /**
+     * The maximum number of cached patterns. Resolvers substitute some tokens of their patterns
+     * before substituting the others, so that the number of distinct patterns isn't always bound
+     * by the settings: the cache is simply cleared when it's full.
+     */
+    private static final int CACHE_SIZE = 1024;
+
+    private static final Map<String, CompiledPattern> CACHE = new ConcurrentHashMap<>();
+
+    private final String pattern;
+
+    private final Segment[] segments;
+
+    private CompiledPattern(String pattern, Segment[] segments) {
+        this.pattern = pattern;
+        this.segments = segments;
+    }
+
+    /**
+     * Returns the compiled form of the given pattern.
+     *
+     * @param pattern
+     *            the pattern to compile
+     * @return the compiled pattern
+     * @throws IllegalArgumentException
+     *             if the pattern is malformed
+     */
+    static CompiledPattern compile(String pattern) {
+        CompiledPattern compiled = CACHE.get(pattern);
+        if (compiled == null) {
+            compiled = new CompiledPattern(pattern, parse(pattern));
+            if (CACHE.size() >= CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(pattern, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Substitutes the tokens of this pattern.
+     * <p>
+     * A token which isn't set is kept as is, unless it is in an optional part. An optional part
+     * is kept only if its last token has a value which isn't empty, and an optional part without
+     * token is kept with its parentheses.
+     * </p>
+     *
+     * @param values
+     *            the values of the tokens
+     * @return the pattern with its tokens substituted
+     */
+    String substitute(TokenValues values) {
+        if (segments.length == 1 && segments[0] instanceof Literal) {
+            return ((Literal) segments[0]).text;
+        }
+        // token values can't be appended to a shared builder: computing some of them, like the
+        // original artifact name, may substitute other patterns
+        StringBuilder buffer = new StringBuilder(pattern.length() + 32);
+        for (Segment segment : segments) {
+            segment.appendTo(buffer, values);
+        }
+        return buffer.toString();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    private static Segment[] parse(String pattern) {
+        List<Segment> segments = new ArrayList<>();
+        List<Segment> optionalSegments = null;
+        StringBuilder literal = new StringBuilder();
+        StringBuilder token = null;
+        boolean insideOptionalPart = false;
+        boolean tokenSeen = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char ch = pattern.charAt(i);
+            switch (ch) {
+                case '(':
+                    if (insideOptionalPart) {
+                        throw new IllegalArgumentException(
+                                "invalid start of optional part at position " + i + " in pattern "
+                                        + pattern);
+                    }
+                    flush(literal, segments);
+                    optionalSegments = new ArrayList<>();
+                    insideOptionalPart = true;
+                    tokenSeen = false;
+                    break;
+                case ')':
+                    if (!insideOptionalPart || token != null) {
+                        throw new IllegalArgumentException(
+                                "invalid end of optional part at position " + i + " in pattern "
+                                        + pattern);
+                    }
+                    if (tokenSeen) {
+                        flush(literal, optionalSegments);
+                        segments.add(new Optional(optionalSegments));
+                    } else {
+                        // without token, the optional part is kept with its parentheses
+                        literal.insert(0, '(').append(')');
+                    }
+                    insideOptionalPart = false;
+                    break;
+                case '[':
+                    if (token != null) {
+                        throw new IllegalArgumentException("invalid start of token at position "
+                                + i + " in pattern " + pattern);
+                    }
+                    flush(literal, insideOptionalPart ? optionalSegments : segments);
+                    token = new StringBuilder();
+                    break;
+                case ']':
+                    if (token == null) {
+                        throw new IllegalArgumentException("invalid end of token at position " + i
+                                + " in pattern " + pattern);
+                    }
+                    if (insideOptionalPart) {
+                        optionalSegments.add(new Token(token.toString(), true));
+                    } else {
+                        segments.add(new Token(token.toString(), false));
+                    }
+                    token = null;
+                    tokenSeen = true;
+                    break;
+                default:
+                    if (token != null) {
+                        token.append(ch);
+                    } else {
+                        literal.append(ch);
+                    }
+                    break;
+            }
+        }
+        if (token != null) {
+            throw new IllegalArgumentException("last token hasn't been closed in pattern "
+                    + pattern);
+        }
+        if (insideOptionalPart) {
+            throw new IllegalArgumentException("optional part hasn't been closed in pattern "
+                    + pattern);
+        }
+        flush(literal, segments);
+        if (segments.isEmpty()) {
+            segments.add(new Literal(""));
+        }
+        return segments.toArray(new Segment[segments.size()]);
+    }
+
+    private static void flush(StringBuilder literal, List<Segment> segments) {
+        if (literal.length() > 0) {
+            segments.add(new Literal(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    private abstract static class Segment {
+        abstract void appendTo(StringBuilder buffer, TokenValues values);
+    }
+
+    private static final class Literal extends Segment {
+        private final String text;
+
+        private Literal(String text) {
+            this.text = text;
+        }
+
+        void appendTo(StringBuilder buffer, TokenValues values) {
+            buffer.append(text);
+        }
+    }
+
+    private static final class Token extends Segment {
+        private final String name;
+
+        private final String unset;
+
+        private Token(String name, boolean optional) {
+            this.name = name;
+            // outside an optional part, a token which isn't set is kept as is
+            this.unset = optional ? null : IvyPatternHelper.getTokenString(name);
+        }
+
+        void appendTo(StringBuilder buffer, TokenValues values) {
+            appendValue(buffer, values);
+        }
+
+        /**
+         * @return whether this token has a value which isn't empty
+         */
+        boolean appendValue(StringBuilder buffer, TokenValues values) {
+            String value = values.getValue(name);
+            buffer.append(value == null ? unset : value);
+            return !isNullOrEmpty(value);
+        }
+    }
+
+    private static final class Optional extends Segment {
+        private final Segment[] segments;
+
+        private Optional(List<Segment> segments) {
+            this.segments = segments.toArray(new Segment[segments.size()]);
+        }
+
+        void appendTo(StringBuilder buffer, TokenValues values) {
+            int start = buffer.length();
+            boolean tokenHadValue = false;
+            for (Segment segment : segments) {
+                if (segment instanceof Token) {
+                    tokenHadValue = ((Token) segment).appendValue(buffer, values);
+                } else {
+                    segment.appendTo(buffer, values);
+                }
+            }
+            // the optional part is kept only if its last token has a value
+            if (!tokenHadValue) {
+                buffer.setLength(start);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ivy.util.MessageLogger;
+import org.apache.ivy.util.MessageLoggerEngine;
+
+/**
+ * Factory and utility methods to run Ivy jobs on pools of threads.
+ * <p>
+ * Like {@link IvyThread}, the tasks wrapped by this class are run with the {@link IvyContext} of
+ * the thread which created them, and they log their messages to the logger used by this thread.
+ * </p>
+ *
+ * @see IvyThread
+ */
+public final class IvyExecutors {
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private static final long IDLE_THREAD_TIMEOUT = 30;
+
+    private IvyExecutors() {
+    }
+
+    /**
+     * Creates a pool of at most the given number of daemon threads. Threads are created on demand,
+     * and terminate after having been idle for some time, so that a pool which is not shut down
+     * doesn't keep threads alive.
+     *
+     * @param name
+     *            the name of the pool, used as a prefix for the names of its threads
+     * @param nThreads
+     *            the number of threads in the pool
+     * @return the newly created pool
+     */
+    public static ExecutorService newFixedThreadPool(String name, int nThreads) {
+        final String prefix = "ivy-" + name + "-" + POOL_NUMBER.incrementAndGet() + "-";
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(nThreads, nThreads,
+                IDLE_THREAD_TIMEOUT, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger();
+
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, prefix + threadNumber.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Wraps the given task so that it runs with a copy of the current {@link IvyContext}.
+     *
+     * @param task
+     *            the task to wrap
+     * @param <T>
+     *            the type of the result of the task
+     * @return a task running the given one in a copy of the current context
+     */
+    public static <T> Callable<T> inCurrentContext(Callable<T> task) {
+        return inContext(new IvyContext(IvyContext.getContext()), task);
+    }
+
+    /**
+     * Wraps the given task so that it runs with the given {@link IvyContext}, and logs to the
+     * logger currently used in this thread.
+     *
+     * @param context
+     *            the context to use to run the task, which must not be shared with other threads
+     * @param task
+     *            the task to wrap
+     * @param <T>
+     *            the type of the result of the task
+     * @return a task running the given one in the given context
+     */
+    public static <T> Callable<T> inContext(final IvyContext context, final Callable<T> task) {
+        final MessageLogger logger = context.getMessageLogger();
+        final MessageLogger currentLogger = logger instanceof MessageLoggerEngine
+                ? ((MessageLoggerEngine) logger).peekLogger() : null;
+        return new Callable<T>() {
+            public T call() throws Exception {
+                IvyContext.pushContext(context);
+                if (currentLogger != null) {
+                    ((MessageLoggerEngine) logger).pushLogger(currentLogger);
+                }
+                try {
+                    return task.call();
+                } finally {
+                    if (currentLogger != null) {
+                        ((MessageLoggerEngine) logger).popLogger();
+                    }
+                    IvyContext.popContext();
+                }
+            }
+        };
+    }
+}
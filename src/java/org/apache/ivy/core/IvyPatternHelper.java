@@ -18,7 +18,6 @@
 package org.apache.ivy.core;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
@@ -34,8 +33,6 @@ import org.apache.ivy.core.settings.IvyVariableContainer;
 import org.apache.ivy.core.settings.IvyVariableContainerImpl;
 import org.apache.ivy.util.Message;
 
-import static org.apache.ivy.util.StringUtils.isNullOrEmpty;
-
 /**
  */
 public final class IvyPatternHelper {
@@ -128,44 +125,9 @@ public final class IvyPatternHelper {
     public static String substitute(String pattern, String org, String module, String branch,
             String revision, String artifact, String type, String ext, String conf,
             ArtifactOrigin origin, Map<String, String> extraModuleAttributes, Map<String, String> extraArtifactAttributes) {
-        Map<String, Object> tokens = new HashMap<>();
-        if (extraModuleAttributes != null) {
-            for (Map.Entry<String, String> entry : extraModuleAttributes.entrySet()) {
-                String token = entry.getKey();
-                if (token.indexOf(':') > 0) {
-                    token = token.substring(token.indexOf(':') + 1);
-                }
-                tokens.put(token, entry.getValue());
-            }
-        }
-        if (extraArtifactAttributes != null) {
-            for (Map.Entry<String, String> entry : extraArtifactAttributes.entrySet()) {
-                String token = entry.getKey();
-                if (token.indexOf(':') > 0) {
-                    token = token.substring(token.indexOf(':') + 1);
-                }
-                tokens.put(token, entry.getValue());
-            }
-        }
-        tokens.put(ORGANISATION_KEY, org == null ? "" : org);
-        tokens.put(ORGANISATION_KEY2, org == null ? "" : org);
-        tokens.put(ORGANISATION_PATH_KEY, org == null ? "" : org.replace('.', '/'));
-        tokens.put(MODULE_KEY, module == null ? "" : module);
-        tokens.put(BRANCH_KEY, branch == null ? "" : branch);
-        tokens.put(REVISION_KEY, revision == null ? "" : revision);
-        tokens.put(ARTIFACT_KEY, artifact == null ? module : artifact);
-        tokens.put(TYPE_KEY, type == null ? "jar" : type);
-        tokens.put(EXT_KEY, ext == null ? "jar" : ext);
-        tokens.put(CONF_KEY, conf == null ? "default" : conf);
-        if (origin == null) {
-            tokens.put(ORIGINAL_ARTIFACTNAME_KEY, new OriginalArtifactNameValue(org, module,
-                    branch, revision, artifact, type, ext, extraModuleAttributes,
-                    extraArtifactAttributes));
-        } else {
-            tokens.put(ORIGINAL_ARTIFACTNAME_KEY, new OriginalArtifactNameValue(origin));
-        }
-
-        return substituteTokens(pattern, tokens, false);
+        return CompiledPattern.compile(pattern).substitute(new ModuleTokenValues(org, module,
+                branch, revision, artifact, type, ext, conf, origin, extraModuleAttributes,
+                extraArtifactAttributes));
     }
 
     // CheckStyle:ParameterNumber ON
@@ -220,115 +182,22 @@ public final class IvyPatternHelper {
         }
     }
 
-    // This is a cludge to reconcile different values passed to the method
-    public static String substituteTokens(String pattern, Map<String, String> tokens) {
-        Map<String, Object> tokensCopy = new HashMap<>();
-        tokensCopy.putAll(tokens);
-        return substituteTokens(pattern, tokensCopy, true);
-    }
-
-    private static String substituteTokens(String pattern, Map<String, Object> tokens, boolean external) {
-        Map<String, Object> tokensCopy = external ? tokens : new HashMap<>(tokens);
-        if (tokensCopy.containsKey(ORGANISATION_KEY) && !tokensCopy.containsKey(ORGANISATION_KEY2)) {
-            tokensCopy.put(ORGANISATION_KEY2, tokensCopy.get(ORGANISATION_KEY));
-        }
-        if (tokensCopy.containsKey(ORGANISATION_KEY)
-                && !tokensCopy.containsKey(ORGANISATION_PATH_KEY)) {
-            String org = (String) tokensCopy.get(ORGANISATION_KEY);
-            tokensCopy.put(ORGANISATION_PATH_KEY, org == null ? "" : org.replace('.', '/'));
-        }
-
-        StringBuilder buffer = new StringBuilder();
-
-        StringBuffer optionalPart = null;
-        StringBuffer tokenBuffer = null;
-        boolean insideOptionalPart = false;
-        boolean insideToken = false;
-        boolean tokenSeen = false;
-        boolean tokenHadValue = false;
-
-        for (char ch : pattern.toCharArray()) {
-            int i = pattern.indexOf(ch);
-            switch (ch) {
-                case '(':
-                    if (insideOptionalPart) {
-                        throw new IllegalArgumentException(
-                                "invalid start of optional part at position " + i + " in pattern "
-                                        + pattern);
-                    }
-
-                    optionalPart = new StringBuffer();
-                    insideOptionalPart = true;
-                    tokenSeen = false;
-                    tokenHadValue = false;
-                    break;
-                case ')':
-                    if (!insideOptionalPart || insideToken) {
-                        throw new IllegalArgumentException(
-                                "invalid end of optional part at position " + i + " in pattern "
-                                        + pattern);
+    public static String substituteTokens(String pattern, final Map<String, String> tokens) {
+        return CompiledPattern.compile(pattern).substitute(new CompiledPattern.TokenValues() {
+            public String getValue(String token) {
+                if (!tokens.containsKey(token) && tokens.containsKey(ORGANISATION_KEY)) {
+                    if (ORGANISATION_KEY2.equals(token)) {
+                        return tokens.get(ORGANISATION_KEY);
                     }
-
-                    if (tokenHadValue) {
-                        buffer.append(optionalPart.toString());
-                    } else if (!tokenSeen) {
-                        buffer.append('(').append(optionalPart.toString()).append(')');
-                    }
-                    insideOptionalPart = false;
-                    break;
-                case '[':
-                    if (insideToken) {
-                        throw new IllegalArgumentException("invalid start of token at position "
-                                + i + " in pattern " + pattern);
+                    if (ORGANISATION_PATH_KEY.equals(token)) {
+                        String org = tokens.get(ORGANISATION_KEY);
+                        return org == null ? "" : org.replace('.', '/');
                     }
-
-                    tokenBuffer = new StringBuffer();
-                    insideToken = true;
-                    break;
-                case ']':
-                    if (!insideToken) {
-                        throw new IllegalArgumentException("invalid end of token at position " + i
-                                + " in pattern " + pattern);
-                    }
-
-                    String token = tokenBuffer.toString();
-                    Object tokenValue = tokensCopy.get(token);
-                    String value = (tokenValue == null) ? null : tokenValue.toString();
-                    if (insideOptionalPart) {
-                        tokenHadValue = !isNullOrEmpty(value);
-                        optionalPart.append(value);
-                    } else {
-                        if (value == null) { // the token wasn't set, it's kept as is
-                            value = "[" + token + "]";
-                        }
-                        buffer.append(value);
-                    }
-                    insideToken = false;
-                    tokenSeen = true;
-                    break;
-                default:
-                    if (insideToken) {
-                        tokenBuffer.append(ch);
-                    } else if (insideOptionalPart) {
-                        optionalPart.append(ch);
-                    } else {
-                        buffer.append(ch);
-                    }
-                    break;
+                }
+                Object value = tokens.get(token);
+                return value == null ? null : value.toString();
             }
-        }
-
-        if (insideToken) {
-            throw new IllegalArgumentException("last token hasn't been closed in pattern "
-                    + pattern);
-        }
-
-        if (insideOptionalPart) {
-            throw new IllegalArgumentException("optional part hasn't been closed in pattern "
-                    + pattern);
-        }
-
-        return buffer.toString();
+        });
     }
 
     public static String substituteVariable(String pattern, String variable, String value) {
@@ -401,6 +270,109 @@ public final class IvyPatternHelper {
         return sb.toString();
     }
 
+    /**
+     * The values of the tokens of a pattern, taken from the fields of a module revision and of one
+     * of its artifacts. The extra attributes of the artifact take precedence over the ones of the
+     * module, and are both overridden by the standard tokens.
+     */
+    private static final class ModuleTokenValues implements CompiledPattern.TokenValues {
+        private final String org;
+
+        private final String module;
+
+        private final String branch;
+
+        private final String revision;
+
+        private final String artifact;
+
+        private final String type;
+
+        private final String ext;
+
+        private final String conf;
+
+        private final ArtifactOrigin origin;
+
+        private final Map<String, String> extraModuleAttributes;
+
+        private final Map<String, String> extraArtifactAttributes;
+
+        // CheckStyle:ParameterNumber OFF
+        private ModuleTokenValues(String org, String module, String branch, String revision,
+                String artifact, String type, String ext, String conf, ArtifactOrigin origin,
+                Map<String, String> extraModuleAttributes,
+                Map<String, String> extraArtifactAttributes) {
+            this.org = org;
+            this.module = module;
+            this.branch = branch;
+            this.revision = revision;
+            this.artifact = artifact;
+            this.type = type;
+            this.ext = ext;
+            this.conf = conf;
+            this.origin = origin;
+            this.extraModuleAttributes = extraModuleAttributes;
+            this.extraArtifactAttributes = extraArtifactAttributes;
+        }
+        // CheckStyle:ParameterNumber ON
+
+        public String getValue(String token) {
+            switch (token) {
+                case ORGANISATION_KEY:
+                case ORGANISATION_KEY2:
+                    return org == null ? "" : org;
+                case ORGANISATION_PATH_KEY:
+                    return org == null ? "" : org.replace('.', '/');
+                case MODULE_KEY:
+                    return module == null ? "" : module;
+                case BRANCH_KEY:
+                    return branch == null ? "" : branch;
+                case REVISION_KEY:
+                    return revision == null ? "" : revision;
+                case ARTIFACT_KEY:
+                    return artifact == null ? module : artifact;
+                case TYPE_KEY:
+                    return type == null ? "jar" : type;
+                case EXT_KEY:
+                    return ext == null ? "jar" : ext;
+                case CONF_KEY:
+                    return conf == null ? "default" : conf;
+                case ORIGINAL_ARTIFACTNAME_KEY:
+                    return (origin == null ? new OriginalArtifactNameValue(org, module, branch,
+                            revision, artifact, type, ext, extraModuleAttributes,
+                            extraArtifactAttributes) : new OriginalArtifactNameValue(origin))
+                            .toString();
+                default:
+                    Map.Entry<String, String> attribute = getExtraAttribute(
+                        extraArtifactAttributes, token);
+                    if (attribute == null) {
+                        attribute = getExtraAttribute(extraModuleAttributes, token);
+                    }
+                    return attribute == null ? null : attribute.getValue();
+            }
+        }
+
+        /**
+         * Looks for the extra attribute named after the given token, qualified or not.
+         */
+        private static Map.Entry<String, String> getExtraAttribute(
+                Map<String, String> attributes, String token) {
+            if (attributes == null) {
+                return null;
+            }
+            for (Map.Entry<String, String> entry : attributes.entrySet()) {
+                String name = entry.getKey();
+                int colon = name.indexOf(':');
+                int start = colon > 0 ? colon + 1 : 0;
+                if (name.length() - start == token.length() && name.startsWith(token, start)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * This class returns the original name of the artifact 'on demand'. This is done to avoid
      * having to read the cached datafile containing the original location of the artifact if we
@@ -451,7 +423,7 @@ public final class IvyPatternHelper {
             this.origin = origin;
         }
 
-        // Called by substituteTokens only if the original artifact name is needed
+        // Called only if the original artifact name is needed
         public String toString() {
             if (origin == null) {
                 ModuleRevisionId revId = ModuleRevisionId.newInstance(org, moduleName, branch,
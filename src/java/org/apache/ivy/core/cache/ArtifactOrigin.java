@@ -69,6 +69,10 @@ public class ArtifactOrigin {
 
     private boolean exists = true;
 
+    private String etag;
+
+    private Long lastModified;
+
     /**
      * Create a new instance
      *
@@ -141,9 +145,46 @@ public class ArtifactOrigin {
         this.exists = exists;
     }
 
+    /**
+     * The entity tag the remote resource had when it was downloaded, used to check if it has been
+     * modified since. Maybe <code>null</code> if the repository didn't provide one.
+     *
+     * @return the entity tag of the resource
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    public void setETag(String etag) {
+        this.etag = etag;
+    }
+
+    /**
+     * The last modification date the remote resource had when it was downloaded, used to check
+     * if it has been modified since. Maybe <code>null</code> if the repository didn't provide it.
+     *
+     * @return Long timestamp
+     */
+    public Long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Long lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @return <code>true</code> if the entity tag or the last modification date of the resource
+     *         is known, so that it can be checked if it has been modified
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
     public String toString() {
         return "ArtifactOrigin { isLocal=" + isLocal + ", location=" + location + ", lastChecked="
-                + lastChecked + ", exists=" + exists + "}";
+                + lastChecked + ", exists=" + exists + ", etag=" + etag + ", lastModified="
+                + lastModified + "}";
     }
 
     public boolean equals(Object o) {
@@ -167,6 +208,14 @@ public class ArtifactOrigin {
             return false;
         }
 
+        if (etag == null ? that.etag != null : !etag.equals(that.etag)) {
+            return false;
+        }
+        if (lastModified == null ? that.lastModified != null
+                : !lastModified.equals(that.lastModified)) {
+            return false;
+        }
+
         return exists == that.exists;
     }
 
@@ -176,6 +225,9 @@ public class ArtifactOrigin {
         result = MAGIC_HASH_VALUE * result + location.hashCode();
         result = MAGIC_HASH_VALUE * result + ((lastChecked == null) ? 0 : lastChecked.hashCode());
         result = MAGIC_HASH_VALUE * result + (exists ? 1 : 0);
+        result = MAGIC_HASH_VALUE * result + ((etag == null) ? 0 : etag.hashCode());
+        result = MAGIC_HASH_VALUE * result
+                + ((lastModified == null) ? 0 : lastModified.hashCode());
         return result;
     }
 }
@@ -23,6 +23,8 @@ public class CacheDownloadOptions {
 
     private boolean force = false;
 
+    private String missingKey = null;
+
     public DownloadListener getListener() {
         return listener;
     }
@@ -40,4 +42,17 @@ public class CacheDownloadOptions {
         this.force = force;
         return this;
     }
+
+    /**
+     * @return the key under which the artifacts found missing are recorded in the cache, or
+     *         <code>null</code> if misses shouldn't be recorded
+     */
+    public String getMissingKey() {
+        return missingKey;
+    }
+
+    public CacheDownloadOptions setMissingKey(String missingKey) {
+        this.missingKey = missingKey;
+        return this;
+    }
 }
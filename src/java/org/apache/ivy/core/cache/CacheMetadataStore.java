@@ -0,0 +1,62 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.util.Properties;
+
+/**
+ * Stores the metadata a {@link DefaultRepositoryCacheManager} keeps about the module revisions
+ * in its cache: resolvers used, artifact origins, last check times and resolved revisions.
+ * <p>
+ * The metadata of a module revision is a set of properties, identified by a key which is the
+ * path of its data file relative to the cache root, as given by the data file pattern of the
+ * cache. Callers are responsible for the locking of the module revisions whose metadata they
+ * access, an implementation only has to make sure that concurrent accesses don't corrupt the
+ * store.
+ * </p>
+ *
+ * @see DefaultRepositoryCacheManager#setMetadataStore(String)
+ */
+public interface CacheMetadataStore {
+    /**
+     * Loads the metadata stored under the given key.
+     *
+     * @param key
+     *            the key of the metadata to load
+     * @return a copy of the metadata stored, which is empty if none has been stored yet
+     */
+    Properties load(String key);
+
+    /**
+     * Stores the given metadata under the given key, replacing the metadata stored until now.
+     *
+     * @param key
+     *            the key of the metadata to store
+     * @param data
+     *            the metadata to store
+     * @param comment
+     *            a description of the metadata, which may be stored with it
+     */
+    void save(String key, Properties data, String comment);
+
+    /**
+     * Releases the resources held by this store. The store can still be used afterwards, in which
+     * case the resources are acquired again.
+     */
+    void close();
+}
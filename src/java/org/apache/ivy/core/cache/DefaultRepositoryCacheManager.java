@@ -34,7 +34,9 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -71,6 +73,8 @@ import org.apache.ivy.plugins.repository.Repository;
 import org.apache.ivy.plugins.repository.Resource;
 import org.apache.ivy.plugins.repository.ResourceDownloader;
 import org.apache.ivy.plugins.repository.ResourceHelper;
+import org.apache.ivy.plugins.repository.url.URLRepository;
+import org.apache.ivy.plugins.repository.url.URLResource;
 import org.apache.ivy.plugins.resolver.AbstractResolver;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
@@ -78,7 +82,7 @@ import org.apache.ivy.util.Checks;
 import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.HexEncoder;
 import org.apache.ivy.util.Message;
-import org.apache.ivy.util.PropertiesFile;
+import org.apache.ivy.util.url.URLHandler.URLInfo;
 
 import static org.apache.ivy.util.StringUtils.isNullOrEmpty;
 
@@ -91,6 +95,18 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private static final int DEFAULT_MEMORY_CACHE_SIZE = 150;
 
+    /**
+     * The name of the metadata store keeping metadata in a properties file per module revision.
+     */
+    public static final String PROPERTIES_METADATA_STORE = "properties";
+
+    /**
+     * The name of the metadata store keeping all the metadata in a single indexed file.
+     */
+    public static final String INDEXED_METADATA_STORE = "indexed";
+
+    private static final String INDEXED_METADATA_STORE_FILE = "ivydata.index";
+
     private static MessageDigest SHA_DIGEST;
     static {
         try {
@@ -112,6 +128,10 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private String dataFilePattern = DEFAULT_DATA_FILE_PATTERN;
 
+    private String metadataStoreName = PROPERTIES_METADATA_STORE;
+
+    private CacheMetadataStore metadataStore;
+
     private String artifactPattern;
 
     private String lockStrategyName;
@@ -128,12 +148,30 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private Long defaultTTL = null;
 
-    private ModuleDescriptorMemoryCache memoryModuleDescrCache;
+    private ModuleRules<Long> missingTtlRules = new ModuleRules<>();
+
+    private long defaultMissingTTL = 0;
+
+    private ModuleRules<Long> listingTtlRules = new ModuleRules<>();
+
+    private long defaultListingTTL = 0;
+
+    private volatile ModuleDescriptorMemoryCache memoryModuleDescrCache;
+
+    private int memorySize = DEFAULT_MEMORY_CACHE_SIZE;
+
+    private long memoryMaxHeapSize = 0;
+
+    private boolean serializeDescriptors = true;
 
     private PackagingManager packagingManager = new PackagingManager();
 
     private final List<ConfiguredTTL> configuredTTLs = new ArrayList<>();
 
+    private final List<ConfiguredTTL> configuredMissingTTLs = new ArrayList<>();
+
+    private final List<ConfiguredTTL> configuredListingTTLs = new ArrayList<>();
+
     public DefaultRepositoryCacheManager() {
     }
 
@@ -156,9 +194,24 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             this.addTTL(configuredTTL.attributes,
                     configuredTTL.matcher == null ? ExactPatternMatcher.INSTANCE : settings.getMatcher(configuredTTL.matcher), configuredTTL.duration);
         }
+        for (final ConfiguredTTL configuredTTL : configuredMissingTTLs) {
+            this.addMissingTTL(configuredTTL.attributes,
+                    configuredTTL.matcher == null ? ExactPatternMatcher.INSTANCE : settings.getMatcher(configuredTTL.matcher), configuredTTL.duration);
+        }
+        for (final ConfiguredTTL configuredTTL : configuredListingTTLs) {
+            this.addListingTTL(configuredTTL.attributes,
+                    configuredTTL.matcher == null ? ExactPatternMatcher.INSTANCE : settings.getMatcher(configuredTTL.matcher), configuredTTL.duration);
+        }
         // clear off the configured TTLs since we have now processed them and created TTL rules
         // out of them
         this.configuredTTLs.clear();
+        this.configuredMissingTTLs.clear();
+        this.configuredListingTTLs.clear();
+        ModuleDescriptorMemoryCache cache = memoryModuleDescrCache;
+        if (cache != null) {
+            // drop the descriptors whose parsing depends on settings which have changed
+            cache.invalidate(settings);
+        }
     }
 
     public File getIvyFileInCache(ModuleRevisionId mrid) {
@@ -205,6 +258,9 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     public void setBasedir(File cache) {
         this.basedir = cache;
+        if (metadataStoreName != null) {
+            resetMetadataStore();
+        }
     }
 
     public long getDefaultTTL() {
@@ -222,6 +278,30 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         this.defaultTTL = parseDuration(defaultTTL);
     }
 
+    public long getDefaultMissingTTL() {
+        return defaultMissingTTL;
+    }
+
+    public void setDefaultMissingTTL(long defaultMissingTTL) {
+        this.defaultMissingTTL = defaultMissingTTL;
+    }
+
+    public void setDefaultMissingTTL(String defaultMissingTTL) {
+        this.defaultMissingTTL = parseDuration(defaultMissingTTL);
+    }
+
+    public long getDefaultListingTTL() {
+        return defaultListingTTL;
+    }
+
+    public void setDefaultListingTTL(long defaultListingTTL) {
+        this.defaultListingTTL = defaultListingTTL;
+    }
+
+    public void setDefaultListingTTL(String defaultListingTTL) {
+        this.defaultListingTTL = parseDuration(defaultListingTTL);
+    }
+
     public String getDataFilePattern() {
         return dataFilePattern;
     }
@@ -231,6 +311,60 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         this.dataFilePattern = dataFilePattern;
     }
 
+    public String getMetadataStoreName() {
+        return metadataStoreName;
+    }
+
+    /**
+     * Sets the store used to keep the metadata of the module revisions in this cache.
+     *
+     * @param metadataStoreName
+     *            {@value #PROPERTIES_METADATA_STORE} to keep them in a properties file per module
+     *            revision, as given by the data file pattern, or {@value #INDEXED_METADATA_STORE}
+     *            to keep them in a single indexed file at the root of the cache
+     */
+    public void setMetadataStore(String metadataStoreName) {
+        if (!PROPERTIES_METADATA_STORE.equals(metadataStoreName)
+                && !INDEXED_METADATA_STORE.equals(metadataStoreName)) {
+            throw new IllegalArgumentException("unknown cache metadata store '"
+                    + metadataStoreName + "': use '" + PROPERTIES_METADATA_STORE + "' or '"
+                    + INDEXED_METADATA_STORE + "'");
+        }
+        resetMetadataStore();
+        this.metadataStoreName = metadataStoreName;
+    }
+
+    /**
+     * Sets the store used to keep the metadata of the module revisions in this cache.
+     *
+     * @param metadataStore
+     *            the store to use
+     */
+    public void setMetadataStore(CacheMetadataStore metadataStore) {
+        resetMetadataStore();
+        this.metadataStoreName = null;
+        this.metadataStore = metadataStore;
+    }
+
+    public synchronized CacheMetadataStore getMetadataStore() {
+        if (metadataStore == null) {
+            if (INDEXED_METADATA_STORE.equals(metadataStoreName)) {
+                metadataStore = new IndexedCacheMetadataStore(new File(getRepositoryCacheRoot(),
+                        INDEXED_METADATA_STORE_FILE), getRepositoryCacheRoot());
+            } else {
+                metadataStore = new PropertiesCacheMetadataStore(getRepositoryCacheRoot());
+            }
+        }
+        return metadataStore;
+    }
+
+    private synchronized void resetMetadataStore() {
+        if (metadataStore != null) {
+            metadataStore.close();
+            metadataStore = null;
+        }
+    }
+
     public void setIvyPattern(String ivyPattern) {
         CacheUtil.checkCachePattern(ivyPattern);
         this.ivyPattern = ivyPattern;
@@ -277,15 +411,108 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         this.configuredTTLs.add(configuredTTL);
     }
 
-    public void setMemorySize(int size) {
-        memoryModuleDescrCache = new ModuleDescriptorMemoryCache(size);
+    public void addMissingTTL(Map<String, String> attributes, PatternMatcher matcher,
+            long duration) {
+        missingTtlRules.defineRule(new MapMatcher(attributes, matcher), duration);
+    }
+
+    public void addConfiguredMissingTtl(final Map<String, String> attributes) {
+        final String durationValue = attributes.get("duration");
+        if (durationValue == null) {
+            throw new IllegalArgumentException("'duration' attribute is mandatory for missingTtl");
+        }
+        // processed when the settings are available, like the configured TTLs
+        this.configuredMissingTTLs.add(new ConfiguredTTL(parseDuration(durationValue),
+                attributes.get("matcher"), attributes));
+    }
+
+    public void addListingTTL(Map<String, String> attributes, PatternMatcher matcher,
+            long duration) {
+        listingTtlRules.defineRule(new MapMatcher(attributes, matcher), duration);
+    }
+
+    public void addConfiguredListingTtl(final Map<String, String> attributes) {
+        final String durationValue = attributes.get("duration");
+        if (durationValue == null) {
+            throw new IllegalArgumentException("'duration' attribute is mandatory for listingTtl");
+        }
+        // processed when the settings are available, like the configured TTLs
+        this.configuredListingTTLs.add(new ConfiguredTTL(parseDuration(durationValue),
+                attributes.get("matcher"), attributes));
+    }
+
+    public synchronized void setMemorySize(int size) {
+        memorySize = size;
+        memoryModuleDescrCache = null;
+    }
+
+    /**
+     * Sets the maximum estimated heap size of the module descriptors kept in the memory cache.
+     *
+     * @param maxHeapSize
+     *            a size in bytes, optionally followed by k, m or g, 0 for no limit
+     */
+    public synchronized void setMemoryMaxHeapSize(String maxHeapSize) {
+        memoryMaxHeapSize = parseSize(maxHeapSize);
+        memoryModuleDescrCache = null;
+    }
+
+    /**
+     * Sets whether the module descriptors parsed from the cache should be kept in a serialized
+     * form next to their files, so that later resolves don't have to parse them again.
+     *
+     * @param serializeDescriptors
+     *            <code>true</code> to serialize the module descriptors
+     */
+    public void setSerializeDescriptors(boolean serializeDescriptors) {
+        this.serializeDescriptors = serializeDescriptors;
+    }
+
+    public boolean isSerializeDescriptors() {
+        return serializeDescriptors;
     }
 
     public ModuleDescriptorMemoryCache getMemoryCache() {
-        if (memoryModuleDescrCache == null) {
-            memoryModuleDescrCache = new ModuleDescriptorMemoryCache(DEFAULT_MEMORY_CACHE_SIZE);
+        ModuleDescriptorMemoryCache cache = memoryModuleDescrCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = memoryModuleDescrCache;
+                if (cache == null) {
+                    cache = new ModuleDescriptorMemoryCache(memorySize, memoryMaxHeapSize);
+                    memoryModuleDescrCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @return the hits, misses, evictions and invalidations of the memory cache of the module
+     *         descriptors since it has been created, along with its current size
+     */
+    public MemoryCacheStatistics getMemoryCacheStatistics() {
+        return getMemoryCache().getStatistics();
+    }
+
+    private static final Pattern SIZE_PATTERN = Pattern.compile("(\\d+) ?([kKmMgG]?)");
+
+    private long parseSize(String size) {
+        java.util.regex.Matcher m = SIZE_PATTERN.matcher(size.trim());
+        if (!m.matches()) {
+            throw new IllegalArgumentException("invalid size '" + size
+                    + "': it must be a number of bytes, optionally followed by k, m or g");
+        }
+        long bytes = Long.parseLong(m.group(1));
+        switch (m.group(2).toLowerCase(Locale.US)) {
+            case "k":
+                return bytes * 1024;
+            case "m":
+                return bytes * 1024 * 1024;
+            case "g":
+                return bytes * 1024 * 1024 * 1024;
+            default:
+                return bytes;
         }
-        return memoryModuleDescrCache;
     }
 
     private static final Pattern DURATION_PATTERN = Pattern
@@ -436,7 +663,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
      */
     private void saveResolver(ModuleDescriptor md, String name) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(md);
+        CachedData cdf = getCachedDataFile(md);
         cdf.setProperty("resolver", name);
         cdf.save();
     }
@@ -460,7 +687,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             return;
         }
         try {
-            PropertiesFile cdf = getCachedDataFile(md);
+            CachedData cdf = getCachedDataFile(md);
             cdf.setProperty("resolver", metadataResolverName);
             cdf.setProperty("artifact.resolver", artifactResolverName);
             cdf.save();
@@ -471,19 +698,19 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private String getSavedResolverName(ModuleDescriptor md) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(md);
+        CachedData cdf = getCachedDataFile(md);
         return cdf.getProperty("resolver");
     }
 
     private String getSavedArtResolverName(ModuleDescriptor md) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(md);
+        CachedData cdf = getCachedDataFile(md);
         return cdf.getProperty("artifact.resolver");
     }
 
     void saveArtifactOrigin(Artifact artifact, ArtifactOrigin origin) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
+        CachedData cdf = getCachedDataFile(artifact.getModuleRevisionId());
         cdf.setProperty(getIsLocalKey(artifact), String.valueOf(origin.isLocal()));
         cdf.setProperty(getLocationKey(artifact), origin.getLocation());
         cdf.setProperty(getOriginalKey(artifact), getPrefixKey(origin.getArtifact()));
@@ -491,16 +718,29 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             cdf.setProperty(getLastCheckedKey(artifact), origin.getLastChecked().toString());
         }
         cdf.setProperty(getExistsKey(artifact), Boolean.toString(origin.isExists()));
+        // validators of a previous download must not be kept, they don't match the new content
+        if (origin.getETag() != null) {
+            cdf.setProperty(getETagKey(artifact), origin.getETag());
+        } else {
+            cdf.remove(getETagKey(artifact));
+        }
+        if (origin.getLastModified() != null) {
+            cdf.setProperty(getLastModifiedKey(artifact), origin.getLastModified().toString());
+        } else {
+            cdf.remove(getLastModifiedKey(artifact));
+        }
         cdf.save();
     }
 
     private void removeSavedArtifactOrigin(Artifact artifact) {
         // should always be called with a lock on module metadata artifact
-        PropertiesFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
+        CachedData cdf = getCachedDataFile(artifact.getModuleRevisionId());
         cdf.remove(getLocationKey(artifact));
         cdf.remove(getIsLocalKey(artifact));
         cdf.remove(getLastCheckedKey(artifact));
         cdf.remove(getOriginalKey(artifact));
+        cdf.remove(getETagKey(artifact));
+        cdf.remove(getLastModifiedKey(artifact));
         cdf.save();
     }
 
@@ -514,12 +754,14 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             return ArtifactOrigin.unknown(artifact);
         }
         try {
-            PropertiesFile cdf = getCachedDataFile(artifact.getModuleRevisionId());
+            CachedData cdf = getCachedDataFile(artifact.getModuleRevisionId());
             String location = cdf.getProperty(getLocationKey(artifact));
             String local = cdf.getProperty(getIsLocalKey(artifact));
             String lastChecked = cdf.getProperty(getLastCheckedKey(artifact));
             String exists = cdf.getProperty(getExistsKey(artifact));
             String original = cdf.getProperty(getOriginalKey(artifact));
+            String etag = cdf.getProperty(getETagKey(artifact));
+            String lastModified = cdf.getProperty(getLastModifiedKey(artifact));
 
             boolean isLocal = Boolean.valueOf(local);
 
@@ -602,6 +844,10 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             if (exists != null) {
                 origin.setExist(Boolean.valueOf(exists));
             }
+            origin.setETag(etag);
+            if (lastModified != null) {
+                origin.setLastModified(Long.valueOf(lastModified));
+            }
 
             return origin;
         } finally {
@@ -667,6 +913,28 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         return getPrefixKey(artifact) + ".exists";
     }
 
+    /**
+     * Returns the key used to identify the entity tag of the remote artifact.
+     *
+     * @param artifact
+     *            the artifact to generate the key from. Cannot be null.
+     * @return the key to be used to reference the entity tag of the artifact.
+     */
+    private String getETagKey(Artifact artifact) {
+        return getPrefixKey(artifact) + ".etag";
+    }
+
+    /**
+     * Returns the key used to identify the last modification date of the remote artifact.
+     *
+     * @param artifact
+     *            the artifact to generate the key from. Cannot be null.
+     * @return the key to be used to reference the last modification date of the artifact.
+     */
+    private String getLastModifiedKey(Artifact artifact) {
+        return getPrefixKey(artifact) + ".lastmodified";
+    }
+
     /**
      * Returns the key used to identify the original artifact.
      *
@@ -678,24 +946,56 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         return getPrefixKey(artifact) + ".original";
     }
 
-    private PropertiesFile getCachedDataFile(ModuleDescriptor md) {
+    /**
+     * Returns the key used to record that the artifact has been found missing.
+     *
+     * @param artifact
+     *            the artifact to generate the key from. Cannot be null.
+     * @param missingKey
+     *            the key identifying where the artifact has been looked for
+     * @return the key to be used to reference the time the artifact was found missing.
+     */
+    private String getMissingKey(Artifact artifact, String missingKey) {
+        return getPrefixKey(artifact) + ".missing." + missingKey;
+    }
+
+    private CachedData getCachedDataFile(ModuleDescriptor md) {
         return getCachedDataFile(md.getResolvedModuleRevisionId());
     }
 
-    private PropertiesFile getCachedDataFile(ModuleRevisionId mRevId) {
-        return new PropertiesFile(new File(getRepositoryCacheRoot(), IvyPatternHelper.substitute(
-            getDataFilePattern(), mRevId)), "ivy cached data file for " + mRevId);
+    private CachedData getCachedDataFile(ModuleRevisionId mRevId) {
+        return new CachedData(IvyPatternHelper.substitute(getDataFilePattern(), mRevId),
+                "ivy cached data file for " + mRevId);
     }
 
     /**
      * A resolver-specific ivydata file, only used for caching dynamic revisions, e.g.
      * integration-repo.
      */
-    private PropertiesFile getCachedDataFile(String resolverName, ModuleRevisionId mRevId) {
+    private CachedData getCachedDataFile(String resolverName, ModuleRevisionId mRevId) {
         // we append ".${resolverName} onto the end of the regular ivydata location
-        return new PropertiesFile(new File(getRepositoryCacheRoot(),
-                IvyPatternHelper.substitute(getDataFilePattern(), mRevId) + "." + resolverName),
-                "ivy cached data file for " + mRevId);
+        return new CachedData(IvyPatternHelper.substitute(getDataFilePattern(), mRevId) + "."
+                + resolverName, "ivy cached data file for " + mRevId);
+    }
+
+    /**
+     * The metadata of a module revision, as loaded from the metadata store of this cache.
+     */
+    @SuppressWarnings("serial")
+    private final class CachedData extends Properties {
+        private final String key;
+
+        private final String comment;
+
+        private CachedData(String key, String comment) {
+            this.key = key;
+            this.comment = comment;
+            putAll(getMetadataStore().load(key));
+        }
+
+        public void save() {
+            getMetadataStore().save(key, this, comment);
+        }
     }
 
     public ResolvedModuleRevision findModuleInCache(DependencyDescriptor dd,
@@ -833,13 +1133,20 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
         private final ParserSettings settings;
 
-        public MyModuleDescriptorProvider(ModuleDescriptorParser mdParser, ParserSettings settings) {
+        private final boolean serialize;
+
+        public MyModuleDescriptorProvider(ModuleDescriptorParser mdParser, ParserSettings settings,
+                boolean serialize) {
             this.mdParser = mdParser;
             this.settings = settings;
+            this.serialize = serialize;
         }
 
         public ModuleDescriptor provideModule(ParserSettings ivySettings, File descriptorURL,
                 boolean validate) throws ParseException, IOException {
+            if (serialize && mdParser == XmlModuleDescriptorParser.getInstance()) {
+                return ModuleDescriptorDiskCache.get(descriptorURL, settings, validate, mdParser);
+            }
             return mdParser.parseDescriptor(settings, descriptorURL.toURI().toURL(), validate);
         }
     }
@@ -847,7 +1154,8 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     private ModuleDescriptor getMdFromCache(ModuleDescriptorParser mdParser,
             CacheMetadataOptions options, File ivyFile) throws ParseException, IOException {
         ModuleDescriptorMemoryCache cache = getMemoryCache();
-        ModuleDescriptorProvider mdProvider = new MyModuleDescriptorProvider(mdParser, settings);
+        ModuleDescriptorProvider mdProvider = new MyModuleDescriptorProvider(mdParser, settings,
+                serializeDescriptors);
         return cache.get(ivyFile, settings, options.isValidate(), mdProvider);
     }
 
@@ -855,8 +1163,9 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             CacheMetadataOptions options, File ivyFile, ParserSettings parserSettings)
             throws ParseException, IOException {
         ModuleDescriptorMemoryCache cache = getMemoryCache();
+        // the downloaded file may be the original one, which is left alone in its repository
         ModuleDescriptorProvider mdProvider = new MyModuleDescriptorProvider(mdParser,
-                parserSettings);
+                parserSettings, false);
         return cache.getStale(ivyFile, settings, options.isValidate(), mdProvider);
     }
 
@@ -875,7 +1184,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                 return null;
             }
             // If a resolver is asking for its specific dynamic revision, avoid looking at a different one
-            PropertiesFile cachedResolvedRevision;
+            CachedData cachedResolvedRevision;
             if (expectedResolver != null) {
                 cachedResolvedRevision = getCachedDataFile(expectedResolver, mrid);
             } else {
@@ -919,7 +1228,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             return;
         }
         try {
-            PropertiesFile cachedResolvedRevision;
+            CachedData cachedResolvedRevision;
             if (resolverName == null) {
                 cachedResolvedRevision = getCachedDataFile(mrid);
             } else {
@@ -937,11 +1246,217 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         }
     }
 
+    /**
+     * Returns until when what has been resolved for the given dependency is taken from this cache
+     * without checking the repository.
+     *
+     * @param dd
+     *            the dependency
+     * @param resolverName
+     *            the name of the resolver which has resolved the dependency
+     * @param options
+     *            the cache options of this resolver
+     * @return the expiration date in milliseconds, 0 if the repository is checked on each resolve
+     *         because the dependency is changing or modifications are checked, and
+     *         {@link Long#MAX_VALUE} if the cached data never expires
+     */
+    public long getCacheExpiration(DependencyDescriptor dd, String resolverName,
+            CacheMetadataOptions options) {
+        ModuleRevisionId mrid = dd.getDependencyRevisionId();
+        if (isChanging(dd, mrid, options) || isCheckmodified(dd, mrid, options)) {
+            return 0;
+        }
+        if (!settings.getVersionMatcher().isDynamic(mrid)) {
+            return Long.MAX_VALUE;
+        }
+        if (!lockMetadataArtifact(mrid)) {
+            Message.error("impossible to acquire lock for " + mrid);
+            return 0;
+        }
+        try {
+            String resolvedTime = getCachedDataFile(resolverName, mrid).getProperty(
+                "resolved.time");
+            if (resolvedTime == null) {
+                resolvedTime = getCachedDataFile(mrid).getProperty("resolved.time");
+            }
+            if (resolvedTime == null) {
+                return 0;
+            }
+            long expiration = Long.parseLong(resolvedTime) + getTTL(mrid);
+            // negative expiration means that Long.MAX_VALUE has been exceeded
+            return expiration < 0 ? Long.MAX_VALUE : expiration;
+        } finally {
+            unlockMetadataArtifact(mrid);
+        }
+    }
+
     public long getTTL(ModuleRevisionId mrid) {
         Long ttl = ttlRules.getRule(mrid);
         return ttl == null ? getDefaultTTL() : ttl;
     }
 
+    /**
+     * Returns the time during which an artifact of the given module revision found missing isn't
+     * looked for again, 0 meaning misses are not recorded.
+     *
+     * @param mrid
+     *            the module revision
+     * @return the missing TTL in milliseconds
+     */
+    public long getMissingTTL(ModuleRevisionId mrid) {
+        Long ttl = missingTtlRules.getRule(mrid);
+        return ttl == null ? getDefaultMissingTTL() : ttl;
+    }
+
+    public boolean isMissing(Artifact artifact, String missingKey) {
+        ModuleRevisionId mrid = artifact.getModuleRevisionId();
+        long ttl = getMissingTTL(mrid);
+        if (ttl <= 0) {
+            return false;
+        }
+        if (!lockMetadataArtifact(mrid)) {
+            Message.error("impossible to acquire lock for " + mrid);
+            return false;
+        }
+        try {
+            String missingTime = getCachedDataFile(mrid).getProperty(
+                getMissingKey(artifact, missingKey));
+            if (missingTime == null) {
+                return false;
+            }
+            long elapsed = System.currentTimeMillis() - Long.parseLong(missingTime);
+            if (elapsed >= 0 && elapsed < ttl) {
+                Message.verbose("\t" + artifact + " found missing by " + missingKey + " "
+                        + elapsed + "ms ago: not looking for it again");
+                return true;
+            }
+            return false;
+        } catch (NumberFormatException e) {
+            Message.debug(e);
+            return false;
+        } finally {
+            unlockMetadataArtifact(mrid);
+        }
+    }
+
+    public void saveMissing(Artifact artifact, String missingKey) {
+        ModuleRevisionId mrid = artifact.getModuleRevisionId();
+        if (getMissingTTL(mrid) <= 0) {
+            return;
+        }
+        if (!lockMetadataArtifact(mrid)) {
+            Message.error("impossible to acquire lock for " + mrid);
+            return;
+        }
+        try {
+            CachedData cdf = getCachedDataFile(mrid);
+            cdf.setProperty(getMissingKey(artifact, missingKey),
+                String.valueOf(System.currentTimeMillis()));
+            cdf.save();
+        } finally {
+            unlockMetadataArtifact(mrid);
+        }
+    }
+
+    /**
+     * Returns the time during which the listings of the revisions of the given module are taken
+     * from this cache without checking the repository, 0 meaning listings are not cached.
+     *
+     * @param mrid
+     *            the module, whose revision is ignored
+     * @return the listing TTL in milliseconds
+     */
+    public long getListingTTL(ModuleRevisionId mrid) {
+        Long ttl = listingTtlRules.getRule(getListingRevisionId(mrid));
+        return ttl == null ? getDefaultListingTTL() : ttl;
+    }
+
+    public String[] getListing(String resolverName, ModuleRevisionId mrid, String location,
+            Resource resource) {
+        long ttl = getListingTTL(mrid);
+        if (ttl <= 0) {
+            return null;
+        }
+        ModuleRevisionId listingMrid = getListingRevisionId(mrid);
+        if (!lockMetadataArtifact(listingMrid)) {
+            Message.error("impossible to acquire lock for " + listingMrid);
+            return null;
+        }
+        try {
+            CachedData cdf = getCachedDataFile(resolverName, listingMrid);
+            String key = getListingKey(location);
+            String listing = cdf.getProperty(key);
+            String listingTime = cdf.getProperty(key + ".time");
+            if (listing == null || listingTime == null) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            long elapsed = now - Long.parseLong(listingTime);
+            if (elapsed < 0 || elapsed >= ttl) {
+                // the listing has expired: it is still valid if what was listed hasn't changed
+                long lastModified = Long.parseLong(cdf.getProperty(key + ".lastmodified", "0"));
+                if (lastModified <= 0 || resource == null
+                        || resource.getLastModified() != lastModified) {
+                    Message.verbose("\t" + getName() + ": cached listing expired for " + location);
+                    return null;
+                }
+                Message.verbose("\t" + location + " not modified: keeping its cached listing");
+                cdf.setProperty(key + ".time", String.valueOf(now));
+                cdf.save();
+            } else {
+                Message.debug("\tusing listing of " + location + " cached " + elapsed + "ms ago");
+            }
+            return listing.isEmpty() ? new String[0] : listing.split("\n");
+        } catch (NumberFormatException e) {
+            Message.debug(e);
+            return null;
+        } finally {
+            unlockMetadataArtifact(listingMrid);
+        }
+    }
+
+    public void saveListing(String resolverName, ModuleRevisionId mrid, String location,
+            Resource resource, String[] values) {
+        if (getListingTTL(mrid) <= 0) {
+            return;
+        }
+        ModuleRevisionId listingMrid = getListingRevisionId(mrid);
+        if (!lockMetadataArtifact(listingMrid)) {
+            Message.error("impossible to acquire lock for " + listingMrid);
+            return;
+        }
+        try {
+            StringBuilder listing = new StringBuilder();
+            for (String value : values) {
+                if (listing.length() > 0) {
+                    listing.append('\n');
+                }
+                listing.append(value);
+            }
+            CachedData cdf = getCachedDataFile(resolverName, listingMrid);
+            String key = getListingKey(location);
+            cdf.setProperty(key, listing.toString());
+            cdf.setProperty(key + ".time", String.valueOf(System.currentTimeMillis()));
+            cdf.setProperty(key + ".lastmodified",
+                String.valueOf(resource == null ? 0 : resource.getLastModified()));
+            cdf.save();
+        } finally {
+            unlockMetadataArtifact(listingMrid);
+        }
+    }
+
+    /**
+     * The listings of the revisions of a module are shared by all its revisions, and kept in the
+     * metadata of a pseudo revision of the module.
+     */
+    private ModuleRevisionId getListingRevisionId(ModuleRevisionId mrid) {
+        return ModuleRevisionId.newInstance(mrid, "listing");
+    }
+
+    private String getListingKey(String location) {
+        return "listing." + location;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -1002,6 +1517,11 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                 adr.setSize(archiveFile.length());
                 adr.setArtifactOrigin(origin);
                 adr.setLocalFile(archiveFile);
+            } else if (options.getMissingKey() != null && !options.isForce()
+                    && isMissing(artifact, options.getMissingKey())) {
+                adr.setDownloadStatus(DownloadStatus.FAILED);
+                adr.setDownloadDetails(ArtifactDownloadReport.MISSING_ARTIFACT);
+                adr.setMissingCached(true);
             } else {
                 long start = System.currentTimeMillis();
                 try {
@@ -1034,6 +1554,9 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                             }
 
                             resourceDownloader.download(artifact, artifactRes, archiveFile);
+                            if (artifactRes instanceof URLResource) {
+                                origin.setETag(((URLResource) artifactRes).getETag());
+                            }
                             adr.setSize(archiveFile.length());
                             saveArtifactOrigin(artifact, origin);
                             adr.setDownloadTimeMillis(System.currentTimeMillis() - start);
@@ -1045,6 +1568,9 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                         adr.setDownloadStatus(DownloadStatus.FAILED);
                         adr.setDownloadDetails(ArtifactDownloadReport.MISSING_ARTIFACT);
                         adr.setDownloadTimeMillis(System.currentTimeMillis() - start);
+                        if (options.getMissingKey() != null) {
+                            saveMissing(artifact, options.getMissingKey());
+                        }
                     }
                 } catch (Exception ex) {
                     Message.debug(ex);
@@ -1112,11 +1638,18 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
             ArtifactOrigin origin = new ArtifactOrigin(artifact, resource.isLocal(),
                     resource.getName());
+            // when the validators of the cached file are known, it is revalidated with a
+            // conditional download rather than by comparing its last modification date, which is
+            // only possible with HTTP resources
+            boolean conditional = repository instanceof URLRepository
+                    && ((URLRepository) repository).isConditionalGetSupported(resource.getName());
+            boolean revalidate = !options.isForce() && archiveFile.exists() && conditional
+                    && savedOrigin.hasValidators();
 
             if (!options.isForce()
             // if the local file has been checked to be up to date enough recently, don't download
                     && checkCacheUptodate(archiveFile, resource, savedOrigin, origin,
-                        options.getTtl())) {
+                        options.getTtl(), !revalidate)) {
                 if (archiveFile.exists()) {
                     saveArtifactOrigin(artifact, origin);
                     adr.setDownloadStatus(DownloadStatus.NO);
@@ -1147,26 +1680,56 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                         }
 
                         // actual download
-                        if (archiveFile.exists()) {
+                        if (archiveFile.exists() && !revalidate) {
                             archiveFile.delete();
                         }
                         File part = new File(archiveFile.getAbsolutePath() + ".part");
-                        repository.get(resource.getName(), part);
-                        if (!part.renameTo(archiveFile)) {
-                            throw new IOException(
-                                    "impossible to move part file to definitive one: " + part
-                                            + " -> " + archiveFile);
+                        URLInfo info = null;
+                        if (conditional) {
+                            info = ((URLRepository) repository).getIfModified(
+                                resource.getName(), part,
+                                revalidate ? savedOrigin.getETag() : null,
+                                revalidate && savedOrigin.getLastModified() != null
+                                        ? savedOrigin.getLastModified() : 0);
+                        } else {
+                            repository.get(resource.getName(), part);
+                        }
+                        if (revalidate && info == null) {
+                            // not modified since it has been cached
+                            Message.verbose("\t" + resource + " has not been modified");
+                            origin.setETag(savedOrigin.getETag());
+                            origin.setLastModified(savedOrigin.getLastModified());
+                            adr.setDownloadStatus(DownloadStatus.NO);
+                        } else {
+                            if (info != null) {
+                                origin.setETag(info.getETag());
+                                if (info.getLastModified() > 0) {
+                                    origin.setLastModified(info.getLastModified());
+                                }
+                            }
+                            if (archiveFile.exists()) {
+                                archiveFile.delete();
+                            }
+                            if (!part.renameTo(archiveFile)) {
+                                throw new IOException(
+                                        "impossible to move part file to definitive one: " + part
+                                                + " -> " + archiveFile);
+                            }
+                            adr.setDownloadStatus(DownloadStatus.SUCCESSFUL);
                         }
 
                         adr.setSize(archiveFile.length());
                         saveArtifactOrigin(artifact, origin);
                         adr.setDownloadTimeMillis(System.currentTimeMillis() - start);
-                        adr.setDownloadStatus(DownloadStatus.SUCCESSFUL);
                         adr.setArtifactOrigin(origin);
                         adr.setLocalFile(archiveFile);
                     }
                 } catch (Exception ex) {
                     Message.debug(ex);
+                    if (revalidate) {
+                        // the cached file can't be trusted anymore
+                        archiveFile.delete();
+                    }
                     origin.setExist(false);
                     saveArtifactOrigin(artifact, origin);
                     adr.setDownloadStatus(DownloadStatus.FAILED);
@@ -1207,17 +1770,21 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
      *            the origin in which to store the new last checked date
      * @param ttl
      *            the time to live to consider the cache up to date
+     * @param compareLastModified
+     *            <code>false</code> if, once the time to live is over, the cache must not be
+     *            compared to the remote resource because it will be revalidated otherwise
      * @return <code>true</code> if the cache is considered up to date
      */
     private boolean checkCacheUptodate(File archiveFile, Resource resource,
-            ArtifactOrigin savedOrigin, ArtifactOrigin origin, long ttl) {
+            ArtifactOrigin savedOrigin, ArtifactOrigin origin, long ttl,
+            boolean compareLastModified) {
         long time = System.currentTimeMillis();
         if (savedOrigin.getLastChecked() != null
                 && (time - savedOrigin.getLastChecked()) < ttl) {
             // still in the ttl period, no need to check, trust the cache
             return archiveFile.exists() || !savedOrigin.isExists();
         }
-        if (!archiveFile.exists()) {
+        if (!archiveFile.exists() || !compareLastModified) {
             // the the file doesn't exist in the cache, obviously not up to date
             return false;
         }
@@ -1226,6 +1793,28 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         return archiveFile.lastModified() >= resource.getLastModified();
     }
 
+    /**
+     * Compares the entity tag of a remote resource with the one it had when it was cached.
+     *
+     * @param resource
+     *            the remote resource
+     * @param artifact
+     *            the artifact the resource has been cached as
+     * @return whether the entity tags are the same, or <code>null</code> if one of them is
+     *         unknown
+     */
+    private Boolean isSameETag(Resource resource, Artifact artifact) {
+        if (!(resource instanceof URLResource)) {
+            return null;
+        }
+        String etag = ((URLResource) resource).getETag();
+        String savedETag = getSavedArtifactOrigin(artifact).getETag();
+        if (etag == null || savedETag == null) {
+            return null;
+        }
+        return etag.equals(savedETag);
+    }
+
     public void originalToCachedModuleDescriptor(DependencyResolver resolver,
                                                  ResolvedResource originalMetadataRef, Artifact requestedMetadataArtifact,
                                                  ResolvedModuleRevision rmr, ModuleDescriptorWriter writer) {
@@ -1241,6 +1830,8 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         try {
             File originalFileInCache = getArchiveFileInCache(originalMetadataArtifact);
             writer.write(originalMetadataRef, md, originalFileInCache, mdFileInCache);
+            // the serialized descriptor may not see the change if the file has kept its size
+            ModuleDescriptorDiskCache.getFile(mdFileInCache).delete();
 
             getMemoryCache().putInCache(mdFileInCache, new ParserSettingsMonitor(settings), true,
                 md);
@@ -1319,7 +1910,11 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                     }
                     long repLastModified = mdRef.getLastModified();
                     long cacheLastModified = rmr.getDescriptor().getLastModified();
-                    if (!rmr.getDescriptor().isDefault() && repLastModified <= cacheLastModified) {
+                    // the entity tags, when known, are more reliable than the dates
+                    Boolean sameETag = isSameETag(mdRef.getResource(),
+                        getOriginalMetadataArtifact(moduleArtifact));
+                    if (!rmr.getDescriptor().isDefault() && (sameETag != null ? sameETag
+                            : repLastModified <= cacheLastModified)) {
                         Message.verbose("\t" + getName() + ": revision in cache (not updated): "
                                 + mrid);
                         rmr.getReport().setSearched(true);
@@ -1522,6 +2117,7 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     }
 
     public void clean() {
+        resetMetadataStore();
         FileUtil.forceDelete(getBasedir());
     }
 
@@ -1530,6 +2126,12 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         Message.debug("\t\tivyPattern: " + getIvyPattern());
         Message.debug("\t\tartifactPattern: " + getArtifactPattern());
         Message.debug("\t\tlockingStrategy: " + getLockStrategy().getName());
+        Message.debug("\t\tmetadataStore: " + getMetadataStore());
+        Message.debug("\t\tmemorySize: " + memorySize);
+        Message.debug("\t\tmemoryMaxHeapSize: " + memoryMaxHeapSize);
+        Message.debug("\t\tserializeDescriptors: " + serializeDescriptors);
+        Message.debug("\t\tdefaultMissingTTL: " + getDefaultMissingTTL());
+        Message.debug("\t\tdefaultListingTTL: " + getDefaultListingTTL());
         Message.debug("\t\tchangingPattern: " + getChangingPattern());
         Message.debug("\t\tchangingMatcher: " + getChangingMatcherName());
     }
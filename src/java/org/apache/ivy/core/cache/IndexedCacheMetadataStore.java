@@ -0,0 +1,498 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.apache.ivy.util.Message;
+import org.apache.ivy.util.PropertiesFile;
+
+/**
+ * A {@link CacheMetadataStore} keeping the metadata of all the module revisions of a cache in a
+ * single append-only file.
+ * <p>
+ * Each save appends a record holding the whole metadata of a key, and an index of the last record
+ * of each key is kept in memory, so that loading metadata only reads a record from the file.
+ * Records appended by other stores are indexed before the file is read or written, reading only
+ * the part of the file appended since it was last indexed, and appends are done under an exclusive
+ * lock on the file, held by one store of this process at a time. Once the file is bigger than
+ * {@value #MIN_COMPACTION_SIZE} bytes and mostly contains records which have been superseded, it is
+ * compacted by rewriting the last record of each key to a new file, which replaces the old one.
+ * A compaction marker is then appended to the old file, so that the stores still reading it notice
+ * the replacement when indexing its tail, without having to check the file on each load.
+ * </p>
+ * <p>
+ * When the store is given the root of the properties files of the cache, the metadata of a key
+ * which isn't in the file is imported from its properties file, if any, the first time it is
+ * loaded, so that a cache whose metadata was kept in properties files is migrated as it is used.
+ * </p>
+ * <p>
+ * A record is made of its length, the CRC32 checksum of its content, then its content: the key
+ * and the number of properties, followed by the name and value of each property. Records which
+ * are truncated or corrupted, for instance by a crash during a save, are ignored and overwritten
+ * by the next save.
+ * </p>
+ */
+public class IndexedCacheMetadataStore implements CacheMetadataStore {
+    private static final byte[] MAGIC = "IVYMETA1".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * The length of the record appended to a file which has been replaced by a compaction.
+     */
+    private static final int COMPACTED_MARKER = -1;
+
+    private static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    /**
+     * File locks are held by the entire process, and locking a file already locked by this process
+     * fails instead of waiting: the stores of this process writing a same file are serialized by a
+     * lock shared by all of them. There is one such lock per metadata file, i.e. per cache.
+     */
+    private static final ConcurrentMap<File, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final File file;
+
+    private final File propertiesRoot;
+
+    private final ReentrantLock processLock;
+
+    private RandomAccessFile raf;
+
+    private FileChannel channel;
+
+    private Object fileKey;
+
+    /**
+     * The size of the part of the file which has been indexed, where the next record is appended.
+     */
+    private long indexedSize;
+
+    private long liveSize;
+
+    private final Map<String, Location> index = new HashMap<>();
+
+    /**
+     * The keys whose properties file has already been looked for, to import it.
+     */
+    private final Set<String> importedKeys = new HashSet<>();
+
+    /**
+     * The location of a record in the file.
+     */
+    private static final class Location {
+        private final long offset;
+
+        private final int size;
+
+        private Location(long offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+
+    public IndexedCacheMetadataStore(File file) {
+        this(file, null);
+    }
+
+    /**
+     * @param file
+     *            the file keeping the metadata
+     * @param propertiesRoot
+     *            the root of the properties files from which the metadata missing in the file is
+     *            imported, the keys being their paths relative to it, or <code>null</code> to
+     *            import nothing
+     */
+    public IndexedCacheMetadataStore(File file, File propertiesRoot) {
+        this.file = file;
+        this.propertiesRoot = propertiesRoot;
+        this.processLock = getProcessLock(file.getAbsoluteFile());
+    }
+
+    private static ReentrantLock getProcessLock(File file) {
+        ReentrantLock lock = PROCESS_LOCKS.get(file);
+        if (lock == null) {
+            ReentrantLock newLock = new ReentrantLock();
+            lock = PROCESS_LOCKS.putIfAbsent(file, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized Properties load(String key) {
+        Properties data = new Properties();
+        try {
+            refresh();
+            Location location = index.get(key);
+            if (location != null) {
+                readRecord(location, data);
+            } else {
+                importProperties(key, data);
+            }
+        } catch (IOException ex) {
+            Message.warn("exception occurred while reading cache metadata from " + file, ex);
+            close();
+        }
+        return data;
+    }
+
+    public synchronized void save(String key, Properties data, String comment) {
+        try {
+            append(key, data, false);
+        } catch (IOException ex) {
+            Message.warn("exception occurred while writing cache metadata to " + file, ex);
+            close();
+        }
+    }
+
+    /**
+     * Appends a record holding the given metadata of a key. If <code>onlyIfAbsent</code> is true,
+     * nothing is appended when the file already has a record of this key.
+     */
+    private void append(String key, Properties data, boolean onlyIfAbsent) throws IOException {
+        byte[] record = toRecord(key, data);
+        processLock.lock();
+        try {
+            FileLock lock = lockCurrentFile();
+            try {
+                // index the records appended by other stores, and overwrite a broken tail
+                indexNewRecords();
+                if (onlyIfAbsent && index.containsKey(key)) {
+                    return;
+                }
+                channel.truncate(indexedSize);
+                channel.write(ByteBuffer.wrap(record), indexedSize);
+                indexRecord(key, new Location(indexedSize, record.length));
+                if (indexedSize > MIN_COMPACTION_SIZE && liveSize < indexedSize / 2) {
+                    compact();
+                }
+            } finally {
+                if (lock.isValid()) {
+                    lock.release();
+                }
+            }
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    /**
+     * Imports the metadata of a key which isn't in the file from its properties file, if it
+     * exists and hasn't already been looked for.
+     */
+    private void importProperties(String key, Properties data) throws IOException {
+        if (propertiesRoot == null || !importedKeys.add(key)) {
+            return;
+        }
+        File properties = new File(propertiesRoot, key);
+        if (!properties.isFile()) {
+            return;
+        }
+        data.putAll(new PropertiesFile(properties, null));
+        Message.debug("\timporting cache metadata from " + properties);
+        append(key, data, true);
+        Location location = index.get(key);
+        if (location != null) {
+            // another store may have saved this key in the meantime
+            data.clear();
+            readRecord(location, data);
+        }
+    }
+
+    public synchronized void close() {
+        index.clear();
+        importedKeys.clear();
+        indexedSize = 0;
+        liveSize = 0;
+        fileKey = null;
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                // ignored
+            }
+            raf = null;
+            channel = null;
+        }
+    }
+
+    /**
+     * Opens the file if necessary, and indexes the records appended since it has last been read.
+     * The file is opened again if it has been replaced by a compaction done by another store,
+     * which is noticed by the compaction marker appended to the replaced file.
+     */
+    private void refresh() throws IOException {
+        if (channel == null) {
+            open();
+        }
+        if (!indexNewRecords()) {
+            close();
+            open();
+            indexNewRecords();
+        }
+    }
+
+    private boolean isCurrentFile() throws IOException {
+        Object key;
+        try {
+            key = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        // file keys are not available on all platforms, in which case a replaced file can't be
+        // detected, but such platforms don't allow to replace a file in use either
+        return key == null || key.equals(fileKey);
+    }
+
+    private void open() throws IOException {
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        fileKey = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        if (channel.size() < MAGIC.length) {
+            processLock.lock();
+            try {
+                FileLock lock = channel.lock();
+                try {
+                    if (channel.size() < MAGIC.length) {
+                        channel.truncate(0);
+                        channel.write(ByteBuffer.wrap(MAGIC), 0);
+                    }
+                } finally {
+                    lock.release();
+                }
+            } finally {
+                processLock.unlock();
+            }
+        }
+        ByteBuffer magic = read(0, MAGIC.length);
+        if (magic.limit() < MAGIC.length || !Arrays.equals(magic.array(), MAGIC)) {
+            throw new IOException("not a cache metadata file: " + file);
+        }
+        indexedSize = MAGIC.length;
+        liveSize = MAGIC.length;
+    }
+
+    /**
+     * Locks the file for writing, opening it again first if it has been replaced in the meantime.
+     * Must be called with the lock of this process on the file held.
+     */
+    private FileLock lockCurrentFile() throws IOException {
+        while (true) {
+            refresh();
+            FileLock lock = channel.lock();
+            if (isCurrentFile()) {
+                return lock;
+            }
+            // the file has been compacted while waiting for the lock
+            lock.release();
+            close();
+        }
+    }
+
+    /**
+     * Indexes the records appended since the file has last been indexed.
+     *
+     * @return <code>false</code> if the file has been replaced by a compaction
+     */
+    private boolean indexNewRecords() throws IOException {
+        long size = channel.size();
+        if (size < indexedSize) {
+            // the file has been truncated by someone else: index it from scratch
+            index.clear();
+            indexedSize = MAGIC.length;
+            liveSize = MAGIC.length;
+        }
+        if (size == indexedSize) {
+            return true;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("cache metadata file is too big: " + file);
+        }
+        // only the records appended since the last indexing are read
+        long start = indexedSize;
+        ByteBuffer appended = read(start, (int) (size - start));
+        // the file may have been truncated since its size has been read
+        size = start + appended.limit();
+        while (indexedSize + RECORD_HEADER_SIZE <= size) {
+            int position = (int) (indexedSize - start);
+            int length = appended.getInt(position);
+            if (length == COMPACTED_MARKER) {
+                return false;
+            }
+            if (length <= 0 || indexedSize + RECORD_HEADER_SIZE + length > size
+                    || appended.getInt(position + 4) != checksum(appended, position, length)) {
+                break;
+            }
+            String key = readString(appended, position + RECORD_HEADER_SIZE);
+            indexRecord(key, new Location(indexedSize, RECORD_HEADER_SIZE + length));
+        }
+        return true;
+    }
+
+    private void indexRecord(String key, Location location) {
+        Location previous = index.put(key, location);
+        if (previous != null) {
+            liveSize -= previous.size;
+        }
+        indexedSize += location.size;
+        liveSize += location.size;
+    }
+
+    /**
+     * Reads a part of the file, which is shorter than asked if the end of the file is reached. The
+     * file is not memory mapped, since it may be truncated by other stores while mapped, and since
+     * a mapped file can't be replaced on some platforms.
+     */
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        int read = 0;
+        while (bytes.hasRemaining() && read >= 0) {
+            read = channel.read(bytes, offset + bytes.position());
+        }
+        bytes.flip();
+        return bytes;
+    }
+
+    private void readRecord(Location location, Properties data) throws IOException {
+        ByteBuffer record = read(location.offset, location.size);
+        if (record.limit() < location.size) {
+            throw new IOException("truncated record in cache metadata file: " + file);
+        }
+        int position = RECORD_HEADER_SIZE;
+        // skip the key
+        position += 4 + record.getInt(position);
+        int count = record.getInt(position);
+        position += 4;
+        for (int i = 0; i < count; i++) {
+            String name = readString(record, position);
+            position += 4 + record.getInt(position);
+            String value = readString(record, position);
+            position += 4 + record.getInt(position);
+            data.setProperty(name, value);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int offset) {
+        int length = buffer.getInt(offset);
+        return new String(buffer.array(), offset + 4, length, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), offset + RECORD_HEADER_SIZE, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] toRecord(String key, Properties data) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(content);
+        writeString(out, key);
+        out.writeInt(data.size());
+        for (String name : data.stringPropertyNames()) {
+            writeString(out, name);
+            writeString(out, data.getProperty(name));
+        }
+        out.flush();
+        byte[] bytes = content.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bytes.length);
+        record.putInt(bytes.length);
+        record.putInt((int) crc.getValue());
+        record.put(bytes);
+        return record.array();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Rewrites the last record of each key to a new file, which then replaces the current one.
+     * Must be called with the lock on the current file held.
+     */
+    private void compact() throws IOException {
+        File compacted = new File(file.getPath() + ".compact");
+        try (RandomAccessFile out = new RandomAccessFile(compacted, "rw")) {
+            FileChannel outChannel = out.getChannel();
+            outChannel.truncate(0);
+            outChannel.write(ByteBuffer.wrap(MAGIC), 0);
+            long position = MAGIC.length;
+            for (Location location : index.values()) {
+                position += outChannel.write(read(location.offset, location.size), position);
+            }
+        }
+        try {
+            Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            // the file may be in use and not replaceable on some platforms: keep it as is
+            Message.verbose("impossible to compact cache metadata file " + file + ": " + ex);
+            compacted.delete();
+            return;
+        }
+        Message.verbose("compacted cache metadata file " + file);
+        // the stores still reading the replaced file are told to open the compacted one
+        ByteBuffer marker = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        marker.putInt(0, COMPACTED_MARKER);
+        channel.write(marker, indexedSize);
+        // the lock was held on the replaced file, which is released by closing it, the compacted
+        // file being indexed when next accessed
+        close();
+    }
+
+    @Override
+    public String toString() {
+        return "indexed file " + file;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+/**
+ * A snapshot of the statistics of the memory cache of the module descriptors of a
+ * {@link DefaultRepositoryCacheManager}.
+ */
+public final class MemoryCacheStatistics {
+    private final int size;
+
+    private final long heapSize;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long evictions;
+
+    private final long invalidations;
+
+    MemoryCacheStatistics(int size, long heapSize, long hits, long misses, long evictions,
+            long invalidations) {
+        this.size = size;
+        this.heapSize = heapSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * @return the number of module descriptors in the cache
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the estimated heap size of the module descriptors in the cache, in bytes
+     */
+    public long getHeapSize() {
+        return heapSize;
+    }
+
+    /**
+     * @return the number of lookups which found their module descriptor in the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups which didn't find their module descriptor in the cache, or
+     *         found one which had to be parsed again
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of module descriptors removed to keep the cache within its limits
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of module descriptors removed because the file or the settings they have
+     *         been parsed with have changed
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    @Override
+    public String toString() {
+        return "[size=" + size + ", heap=" + heapSize + "B, hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", invalidations=" + invalidations + "]";
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.Map;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptorSerializer;
+import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
+import org.apache.ivy.plugins.parser.ParserSettings;
+import org.apache.ivy.plugins.repository.url.URLResource;
+import org.apache.ivy.util.Message;
+
+/**
+ * Keeps a serialized form of the module descriptors parsed from the cache next to their files, so
+ * that they are read back instead of being parsed again by later resolves.
+ * <p>
+ * The serialized form of a module descriptor is used only if its file still has the same size and
+ * last modification date, and if the variables used when it has been parsed still have the same
+ * values. Otherwise, or if it can't be read, the file is parsed again and its serialized form is
+ * replaced.
+ * </p>
+ */
+final class ModuleDescriptorDiskCache {
+    private static final int MAGIC = 0x4956594d;
+
+    private static final int VERSION = 1;
+
+    private static final String SUFFIX = ".bin";
+
+    private ModuleDescriptorDiskCache() {
+    }
+
+    /**
+     * @param ivyFile
+     *            a module descriptor file
+     * @return the file holding the serialized form of this module descriptor
+     */
+    static File getFile(File ivyFile) {
+        return new File(ivyFile.getParentFile(), ivyFile.getName() + SUFFIX);
+    }
+
+    /**
+     * Returns the module descriptor of the given file, read from its serialized form if it is up
+     * to date, parsed otherwise.
+     *
+     * @param ivyFile
+     *            the module descriptor file
+     * @param settings
+     *            the settings to use
+     * @param validate
+     *            whether the module descriptor should be validated
+     * @param parser
+     *            the parser of the module descriptor file
+     * @return the module descriptor
+     * @throws ParseException
+     *             if the module descriptor file can't be parsed
+     * @throws IOException
+     *             if the module descriptor file can't be read
+     */
+    static ModuleDescriptor get(File ivyFile, ParserSettings settings, boolean validate,
+            ModuleDescriptorParser parser) throws ParseException, IOException {
+        ModuleDescriptor md = read(ivyFile, settings, validate, parser);
+        if (md != null) {
+            return md;
+        }
+        ParserSettingsMonitor monitor = new ParserSettingsMonitor(settings);
+        md = parser.parseDescriptor(monitor.getMonitoredSettings(), ivyFile.toURI().toURL(),
+            validate);
+        if (ModuleDescriptorSerializer.isSerializable(md, settings)) {
+            write(ivyFile, md, parser, validate, monitor.getSubstitutes());
+        } else {
+            Message.debug("module descriptor can't be serialized: " + ivyFile);
+        }
+        return md;
+    }
+
+    private static ModuleDescriptor read(File ivyFile, ParserSettings settings, boolean validate,
+            ModuleDescriptorParser parser) {
+        File binFile = getFile(ivyFile);
+        if (!binFile.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(binFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || !in.readUTF().equals(parser.getClass().getName())
+                    || in.readLong() != ivyFile.length()
+                    || in.readLong() != ivyFile.lastModified()) {
+                Message.debug("serialized module descriptor is out of date: " + binFile);
+                return null;
+            }
+            if (!in.readBoolean() && validate) {
+                Message.debug("serialized module descriptor hasn't been validated: " + binFile);
+                return null;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                if (!in.readUTF().equals(settings.substitute(key))) {
+                    Message.debug("settings variable has changed for " + key + ": " + binFile);
+                    return null;
+                }
+            }
+            return ModuleDescriptorSerializer.read(in, settings, parser,
+                new URLResource(ivyFile.toURI().toURL()));
+        } catch (IOException | RuntimeException e) {
+            Message.debug("impossible to read serialized module descriptor " + binFile + ": "
+                    + e);
+            return null;
+        }
+    }
+
+    private static void write(File ivyFile, ModuleDescriptor md, ModuleDescriptorParser parser,
+            boolean validated, Map<String, String> substitutes) {
+        File binFile = getFile(ivyFile);
+        File tmpFile = null;
+        try {
+            // written to a temporary file first, so that a concurrent resolve never reads a
+            // partially written file
+            tmpFile = File.createTempFile(binFile.getName(), ".part", binFile.getParentFile());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(tmpFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(parser.getClass().getName());
+                out.writeLong(ivyFile.length());
+                out.writeLong(ivyFile.lastModified());
+                out.writeBoolean(validated);
+                out.writeInt(substitutes.size());
+                for (Map.Entry<String, String> substitute : substitutes.entrySet()) {
+                    out.writeUTF(substitute.getKey());
+                    out.writeUTF(substitute.getValue());
+                }
+                ModuleDescriptorSerializer.write(md, out);
+            }
+            Files.move(tmpFile.toPath(), binFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Message.debug("impossible to serialize module descriptor " + ivyFile + ": " + e);
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+        }
+    }
+}
@@ -24,20 +24,65 @@ import org.apache.ivy.util.Message;
 import java.io.File;
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayDeque;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Cache ModuleDescriptors so that when the same module is used twice (in multi-module build for
  * instance), it is parsed only once. This cache is has a limited size, and keep the most recently
  * used entries. The entry in the cache are invalidated if there is a change to one variable used in
  * the module descriptor.
+ * <p>
+ * The size of the cache is limited in number of entries, and optionally in estimated heap size.
+ * Lookups don't lock the cache, so that it can be shared by resolves running in parallel: each hit
+ * only marks its entry as referenced. Entries are evicted in the order in which they have been
+ * added when a new entry makes the cache exceed its limits, except the referenced ones, which are
+ * unmarked and given a second chance instead (the "clock" approximation of the least recently
+ * used eviction), so that each eviction takes constant amortized time.
+ * </p>
  */
 class ModuleDescriptorMemoryCache {
 
+    // rough estimates of the heap used by the parts of a module descriptor, in bytes
+    private static final long DESCRIPTOR_HEAP_SIZE = 2048;
+
+    private static final long CONFIGURATION_HEAP_SIZE = 256;
+
+    private static final long DEPENDENCY_HEAP_SIZE = 768;
+
+    private static final long ARTIFACT_HEAP_SIZE = 384;
+
+    private static final long EXCLUDE_RULE_HEAP_SIZE = 256;
+
     private final int maxSize;
 
-    private final LinkedHashMap<File, CacheEntry> valueMap;
+    private final long maxHeapSize;
+
+    private final ConcurrentMap<File, CacheEntry> valueMap = new ConcurrentHashMap<>();
+
+    private final AtomicLong heapSize = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Object evictionLock = new Object();
+
+    /**
+     * The entries in the order in which they will be considered for eviction, guarded by the
+     * eviction lock. It may also hold entries which have been replaced or removed, which are
+     * skipped.
+     */
+    private final Queue<CacheEntry> evictionQueue = new ArrayDeque<>();
 
     /**
      * Create a cache of the given size
@@ -45,8 +90,21 @@ class ModuleDescriptorMemoryCache {
      * @param size int
      */
     public ModuleDescriptorMemoryCache(int size) {
+        this(size, 0);
+    }
+
+    /**
+     * Create a cache of the given size, bounded by the given estimated heap size.
+     *
+     * @param size
+     *            the maximum number of entries, 0 to disable the cache
+     * @param maxHeapSize
+     *            the maximum estimated heap size of the cached module descriptors, in bytes, 0 for
+     *            no limit
+     */
+    public ModuleDescriptorMemoryCache(int size, long maxHeapSize) {
         this.maxSize = size;
-        this.valueMap = new LinkedHashMap<>(size);
+        this.maxHeapSize = maxHeapSize;
     }
 
     public ModuleDescriptor get(File ivyFile, ParserSettings ivySettings, boolean validated,
@@ -76,26 +134,25 @@ class ModuleDescriptorMemoryCache {
             // cache is disabled
             return null;
         }
-        synchronized (valueMap) {
-            CacheEntry entry = valueMap.get(ivyFile);
-            if (entry != null) {
-                if (entry.isStale(ivyFile, validated, ivySettings)) {
-                    Message.debug("Entry is found in the ModuleDescriptorCache but entry should be "
-                            + "reevaluated : " + ivyFile);
-                    valueMap.remove(ivyFile);
-                    return null;
-                } else {
-                    // Move the entry at the end of the list
-                    valueMap.remove(ivyFile);
-                    valueMap.put(ivyFile, entry);
-                    Message.debug("Entry is found in the ModuleDescriptorCache : " + ivyFile);
-                    return entry.md;
-                }
-            } else {
-                Message.debug("No entry is found in the ModuleDescriptorCache : " + ivyFile);
-                return null;
+        CacheEntry entry = valueMap.get(ivyFile);
+        if (entry == null) {
+            Message.debug("No entry is found in the ModuleDescriptorCache : " + ivyFile);
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isStale(ivyFile, validated, ivySettings)) {
+            Message.debug("Entry is found in the ModuleDescriptorCache but entry should be "
+                    + "reevaluated : " + ivyFile);
+            if (remove(ivyFile, entry)) {
+                invalidations.incrementAndGet();
             }
+            misses.incrementAndGet();
+            return null;
         }
+        entry.referenced = true;
+        Message.debug("Entry is found in the ModuleDescriptorCache : " + ivyFile);
+        hits.incrementAndGet();
+        return entry.md;
     }
 
     void putInCache(File url, ParserSettingsMonitor ivySettingsMonitor, boolean validated,
@@ -104,29 +161,144 @@ class ModuleDescriptorMemoryCache {
             // cache is disabled
             return;
         }
-        synchronized (valueMap) {
-            if (valueMap.size() >= maxSize) {
-                Message.debug("ModuleDescriptorCache is full, remove one entry");
-                Iterator<CacheEntry> it = valueMap.values().iterator();
-                it.next();
-                it.remove();
+        CacheEntry entry = new CacheEntry(url, descriptor, validated, ivySettingsMonitor,
+                estimateHeapSize(descriptor));
+        synchronized (evictionLock) {
+            CacheEntry previous = valueMap.put(url, entry);
+            heapSize.addAndGet(previous == null ? entry.heapSize
+                    : entry.heapSize - previous.heapSize);
+            evictionQueue.add(entry);
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * Removes the entries of the module descriptors whose parsing depended on settings which have
+     * a different value in the given settings.
+     *
+     * @param ivySettings
+     *            the settings against which the entries should be checked
+     */
+    void invalidate(ParserSettings ivySettings) {
+        for (Map.Entry<File, CacheEntry> entry : valueMap.entrySet()) {
+            if (entry.getValue().parserSettingsMonitor.hasChanged(ivySettings)
+                    && remove(entry.getKey(), entry.getValue())) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean remove(File ivyFile, CacheEntry entry) {
+        if (valueMap.remove(ivyFile, entry)) {
+            heapSize.addAndGet(-entry.heapSize);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Must be called with the eviction lock held.
+     */
+    private void evictIfNecessary() {
+        while (valueMap.size() > maxSize || maxHeapSize > 0 && heapSize.get() > maxHeapSize) {
+            CacheEntry entry = evictionQueue.poll();
+            if (entry == null) {
+                return;
+            }
+            if (valueMap.get(entry.ivyFile) != entry) {
+                // replaced or removed since it has been queued
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                evictionQueue.add(entry);
+                continue;
+            }
+            Message.debug("ModuleDescriptorCache is full, remove one entry");
+            if (remove(entry.ivyFile, entry)) {
+                evictions.incrementAndGet();
+            }
+        }
+        if (evictionQueue.size() > 2 * valueMap.size() + maxSize) {
+            // drop the entries replaced or removed, which would otherwise accumulate
+            Iterator<CacheEntry> it = evictionQueue.iterator();
+            while (it.hasNext()) {
+                CacheEntry entry = it.next();
+                if (valueMap.get(entry.ivyFile) != entry) {
+                    it.remove();
+                }
             }
-            valueMap.put(url, new CacheEntry(descriptor, validated, ivySettingsMonitor));
         }
     }
 
+    private static long estimateHeapSize(ModuleDescriptor md) {
+        return DESCRIPTOR_HEAP_SIZE
+                + CONFIGURATION_HEAP_SIZE * md.getConfigurations().length
+                + DEPENDENCY_HEAP_SIZE * md.getDependencies().length
+                + ARTIFACT_HEAP_SIZE * md.getAllArtifacts().length
+                + EXCLUDE_RULE_HEAP_SIZE * md.getAllExcludeRules().length;
+    }
+
+    int getSize() {
+        return valueMap.size();
+    }
+
+    /**
+     * @return the estimated heap size of the cached module descriptors, in bytes
+     */
+    long getHeapSize() {
+        return heapSize.get();
+    }
+
+    long getHitCount() {
+        return hits.get();
+    }
+
+    long getMissCount() {
+        return misses.get();
+    }
+
+    long getEvictionCount() {
+        return evictions.get();
+    }
+
+    long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * @return a snapshot of the statistics of this cache
+     */
+    MemoryCacheStatistics getStatistics() {
+        return new MemoryCacheStatistics(getSize(), getHeapSize(), getHitCount(), getMissCount(),
+                getEvictionCount(), getInvalidationCount());
+    }
+
+    @Override
+    public String toString() {
+        return "ModuleDescriptorCache" + getStatistics();
+    }
+
     private static class CacheEntry {
+        private final File ivyFile;
+
         private final ModuleDescriptor md;
 
         private final boolean validated;
 
         private final ParserSettingsMonitor parserSettingsMonitor;
 
-        CacheEntry(ModuleDescriptor md, boolean validated,
-                ParserSettingsMonitor parserSettingsMonitor) {
+        private final long heapSize;
+
+        private volatile boolean referenced;
+
+        CacheEntry(File ivyFile, ModuleDescriptor md, boolean validated,
+                ParserSettingsMonitor parserSettingsMonitor, long heapSize) {
+            this.ivyFile = ivyFile;
             this.md = md;
             this.validated = validated;
             this.parserSettingsMonitor = parserSettingsMonitor;
+            this.heapSize = heapSize;
         }
 
         boolean isStale(File ivyFile, boolean validated, ParserSettings newParserSettings) {
@@ -88,6 +88,14 @@ class ParserSettingsMonitor {
         return false;
     }
 
+    /**
+     * @return the values of the variables used through the monitored settings, indexed by the
+     *         strings they have been substituted in
+     */
+    Map<String, String> getSubstitutes() {
+        return substitutes;
+    }
+
     private ParserSettings monitoredSettings = new ParserSettings() {
 
         public ConflictManager getConflictManager(String name) {
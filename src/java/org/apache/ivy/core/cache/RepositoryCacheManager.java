@@ -189,4 +189,62 @@ public interface RepositoryCacheManager {
     void saveResolvedRevision(String resolverName, ModuleRevisionId dynamicMrid,
                               String revision);
 
+    /**
+     * Tells whether the given artifact has been found missing recently, according to the missing
+     * TTL rules of this cache, when looking for it the way identified by the given key.
+     *
+     * @param artifact   the artifact to check
+     * @param missingKey the key identifying where the artifact has been looked for, usually the
+     *                   name of the resolver and its resource patterns
+     * @return true if the artifact should not be looked for again. The default implementation
+     *         doesn't record missing artifacts and always returns false.
+     */
+    default boolean isMissing(Artifact artifact, String missingKey) {
+        return false;
+    }
+
+    /**
+     * Records that the given artifact has been found missing when looking for it the way
+     * identified by the given key, if the missing TTL rules of this cache apply to it. The default
+     * implementation does nothing.
+     *
+     * @param artifact   the artifact found missing
+     * @param missingKey the key identifying where the artifact has been looked for
+     */
+    default void saveMissing(Artifact artifact, String missingKey) {
+    }
+
+    /**
+     * Returns the listing of a location of a repository made by the given resolver to find the
+     * revisions of a module, if it has been saved in this cache and the listing TTL rules of this
+     * cache still apply to it. Once expired, a listing is kept if the listed resource hasn't been
+     * modified since it was saved.
+     *
+     * @param resolverName the name of the resolver which has listed the location
+     * @param mrid         the module whose revisions are listed, the revision being ignored
+     * @param location     the listed location
+     * @param resource     the listed resource, used to check it hasn't been modified, may be null
+     * @return the cached listing, or null if the location should be listed again. The default
+     *         implementation doesn't cache listings and always returns null.
+     */
+    default String[] getListing(String resolverName, ModuleRevisionId mrid, String location,
+                                Resource resource) {
+        return null;
+    }
+
+    /**
+     * Saves the listing of a location of a repository made by the given resolver to find the
+     * revisions of a module, if the listing TTL rules of this cache apply to it. The default
+     * implementation does nothing.
+     *
+     * @param resolverName the name of the resolver which has listed the location
+     * @param mrid         the module whose revisions are listed, the revision being ignored
+     * @param location     the listed location
+     * @param resource     the listed resource, whose last modified date is saved, may be null
+     * @param values       the listing
+     */
+    default void saveListing(String resolverName, ModuleRevisionId mrid, String location,
+                             Resource resource, String[] values) {
+    }
+
 }
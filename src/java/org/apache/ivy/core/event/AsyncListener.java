@@ -0,0 +1,331 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.event;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ivy.core.IvyExecutors;
+import org.apache.ivy.plugins.repository.TransferEvent;
+import org.apache.ivy.plugins.repository.TransferListener;
+import org.apache.ivy.util.Message;
+
+/**
+ * A listener delivering the events it receives to another listener on a separate thread.
+ * <p>
+ * Events are queued in a bounded ring buffer, and delivered in the order in which they were
+ * received, one at a time. What happens to an event received while the buffer is full depends on
+ * the {@link OverflowPolicy} of the listener.
+ * </p>
+ * <p>
+ * Since repositories update a same {@link TransferEvent} during a transfer, transfer events are
+ * queued as copies of their state when they are received. Consecutive progress events of a same
+ * transfer which are waiting to be delivered can be coalesced into one, whose length is the sum of
+ * their lengths.
+ * </p>
+ */
+public final class AsyncListener implements IvyListener, TransferListener {
+    /**
+     * What to do with an event received while the buffer of an {@link AsyncListener} is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Waits for the listener to take events from its buffer, so that no event is lost.
+         */
+        BLOCK,
+
+        /**
+         * Discards the received event.
+         */
+        DISCARD,
+
+        /**
+         * Discards the oldest event of the buffer, to make room for the received one.
+         */
+        DISCARD_OLDEST
+    }
+
+    private static final int DELIVERY_THREADS = Math.max(1,
+        Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static ExecutorService deliveryPool;
+
+    private final IvyListener ivyListener;
+
+    private final TransferListener transferListener;
+
+    private final IvyEvent[] buffer;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final boolean coalesceProgress;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final Condition idle = lock.newCondition();
+
+    private final AtomicLong discarded = new AtomicLong();
+
+    private int head;
+
+    private int count;
+
+    private boolean scheduled;
+
+    private Thread deliveryThread;
+
+    private AsyncListener(IvyListener ivyListener, TransferListener transferListener,
+            int capacity, OverflowPolicy overflowPolicy, boolean coalesceProgress) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        this.ivyListener = ivyListener;
+        this.transferListener = transferListener;
+        this.buffer = new IvyEvent[capacity];
+        this.overflowPolicy = overflowPolicy;
+        this.coalesceProgress = coalesceProgress;
+    }
+
+    public AsyncListener(IvyListener listener, int capacity, OverflowPolicy overflowPolicy,
+            boolean coalesceProgress) {
+        this(listener, null, capacity, overflowPolicy, coalesceProgress);
+    }
+
+    public AsyncListener(TransferListener listener, int capacity, OverflowPolicy overflowPolicy,
+            boolean coalesceProgress) {
+        this(null, listener, capacity, overflowPolicy, coalesceProgress);
+    }
+
+    /**
+     * @return the listener the events are delivered to, if it is an {@link IvyListener}, or
+     *         <code>null</code>
+     */
+    public IvyListener getIvyListener() {
+        return ivyListener;
+    }
+
+    /**
+     * @return the listener the events are delivered to, if it is a {@link TransferListener}, or
+     *         <code>null</code>
+     */
+    public TransferListener getTransferListener() {
+        return transferListener;
+    }
+
+    /**
+     * @return the number of events discarded because the buffer was full
+     */
+    public long getDiscardedEvents() {
+        return discarded.get();
+    }
+
+    public void progress(IvyEvent event) {
+        enqueue(event);
+    }
+
+    public void transferProgress(TransferEvent evt) {
+        enqueue(evt);
+    }
+
+    /**
+     * Waits for the events received so far to be delivered.
+     *
+     * @param timeout
+     *            the maximum time to wait, in milliseconds
+     * @return <code>true</code> if the events have been delivered, <code>false</code> if the
+     *         timeout elapsed before
+     * @throws InterruptedException
+     *             if the current thread is interrupted while waiting
+     */
+    public boolean flush(long timeout) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lock();
+        try {
+            while (scheduled) {
+                if (deliveryThread == Thread.currentThread()) {
+                    // flushing from the listener itself can't wait for its own delivery
+                    return false;
+                }
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = idle.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(IvyEvent event) {
+        boolean schedule = false;
+        lock.lock();
+        try {
+            if (coalesceProgress && coalesce(event)) {
+                return;
+            }
+            while (count == buffer.length) {
+                if (overflowPolicy == OverflowPolicy.DISCARD_OLDEST) {
+                    take();
+                    discard();
+                    break;
+                }
+                if (overflowPolicy == OverflowPolicy.DISCARD
+                        || deliveryThread == Thread.currentThread()) {
+                    // an event fired by the listener itself would wait forever for its own delivery
+                    discard();
+                    return;
+                }
+                try {
+                    notFull.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    discard();
+                    return;
+                }
+            }
+            buffer[(head + count) % buffer.length] = event instanceof TransferEvent
+                    ? new TransferEventCopy((TransferEvent) event) : event;
+            count++;
+            if (!scheduled) {
+                scheduled = true;
+                schedule = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (schedule) {
+            scheduleDelivery();
+        }
+    }
+
+    /**
+     * Merges the given event into the last queued one if they are both progress events of a same
+     * transfer.
+     */
+    private boolean coalesce(IvyEvent event) {
+        if (count == 0 || !(event instanceof TransferEvent)
+                || ((TransferEvent) event).getEventType() != TransferEvent.TRANSFER_PROGRESS) {
+            return false;
+        }
+        IvyEvent last = buffer[(head + count - 1) % buffer.length];
+        return last instanceof TransferEventCopy
+                && ((TransferEventCopy) last).coalesce((TransferEvent) event);
+    }
+
+    private IvyEvent take() {
+        IvyEvent event = buffer[head];
+        buffer[head] = null;
+        head = (head + 1) % buffer.length;
+        count--;
+        notFull.signal();
+        return event;
+    }
+
+    private void discard() {
+        if (discarded.getAndIncrement() == 0) {
+            Message.verbose("event buffer of " + (ivyListener == null ? transferListener
+                    : ivyListener) + " is full: discarding events");
+        }
+    }
+
+    private void deliver() {
+        // deliver at most a buffer of events before letting other listeners use the thread
+        for (int i = 0; i < buffer.length; i++) {
+            IvyEvent event;
+            lock.lock();
+            try {
+                if (count == 0) {
+                    scheduled = false;
+                    deliveryThread = null;
+                    idle.signalAll();
+                    return;
+                }
+                event = take();
+                deliveryThread = Thread.currentThread();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (ivyListener != null) {
+                    ivyListener.progress(event);
+                } else {
+                    transferListener.transferProgress((TransferEvent) event);
+                }
+            } catch (RuntimeException e) {
+                Message.warn("exception occurred while delivering " + event.getName()
+                        + " event asynchronously", e);
+            }
+        }
+        lock.lock();
+        try {
+            deliveryThread = null;
+        } finally {
+            lock.unlock();
+        }
+        scheduleDelivery();
+    }
+
+    private void scheduleDelivery() {
+        getDeliveryPool().submit(IvyExecutors.inCurrentContext(new Callable<Void>() {
+            public Void call() {
+                deliver();
+                return null;
+            }
+        }));
+    }
+
+    private static synchronized ExecutorService getDeliveryPool() {
+        if (deliveryPool == null) {
+            deliveryPool = IvyExecutors.newFixedThreadPool("events", DELIVERY_THREADS);
+        }
+        return deliveryPool;
+    }
+
+    public String toString() {
+        return "async " + (ivyListener == null ? transferListener : ivyListener);
+    }
+
+    /**
+     * A copy of a {@link TransferEvent}, able to absorb later progress events of the same transfer.
+     */
+    private static final class TransferEventCopy extends TransferEvent {
+        private final TransferEvent original;
+
+        TransferEventCopy(TransferEvent evt) {
+            super(evt);
+            this.original = evt;
+        }
+
+        boolean coalesce(TransferEvent evt) {
+            if (evt != original || getEventType() != TRANSFER_PROGRESS) {
+                return false;
+            }
+            setLength(getLength() + evt.getLength());
+            setTotalLength(evt.getTotalLength());
+            setTotalLengthSet(evt.isTotalLengthSet());
+            return true;
+        }
+    }
+}
@@ -17,18 +17,40 @@
  */
 package org.apache.ivy.core.event;
 
-import java.util.Arrays;
-
 import javax.swing.event.EventListenerList;
 
+import org.apache.ivy.core.event.AsyncListener.OverflowPolicy;
 import org.apache.ivy.plugins.repository.TransferEvent;
 import org.apache.ivy.plugins.repository.TransferListener;
 import org.apache.ivy.util.filter.Filter;
 
+/**
+ * Dispatches Ivy and transfer events to the registered listeners.
+ * <p>
+ * Listeners are called on the thread firing the events, unless they are added with one of the
+ * <code>addAsync...Listener</code> methods: such listeners are called on a separate thread, so
+ * that a slow listener doesn't slow down resolves. Each of them has its own buffer of events, and
+ * is called with its events in the order in which they were fired. Listeners which need to act
+ * before Ivy goes on, like triggers, must be added as synchronous listeners.
+ * </p>
+ *
+ * @see AsyncListener
+ */
 public class EventManager implements TransferListener {
 
+    /**
+     * The default number of events an asynchronous listener can have waiting to be delivered.
+     */
+    public static final int DEFAULT_ASYNC_CAPACITY = 1024;
+
     private EventListenerList listeners = new EventListenerList();
 
+    private volatile int asyncCapacity = DEFAULT_ASYNC_CAPACITY;
+
+    private volatile OverflowPolicy asyncOverflowPolicy = OverflowPolicy.BLOCK;
+
+    private volatile boolean coalesceTransferProgress = true;
+
     public void addIvyListener(IvyListener listener) {
         listeners.add(IvyListener.class, listener);
     }
@@ -41,14 +63,41 @@ public class EventManager implements TransferListener {
         listeners.add(IvyListener.class, new FilteredIvyListener(listener, filter));
     }
 
+    /**
+     * Adds a listener called with the Ivy events on a separate thread.
+     *
+     * @param listener
+     *            the listener to add
+     */
+    public void addAsyncIvyListener(IvyListener listener) {
+        listeners.add(IvyListener.class, newAsyncListener(listener));
+    }
+
+    public void addAsyncIvyListener(IvyListener listener, String eventName) {
+        addAsyncIvyListener(listener, new IvyEventFilter(eventName, null, null));
+    }
+
+    /**
+     * Adds a listener called with the Ivy events accepted by the given filter on a separate
+     * thread. The filter is applied on the thread firing the events, so that the events it rejects
+     * don't take room in the buffer of the listener.
+     *
+     * @param listener
+     *            the listener to add
+     * @param filter
+     *            the filter of the events to deliver to the listener
+     */
+    public void addAsyncIvyListener(IvyListener listener, Filter<IvyEvent> filter) {
+        listeners.add(IvyListener.class,
+            new FilteredIvyListener(newAsyncListener(listener), filter));
+    }
+
     public void removeIvyListener(IvyListener listener) {
         listeners.remove(IvyListener.class, listener);
         IvyListener[] listeners = this.listeners.getListeners(IvyListener.class);
         for (IvyListener listen : listeners) {
-            if (listen instanceof FilteredIvyListener) {
-                if (listener.equals(((FilteredIvyListener) listen).getIvyListener())) {
-                    this.listeners.remove(IvyListener.class, listen);
-                }
+            if (listener.equals(unwrap(listen))) {
+                this.listeners.remove(IvyListener.class, listen);
             }
         }
     }
@@ -56,15 +105,24 @@ public class EventManager implements TransferListener {
     public boolean hasIvyListener(IvyListener listener) {
         IvyListener[] listeners = this.listeners.getListeners(IvyListener.class);
         for (IvyListener listen : listeners) {
-            if (listen instanceof FilteredIvyListener) {
-                if (listener.equals(((FilteredIvyListener) listen).getIvyListener())) {
-                    return true;
-                }
+            if ((listen instanceof FilteredIvyListener || listen instanceof AsyncListener)
+                    && listener.equals(unwrap(listen))) {
+                return true;
             }
         }
         return false;
     }
 
+    private static IvyListener unwrap(IvyListener listener) {
+        if (listener instanceof FilteredIvyListener) {
+            listener = ((FilteredIvyListener) listener).getIvyListener();
+        }
+        if (listener instanceof AsyncListener) {
+            listener = ((AsyncListener) listener).getIvyListener();
+        }
+        return listener;
+    }
+
     public void fireIvyEvent(IvyEvent evt) {
         Object[] listeners = this.listeners.getListenerList();
         for (int i = listeners.length - 2; i >= 0; i -= 2) {
@@ -78,12 +136,35 @@ public class EventManager implements TransferListener {
         listeners.add(TransferListener.class, listener);
     }
 
+    /**
+     * Adds a listener called with the transfer events on a separate thread.
+     *
+     * @param listener
+     *            the listener to add
+     */
+    public void addAsyncTransferListener(TransferListener listener) {
+        listeners.add(TransferListener.class, new AsyncListener(listener, asyncCapacity,
+                asyncOverflowPolicy, coalesceTransferProgress));
+    }
+
     public void removeTransferListener(TransferListener listener) {
         listeners.remove(TransferListener.class, listener);
+        for (TransferListener listen : listeners.getListeners(TransferListener.class)) {
+            if (listen instanceof AsyncListener
+                    && listener.equals(((AsyncListener) listen).getTransferListener())) {
+                listeners.remove(TransferListener.class, listen);
+            }
+        }
     }
 
     public boolean hasTransferListener(TransferListener listener) {
-        return Arrays.asList(listeners.getListeners(TransferListener.class)).contains(listener);
+        for (TransferListener listen : listeners.getListeners(TransferListener.class)) {
+            if (listener.equals(listen) || listen instanceof AsyncListener
+                    && listener.equals(((AsyncListener) listen).getTransferListener())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     protected void fireTransferEvent(TransferEvent evt) {
@@ -100,4 +181,85 @@ public class EventManager implements TransferListener {
         fireIvyEvent(evt);
     }
 
+    /**
+     * Waits for the events fired so far to be delivered to the asynchronous listeners.
+     *
+     * @param timeout
+     *            the maximum time to wait, in milliseconds
+     * @return <code>true</code> if the events have been delivered, <code>false</code> if the
+     *         timeout elapsed before
+     * @throws InterruptedException
+     *             if the current thread is interrupted while waiting
+     */
+    public boolean flushAsyncListeners(long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        Object[] listeners = this.listeners.getListenerList();
+        for (int i = 1; i < listeners.length; i += 2) {
+            Object listener = listeners[i];
+            if (listener instanceof FilteredIvyListener) {
+                listener = ((FilteredIvyListener) listener).getIvyListener();
+            }
+            if (listener instanceof AsyncListener && !((AsyncListener) listener)
+                    .flush(Math.max(0, deadline - System.currentTimeMillis()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getAsyncCapacity() {
+        return asyncCapacity;
+    }
+
+    /**
+     * Sets the number of events an asynchronous listener can have waiting to be delivered. Applies
+     * to the asynchronous listeners added afterwards.
+     *
+     * @param asyncCapacity
+     *            the capacity of the buffer of each asynchronous listener
+     */
+    public void setAsyncCapacity(int asyncCapacity) {
+        if (asyncCapacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + asyncCapacity);
+        }
+        this.asyncCapacity = asyncCapacity;
+    }
+
+    public OverflowPolicy getAsyncOverflowPolicy() {
+        return asyncOverflowPolicy;
+    }
+
+    /**
+     * Sets what happens to an event fired while the buffer of an asynchronous listener is full.
+     * Applies to the asynchronous listeners added afterwards. Defaults to
+     * {@link OverflowPolicy#BLOCK}.
+     *
+     * @param asyncOverflowPolicy
+     *            the overflow policy of the asynchronous listeners
+     */
+    public void setAsyncOverflowPolicy(OverflowPolicy asyncOverflowPolicy) {
+        this.asyncOverflowPolicy = asyncOverflowPolicy;
+    }
+
+    public boolean isCoalesceTransferProgress() {
+        return coalesceTransferProgress;
+    }
+
+    /**
+     * Sets whether the progress events of a same transfer waiting to be delivered to an
+     * asynchronous listener are coalesced into one. Applies to the asynchronous listeners added
+     * afterwards. Defaults to <code>true</code>.
+     *
+     * @param coalesceTransferProgress
+     *            <code>true</code> to coalesce transfer progress events
+     */
+    public void setCoalesceTransferProgress(boolean coalesceTransferProgress) {
+        this.coalesceTransferProgress = coalesceTransferProgress;
+    }
+
+    private AsyncListener newAsyncListener(IvyListener listener) {
+        return new AsyncListener(listener, asyncCapacity, asyncOverflowPolicy,
+                coalesceTransferProgress);
+    }
+
 }
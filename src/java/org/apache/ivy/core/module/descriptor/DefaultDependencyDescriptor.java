@@ -678,7 +678,7 @@ public class DefaultDependencyDescriptor implements DependencyDescriptor {
         this.dependencyArtifacts = dependencyArtifacts;
     }
 
-    private Map<String, Collection<DependencyArtifactDescriptor>> getDependencyArtifacts() {
+    Map<String, Collection<DependencyArtifactDescriptor>> getDependencyArtifacts() {
         if (dependencyArtifacts == null) {
             dependencyArtifacts = new LinkedHashMap<>();
         }
@@ -689,7 +689,7 @@ public class DefaultDependencyDescriptor implements DependencyDescriptor {
         this.includeRules = includeRules;
     }
 
-    private Map<String, Collection<IncludeRule>> getIncludeRules() {
+    Map<String, Collection<IncludeRule>> getIncludeRules() {
         if (includeRules == null) {
             includeRules = new LinkedHashMap<>();
         }
@@ -700,13 +700,21 @@ public class DefaultDependencyDescriptor implements DependencyDescriptor {
         this.excludeRules = excludeRules;
     }
 
-    private Map<String, Collection<ExcludeRule>> getExcludeRules() {
+    Map<String, Collection<ExcludeRule>> getExcludeRules() {
         if (excludeRules == null) {
             excludeRules = new LinkedHashMap<>();
         }
         return excludeRules;
     }
 
+    /**
+     * @return the dependency configurations of each module configuration, as they have been
+     *         added
+     */
+    Map<String, List<String>> getConfigurationMappings() {
+        return confs;
+    }
+
     public ModuleRevisionId getSourceModule() {
         return sourceModule;
     }
@@ -392,6 +392,10 @@ public class DefaultModuleDescriptor implements ModuleDescriptor {
         }
     }
 
+    Map<String, Collection<Artifact>> getArtifactsByConfiguration() {
+        return artifactsByConf;
+    }
+
     public ModuleRevisionId getModuleRevisionId() {
         return revId;
     }
@@ -602,6 +606,10 @@ public class DefaultModuleDescriptor implements ModuleDescriptor {
         return conflictManagers.getRule(moduleId);
     }
 
+    ModuleRules<ConflictManager> getConflictManagers() {
+        return conflictManagers;
+    }
+
     public void addDependencyDescriptorMediator(ModuleId moduleId, PatternMatcher matcher,
             DependencyDescriptorMediator ddm) {
         dependencyDescriptorMediators.defineRule(new MapMatcher(moduleId.getAttributes(), matcher),
@@ -0,0 +1,748 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.module.descriptor;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.module.id.ArtifactId;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.conflict.ConflictManager;
+import org.apache.ivy.plugins.conflict.FixedConflictManager;
+import org.apache.ivy.plugins.matcher.MapMatcher;
+import org.apache.ivy.plugins.matcher.PatternMatcher;
+import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
+import org.apache.ivy.plugins.parser.ParserSettings;
+import org.apache.ivy.plugins.repository.Resource;
+
+/**
+ * Writes module descriptors in a compact binary form, and reads them back without parsing their
+ * original file again.
+ * <p>
+ * Only {@link DefaultModuleDescriptor}s made of the default implementations of their parts can be
+ * serialized, see {@link #isSerializable(ModuleDescriptor, ParserSettings)}. The pattern matchers
+ * and conflict managers they use are stored by name, and looked up in the settings when the
+ * descriptor is read back.
+ * </p>
+ */
+public final class ModuleDescriptorSerializer {
+    private ModuleDescriptorSerializer() {
+    }
+
+    /**
+     * Tells whether the given module descriptor can be serialized, i.e. read back from its
+     * serialized form with the given settings.
+     *
+     * @param md
+     *            the module descriptor
+     * @param settings
+     *            the settings in which the pattern matchers and conflict managers of the
+     *            descriptor are looked up
+     * @return <code>true</code> if the module descriptor can be serialized
+     */
+    public static boolean isSerializable(ModuleDescriptor md, ParserSettings settings) {
+        if (md.getClass() != DefaultModuleDescriptor.class) {
+            return false;
+        }
+        DefaultModuleDescriptor dmd = (DefaultModuleDescriptor) md;
+        if (dmd.getNamespace() != null || dmd.getInheritedDescriptors().length > 0
+                || !dmd.getMetadataArtifact().equals(DefaultArtifact.newIvyArtifact(
+                    dmd.getResolvedModuleRevisionId(), dmd.getPublicationDate()))) {
+            return false;
+        }
+        for (Configuration conf : dmd.getConfigurations()) {
+            if (conf.getClass() != Configuration.class || conf.getSourceModule() != null) {
+                return false;
+            }
+        }
+        Artifact[] allArtifacts = dmd.getAllArtifacts();
+        Map<Artifact, Integer> indexes = indexArtifacts(dmd);
+        // the artifacts of each configuration are added back in the order of all the artifacts,
+        // and equal artifacts are added back as a single instance
+        for (Collection<Artifact> artifacts : dmd.getArtifactsByConfiguration().values()) {
+            int previous = -1;
+            for (Artifact artifact : artifacts) {
+                Integer index = indexes.get(artifact);
+                if (index == null || index <= previous
+                        || !isSerializable(artifact, allArtifacts[index])) {
+                    return false;
+                }
+                previous = index;
+            }
+        }
+        for (DependencyDescriptor dd : dmd.getDependencies()) {
+            if (dd.getClass() != DefaultDependencyDescriptor.class
+                    || !isSerializable((DefaultDependencyDescriptor) dd, dmd, settings)) {
+                return false;
+            }
+        }
+        for (ExcludeRule rule : dmd.getAllExcludeRules()) {
+            if (!isSerializable(rule, settings)) {
+                return false;
+            }
+        }
+        for (Map.Entry<MapMatcher, ConflictManager> rule : dmd.getConflictManagers()
+                .getAllRules().entrySet()) {
+            ConflictManager cm = rule.getValue();
+            if (!isModuleIdMatcher(rule.getKey(), settings)
+                    || cm.getClass() != FixedConflictManager.class
+                    && settings.getConflictManager(cm.getName()) != cm) {
+                return false;
+            }
+        }
+        for (Map.Entry<MapMatcher, DependencyDescriptorMediator> rule : dmd
+                .getAllDependencyDescriptorMediators().getAllRules().entrySet()) {
+            if (!isModuleIdMatcher(rule.getKey(), settings)
+                    || rule.getValue().getClass() != OverrideDependencyDescriptorMediator.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSerializable(Artifact artifact, Artifact indexed) {
+        return artifact.getClass() == MDArtifact.class && !artifact.isMetadata()
+                && (artifact == indexed || Arrays.equals(artifact.getConfigurations(),
+                    indexed.getConfigurations()) && Objects.equals(artifact.getUrl(),
+                    indexed.getUrl()));
+    }
+
+    private static Map<Artifact, Integer> indexArtifacts(DefaultModuleDescriptor md) {
+        Map<Artifact, Integer> indexes = new HashMap<>();
+        for (Artifact artifact : md.getAllArtifacts()) {
+            indexes.put(artifact, indexes.size());
+        }
+        return indexes;
+    }
+
+    private static boolean isSerializable(DefaultDependencyDescriptor dd,
+            DefaultModuleDescriptor md, ParserSettings settings) {
+        if (dd.getNamespace() != null || dd.asSystem() != dd
+                || !md.getModuleRevisionId().equals(dd.getSourceModule())
+                || md.getResolvedModuleRevisionId() != dd.getParentRevisionId()) {
+            return false;
+        }
+        for (DependencyArtifactDescriptor dad : dd.getAllDependencyArtifacts()) {
+            if (dad.getClass() != DefaultDependencyArtifactDescriptor.class
+                    || dad.getDependencyDescriptor() != dd) {
+                return false;
+            }
+        }
+        for (IncludeRule rule : dd.getAllIncludeRules()) {
+            if (rule.getClass() != DefaultIncludeRule.class || !isKnown(rule.getMatcher(),
+                settings)) {
+                return false;
+            }
+        }
+        for (ExcludeRule rule : dd.getAllExcludeRules()) {
+            if (!isSerializable(rule, settings)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSerializable(ExcludeRule rule, ParserSettings settings) {
+        return rule.getClass() == DefaultExcludeRule.class && isKnown(rule.getMatcher(), settings);
+    }
+
+    private static boolean isModuleIdMatcher(MapMatcher matcher, ParserSettings settings) {
+        Map<String, String> attributes = matcher.getAttributes();
+        return attributes.size() == 2
+                && attributes.containsKey(IvyPatternHelper.ORGANISATION_KEY)
+                && attributes.containsKey(IvyPatternHelper.MODULE_KEY)
+                && isKnown(matcher.getPatternMatcher(), settings);
+    }
+
+    private static boolean isKnown(PatternMatcher matcher, ParserSettings settings) {
+        return settings.getMatcher(matcher.getName()) == matcher;
+    }
+
+    /**
+     * Writes the given module descriptor, which must be serializable.
+     *
+     * @param md
+     *            the module descriptor
+     * @param out
+     *            where to write it
+     * @throws IOException
+     *             if the module descriptor can't be written
+     * @see #isSerializable(ModuleDescriptor, ParserSettings)
+     */
+    public static void write(ModuleDescriptor md, DataOutput out) throws IOException {
+        DefaultModuleDescriptor dmd = (DefaultModuleDescriptor) md;
+        writeModuleRevisionId(out, dmd.getModuleRevisionId());
+        writeModuleRevisionId(out, dmd.getResolvedModuleRevisionId());
+        writeString(out, dmd.getStatus());
+        writeDate(out, dmd.getPublicationDate());
+        writeDate(out, dmd.getResolvedPublicationDate());
+        out.writeBoolean(dmd.isDefault());
+        writeString(out, dmd.getHomePage());
+        writeString(out, dmd.getDescription());
+        out.writeLong(dmd.getLastModified());
+        writeString(out, dmd.getDefaultConf());
+        writeString(out, dmd.getDefaultConfMapping());
+        out.writeBoolean(dmd.isMappingOverride());
+
+        License[] licenses = dmd.getLicenses();
+        out.writeInt(licenses.length);
+        for (License license : licenses) {
+            writeString(out, license.getName());
+            writeString(out, license.getUrl());
+        }
+        writeMap(out, dmd.getExtraAttributesNamespaces());
+        writeExtraInfos(out, dmd.getExtraInfos());
+
+        Configuration[] confs = dmd.getConfigurations();
+        out.writeInt(confs.length);
+        for (Configuration conf : confs) {
+            writeString(out, conf.getName());
+            writeString(out, conf.getVisibility().toString());
+            writeString(out, conf.getDescription());
+            writeStrings(out, conf.getExtends());
+            out.writeBoolean(conf.isTransitive());
+            writeString(out, conf.getDeprecated());
+            writeMap(out, conf.getQualifiedExtraAttributes());
+        }
+
+        Artifact[] artifacts = dmd.getAllArtifacts();
+        out.writeInt(artifacts.length);
+        for (Artifact artifact : artifacts) {
+            writeString(out, artifact.getName());
+            writeString(out, artifact.getType());
+            writeString(out, artifact.getExt());
+            writeURL(out, artifact.getUrl());
+            writeMap(out, artifact.getQualifiedExtraAttributes());
+            writeStrings(out, artifact.getConfigurations());
+        }
+        Map<Artifact, Integer> indexes = indexArtifacts(dmd);
+        Map<String, Collection<Artifact>> artifactsByConf = dmd.getArtifactsByConfiguration();
+        out.writeInt(artifactsByConf.size());
+        for (Map.Entry<String, Collection<Artifact>> entry : artifactsByConf.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Artifact artifact : entry.getValue()) {
+                out.writeInt(indexes.get(artifact));
+            }
+        }
+
+        DependencyDescriptor[] dependencies = dmd.getDependencies();
+        out.writeInt(dependencies.length);
+        for (DependencyDescriptor dd : dependencies) {
+            writeDependency(out, (DefaultDependencyDescriptor) dd);
+        }
+
+        ExcludeRule[] excludeRules = dmd.getAllExcludeRules();
+        out.writeInt(excludeRules.length);
+        for (ExcludeRule rule : excludeRules) {
+            writeRule(out, rule);
+        }
+
+        Map<MapMatcher, ConflictManager> conflictManagers = dmd.getConflictManagers()
+                .getAllRules();
+        out.writeInt(conflictManagers.size());
+        for (Map.Entry<MapMatcher, ConflictManager> rule : conflictManagers.entrySet()) {
+            writeModuleIdMatcher(out, rule.getKey());
+            ConflictManager cm = rule.getValue();
+            // fixed conflict managers are defined by the module descriptor itself
+            boolean fixed = cm.getClass() == FixedConflictManager.class;
+            out.writeBoolean(fixed);
+            if (fixed) {
+                Collection<String> revs = ((FixedConflictManager) cm).getRevs();
+                writeStrings(out, revs.toArray(new String[revs.size()]));
+            } else {
+                writeString(out, cm.getName());
+            }
+        }
+
+        Map<MapMatcher, DependencyDescriptorMediator> mediators = dmd
+                .getAllDependencyDescriptorMediators().getAllRules();
+        out.writeInt(mediators.size());
+        for (Map.Entry<MapMatcher, DependencyDescriptorMediator> rule : mediators.entrySet()) {
+            OverrideDependencyDescriptorMediator mediator =
+                    (OverrideDependencyDescriptorMediator) rule.getValue();
+            writeModuleIdMatcher(out, rule.getKey());
+            writeString(out, mediator.getBranch());
+            writeString(out, mediator.getVersion());
+        }
+    }
+
+    private static void writeDependency(DataOutput out, DefaultDependencyDescriptor dd)
+            throws IOException {
+        writeModuleRevisionId(out, dd.getDependencyRevisionId());
+        writeModuleRevisionId(out, dd.getDynamicConstraintDependencyRevisionId());
+        out.writeBoolean(dd.isForce());
+        out.writeBoolean(dd.isChanging());
+        out.writeBoolean(dd.isTransitive());
+
+        Map<String, List<String>> confs = dd.getConfigurationMappings();
+        out.writeInt(confs.size());
+        for (Map.Entry<String, List<String>> mapping : confs.entrySet()) {
+            writeString(out, mapping.getKey());
+            writeStrings(out, mapping.getValue().toArray(new String[mapping.getValue().size()]));
+        }
+
+        List<DependencyArtifactDescriptor> dads = writeConfigurationMap(out,
+            dd.getDependencyArtifacts());
+        out.writeInt(dads.size());
+        for (DependencyArtifactDescriptor dad : dads) {
+            writeString(out, dad.getName());
+            writeString(out, dad.getType());
+            writeString(out, dad.getExt());
+            writeURL(out, dad.getUrl());
+            writeMap(out, dad.getQualifiedExtraAttributes());
+            writeStrings(out, dad.getConfigurations());
+        }
+        List<IncludeRule> includeRules = writeConfigurationMap(out, dd.getIncludeRules());
+        out.writeInt(includeRules.size());
+        for (IncludeRule rule : includeRules) {
+            writeRule(out, rule);
+        }
+        List<ExcludeRule> excludeRules = writeConfigurationMap(out, dd.getExcludeRules());
+        out.writeInt(excludeRules.size());
+        for (ExcludeRule rule : excludeRules) {
+            writeRule(out, rule);
+        }
+    }
+
+    /**
+     * Writes the indexes of the objects added to each configuration of a dependency, and returns
+     * these objects in the order of their indexes. An object added to several configurations is
+     * written once.
+     */
+    private static <T> List<T> writeConfigurationMap(DataOutput out,
+            Map<String, Collection<T>> confsMap) throws IOException {
+        Map<T, Integer> indexes = new IdentityHashMap<>();
+        List<T> objects = new ArrayList<>();
+        out.writeInt(confsMap.size());
+        for (Map.Entry<String, Collection<T>> entry : confsMap.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (T object : entry.getValue()) {
+                Integer index = indexes.get(object);
+                if (index == null) {
+                    index = objects.size();
+                    indexes.put(object, index);
+                    objects.add(object);
+                }
+                out.writeInt(index);
+            }
+        }
+        return objects;
+    }
+
+    private static void writeRule(DataOutput out, IncludeRule rule) throws IOException {
+        writeRule(out, rule.getId(), rule.getMatcher(), rule.getQualifiedExtraAttributes(),
+            rule.getConfigurations());
+    }
+
+    private static void writeRule(DataOutput out, ExcludeRule rule) throws IOException {
+        writeRule(out, rule.getId(), rule.getMatcher(), rule.getQualifiedExtraAttributes(),
+            rule.getConfigurations());
+    }
+
+    private static void writeRule(DataOutput out, ArtifactId aid, PatternMatcher matcher,
+            Map<String, String> extraAttributes, String[] confs) throws IOException {
+        writeString(out, aid.getModuleId().getOrganisation());
+        writeString(out, aid.getModuleId().getName());
+        writeString(out, aid.getName());
+        writeString(out, aid.getType());
+        writeString(out, aid.getExt());
+        writeString(out, matcher.getName());
+        writeMap(out, extraAttributes);
+        writeStrings(out, confs);
+    }
+
+    private static void writeModuleIdMatcher(DataOutput out, MapMatcher matcher)
+            throws IOException {
+        writeString(out, matcher.getAttributes().get(IvyPatternHelper.ORGANISATION_KEY));
+        writeString(out, matcher.getAttributes().get(IvyPatternHelper.MODULE_KEY));
+        writeString(out, matcher.getPatternMatcher().getName());
+    }
+
+    private static void writeExtraInfos(DataOutput out, List<ExtraInfoHolder> extraInfos)
+            throws IOException {
+        out.writeInt(extraInfos.size());
+        for (ExtraInfoHolder extraInfo : extraInfos) {
+            writeString(out, extraInfo.getName());
+            writeMap(out, extraInfo.getAttributes());
+            writeString(out, extraInfo.getContent());
+            writeExtraInfos(out, extraInfo.getNestedExtraInfoHolder());
+        }
+    }
+
+    private static void writeModuleRevisionId(DataOutput out, ModuleRevisionId mrid)
+            throws IOException {
+        writeString(out, mrid.getOrganisation());
+        writeString(out, mrid.getName());
+        writeString(out, mrid.getBranch());
+        writeString(out, mrid.getRevision());
+        writeMap(out, mrid.getQualifiedExtraAttributes());
+    }
+
+    private static void writeMap(DataOutput out, Map<String, String> map) throws IOException {
+        out.writeInt(map == null ? 0 : map.size());
+        if (map != null) {
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+    }
+
+    private static void writeStrings(DataOutput out, String[] strings) throws IOException {
+        out.writeInt(strings.length);
+        for (String str : strings) {
+            writeString(out, str);
+        }
+    }
+
+    private static void writeURL(DataOutput out, URL url) throws IOException {
+        writeString(out, url == null ? null : url.toExternalForm());
+    }
+
+    private static void writeDate(DataOutput out, Date date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.getTime());
+        }
+    }
+
+    private static void writeString(DataOutput out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+        } else {
+            // unlike writeUTF, not limited to 64k
+            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads back a module descriptor written by {@link #write(ModuleDescriptor, DataOutput)}.
+     *
+     * @param in
+     *            where to read the module descriptor
+     * @param settings
+     *            the settings in which the pattern matchers and conflict managers are looked up
+     * @param parser
+     *            the parser of the original module descriptor
+     * @param res
+     *            the resource of the original module descriptor
+     * @return the module descriptor
+     * @throws IOException
+     *             if the module descriptor can't be read
+     */
+    public static ModuleDescriptor read(DataInput in, ParserSettings settings,
+            ModuleDescriptorParser parser, Resource res) throws IOException {
+        DefaultModuleDescriptor md = new DefaultModuleDescriptor(parser, res);
+        md.setModuleRevisionId(readModuleRevisionId(in));
+        md.setResolvedModuleRevisionId(readModuleRevisionId(in));
+        md.setStatus(readString(in));
+        Date publicationDate = readDate(in);
+        Date resolvedPublicationDate = readDate(in);
+        if (resolvedPublicationDate != null) {
+            md.setResolvedPublicationDate(resolvedPublicationDate);
+        }
+        md.setPublicationDate(publicationDate);
+        md.setDefault(in.readBoolean());
+        md.setHomePage(readString(in));
+        md.setDescription(readString(in));
+        md.setLastModified(in.readLong());
+        md.setDefaultConf(readString(in));
+        md.setDefaultConfMapping(readString(in));
+        md.setMappingOverride(in.readBoolean());
+        md.setModuleArtifact(DefaultArtifact.newIvyArtifact(md.getResolvedModuleRevisionId(),
+            md.getPublicationDate()));
+
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            md.addLicense(new License(readString(in), readString(in)));
+        }
+        for (Map.Entry<String, String> namespace : readMap(in).entrySet()) {
+            md.addExtraAttributeNamespace(namespace.getKey(), namespace.getValue());
+        }
+        for (ExtraInfoHolder extraInfo : readExtraInfos(in)) {
+            md.addExtraInfo(extraInfo);
+        }
+
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Configuration conf = new Configuration(readString(in),
+                    Configuration.Visibility.getVisibility(readString(in)), readString(in),
+                    readStrings(in), in.readBoolean(), readString(in));
+            for (Map.Entry<String, String> attribute : readMap(in).entrySet()) {
+                conf.setExtraAttribute(attribute.getKey(), attribute.getValue());
+            }
+            md.addConfiguration(conf);
+        }
+
+        count = in.readInt();
+        List<MDArtifact> artifacts = new ArrayList<>(count);
+        List<List<String>> artifactConfs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            String type = readString(in);
+            String ext = readString(in);
+            URL url = readURL(in);
+            Map<String, String> extraAttributes = readMap(in);
+            MDArtifact artifact = new MDArtifact(md, name, type, ext, url,
+                    extraAttributes.isEmpty() ? null : extraAttributes);
+            for (String conf : readStrings(in)) {
+                artifact.addConfiguration(conf);
+            }
+            artifacts.add(artifact);
+            artifactConfs.add(new ArrayList<String>());
+        }
+        for (Map.Entry<String, int[]> entry : readConfigurationMap(in).entrySet()) {
+            for (int index : entry.getValue()) {
+                artifactConfs.get(index).add(entry.getKey());
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            for (String conf : artifactConfs.get(i)) {
+                md.addArtifact(conf, artifacts.get(i));
+            }
+        }
+
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            md.addDependency(readDependency(in, md, settings));
+        }
+
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            md.addExcludeRule(readExcludeRule(in, settings));
+        }
+
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            ModuleId mid = readModuleId(in);
+            PatternMatcher matcher = readMatcher(in, settings);
+            ConflictManager cm;
+            if (in.readBoolean()) {
+                cm = new FixedConflictManager(readStrings(in));
+            } else {
+                String name = readString(in);
+                cm = settings.getConflictManager(name);
+                if (cm == null) {
+                    throw new IOException("unknown conflict manager " + name);
+                }
+            }
+            md.addConflictManager(mid, matcher, cm);
+        }
+
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            ModuleId mid = readModuleId(in);
+            PatternMatcher matcher = readMatcher(in, settings);
+            md.addDependencyDescriptorMediator(mid, matcher,
+                new OverrideDependencyDescriptorMediator(readString(in), readString(in)));
+        }
+        return md;
+    }
+
+    private static DefaultDependencyDescriptor readDependency(DataInput in,
+            DefaultModuleDescriptor md, ParserSettings settings) throws IOException {
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(md,
+                readModuleRevisionId(in), readModuleRevisionId(in), in.readBoolean(),
+                in.readBoolean(), in.readBoolean());
+
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String masterConf = readString(in);
+            for (String depConf : readStrings(in)) {
+                dd.addDependencyConfiguration(masterConf, depConf);
+            }
+        }
+
+        Map<String, int[]> confsMap = readConfigurationMap(in);
+        count = in.readInt();
+        List<DependencyArtifactDescriptor> dads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DefaultDependencyArtifactDescriptor dad = new DefaultDependencyArtifactDescriptor(dd,
+                    readString(in), readString(in), readString(in), readURL(in), readMap(in));
+            for (String conf : readStrings(in)) {
+                dad.addConfiguration(conf);
+            }
+            dads.add(dad);
+        }
+        for (Map.Entry<String, int[]> entry : confsMap.entrySet()) {
+            for (int index : entry.getValue()) {
+                dd.addDependencyArtifact(entry.getKey(), dads.get(index));
+            }
+        }
+
+        confsMap = readConfigurationMap(in);
+        count = in.readInt();
+        List<IncludeRule> includeRules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            includeRules.add(readIncludeRule(in, settings));
+        }
+        for (Map.Entry<String, int[]> entry : confsMap.entrySet()) {
+            for (int index : entry.getValue()) {
+                dd.addIncludeRule(entry.getKey(), includeRules.get(index));
+            }
+        }
+
+        confsMap = readConfigurationMap(in);
+        count = in.readInt();
+        List<ExcludeRule> excludeRules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            excludeRules.add(readExcludeRule(in, settings));
+        }
+        for (Map.Entry<String, int[]> entry : confsMap.entrySet()) {
+            for (int index : entry.getValue()) {
+                dd.addExcludeRule(entry.getKey(), excludeRules.get(index));
+            }
+        }
+        return dd;
+    }
+
+    private static Map<String, int[]> readConfigurationMap(DataInput in) throws IOException {
+        int count = in.readInt();
+        Map<String, int[]> confsMap = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String conf = readString(in);
+            int[] indexes = new int[in.readInt()];
+            for (int j = 0; j < indexes.length; j++) {
+                indexes[j] = in.readInt();
+            }
+            confsMap.put(conf, indexes);
+        }
+        return confsMap;
+    }
+
+    private static IncludeRule readIncludeRule(DataInput in, ParserSettings settings)
+            throws IOException {
+        ArtifactId aid = readArtifactId(in);
+        DefaultIncludeRule rule = new DefaultIncludeRule(aid, readMatcher(in, settings),
+                readMap(in));
+        for (String conf : readStrings(in)) {
+            rule.addConfiguration(conf);
+        }
+        return rule;
+    }
+
+    private static ExcludeRule readExcludeRule(DataInput in, ParserSettings settings)
+            throws IOException {
+        ArtifactId aid = readArtifactId(in);
+        DefaultExcludeRule rule = new DefaultExcludeRule(aid, readMatcher(in, settings),
+                readMap(in));
+        for (String conf : readStrings(in)) {
+            rule.addConfiguration(conf);
+        }
+        return rule;
+    }
+
+    private static ArtifactId readArtifactId(DataInput in) throws IOException {
+        ModuleId mid = readModuleId(in);
+        return ArtifactId.newInstance(mid, readString(in), readString(in), readString(in));
+    }
+
+    private static ModuleId readModuleId(DataInput in) throws IOException {
+        return ModuleId.newInstance(readString(in), readString(in));
+    }
+
+    private static PatternMatcher readMatcher(DataInput in, ParserSettings settings)
+            throws IOException {
+        String name = readString(in);
+        PatternMatcher matcher = settings.getMatcher(name);
+        if (matcher == null) {
+            throw new IOException("unknown matcher " + name);
+        }
+        return matcher;
+    }
+
+    private static List<ExtraInfoHolder> readExtraInfos(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<ExtraInfoHolder> extraInfos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExtraInfoHolder extraInfo = new ExtraInfoHolder();
+            extraInfo.setName(readString(in));
+            extraInfo.setAttributes(readMap(in));
+            extraInfo.setContent(readString(in));
+            extraInfo.setNestedExtraInfoHolder(readExtraInfos(in));
+            extraInfos.add(extraInfo);
+        }
+        return extraInfos;
+    }
+
+    private static ModuleRevisionId readModuleRevisionId(DataInput in) throws IOException {
+        String organisation = readString(in);
+        String name = readString(in);
+        String branch = readString(in);
+        String revision = readString(in);
+        // the default branch has already been applied when the descriptor has been parsed
+        return ModuleRevisionId.newInstance(organisation, name, branch, revision, readMap(in),
+            false);
+    }
+
+    private static Map<String, String> readMap(DataInput in) throws IOException {
+        int count = in.readInt();
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String key = readString(in);
+            map.put(key, readString(in));
+        }
+        return map;
+    }
+
+    private static String[] readStrings(DataInput in) throws IOException {
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in);
+        }
+        return strings;
+    }
+
+    private static URL readURL(DataInput in) throws IOException {
+        String url = readString(in);
+        return url == null ? null : new URL(url);
+    }
+
+    private static Date readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -17,12 +17,60 @@
  */
 package org.apache.ivy.core.module.id;
 
+import org.apache.ivy.util.Interner;
+
 /**
  * Identifies an artifact in a module, without revision information
  *
  * @see <a href="package-summary.html">org.apache.ivy.core.module.id</a>
  */
 public class ArtifactId {
+    private static final Interner<ArtifactId> INTERNER = new Interner<>("artifact ids");
+
+    /**
+     * Returns an ArtifactId for the given module, artifact name, type and extension.
+     *
+     * @param mid
+     *            The ModuleId, which is the base of this artifact.
+     * @param name
+     *            The name of the artifact.
+     * @param type
+     *            The type of the artifact.
+     * @param ext
+     *            The name extension of the artifact.
+     * @return an ArtifactId instance
+     */
+    public static ArtifactId newInstance(ModuleId mid, String name, String type, String ext) {
+        ArtifactId artifactId = new ArtifactId(mid, name, type, ext);
+        if (mid == null || name == null || type == null || ext == null) {
+            // such an artifact id can't be compared
+            return artifactId;
+        }
+        return intern(artifactId);
+    }
+
+    /**
+     * Returns an intern instance of an ArtifactId equals to the given ArtifactId if any, or the
+     * given ArtifactId.
+     *
+     * @param artifactId
+     *            the artifact id to return
+     * @return a unit instance of the given artifact id.
+     */
+    public static ArtifactId intern(ArtifactId artifactId) {
+        return INTERNER.intern(artifactId);
+    }
+
+    /**
+     * Returns the pool of intern instances of ArtifactId, which tells how many instances interning
+     * has saved.
+     *
+     * @return the pool of intern instances
+     */
+    public static Interner<ArtifactId> getInterner() {
+        return INTERNER;
+    }
+
     private ModuleId mid;
 
     private String name;
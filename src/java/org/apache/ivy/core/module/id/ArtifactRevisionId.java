@@ -35,8 +35,8 @@ public class ArtifactRevisionId extends UnmodifiableExtendableItem {
 
     public static ArtifactRevisionId newInstance(ModuleRevisionId mrid, String name, String type,
             String ext, Map<String, String> extraAttributes) {
-        return new ArtifactRevisionId(new ArtifactId(mrid.getModuleId(), name, type, ext), mrid,
-                extraAttributes);
+        return new ArtifactRevisionId(ArtifactId.newInstance(mrid.getModuleId(), name, type,
+            ext), mrid, extraAttributes);
     }
 
     private ArtifactId artifactId;
@@ -18,9 +18,13 @@
 package org.apache.ivy.core.module.id;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
@@ -33,13 +37,15 @@ import org.apache.ivy.plugins.matcher.PatternMatcher;
  * matcher's attributes. When matcher is looked up against specific module, the key is recreated
  * from module's attributes.
  * <p>
- * The lookup doesn't target to speed up lookup for non exact pattern matcher. All non exact
- * matchers are placed in non-keyed collection.
+ * Non exact pattern matchers are indexed by the literal prefix of their organisation pattern, i.e.
+ * the part of the glob or regular expression preceding its first special character, in a prefix
+ * tree. At lookup for matchers against specific module, only the non exact pattern matchers whose
+ * prefix starts the organisation of the module are matched with module attributes, and exact
+ * pattern matchers binding to the same key will also iterated to match with module attributes.
  * </p>
  * <p>
- * At lookup for matchers against specific module, all non exact pattern matchers are iterated to
- * match with module attributes, and exact pattern matchers binding to the same key will also
- * iterated to match with module attributes.
+ * The matchers found for a module are then kept until a matcher is added, so that looking them up
+ * again for the same module, as done for each node of a resolve, doesn't match them again.
  * </p>
  * <p>
  * If there are much more exact pattern matchers than non exact pattern matchers, the matcher lookup
@@ -57,22 +63,56 @@ public class MatcherLookup {
 
     private static final String DEFAULT = "{org:" + "default" + ", module:" + "default" + "}";
 
+    /**
+     * The maximum number of modules for which the matchers found are kept.
+     */
+    private static final int CACHE_SIZE = 10000;
+
+    private static final String REGEXP_SPECIAL_CHARS = "\\[](){}.*+?^$|";
+
+    private static final String GLOB_SPECIAL_CHARS = "\\[]{}*?";
+
     private Map<String, List<MapMatcher>> lookup = new HashMap<>();
 
     private List<MapMatcher> nonExactMatchers = new ArrayList<>();
 
+    /**
+     * The indexes of the non exact matchers, by literal prefix of their organisation pattern.
+     */
+    private PrefixNode nonExactIndex = new PrefixNode();
+
+    /**
+     * The names of the attributes on which the matchers depend, the organisation and module ones
+     * first.
+     */
+    private List<String> attributeNames = new ArrayList<>(Arrays.asList(
+        IvyPatternHelper.ORGANISATION_KEY, IvyPatternHelper.MODULE_KEY));
+
+    /**
+     * The matchers found so far, by values of the attributes on which they depend.
+     */
+    private final Map<List<String>, List<MapMatcher>> found = new ConcurrentHashMap<>();
+
     /**
      * Add matcher.
      *
      * If matcher is exact pattern matcher, it will be associated with a key and placed in keyed
      * collection.
      *
-     * If matcher is not exact pattern matcher, it will be placed into non-keyed collection
+     * If matcher is not exact pattern matcher, it will be placed into non-keyed collection, indexed
+     * by the literal prefix of its organisation pattern.
      *
      * @param matcher MapMatcher
      */
     public void add(MapMatcher matcher) {
+        found.clear();
+        for (Map.Entry<String, String> attribute : matcher.getAttributes().entrySet()) {
+            if (attribute.getValue() != null && !attributeNames.contains(attribute.getKey())) {
+                attributeNames.add(attribute.getKey());
+            }
+        }
         if (!(matcher.getPatternMatcher() instanceof ExactPatternMatcher)) {
+            nonExactIndex.add(getLiteralPrefix(matcher), nonExactMatchers.size());
             nonExactMatchers.add(matcher);
             return;
         }
@@ -89,13 +129,32 @@ public class MatcherLookup {
      * @param attrs
      *            A map of attributes that matcher should match.
      *
-     * @return a list of matchers that can apply to module withs specified attributes
+     * @return an unmodifiable list of matchers that can apply to module withs specified attributes
      */
     public List<MapMatcher> get(Map<String, String> attrs) {
+        String[] values = new String[attributeNames.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = attrs.get(attributeNames.get(i));
+        }
+        List<String> foundKey = Arrays.asList(values);
+        List<MapMatcher> matchers = found.get(foundKey);
+        if (matchers == null) {
+            matchers = Collections.unmodifiableList(find(attrs));
+            if (found.size() >= CACHE_SIZE) {
+                found.clear();
+            }
+            found.put(foundKey, matchers);
+        }
+        return matchers;
+    }
+
+    private List<MapMatcher> find(Map<String, String> attrs) {
         List<MapMatcher> matchers = new ArrayList<>();
-        // Step 1: find matchers from nonExactMatchers list
+        // Step 1: find matchers from nonExactMatchers list, in the order they have been added
         if (!nonExactMatchers.isEmpty()) {
-            for (MapMatcher matcher : nonExactMatchers) {
+            BitSet candidates = nonExactIndex.find(attrs.get(IvyPatternHelper.ORGANISATION_KEY));
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                MapMatcher matcher = nonExactMatchers.get(i);
                 if (matcher.matches(attrs)) {
                     matchers.add(matcher);
                 }
@@ -125,6 +184,36 @@ public class MatcherLookup {
         return matchers;
     }
 
+    /**
+     * Returns the literal part of the organisation pattern of the given matcher with which any
+     * matching organisation starts, possibly empty.
+     */
+    private static String getLiteralPrefix(MapMatcher matcher) {
+        String expression = matcher.getAttributes().get(IvyPatternHelper.ORGANISATION_KEY);
+        String syntax = matcher.getPatternMatcher().getName();
+        if (expression == null) {
+            return "";
+        }
+        boolean regexp = PatternMatcher.REGEXP.equals(syntax)
+                || PatternMatcher.EXACT_OR_REGEXP.equals(syntax);
+        if (!regexp && !PatternMatcher.GLOB.equals(syntax)
+                || regexp && expression.indexOf('|') != -1) {
+            // unknown syntax, or alternatives
+            return "";
+        }
+        String specialChars = regexp ? REGEXP_SPECIAL_CHARS : GLOB_SPECIAL_CHARS;
+        int end = 0;
+        while (end < expression.length() && specialChars.indexOf(expression.charAt(end)) == -1) {
+            end++;
+        }
+        if (regexp && end > 0 && end < expression.length()
+                && "*?{".indexOf(expression.charAt(end)) != -1) {
+            // the character before this quantifier may not be there
+            end--;
+        }
+        return expression.substring(0, end);
+    }
+
     /**
      * Create a key from specified attributes
      *
@@ -142,4 +231,44 @@ public class MatcherLookup {
         return "{org:" + org + ", module:" + module + "}";
     }
 
+    /**
+     * A node of the prefix tree of the non exact matchers, holding the indexes of the matchers
+     * whose prefix leads to it.
+     */
+    private static final class PrefixNode {
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+
+        private final BitSet matchers = new BitSet();
+
+        void add(String prefix, int matcher) {
+            PrefixNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                PrefixNode child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    child = new PrefixNode();
+                    node.children.put(prefix.charAt(i), child);
+                }
+                node = child;
+            }
+            node.matchers.set(matcher);
+        }
+
+        /**
+         * @return the indexes of the matchers whose prefix starts the given value
+         */
+        BitSet find(String value) {
+            BitSet found = (BitSet) matchers.clone();
+            if (value != null) {
+                PrefixNode node = this;
+                for (int i = 0; i < value.length(); i++) {
+                    node = node.children.get(value.charAt(i));
+                    if (node == null) {
+                        break;
+                    }
+                    found.or(node.matchers);
+                }
+            }
+            return found;
+        }
+    }
 }
@@ -17,14 +17,13 @@
  */
 package org.apache.ivy.core.module.id;
 
-import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.util.Interner;
 
 /**
  * Identifies a module, without revision information
@@ -35,7 +34,7 @@ public class ModuleId implements Comparable<ModuleId> {
 
     static final String ENCODE_SEPARATOR = ":#@#:";
 
-    private static final Map<ModuleId, WeakReference<ModuleId>> CACHE = new WeakHashMap<>();
+    private static final Interner<ModuleId> INTERNER = new Interner<>("module ids");
 
     /**
      * Returns a ModuleId for the given organization and module name.
@@ -63,20 +62,17 @@ public class ModuleId implements Comparable<ModuleId> {
      * @return a unit instance of the given module id.
      */
     public static ModuleId intern(ModuleId moduleId) {
-        ModuleId r = null;
-
-        synchronized (CACHE) {
-            WeakReference<ModuleId> ref = CACHE.get(moduleId);
-            if (ref != null) {
-                r = ref.get();
-            }
-            if (r == null) {
-                r = moduleId;
-                CACHE.put(r, new WeakReference<>(r));
-            }
-        }
+        return INTERNER.intern(moduleId);
+    }
 
-        return r;
+    /**
+     * Returns the pool of intern instances of ModuleId, which tells how many instances interning
+     * has saved.
+     *
+     * @return the pool of intern instances
+     */
+    public static Interner<ModuleId> getInterner() {
+        return INTERNER;
     }
 
     private String organisation;
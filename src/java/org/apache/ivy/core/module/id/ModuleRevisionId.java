@@ -17,16 +17,15 @@
  */
 package org.apache.ivy.core.module.id;
 
-import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.ivy.Ivy;
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.util.Interner;
 import org.apache.ivy.util.extendable.UnmodifiableExtendableItem;
 
 /**
@@ -46,7 +45,8 @@ public class ModuleRevisionId extends UnmodifiableExtendableItem {
 
     private static final String REV_STRICT_CHARS_PATTERN = "[a-zA-Z0-9\\-/\\._+=,\\[\\]\\{\\}\\(\\):@]";
 
-    private static final Map<ModuleRevisionId, WeakReference<ModuleRevisionId>> CACHE = new WeakHashMap<>();
+    private static final Interner<ModuleRevisionId> INTERNER = new Interner<>(
+            "module revision ids");
 
     /**
      * Pattern to use to matched mrid text representation.
@@ -147,20 +147,17 @@ public class ModuleRevisionId extends UnmodifiableExtendableItem {
      * @return an interned ModuleRevisionId
      */
     public static ModuleRevisionId intern(ModuleRevisionId moduleRevisionId) {
-        ModuleRevisionId r = null;
-
-        synchronized (CACHE) {
-            WeakReference<ModuleRevisionId> ref = CACHE.get(moduleRevisionId);
-            if (ref != null) {
-                r = ref.get();
-            }
-            if (r == null) {
-                r = moduleRevisionId;
-                CACHE.put(r, new WeakReference<>(r));
-            }
-        }
+        return INTERNER.intern(moduleRevisionId);
+    }
 
-        return r;
+    /**
+     * Returns the pool of intern instances of ModuleRevisionId, which tells how many instances
+     * interning has saved.
+     *
+     * @return the pool of intern instances
+     */
+    public static Interner<ModuleRevisionId> getInterner() {
+        return INTERNER;
     }
 
     private final ModuleId moduleId;
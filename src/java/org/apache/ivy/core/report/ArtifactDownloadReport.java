@@ -59,6 +59,8 @@ public class ArtifactDownloadReport {
 
     private Artifact unpackedArtifact;
 
+    private boolean missingCached;
+
     public ArtifactDownloadReport(Artifact artifact) {
         this.artifact = artifact;
     }
@@ -128,6 +130,9 @@ public class ArtifactDownloadReport {
             return "[SUCCESSFUL ] " + artifact + " (" + downloadTimeMillis + "ms)";
         } else if (downloadStatus == DownloadStatus.FAILED) {
             if (MISSING_ARTIFACT.equals(downloadDetails)) {
+                if (missingCached) {
+                    return "[NOT FOUND  ] " + artifact + " (known missing)";
+                }
                 return "[NOT FOUND  ] " + artifact + " (" + downloadTimeMillis + "ms)";
             } else {
                 return "[FAILED     ] " + artifact + ": " + downloadDetails + " ("
@@ -158,6 +163,20 @@ public class ArtifactDownloadReport {
         return DownloadStatus.SUCCESSFUL == downloadStatus;
     }
 
+    /**
+     * Returns true if the artifact hasn't been looked for in the repository, because the cache
+     * recorded it has been found missing recently.
+     *
+     * @return true if the artifact is missing according to the cache
+     */
+    public boolean isMissingCached() {
+        return missingCached;
+    }
+
+    public void setMissingCached(boolean missingCached) {
+        this.missingCached = missingCached;
+    }
+
     public void setUnpackedLocalFile(File unpackedLocalFile) {
         this.unpackedLocalFile = unpackedLocalFile;
     }
@@ -0,0 +1,120 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.report;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.resolve.ResolveEngine;
+import org.apache.ivy.core.resolve.ResolveOptions;
+import org.apache.ivy.plugins.report.XmlReportParser;
+
+/**
+ * The report of the resolve of a configuration, read back from the XML report that a previous
+ * resolve has stored in the resolution cache.
+ * <p>
+ * Such a report holds the resolved module revisions and the reports of the download of their
+ * artifacts, but not the dependency graph: the methods returning nodes of this graph return
+ * empty arrays or <code>null</code>. Being the report of a resolve which had no error and whose
+ * result is unchanged, it has no error and it hasn't changed.
+ * </p>
+ */
+public class CachedConfigurationResolveReport extends ConfigurationResolveReport {
+
+    private final List<ModuleRevisionId> mrids;
+
+    private final List<ArtifactDownloadReport> artifactReports;
+
+    public CachedConfigurationResolveReport(ResolveEngine resolveEngine, ModuleDescriptor md,
+            String conf, Date date, ResolveOptions options, XmlReportParser parser) {
+        super(resolveEngine, md, conf, date, options);
+        this.mrids = Arrays.asList(parser.getDependencyRevisionIds());
+        this.artifactReports = Arrays.asList(parser.getArtifactReports());
+    }
+
+    @Override
+    public void checkIfChanged() {
+    }
+
+    @Override
+    public boolean hasChanged() {
+        return false;
+    }
+
+    @Override
+    public Set<ModuleRevisionId> getModuleRevisionIds() {
+        return new LinkedHashSet<>(mrids);
+    }
+
+    @Override
+    public ArtifactDownloadReport[] getDownloadReports(ModuleRevisionId mrid) {
+        Collection<ArtifactDownloadReport> reports = new ArrayList<>();
+        for (ArtifactDownloadReport report : artifactReports) {
+            if (report.getArtifact().getModuleRevisionId().equals(mrid)) {
+                reports.add(report);
+            }
+        }
+        return reports.toArray(new ArtifactDownloadReport[reports.size()]);
+    }
+
+    @Override
+    public List<ModuleId> getModuleIds() {
+        Set<ModuleId> mids = new LinkedHashSet<>();
+        for (ModuleRevisionId mrid : mrids) {
+            mids.add(mrid.getModuleId());
+        }
+        return new ArrayList<>(mids);
+    }
+
+    @Override
+    public int getArtifactsNumber() {
+        return artifactReports.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The XML report doesn't hold the artifacts of the evicted modules, so they are never part of
+     * the returned reports.
+     * </p>
+     */
+    @Override
+    public ArtifactDownloadReport[] getArtifactsReports(DownloadStatus downloadStatus,
+            boolean withEvicted) {
+        Collection<ArtifactDownloadReport> reports = new ArrayList<>();
+        for (ArtifactDownloadReport report : artifactReports) {
+            if (downloadStatus == null || report.getDownloadStatus() == downloadStatus) {
+                reports.add(report);
+            }
+        }
+        return reports.toArray(new ArtifactDownloadReport[reports.size()]);
+    }
+
+    @Override
+    public int getNodesNumber() {
+        return mrids.size();
+    }
+}
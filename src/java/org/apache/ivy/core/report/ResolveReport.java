@@ -242,9 +242,22 @@ public class ResolveReport {
         }
     }
 
+    /**
+     * Sets the list of the artifacts of this report, when it is not computed from the
+     * dependencies, like for a report read from the resolution cache.
+     *
+     * @param artifacts
+     *            the artifacts of this report
+     */
+    public void setArtifacts(List<Artifact> artifacts) {
+        this.artifacts = artifacts;
+    }
+
     /**
      * Returns the list of all dependencies concerned by this report as a List of IvyNode ordered
-     * from the more dependent to the least one
+     * from the more dependent to the least one. It is empty when the report has been read back from
+     * the resolution cache instead of resolving the dependencies, see
+     * {@link org.apache.ivy.core.resolve.ResolveOptions#setUseFingerprint(boolean)}.
      *
      * @return The list of all dependencies.
      */
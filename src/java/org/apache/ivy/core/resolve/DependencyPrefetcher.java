@@ -0,0 +1,188 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.IvyExecutors;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.parser.m2.PomModelCache;
+import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.util.Message;
+
+/**
+ * Fetches the module descriptors of dependencies on a bounded pool of threads, ahead of the
+ * dependency graph traversal done by the {@link ResolveEngine}.
+ * <p>
+ * The traversal waits for any pending prefetch of a module revision before loading it, so that a
+ * module revision is never fetched by two threads at the same time, and conflict resolution is
+ * left untouched. The result of the lookup is then handed over to the traversal when it is about
+ * the same dependency and resolver, so that the module revision is reported as found by this
+ * lookup, as in a sequential resolve, rather than as found in the cache by a second one.
+ * </p>
+ */
+class DependencyPrefetcher {
+    private final ResolveEngine engine;
+
+    private final ResolveOptions options;
+
+    private final ExecutorService executor;
+
+    private final PomModelCache pomModelCache;
+
+    private final Map<ModuleRevisionId, Prefetch> pending = new ConcurrentHashMap<>();
+
+    DependencyPrefetcher(ResolveEngine engine, ResolveOptions options,
+            PomModelCache pomModelCache) {
+        this.engine = engine;
+        this.pomModelCache = pomModelCache;
+        // prefetch lookups are never prefetched themselves
+        this.options = new ResolveOptions(options).setParallelism(1);
+        this.executor = IvyExecutors.newFixedThreadPool("prefetch", options.getParallelism());
+    }
+
+    /**
+     * Schedules the lookup of the given dependency with the given resolver, unless a lookup of the
+     * same module revision has already been scheduled.
+     *
+     * @param dd
+     *            the dependency to look up
+     * @param resolver
+     *            the resolver the traversal will use to load the dependency
+     */
+    void prefetch(final DependencyDescriptor dd, final DependencyResolver resolver) {
+        final ModuleRevisionId mrid = dd.getDependencyRevisionId();
+        if (pending.containsKey(mrid)) {
+            return;
+        }
+        // the lookup runs with its own resolve data, so that it can't interfere with the traversal,
+        // but it shares the parent and imported poms loaded by the resolve
+        IvyContext context = new IvyContext(IvyContext.getContext());
+        final ResolveData data = new ResolveData(engine, options);
+        data.setPomModelCache(pomModelCache);
+        context.setResolveData(data);
+        Future<ResolvedModuleRevision> future = executor.submit(IvyExecutors.inContext(context,
+            new Callable<ResolvedModuleRevision>() {
+                public ResolvedModuleRevision call() {
+                    try {
+                        Message.debug("\tprefetching " + mrid + " using " + resolver);
+                        return resolver.getDependency(dd, data);
+                    } catch (Exception e) {
+                        // the traversal will do the same lookup and report the problem if any
+                        Message.debug("\tprefetch of " + mrid + " failed: " + e);
+                        return null;
+                    }
+                }
+            }));
+        pending.put(mrid, new Prefetch(dd, resolver, future));
+    }
+
+    /**
+     * Waits for the prefetch of the given dependency to be over, if any has been scheduled. When
+     * the revision of the dependency is dynamic, all pending prefetches are awaited, since it may
+     * resolve to any of them.
+     *
+     * @param dd
+     *            the dependency about to be loaded by the traversal
+     * @param resolver
+     *            the resolver the traversal is about to use to load it
+     * @param dynamic
+     *            true if the revision of the dependency is dynamic
+     * @return the module revision found by the prefetch of this dependency with this resolver, to
+     *         be used instead of looking it up again, or <code>null</code> if it has to be looked
+     *         up. It is returned only once.
+     */
+    ResolvedModuleRevision await(DependencyDescriptor dd, DependencyResolver resolver,
+            boolean dynamic) {
+        if (dynamic) {
+            for (Prefetch prefetch : new ArrayList<>(pending.values())) {
+                await(prefetch.future);
+            }
+            return null;
+        }
+        Prefetch prefetch = pending.get(dd.getDependencyRevisionId());
+        if (prefetch == null) {
+            return null;
+        }
+        ResolvedModuleRevision rmr = await(prefetch.future);
+        if (rmr == null || prefetch.dd != dd || prefetch.resolver != resolver
+                || !prefetch.taken.compareAndSet(false, true)) {
+            return null;
+        }
+        return rmr;
+    }
+
+    private ResolvedModuleRevision await(Future<ResolvedModuleRevision> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("operation interrupted", e);
+        } catch (ExecutionException e) {
+            // already logged by the prefetch task
+            return null;
+        }
+    }
+
+    /**
+     * Stops the prefetcher, cancelling the lookups not started yet and waiting for the running
+     * ones to complete so that no cache update happens after the resolve.
+     */
+    void shutdown() {
+        for (Prefetch prefetch : pending.values()) {
+            // running lookups are not interrupted, to avoid leaving partial files in the cache
+            prefetch.future.cancel(false);
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                Message.verbose("waiting for running prefetches to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Prefetch {
+        private final DependencyDescriptor dd;
+
+        private final DependencyResolver resolver;
+
+        private final Future<ResolvedModuleRevision> future;
+
+        // whether the result of the lookup has been handed over to the traversal
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        private Prefetch(DependencyDescriptor dd, DependencyResolver resolver,
+                Future<ResolvedModuleRevision> future) {
+            this.dd = dd;
+            this.resolver = resolver;
+            this.future = future;
+        }
+    }
+}
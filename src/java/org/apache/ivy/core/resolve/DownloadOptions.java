@@ -21,7 +21,35 @@ import org.apache.ivy.core.LogOptions;
 
 public class DownloadOptions extends LogOptions {
 
+    /**
+     * The maximum number of dependencies for which artifacts are downloaded concurrently.
+     */
+    private int parallelism = 1;
+
     public DownloadOptions() {
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of dependencies for which artifacts are downloaded concurrently when
+     * downloading the artifacts of a whole resolve report. Resolvers may further limit the number
+     * of their own concurrent downloads.
+     *
+     * @param parallelism
+     *            the number of concurrent downloads, must be greater than 0
+     * @return this
+     * @see org.apache.ivy.plugins.resolver.AbstractResolver#setMaxParallelDownloads(int)
+     */
+    public DownloadOptions setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0: "
+                    + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
 }
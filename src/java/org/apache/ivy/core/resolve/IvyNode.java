@@ -185,10 +185,16 @@ public class IvyNode implements Comparable<IvyNode> {
                     long start = System.currentTimeMillis();
                     ModuleRevisionId requestedRevisionId = dependencyDescriptor
                             .getDependencyRevisionId();
+                    ResolvedModuleRevision prefetched = null;
+                    if (data.getPrefetcher() != null) {
+                        prefetched = data.getPrefetcher().await(dependencyDescriptor, resolver,
+                            settings.getVersionMatcher().isDynamic(requestedRevisionId));
+                    }
                     data.getEventManager().fireIvyEvent(
                         new StartResolveDependencyEvent(resolver, dependencyDescriptor,
                                 requestedRevisionId));
-                    module = resolver.getDependency(dependencyDescriptor, data);
+                    module = prefetched != null ? prefetched
+                            : resolver.getDependency(dependencyDescriptor, data);
                     data.getEventManager().fireIvyEvent(
                         new EndResolveDependencyEvent(resolver, dependencyDescriptor,
                                 requestedRevisionId, module, System.currentTimeMillis() - start));
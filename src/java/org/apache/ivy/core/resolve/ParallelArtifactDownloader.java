@@ -0,0 +1,219 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.IvyExecutors;
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.report.DownloadReport;
+import org.apache.ivy.plugins.resolver.AbstractResolver;
+import org.apache.ivy.plugins.resolver.DependencyResolver;
+
+/**
+ * Downloads the artifacts of several dependencies concurrently, on a bounded pool of threads.
+ * <p>
+ * The downloads of all the dependencies are scheduled first, and their reports are then awaited
+ * one by one by the resolving thread, so that the reports can be aggregated in the same order as
+ * in a sequential download. The number of concurrent downloads is bounded globally by the size of
+ * the pool, and per resolver by {@link AbstractResolver#getMaxParallelDownloads()}: the downloads
+ * of a resolver which has reached its limit wait in a queue of their own rather than in the
+ * pool, so that they don't hold threads which the downloads of other resolvers could use.
+ * </p>
+ */
+class ParallelArtifactDownloader {
+    private static final long INTERRUPT_CHECK_PERIOD = 100;
+
+    private final ExecutorService executor;
+
+    private final Map<IvyNode, Future<DownloadReport>> downloads = new HashMap<>();
+
+    private final Map<String, ResolverQueue> resolverQueues = new HashMap<>();
+
+    ParallelArtifactDownloader(int parallelism) {
+        executor = IvyExecutors.newFixedThreadPool("download", parallelism);
+    }
+
+    /**
+     * Schedules the download of the given artifacts of a dependency.
+     *
+     * @param dependency
+     *            the dependency to which the artifacts belong
+     * @param resolver
+     *            the resolver to use to download the artifacts
+     * @param artifacts
+     *            the artifacts to download
+     * @param options
+     *            the download options
+     */
+    void schedule(IvyNode dependency, final DependencyResolver resolver,
+            final Artifact[] artifacts, final DownloadOptions options) {
+        Callable<DownloadReport> download = IvyExecutors.inCurrentContext(
+            new Callable<DownloadReport>() {
+                public DownloadReport call() {
+                    return resolver.download(artifacts, options);
+                }
+            });
+        ResolverQueue queue = getQueue(resolver);
+        downloads.put(dependency, queue == null ? executor.submit(download)
+                : queue.submit(download));
+    }
+
+    private ResolverQueue getQueue(DependencyResolver resolver) {
+        if (!(resolver instanceof AbstractResolver)) {
+            return null;
+        }
+        int max = ((AbstractResolver) resolver).getMaxParallelDownloads();
+        if (max <= 0) {
+            return null;
+        }
+        ResolverQueue queue = resolverQueues.get(resolver.getName());
+        if (queue == null) {
+            queue = new ResolverQueue(max);
+            resolverQueues.put(resolver.getName(), queue);
+        }
+        return queue;
+    }
+
+    /**
+     * Waits for the download of the artifacts of the given dependency to be over, checking
+     * regularly if the Ivy operation has been interrupted.
+     *
+     * @param dependency
+     *            a dependency for which the download has been scheduled
+     * @return the report of the download
+     */
+    DownloadReport getReport(IvyNode dependency) {
+        Future<DownloadReport> download = downloads.remove(dependency);
+        if (download == null) {
+            throw new IllegalStateException("no download scheduled for " + dependency);
+        }
+        while (true) {
+            IvyContext.getContext().getIvy().checkInterrupted();
+            try {
+                return download.get(INTERRUPT_CHECK_PERIOD, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // check for interruption and try again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("operation interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * The downloads of a resolver limiting its number of parallel downloads. They are submitted to
+     * the pool only while the limit isn't reached, the others waiting here for a download of the
+     * resolver to be over.
+     */
+    private final class ResolverQueue {
+        private final int maxParallelDownloads;
+
+        // guarded by this queue
+        private final Deque<QueuedDownload> waiting = new ArrayDeque<>();
+
+        private int running;
+
+        private ResolverQueue(int maxParallelDownloads) {
+            this.maxParallelDownloads = maxParallelDownloads;
+        }
+
+        Future<DownloadReport> submit(Callable<DownloadReport> download) {
+            QueuedDownload task = new QueuedDownload(download);
+            synchronized (this) {
+                if (running == maxParallelDownloads) {
+                    waiting.add(task);
+                    return task;
+                }
+                running++;
+                task.dispatched = true;
+            }
+            executor.execute(task);
+            return task;
+        }
+
+        private void done(QueuedDownload task) {
+            QueuedDownload next;
+            synchronized (this) {
+                if (!task.dispatched) {
+                    // cancelled while waiting
+                    waiting.remove(task);
+                    return;
+                }
+                next = waiting.poll();
+                if (next == null) {
+                    running--;
+                    return;
+                }
+                next.dispatched = true;
+            }
+            try {
+                executor.execute(next);
+            } catch (RejectedExecutionException e) {
+                // the downloader has been shut down
+                next.cancel(false);
+            }
+        }
+
+        private final class QueuedDownload extends FutureTask<DownloadReport> {
+            // guarded by the queue
+            private boolean dispatched;
+
+            private QueuedDownload(Callable<DownloadReport> download) {
+                super(download);
+            }
+
+            @Override
+            protected void done() {
+                ResolverQueue.this.done(this);
+            }
+        }
+    }
+
+    /**
+     * Stops the downloader, interrupting the downloads which are still scheduled.
+     */
+    void shutdown() {
+        for (Future<DownloadReport> download : downloads.values()) {
+            download.cancel(true);
+        }
+        downloads.clear();
+        executor.shutdownNow();
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.ConfigurationResolveReport;
+import org.apache.ivy.plugins.parser.m2.PomModelCache;
 import org.apache.ivy.util.Message;
 
 public class ResolveData {
@@ -47,11 +48,17 @@ public class ResolveData {
 
     private ResolvedModuleRevision currentResolvedModuleRevision;
 
+    private DependencyPrefetcher prefetcher;
+
+    private PomModelCache pomModelCache;
+
     public ResolveData(ResolveData data, boolean validate) {
         this(data.engine, new ResolveOptions(data.options).setValidate(validate), data.report,
                 data.visitData);
         setCurrentVisitNode(data.currentVisitNode);
         setCurrentResolvedModuleRevision(data.currentResolvedModuleRevision);
+        this.prefetcher = data.prefetcher;
+        this.pomModelCache = data.getPomModelCache();
     }
 
     public ResolveData(ResolveEngine engine, ResolveOptions options) {
@@ -332,4 +339,35 @@ public class ResolveData {
     public ResolvedModuleRevision getCurrentResolvedModuleRevision() {
         return currentResolvedModuleRevision;
     }
+
+    /**
+     * Returns the prefetcher used to fetch dependencies ahead of the traversal, or
+     * <code>null</code> if the resolve is not done in parallel.
+     *
+     * @return the dependency prefetcher, may be <code>null</code>.
+     */
+    DependencyPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    void setPrefetcher(DependencyPrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    /**
+     * Returns the cache of the parent and imported poms loaded during this resolve, shared by the
+     * copies of this resolve data.
+     *
+     * @return the cache of the poms loaded during this resolve
+     */
+    public synchronized PomModelCache getPomModelCache() {
+        if (pomModelCache == null) {
+            pomModelCache = new PomModelCache();
+        }
+        return pomModelCache;
+    }
+
+    synchronized void setPomModelCache(PomModelCache pomModelCache) {
+        this.pomModelCache = pomModelCache;
+    }
 }
@@ -39,6 +39,8 @@ import org.apache.ivy.Ivy;
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.LogOptions;
 import org.apache.ivy.core.cache.ArtifactOrigin;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.cache.ResolutionCacheManager;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.event.download.PrepareDownloadEvent;
@@ -57,6 +59,7 @@ import org.apache.ivy.core.report.ConfigurationResolveReport;
 import org.apache.ivy.core.report.DownloadReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.core.resolve.IvyNodeCallers.Caller;
 import org.apache.ivy.core.resolve.IvyNodeEviction.EvictionData;
 import org.apache.ivy.core.settings.IvySettings;
 import org.apache.ivy.core.sort.SortEngine;
@@ -65,6 +68,7 @@ import org.apache.ivy.plugins.conflict.ConflictManager;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParserRegistry;
 import org.apache.ivy.plugins.repository.url.URLResource;
+import org.apache.ivy.plugins.resolver.AbstractResolver;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
 import org.apache.ivy.plugins.version.VersionMatcher;
 import org.apache.ivy.util.Message;
@@ -189,6 +193,17 @@ public class ResolveEngine {
      */
     public ResolveReport resolve(URL ivySource, ResolveOptions options) throws ParseException,
             IOException {
+        ResolveFingerprint fingerprint = null;
+        if (options.isUseFingerprint()) {
+            fingerprint = ResolveFingerprint.compute(ivySource, options, settings);
+            if (fingerprint != null && !options.isRefresh()) {
+                ResolveReport report = resolveFromFingerprint(fingerprint, options);
+                if (report != null) {
+                    return report;
+                }
+            }
+        }
+
         URLResource res = new URLResource(ivySource);
         ModuleDescriptorParser parser = ModuleDescriptorParserRegistry.getInstance().getParser(res);
         Message.verbose("using " + parser + " to parse " + ivySource);
@@ -202,7 +217,91 @@ public class ResolveEngine {
                 revision));
         }
 
-        return resolve(md, options);
+        ResolveReport report = resolve(md, options);
+        if (fingerprint != null) {
+            saveFingerprint(fingerprint, report, options);
+        }
+        return report;
+    }
+
+    /**
+     * Reads back the report of the previous resolve with the given fingerprint.
+     *
+     * @return the report, or <code>null</code> if the dependencies have to be resolved
+     */
+    private ResolveReport resolveFromFingerprint(ResolveFingerprint fingerprint,
+            ResolveOptions options) {
+        long start = System.currentTimeMillis();
+        ResolveReport report = fingerprint.read(this, options);
+        if (report == null) {
+            return null;
+        }
+        ModuleDescriptor md = report.getModuleDescriptor();
+        String[] confs = options.getConfs();
+        eventManager.fireIvyEvent(new StartResolveEvent(md, confs));
+        if (ResolveOptions.LOG_DEFAULT.equals(options.getLog())) {
+            Message.info(":: resolving dependencies :: " + md.getResolvedModuleRevisionId()
+                    + " [unchanged]");
+        } else {
+            Message.verbose(":: resolving dependencies :: " + md.getResolvedModuleRevisionId()
+                    + " [unchanged]");
+        }
+        Message.verbose("\tconfs: " + Arrays.asList(confs));
+        Message.verbose("\tresolve fingerprint unchanged: reports read from the cache");
+        report.setResolveTime(System.currentTimeMillis() - start);
+        eventManager.fireIvyEvent(new EndResolveEvent(md, confs, report));
+        return report;
+    }
+
+    private void saveFingerprint(ResolveFingerprint fingerprint, ResolveReport report,
+            ResolveOptions options) {
+        long expiration = report.hasError() || !options.isOutputReport() ? 0
+                : getCacheExpiration(report, options);
+        if (expiration <= System.currentTimeMillis()) {
+            fingerprint.delete();
+            return;
+        }
+        try {
+            fingerprint.save(report, options, expiration);
+        } catch (IOException e) {
+            Message.verbose("\timpossible to save the resolve fingerprint: " + e.getMessage());
+            fingerprint.delete();
+        }
+    }
+
+    /**
+     * Returns until when the revisions of the given report are taken from the caches of the
+     * resolvers which have resolved them, without checking their repositories.
+     *
+     * @return the expiration date in milliseconds, 0 if a repository is checked on each resolve
+     */
+    private long getCacheExpiration(ResolveReport report, ResolveOptions options) {
+        ResolveData data = new ResolveData(this, options);
+        long expiration = Long.MAX_VALUE;
+        for (IvyNode dependency : report.getDependencies()) {
+            if (dependency.getModuleRevision() == null) {
+                // evicted before being resolved: only a dynamic revision may resolve differently
+                for (Caller caller : dependency.getAllCallers()) {
+                    if (settings.getVersionMatcher().isDynamic(
+                        caller.getDependencyDescriptor().getDependencyRevisionId())) {
+                        return 0;
+                    }
+                }
+                continue;
+            }
+            DependencyResolver resolver = dependency.getModuleRevision().getResolver();
+            if (!(resolver instanceof AbstractResolver)) {
+                return 0;
+            }
+            for (Caller caller : dependency.getAllCallers()) {
+                expiration = Math.min(expiration, ((AbstractResolver) resolver)
+                        .getCacheExpiration(caller.getDependencyDescriptor(), data));
+                if (expiration == 0) {
+                    return 0;
+                }
+            }
+        }
+        return expiration;
     }
 
     /**
@@ -347,6 +446,7 @@ public class ResolveEngine {
 
                 DownloadOptions downloadOptions = new DownloadOptions();
                 downloadOptions.setLog(options.getLog());
+                downloadOptions.setParallelism(options.getParallelism());
                 downloadArtifacts(report, options.getArtifactFilter(), downloadOptions);
             }
 
@@ -356,6 +456,16 @@ public class ResolveEngine {
 
             Message.verbose("\tresolve done (" + report.getResolveTime() + "ms resolve - "
                     + report.getDownloadTime() + "ms download)");
+            Message.debug("\t" + ModuleRevisionId.getInterner());
+            Message.debug("\t" + ModuleId.getInterner());
+            for (RepositoryCacheManager repositoryCacheManager : IvyContext.getContext()
+                    .getSettings().getRepositoryCacheManagers()) {
+                if (repositoryCacheManager instanceof DefaultRepositoryCacheManager) {
+                    Message.debug("\t" + repositoryCacheManager.getName() + " memory cache: "
+                            + ((DefaultRepositoryCacheManager) repositoryCacheManager)
+                                    .getMemoryCacheStatistics());
+                }
+            }
             Message.sumupProblems();
 
             eventManager.fireIvyEvent(new EndResolveEvent(md, confs, report));
@@ -392,49 +502,84 @@ public class ResolveEngine {
         eventManager.fireIvyEvent(new PrepareDownloadEvent(report.getArtifacts().toArray(
             new Artifact[report.getArtifacts().size()])));
 
-        long totalSize = 0;
-        for (IvyNode dependency : report.getDependencies()) {
-            checkInterrupted();
-            // download artifacts required in all asked configurations
-            if (!dependency.isCompletelyEvicted() && !dependency.hasProblem()
-                    && dependency.getModuleRevision() != null) {
-                DependencyResolver resolver = dependency.getModuleRevision()
-                        .getArtifactResolver();
-                Artifact[] selectedArtifacts = dependency.getSelectedArtifacts(artifactFilter);
-                DownloadReport dReport = resolver.download(selectedArtifacts, options);
-                for (ArtifactDownloadReport adr : dReport.getArtifactsReports()) {
-                    if (adr.getDownloadStatus() == DownloadStatus.FAILED) {
-                        if (adr.getArtifact().getExtraAttribute("ivy:merged") != null) {
-                            Message.warn("\tmerged artifact not found: " + adr.getArtifact()
-                                    + ". It was required in "
-                                    + adr.getArtifact().getExtraAttribute("ivy:merged"));
-                        } else {
-                            Message.warn("\t" + adr);
-                            resolver.reportFailure(adr.getArtifact());
-                        }
-                    } else if (adr.getDownloadStatus() == DownloadStatus.SUCCESSFUL) {
-                        totalSize += adr.getSize();
-                    }
+        ParallelArtifactDownloader downloader = null;
+        if (options.getParallelism() > 1) {
+            downloader = new ParallelArtifactDownloader(options.getParallelism());
+            for (IvyNode dependency : report.getDependencies()) {
+                if (hasArtifactsToDownload(dependency)) {
+                    DependencyResolver resolver = dependency.getModuleRevision()
+                            .getArtifactResolver();
+                    Artifact[] selectedArtifacts = dependency.getSelectedArtifacts(artifactFilter);
+                    downloader.schedule(dependency, resolver, selectedArtifacts, options);
                 }
-                // update concerned reports
-                for (String dconf : dependency.getRootModuleConfigurations()) {
-                    // the report itself is responsible to take into account only
-                    // artifacts required in its corresponding configuration
-                    // (as described by the Dependency object)
-                    if (dependency.isEvicted(dconf)
-                            || dependency.isBlacklisted(dconf)) {
-                        report.getConfigurationReport(dconf).addDependency(dependency);
+            }
+        }
+        long totalSize = 0;
+        try {
+            for (IvyNode dependency : report.getDependencies()) {
+                checkInterrupted();
+                // download artifacts required in all asked configurations
+                if (hasArtifactsToDownload(dependency)) {
+                    DependencyResolver resolver = dependency.getModuleRevision()
+                            .getArtifactResolver();
+                    DownloadReport dReport;
+                    if (downloader == null) {
+                        Artifact[] selectedArtifacts = dependency
+                                .getSelectedArtifacts(artifactFilter);
+                        dReport = resolver.download(selectedArtifacts, options);
                     } else {
-                        report.getConfigurationReport(dconf).addDependency(dependency,
-                                dReport);
+                        dReport = downloader.getReport(dependency);
                     }
+                    totalSize += aggregateDownloadReport(report, dependency, resolver, dReport);
                 }
             }
+        } finally {
+            if (downloader != null) {
+                downloader.shutdown();
+            }
         }
         report.setDownloadTime(System.currentTimeMillis() - start);
         report.setDownloadSize(totalSize);
     }
 
+    private boolean hasArtifactsToDownload(IvyNode dependency) {
+        return !dependency.isCompletelyEvicted() && !dependency.hasProblem()
+                && dependency.getModuleRevision() != null;
+    }
+
+    private long aggregateDownloadReport(ResolveReport report, IvyNode dependency,
+            DependencyResolver resolver, DownloadReport dReport) {
+        long size = 0;
+        for (ArtifactDownloadReport adr : dReport.getArtifactsReports()) {
+            if (adr.getDownloadStatus() == DownloadStatus.FAILED) {
+                if (adr.getArtifact().getExtraAttribute("ivy:merged") != null) {
+                    Message.warn("\tmerged artifact not found: " + adr.getArtifact()
+                            + ". It was required in "
+                            + adr.getArtifact().getExtraAttribute("ivy:merged"));
+                } else {
+                    Message.warn("\t" + adr);
+                    resolver.reportFailure(adr.getArtifact());
+                }
+            } else if (adr.getDownloadStatus() == DownloadStatus.SUCCESSFUL) {
+                size += adr.getSize();
+            }
+        }
+        // update concerned reports
+        for (String dconf : dependency.getRootModuleConfigurations()) {
+            // the report itself is responsible to take into account only
+            // artifacts required in its corresponding configuration
+            // (as described by the Dependency object)
+            if (dependency.isEvicted(dconf)
+                    || dependency.isBlacklisted(dconf)) {
+                report.getConfigurationReport(dconf).addDependency(dependency);
+            } else {
+                report.getConfigurationReport(dconf).addDependency(dependency,
+                        dReport);
+            }
+        }
+        return size;
+    }
+
     /**
      * Download an artifact to the cache. Not used internally, useful especially for IDE plugins
      * needing to download artifact one by one (for source or javadoc artifact, for instance).
@@ -565,6 +710,7 @@ public class ResolveEngine {
         }
 
         IvyContext context = IvyContext.pushNewCopyContext();
+        DependencyPrefetcher prefetcher = null;
         try {
             options.setConfs(confs);
 
@@ -574,6 +720,10 @@ public class ResolveEngine {
                 data = new ResolveData(this, options);
                 context.setResolveData(data);
             }
+            if (options.getParallelism() > 1 && data.getPrefetcher() == null) {
+                prefetcher = new DependencyPrefetcher(this, options, data.getPomModelCache());
+                data.setPrefetcher(prefetcher);
+            }
             IvyNode rootNode = new IvyNode(data, md);
 
             for (String conf : confs) {
@@ -633,6 +783,10 @@ public class ResolveEngine {
 
             return dependencies.toArray(new IvyNode[dependencies.size()]);
         } finally {
+            if (prefetcher != null) {
+                context.getResolveData().setPrefetcher(null);
+                prefetcher.shutdown();
+            }
             IvyContext.popContext();
         }
     }
@@ -790,7 +944,9 @@ public class ResolveEngine {
 
         // now we can actually resolve this configuration dependencies
         if (!isDependenciesFetched(node.getNode(), conf, fetchedSet) && node.isTransitive()) {
-            for (VisitNode dep : node.getDependencies(conf)) {
+            Collection<VisitNode> dependencies = node.getDependencies(conf);
+            prefetchDependencies(node.getNode().getData(), dependencies);
+            for (VisitNode dep : dependencies) {
                 dep.useRealNode(); // the node may have been resolved to another real one while
                 // resolving other deps
                 for (String rconf : dep.getRequiredConfigurations(node, conf)) {
@@ -819,6 +975,43 @@ public class ResolveEngine {
 
     }
 
+    /**
+     * Schedules the lookup of the not yet loaded dependencies among the given ones, when the
+     * resolve is done in parallel.
+     * <p>
+     * Dynamic revisions are not prefetched: which revision they resolve to may depend on the
+     * graph traversed so far.
+     * </p>
+     *
+     * @param data
+     *            the data of the current resolve
+     * @param dependencies
+     *            the dependencies about to be fetched
+     */
+    private void prefetchDependencies(ResolveData data, Collection<VisitNode> dependencies) {
+        DependencyPrefetcher prefetcher = data.getPrefetcher();
+        if (prefetcher == null) {
+            return;
+        }
+        for (VisitNode dep : dependencies) {
+            if (dep.getNode().isLoaded() || dep.getNode().hasProblem()) {
+                continue;
+            }
+            DependencyDescriptor dd = dep.getDependencyDescriptor();
+            ModuleRevisionId mrid = dd.getDependencyRevisionId();
+            if (settings.getVersionMatcher().isDynamic(mrid)) {
+                continue;
+            }
+            DependencyResolver resolver = getDictatorResolver();
+            if (resolver == null) {
+                resolver = settings.getResolver(mrid);
+            }
+            if (resolver != null) {
+                prefetcher.prefetch(dd, resolver);
+            }
+        }
+    }
+
     /**
      * Returns true if we've already fetched the dependencies for this node and configuration
      *
@@ -42,4 +42,6 @@ public interface ResolveEngineSettings extends ResolverSettings {
 
     boolean logResolvedRevision();
 
+    String getConfigurationDigest();
+
 }
@@ -0,0 +1,282 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.ivy.core.cache.ResolutionCacheManager;
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.CachedConfigurationResolveReport;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.plugins.report.XmlReportParser;
+import org.apache.ivy.util.ChecksumHelper;
+import org.apache.ivy.util.Message;
+import org.apache.ivy.util.StringUtils;
+import org.apache.ivy.util.filter.FilterHelper;
+
+import static org.apache.ivy.util.StringUtils.splitToArray;
+
+/**
+ * The fingerprint of the resolve of a module descriptor file, i.e. what its result depends on: the
+ * content of the module descriptor, the configuration loaded from the settings files, the resolve
+ * options, and until when the revisions it has resolved are taken from the cache without checking
+ * the repositories.
+ * <p>
+ * It is stored in the resolution cache along with the reports of the resolve, so that a later
+ * resolve with the same fingerprint can read these reports back instead of resolving the
+ * dependencies again. The configuration is the one digested by the settings while they were
+ * loaded, so it covers the files included by the settings file and the properties it uses.
+ * </p>
+ * <p>
+ * A report read back this way holds the reports of the configurations, but not the dependency
+ * graph: its {@link ResolveReport#getDependencies() dependencies} are empty.
+ * </p>
+ */
+final class ResolveFingerprint {
+    private static final String FILE_PREFIX = "resolve-fingerprint-";
+
+    private static final String ALGORITHM = "SHA-1";
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final ResolveEngineSettings settings;
+
+    private final File file;
+
+    private final Properties inputs;
+
+    private ResolveFingerprint(ResolveEngineSettings settings, File file, Properties inputs) {
+        this.settings = settings;
+        this.file = file;
+        this.inputs = inputs;
+    }
+
+    /**
+     * Computes the fingerprint of the resolve of the given module descriptor file with the given
+     * options.
+     *
+     * @return the fingerprint, or <code>null</code> if this resolve can't be fingerprinted
+     */
+    static ResolveFingerprint compute(URL ivySource, ResolveOptions options,
+            ResolveEngineSettings settings) throws IOException {
+        if (options.getArtifactFilter() != FilterHelper.NO_FILTER) {
+            Message.verbose("\tno resolve fingerprint: artifacts are filtered");
+            return null;
+        }
+        String configuration = settings.getConfigurationDigest();
+        if (configuration == null) {
+            Message.verbose("\tno resolve fingerprint: settings not loaded from a file");
+            return null;
+        }
+        Properties inputs = new Properties();
+        inputs.setProperty("descriptor", digest(ivySource));
+        inputs.setProperty("settings", configuration);
+        inputs.setProperty("options", describe(options));
+        String key = ChecksumHelper.byteArrayToHexString(newDigest().digest(
+            (ivySource.toExternalForm() + "|" + options.getResolveId())
+                    .getBytes(StandardCharsets.UTF_8)));
+        File root = settings.getResolutionCacheManager().getResolutionCacheRoot();
+        return new ResolveFingerprint(settings, new File(root, FILE_PREFIX + key
+                + ".properties"), inputs);
+    }
+
+    private static String describe(ResolveOptions options) {
+        return "confs=" + Arrays.toString(options.getAskedConfs())
+                + ";revision=" + options.getRevision()
+                + ";date=" + (options.getDate() == null ? null : options.getDate().getTime())
+                + ";mode=" + options.getResolveMode()
+                + ";transitive=" + options.isTransitive()
+                + ";validate=" + options.isValidate()
+                + ";useCacheOnly=" + options.isUseCacheOnly()
+                + ";download=" + options.isDownload();
+    }
+
+    /**
+     * Reads back the report of the previous resolve with this fingerprint, if it is still valid.
+     *
+     * @param engine
+     *            the engine of the resolve
+     * @param options
+     *            the resolve options, updated with the configurations and the resolve id of the
+     *            previous resolve if its report is returned
+     * @return the report, or <code>null</code> if the dependencies have to be resolved
+     */
+    ResolveReport read(ResolveEngine engine, ResolveOptions options) {
+        Properties stored = load();
+        if (stored == null) {
+            return null;
+        }
+        for (String name : inputs.stringPropertyNames()) {
+            if (!inputs.getProperty(name).equals(stored.getProperty(name))) {
+                Message.verbose("\tresolve fingerprint changed: " + name);
+                return null;
+            }
+        }
+        try {
+            if (System.currentTimeMillis() > Long.parseLong(stored.getProperty("expiration"))) {
+                Message.verbose("\tresolve fingerprint expired");
+                return null;
+            }
+            ModuleRevisionId mrid = ModuleRevisionId.decode(stored.getProperty("module"));
+            String resolveId = stored.getProperty("resolveId");
+            String[] confs = splitToArray(stored.getProperty("confs"));
+            if (!getStamp(mrid, resolveId, confs).equals(stored.getProperty("stamp"))) {
+                Message.verbose("\tresolve fingerprint outdated: the resolution cache changed");
+                return null;
+            }
+            ResolutionCacheManager cacheManager = settings.getResolutionCacheManager();
+            ModuleDescriptor md = cacheManager.getResolvedModuleDescriptor(mrid);
+            Date date = new Date(Long.parseLong(stored.getProperty("time")));
+            ResolveReport report = new ResolveReport(md, resolveId);
+            Set<Artifact> artifacts = new LinkedHashSet<>();
+            for (String conf : confs) {
+                XmlReportParser parser = new XmlReportParser();
+                parser.parse(cacheManager.getConfigurationResolveReportInCache(resolveId, conf));
+                if (parser.hasError()) {
+                    return null;
+                }
+                if (options.isDownload()) {
+                    for (ArtifactDownloadReport adr : parser.getArtifactReports()) {
+                        if (adr.getLocalFile() != null && !adr.getLocalFile().exists()) {
+                            Message.verbose("\tresolve fingerprint outdated: "
+                                    + adr.getLocalFile() + " is no longer in the cache");
+                            return null;
+                        }
+                    }
+                }
+                report.addReport(conf, new CachedConfigurationResolveReport(engine, md, conf,
+                        date, options, parser));
+                for (Artifact artifact : parser.getArtifacts()) {
+                    artifacts.add(artifact);
+                }
+            }
+            report.setArtifacts(new ArrayList<>(artifacts));
+            options.setConfs(confs);
+            options.setResolveId(resolveId);
+            return report;
+        } catch (Exception e) {
+            Message.verbose("\tunusable resolve fingerprint " + file + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores this fingerprint with what is needed to read back the given report.
+     *
+     * @param report
+     *            the report of the resolve, whose reports are in the resolution cache
+     * @param options
+     *            the options of the resolve
+     * @param expiration
+     *            the date until which the resolved revisions are valid
+     * @throws IOException
+     *             if the fingerprint can't be saved
+     */
+    void save(ResolveReport report, ResolveOptions options, long expiration) throws IOException {
+        ModuleRevisionId mrid = report.getModuleDescriptor().getResolvedModuleRevisionId();
+        Properties props = new Properties();
+        props.putAll(inputs);
+        props.setProperty("module", mrid.encodeToString());
+        props.setProperty("resolveId", options.getResolveId());
+        props.setProperty("confs", StringUtils.joinArray(options.getConfs(), ","));
+        props.setProperty("time", String.valueOf(System.currentTimeMillis()));
+        props.setProperty("expiration", String.valueOf(expiration));
+        props.setProperty("stamp", getStamp(mrid, options.getResolveId(), options.getConfs()));
+        file.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(file)) {
+            props.store(out, mrid + " resolve fingerprint");
+        }
+    }
+
+    void delete() {
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+
+    private Properties load() {
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+            return props;
+        } catch (IOException e) {
+            Message.verbose("\tunreadable resolve fingerprint " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Describes the state of the files of the resolution cache holding the result of the resolve,
+     * so that a fingerprint isn't used once another resolve has replaced them.
+     */
+    private String getStamp(ModuleRevisionId mrid, String resolveId, String[] confs) {
+        ResolutionCacheManager cacheManager = settings.getResolutionCacheManager();
+        StringBuilder stamp = new StringBuilder();
+        appendStamp(stamp, cacheManager.getResolvedIvyFileInCache(mrid));
+        appendStamp(stamp, cacheManager.getResolvedIvyPropertiesInCache(mrid));
+        for (String conf : confs) {
+            appendStamp(stamp, cacheManager.getConfigurationResolveReportInCache(resolveId, conf));
+        }
+        return stamp.toString();
+    }
+
+    private static void appendStamp(StringBuilder stamp, File file) {
+        stamp.append(file.lastModified()).append('/').append(file.length()).append(';');
+    }
+
+    private static String digest(URL url) throws IOException {
+        MessageDigest md = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = url.openStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                md.update(buffer, 0, read);
+            }
+        }
+        return ChecksumHelper.byteArrayToHexString(md.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
@@ -121,6 +121,18 @@ public class ResolveOptions extends LogOptions {
      **/
     private boolean checkIfChanged = false;
 
+    /**
+     * The maximum number of module descriptors fetched concurrently while traversing the dependency
+     * graph. 1 means that the graph is traversed on the resolving thread only.
+     */
+    private int parallelism = 1;
+
+    /**
+     * True if the resolve of a module descriptor file should be skipped, and its previous report
+     * read from the resolution cache, when nothing it depends on has changed since.
+     */
+    private boolean useFingerprint = false;
+
     public ResolveOptions() {
     }
 
@@ -139,6 +151,8 @@ public class ResolveOptions extends LogOptions {
         artifactFilter = options.artifactFilter;
         resolveId = options.resolveId;
         checkIfChanged = options.checkIfChanged;
+        parallelism = options.parallelism;
+        useFingerprint = options.useFingerprint;
     }
 
     public Filter<Artifact> getArtifactFilter() {
@@ -204,6 +218,13 @@ public class ResolveOptions extends LogOptions {
         return ConfigurationUtils.replaceWildcards(confs, md);
     }
 
+    /**
+     * @return the asked confs as they have been set, special confs included
+     */
+    String[] getAskedConfs() {
+        return confs;
+    }
+
     public ResolveOptions setConfs(String[] confs) {
         this.confs = confs;
         return this;
@@ -299,6 +320,59 @@ public class ResolveOptions extends LogOptions {
         return checkIfChanged;
     }
 
+    public boolean isUseFingerprint() {
+        return useFingerprint;
+    }
+
+    /**
+     * Sets whether the resolve of a module descriptor file should be skipped when its module
+     * descriptor, the configuration loaded from the settings files, the options and the revisions
+     * it has resolved are unchanged since the previous resolve with the same options, in which case
+     * the report of this previous resolve is read back from the resolution cache. Such a report
+     * doesn't hold the dependency graph: its
+     * {@link org.apache.ivy.core.report.ResolveReport#getDependencies() dependencies} are empty.
+     *
+     * @param useFingerprint
+     *            true to skip unchanged resolves
+     * @return this
+     */
+    public ResolveOptions setUseFingerprint(boolean useFingerprint) {
+        this.useFingerprint = useFingerprint;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of module descriptors which can be fetched concurrently during
+     * the resolve.
+     *
+     * @return the resolve parallelism, 1 if the dependency graph is fetched sequentially.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of module descriptors which can be fetched concurrently during the
+     * resolve.
+     * <p>
+     * When greater than 1, the descriptors of sibling dependencies are fetched ahead of the
+     * dependency graph traversal. The traversal itself, and thus conflict resolution, stays
+     * sequential, so the result of the resolve is the same whatever the parallelism.
+     * </p>
+     *
+     * @param parallelism
+     *            the number of descriptors to fetch concurrently, must be greater than 0
+     * @return this
+     */
+    public ResolveOptions setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0: "
+                    + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
     public static String getDefaultResolveId(ModuleDescriptor md) {
         ModuleId module = md.getModuleRevisionId().getModuleId();
         return getDefaultResolveId(module);
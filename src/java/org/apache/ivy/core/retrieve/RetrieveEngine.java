@@ -30,8 +30,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.IvyExecutors;
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.LogOptions;
 import org.apache.ivy.core.cache.ResolutionCacheManager;
@@ -53,8 +60,16 @@ import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.Message;
 
 public class RetrieveEngine {
+    static final String MODE_COPY = "copy";
+
+    static final String MODE_SYMLINK = "symlink";
+
+    static final String MODE_HARDLINK = "hardlink";
+
     private static final int KILO = 1024;
 
+    private static final long INTERRUPT_CHECK_PERIOD = 100;
+
     private RetrieveEngineSettings settings;
 
     private EventManager eventManager;
@@ -126,76 +141,115 @@ public class RetrieveEngine {
             report.setRetrieveRoot(fileRetrieveRoot);
             File ivyRetrieveRoot = destIvyPattern == null ? null : settings
                     .resolveFile(IvyPatternHelper.getTokenRoot(destIvyPattern));
-            Collection<File> targetArtifactsStructure = new HashSet<>();
-            // Set(File) set of all paths which should be present at then end of retrieve (useful
-            // for sync)
-            Collection<File> targetIvysStructure = new HashSet<>(); // same for ivy files
-
+            File manifestFile = new File(fileRetrieveRoot, RetrieveManifest.FILE_NAME);
+            RetrieveManifest manifest = null;
+            RetrieveManifest previousManifest = null;
+            if (options.isIncremental()) {
+                manifest = new RetrieveManifest();
+                if (settings.isCheckUpToDate()
+                        && !RetrieveOptions.OVERWRITEMODE_ALWAYS.equals(options.getOverwriteMode())) {
+                    previousManifest = RetrieveManifest.load(manifestFile);
+                }
+            } else if (manifestFile.exists()) {
+                // what follows may change the destination behind the back of the manifest
+                manifestFile.delete();
+            }
             // do retrieve
+            String mode = getMode(options);
             long totalCopiedSize = 0;
-            for (Map.Entry<ArtifactDownloadReport, Set<String>> artifactAndPaths : artifactsToCopy
-                    .entrySet()) {
-                ArtifactDownloadReport artifact = artifactAndPaths.getKey();
-                File archive = artifact.getLocalFile();
-                if (artifact.getUnpackedLocalFile() != null) {
-                    archive = artifact.getUnpackedLocalFile();
-                }
-                if (archive == null) {
-                    Message.verbose("\tno local file available for " + artifact + ": skipping");
-                    continue;
-                }
-                Message.verbose("\tretrieving " + archive);
-                for (String path : artifactAndPaths.getValue()) {
-                    IvyContext.getContext().checkInterrupted();
-                    File destFile = settings.resolveFile(path);
-                    if (!settings.isCheckUpToDate() || !upToDate(archive, destFile, options)) {
-                        Message.verbose("\t\tto " + destFile);
-                        if (this.eventManager != null) {
-                            this.eventManager.fireIvyEvent(new StartRetrieveArtifactEvent(artifact, destFile));
-                        }
-                        if (options.isMakeSymlinks()) {
-                            boolean symlinkCreated;
-                            try {
-                                symlinkCreated = FileUtil.symlink(archive, destFile,  true);
-                            } catch (IOException ioe) {
-                                symlinkCreated = false;
-                                // warn about the inability to create a symlink
-                                Message.warn("symlink creation failed at path " + destFile, ioe);
+            ExecutorService executor = options.getParallelism() > 1
+                    ? IvyExecutors.newFixedThreadPool("retrieve", options.getParallelism())
+                    : null;
+            try {
+                List<PendingRetrieval> pendingRetrievals = new ArrayList<>();
+                for (Map.Entry<ArtifactDownloadReport, Set<String>> artifactAndPaths
+                        : artifactsToCopy.entrySet()) {
+                    ArtifactDownloadReport artifact = artifactAndPaths.getKey();
+                    File archive = artifact.getLocalFile();
+                    if (artifact.getUnpackedLocalFile() != null) {
+                        archive = artifact.getUnpackedLocalFile();
+                    }
+                    if (archive == null) {
+                        Message.verbose("\tno local file available for " + artifact
+                                + ": skipping");
+                        continue;
+                    }
+                    Message.verbose("\tretrieving " + archive);
+                    for (String path : artifactAndPaths.getValue()) {
+                        IvyContext.getContext().checkInterrupted();
+                        File destFile = settings.resolveFile(path);
+                        RetrieveManifest.Entry entry = null;
+                        if (previousManifest != null) {
+                            RetrieveManifest.Entry previous = previousManifest.get(destFile);
+                            // a destination deleted or edited since is retrieved again
+                            if (previous != null && previous.isInPlace(destFile)) {
+                                entry = previous.isUnchanged(archive, mode) ? previous
+                                        : previous.sameContent(archive, mode);
                             }
-                            if (!symlinkCreated) {
-                                // since symlink creation failed, let's attempt to an actual copy instead
-                                Message.info("Attempting a copy operation (since symlink creation failed) at path " + destFile);
-                                FileUtil.copy(archive, destFile, null, true);
+                        }
+                        if (entry != null) {
+                            // the destination is trusted to be what the manifest recorded, as long
+                            // as it is still in place
+                            Message.verbose("\t\tto " + destFile + " [UNCHANGED]");
+                            report.addUpToDateFile(destFile, artifact);
+                        } else if (!settings.isCheckUpToDate()
+                                || !upToDate(archive, destFile, options)) {
+                            Message.verbose("\t\tto " + destFile);
+                            Callable<Boolean> retrieval = newRetrieval(artifact, archive,
+                                destFile, options);
+                            if (executor == null) {
+                                totalCopiedSize += addRetrievedFile(report, artifact, destFile,
+                                    retrieval.call());
+                            } else {
+                                pendingRetrievals.add(new PendingRetrieval(artifact, destFile,
+                                        executor.submit(IvyExecutors.inCurrentContext(retrieval))));
                             }
                         } else {
-                            FileUtil.copy(archive, destFile, null, true);
+                            Message.verbose("\t\tto " + destFile + " [NOT REQUIRED]");
+                            report.addUpToDateFile(destFile, artifact);
                         }
-                        if (this.eventManager != null) {
-                            this.eventManager.fireIvyEvent(new EndRetrieveArtifactEvent(artifact, destFile));
+
+                        if (manifest != null) {
+                            manifest.put(destFile, entry == null
+                                    ? RetrieveManifest.Entry.of(archive, mode) : entry);
                         }
-                        totalCopiedSize += FileUtil.getFileLength(destFile);
-                        report.addCopiedFile(destFile, artifact);
-                    } else {
-                        Message.verbose("\t\tto " + destFile + " [NOT REQUIRED]");
-                        report.addUpToDateFile(destFile, artifact);
                     }
+                }
+                for (PendingRetrieval pendingRetrieval : pendingRetrievals) {
+                    totalCopiedSize += addRetrievedFile(report, pendingRetrieval.artifact,
+                        pendingRetrieval.destFile, await(pendingRetrieval.linked));
+                }
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+            }
 
-                    if ("ivy".equals(artifact.getType())) {
+            // without a previous manifest, the whole destination has to be listed to be synced
+            if (options.isSync() && previousManifest != null) {
+                Message.verbose("\tsyncing against " + manifestFile + "...");
+                sync(manifest, previousManifest, fileRetrieveRoot, ivyRetrieveRoot);
+            } else if (options.isSync()) {
+                Message.verbose("\tsyncing...");
+
+                // Set(File) set of all paths which should be present at then end of retrieve
+                Collection<File> targetArtifactsStructure = new HashSet<>();
+                Collection<File> targetIvysStructure = new HashSet<>(); // same for ivy files
+                for (Map.Entry<File, ArtifactDownloadReport> retrieved : report
+                        .getDownloadReport().entrySet()) {
+                    File destFile = retrieved.getKey();
+                    if ("ivy".equals(retrieved.getValue().getType())) {
                         targetIvysStructure
                                 .addAll(FileUtil.getPathFiles(ivyRetrieveRoot, destFile));
                     } else {
                         Collection<File> files = FileUtil.listAll(destFile,
                             Collections.<String> emptyList());
                         for (File file : files) {
-                            targetArtifactsStructure.addAll(FileUtil.getPathFiles(fileRetrieveRoot,
-                                file));
+                            targetArtifactsStructure.addAll(FileUtil.getPathFiles(
+                                fileRetrieveRoot, file));
                         }
                     }
                 }
-            }
-
-            if (options.isSync()) {
-                Message.verbose("\tsyncing...");
 
                 String[] ignorableFilenames = settings.getIgnorableFilenames();
                 Collection<String> ignoreList = Arrays.asList(ignorableFilenames);
@@ -215,10 +269,16 @@ public class RetrieveEngine {
                     }
                 }
             }
+            if (manifest != null) {
+                manifest.save(manifestFile);
+            }
             long elapsedTime = System.currentTimeMillis() - start;
+            report.setRetrieveTime(elapsedTime);
             String msg = "\t"
                     + report.getNbrArtifactsCopied()
                     + " artifacts copied"
+                    + (report.getNbrArtifactsLinked() > 0
+                            ? " (" + report.getNbrArtifactsLinked() + " linked)" : "")
                     + (settings.isCheckUpToDate() ? (", " + report.getNbrArtifactsUpToDate() + " already retrieved")
                             : "") + " (" + (totalCopiedSize / KILO) + "kB/" + elapsedTime + "ms)";
             if (LogOptions.LOG_DEFAULT.equals(options.getLog())) {
@@ -239,6 +299,116 @@ public class RetrieveEngine {
         }
     }
 
+    private static String getMode(RetrieveOptions options) {
+        if (options.isMakeSymlinks()) {
+            return MODE_SYMLINK;
+        }
+        return options.isMakeHardlinks() ? MODE_HARDLINK : MODE_COPY;
+    }
+
+    /**
+     * Creates the job putting the given archive at the given destination, which returns true if
+     * the destination has been linked to the archive, false if it has been copied.
+     */
+    private Callable<Boolean> newRetrieval(final ArtifactDownloadReport artifact,
+            final File archive, final File destFile, final RetrieveOptions options) {
+        return new Callable<Boolean>() {
+            public Boolean call() throws IOException {
+                if (eventManager != null) {
+                    eventManager.fireIvyEvent(new StartRetrieveArtifactEvent(artifact, destFile));
+                }
+                boolean linked = link(archive, destFile, options);
+                if (!linked) {
+                    FileUtil.copy(archive, destFile, null, true);
+                }
+                if (eventManager != null) {
+                    eventManager.fireIvyEvent(new EndRetrieveArtifactEvent(artifact, destFile));
+                }
+                return linked;
+            }
+        };
+    }
+
+    private boolean link(File archive, File destFile, RetrieveOptions options) {
+        if (options.isMakeSymlinks()) {
+            boolean symlinkCreated;
+            try {
+                symlinkCreated = FileUtil.symlink(archive, destFile, true);
+            } catch (IOException ioe) {
+                symlinkCreated = false;
+                // warn about the inability to create a symlink
+                Message.warn("symlink creation failed at path " + destFile, ioe);
+            }
+            if (!symlinkCreated) {
+                // since symlink creation failed, let's attempt to an actual copy instead
+                Message.info("Attempting a copy operation (since symlink creation failed) at path "
+                        + destFile);
+            }
+            return symlinkCreated;
+        }
+        if (options.isMakeHardlinks()) {
+            boolean hardlinkCreated;
+            try {
+                hardlinkCreated = FileUtil.hardlink(archive, destFile, true);
+            } catch (IOException ioe) {
+                hardlinkCreated = false;
+                Message.verbose("hard link creation failed at path " + destFile + ": " + ioe);
+            }
+            if (!hardlinkCreated) {
+                // usual when the cache is on another file system, so this is no news
+                Message.verbose("\t\tcopying (since hard link creation failed) to " + destFile);
+            }
+            return hardlinkCreated;
+        }
+        return false;
+    }
+
+    private static long addRetrievedFile(RetrieveReport report, ArtifactDownloadReport artifact,
+            File destFile, boolean linked) {
+        if (linked) {
+            report.addLinkedFile(destFile, artifact);
+        } else {
+            report.addCopiedFile(destFile, artifact);
+        }
+        return FileUtil.getFileLength(destFile);
+    }
+
+    /**
+     * Waits for a retrieval to be over, checking regularly if the Ivy operation has been
+     * interrupted.
+     */
+    private static boolean await(Future<Boolean> retrieval) throws Exception {
+        while (true) {
+            IvyContext.getContext().checkInterrupted();
+            try {
+                return retrieval.get(INTERRUPT_CHECK_PERIOD, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // check for interruption and try again
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw (Exception) cause;
+            }
+        }
+    }
+
+    private static final class PendingRetrieval {
+        private final ArtifactDownloadReport artifact;
+
+        private final File destFile;
+
+        private final Future<Boolean> linked;
+
+        private PendingRetrieval(ArtifactDownloadReport artifact, File destFile,
+                Future<Boolean> linked) {
+            this.artifact = artifact;
+            this.destFile = destFile;
+            this.linked = linked;
+        }
+    }
+
     private String[] getConfs(ModuleRevisionId mrid, RetrieveOptions options) throws IOException {
         String[] confs = options.getConfs();
         if (confs == null || (confs.length == 1 && "*".equals(confs[0]))) {
@@ -277,6 +447,48 @@ public class RetrieveEngine {
         }
     }
 
+    /**
+     * Deletes what a previous retrieve has recorded in its manifest and which is no longer
+     * retrieved, as well as the directories left empty, without listing the whole destination.
+     */
+    private void sync(RetrieveManifest manifest, RetrieveManifest previousManifest,
+            File fileRetrieveRoot, File ivyRetrieveRoot) {
+        Set<String> toRemove = new HashSet<>(previousManifest.getDestinations());
+        toRemove.removeAll(manifest.getDestinations());
+        Set<File> roots = new HashSet<>();
+        roots.add(fileRetrieveRoot.getAbsoluteFile());
+        if (ivyRetrieveRoot != null) {
+            roots.add(ivyRetrieveRoot.getAbsoluteFile());
+        }
+        for (String path : toRemove) {
+            File file = new File(path);
+            if (!file.exists()) {
+                continue;
+            }
+            Message.verbose("\t\tdeleting " + file);
+            FileUtil.forceDelete(file);
+            File parent = file.getParentFile();
+            while (parent != null && !roots.contains(parent) && isInRoots(parent, roots)) {
+                String[] children = parent.list();
+                if (children == null || children.length > 0) {
+                    break;
+                }
+                Message.verbose("\t\tdeleting " + parent);
+                parent.delete();
+                parent = parent.getParentFile();
+            }
+        }
+    }
+
+    private static boolean isInRoots(File file, Set<File> roots) {
+        for (File parent = file.getParentFile(); parent != null; parent = parent.getParentFile()) {
+            if (roots.contains(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public Map<ArtifactDownloadReport, Set<String>> determineArtifactsToCopy(ModuleRevisionId mrid,
             String destFilePattern, RetrieveOptions options) throws ParseException, IOException {
         ModuleId moduleId = mrid.getModuleId();
@@ -0,0 +1,215 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.retrieve;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.ivy.util.ChecksumHelper;
+import org.apache.ivy.util.Message;
+
+/**
+ * The record of what an incremental retrieve has put in its destination: for each destination
+ * file, the source it has been retrieved from, described by its size, last modification date and
+ * checksum, and whether it has been copied, symlinked or hard linked. It is stored in the root
+ * directory of the retrieve, so that the next incremental retrieve only has to deal with what has
+ * changed since.
+ */
+class RetrieveManifest {
+    static final String FILE_NAME = ".ivyretrieve";
+
+    private static final String CHECKSUM_ALGORITHM = "sha1";
+
+    private static final String SEPARATOR = "|";
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Loads the manifest stored in the given file.
+     *
+     * @param file the manifest file
+     * @return the manifest, or <code>null</code> if there is no such file or if it can't be read
+     */
+    static RetrieveManifest load(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            Message.verbose("\tunreadable retrieve manifest " + file + ": " + e.getMessage());
+            return null;
+        }
+        RetrieveManifest manifest = new RetrieveManifest();
+        for (String dest : props.stringPropertyNames()) {
+            Entry entry = Entry.parse(props.getProperty(dest));
+            if (entry == null) {
+                Message.verbose("\tcorrupted retrieve manifest " + file + ": ignoring it");
+                return null;
+            }
+            manifest.entries.put(dest, entry);
+        }
+        return manifest;
+    }
+
+    void save(File file) throws IOException {
+        Properties props = new Properties();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            props.setProperty(entry.getKey(), entry.getValue().toString());
+        }
+        file.getParentFile().mkdirs();
+        // the manifest is written aside and then moved, so that an interrupted retrieve never
+        // leaves a truncated manifest behind
+        File tmp = new File(file.getParentFile(), FILE_NAME + ".part");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            props.store(out, "Ivy retrieve manifest");
+        }
+        if (file.exists() && !file.delete() || !tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("impossible to save the retrieve manifest " + file);
+        }
+    }
+
+    Entry get(File dest) {
+        return entries.get(dest.getAbsolutePath());
+    }
+
+    void put(File dest, Entry entry) {
+        entries.put(dest.getAbsolutePath(), entry);
+    }
+
+    Set<String> getDestinations() {
+        return entries.keySet();
+    }
+
+    static final class Entry {
+        private final String mode;
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final String checksum;
+
+        private final String source;
+
+        private Entry(String mode, long size, long lastModified, String checksum,
+                String source) {
+            this.mode = mode;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+            this.source = source;
+        }
+
+        /**
+         * @param source the retrieved file
+         * @param mode how the destination has been made from the source, one of the
+         *            <code>MODE_*</code> constants of the {@link RetrieveEngine}
+         */
+        static Entry of(File source, String mode) throws IOException {
+            if (source.isDirectory()) {
+                // unpacked artifacts are recorded to be cleaned up on sync, but never trusted
+                return new Entry(mode, -1, source.lastModified(), "",
+                        source.getAbsolutePath());
+            }
+            return new Entry(mode, source.length(), source.lastModified(),
+                    ChecksumHelper.computeAsString(source, CHECKSUM_ALGORITHM),
+                    source.getAbsolutePath());
+        }
+
+        /**
+         * Tells whether the given destination is still in place, i.e. whether it exists with the
+         * size of the source it has been retrieved from. Only a symlink to the source is followed,
+         * so it costs a single stat.
+         */
+        boolean isInPlace(File dest) {
+            if (size < 0) {
+                return false;
+            }
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(dest.toPath(),
+                    BasicFileAttributes.class);
+                return attributes.isRegularFile() && attributes.size() == size;
+            } catch (IOException | RuntimeException e) {
+                // missing or not a valid path
+                return false;
+            }
+        }
+
+        /**
+         * Tells whether the given source is the one this entry has been recorded for, and hasn't
+         * changed since, without reading it.
+         */
+        boolean isUnchanged(File source, String mode) {
+            return size >= 0 && this.mode.equals(mode)
+                    && this.source.equals(source.getAbsolutePath()) && size == source.length()
+                    && lastModified == source.lastModified();
+        }
+
+        /**
+         * Tells whether the given source has the same content as the one this entry has been
+         * recorded for, even though it may have been touched or moved since. The source is read
+         * only if its size is still the same.
+         *
+         * @return the entry describing the source if its content is the same, <code>null</code>
+         *         otherwise
+         */
+        Entry sameContent(File source, String mode) throws IOException {
+            // a symlink to another file is another retrieved content, whatever the source holds
+            if (size < 0 || !this.mode.equals(mode)
+                    || RetrieveEngine.MODE_SYMLINK.equals(mode)
+                    && !this.source.equals(source.getAbsolutePath())
+                    || size != source.length()) {
+                return null;
+            }
+            Entry entry = of(source, mode);
+            return checksum.equals(entry.checksum) ? entry : null;
+        }
+
+        private static Entry parse(String value) {
+            String[] parts = value.split("\\" + SEPARATOR, 5);
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new Entry(parts[0], Long.parseLong(parts[1]),
+                        Long.parseLong(parts[2]), parts[3], parts[4]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return mode + SEPARATOR + size + SEPARATOR + lastModified + SEPARATOR + checksum
+                    + SEPARATOR + source;
+        }
+    }
+}
@@ -69,6 +69,13 @@ public class RetrieveOptions extends LogOptions {
 
     private String overwriteMode = OVERWRITEMODE_NEWER;
 
+    /**
+     * True if a manifest of the retrieved files should be kept in the destination directory, so
+     * that the next retrieve only deals with the files which have changed since, without
+     * checking nor listing the others.
+     */
+    private boolean incremental = false;
+
     /**
      * True if the original files should be used instead of their cache copy.
      */
@@ -83,6 +90,17 @@ public class RetrieveOptions extends LogOptions {
     @Deprecated
     private boolean makeSymlinksInMass = false;
 
+    /**
+     * True if hard links should be created instead of plain copy, when the file system allows
+     * it. Symbolic links are preferred if both are asked.
+     */
+    private boolean makeHardlinks = false;
+
+    /**
+     * The maximum number of files retrieved concurrently.
+     */
+    private int parallelism = 1;
+
     /**
      * The id used to store the resolve information.
      */
@@ -187,6 +205,41 @@ public class RetrieveOptions extends LogOptions {
         return this;
     }
 
+    public boolean isMakeHardlinks() {
+        return makeHardlinks;
+    }
+
+    public RetrieveOptions setMakeHardlinks(boolean makeHardlinks) {
+        this.makeHardlinks = makeHardlinks;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of files to copy or link concurrently.
+     *
+     * @return the retrieve parallelism, 1 if the files are retrieved sequentially.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of files to copy or link concurrently. The retrieve report and the
+     * files it lists are the same whatever the parallelism.
+     *
+     * @param parallelism
+     *            the retrieve parallelism, which must be greater than 0
+     * @return this
+     */
+    public RetrieveOptions setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0: "
+                    + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
     public boolean isSync() {
         return sync;
     }
@@ -196,6 +249,15 @@ public class RetrieveOptions extends LogOptions {
         return this;
     }
 
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public RetrieveOptions setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
     public boolean isUseOrigin() {
         return useOrigin;
     }
@@ -32,6 +32,10 @@ public class RetrieveReport {
 
     private Collection<File> copiedFiles = new HashSet<>();
 
+    private Collection<File> linkedFiles = new HashSet<>();
+
+    private long retrieveTime;
+
     private Map<File, ArtifactDownloadReport> downloadReport = new HashMap<>();
 
     private File retrieveRoot;
@@ -53,15 +57,49 @@ public class RetrieveReport {
         return copiedFiles.size();
     }
 
+    /**
+     * Returns the number of artifacts which have been linked instead of copied. They are also
+     * counted among the copied artifacts.
+     *
+     * @return int
+     */
+    public int getNbrArtifactsLinked() {
+        return linkedFiles.size();
+    }
+
     public int getNbrArtifactsUpToDate() {
         return upToDateFiles.size();
     }
 
+    /**
+     * Returns the time spent by the retrieve, in milliseconds.
+     *
+     * @return long
+     */
+    public long getRetrieveTime() {
+        return retrieveTime;
+    }
+
+    public void setRetrieveTime(long retrieveTime) {
+        this.retrieveTime = retrieveTime;
+    }
+
     public void addCopiedFile(File file, ArtifactDownloadReport report) {
         copiedFiles.add(file);
         downloadReport.put(file, report);
     }
 
+    /**
+     * Records a file which has been retrieved as a symbolic or hard link to its source.
+     *
+     * @param file the retrieved file
+     * @param report the download report of its source
+     */
+    public void addLinkedFile(File file, ArtifactDownloadReport report) {
+        addCopiedFile(file, report);
+        linkedFiles.add(file);
+    }
+
     public void addUpToDateFile(File file, ArtifactDownloadReport report) {
         upToDateFiles.add(file);
         downloadReport.put(file, report);
@@ -77,6 +115,16 @@ public class RetrieveReport {
         return new ArrayList<>(copiedFiles);
     }
 
+    /**
+     * Returns a collection of <tt>File</tt> objects who were linked to their source instead of
+     * copied during the retrieve process.
+     *
+     * @return Collection&lt;File&gt;
+     */
+    public Collection<File> getLinkedFiles() {
+        return new ArrayList<>(linkedFiles);
+    }
+
     /**
      * Returns a collection of <tt>File</tt> objects who were actually copied during the retrieve
      * process.
@@ -0,0 +1,115 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.settings;
+
+/**
+ * The settings of the pool of HTTP connections, either for all the hosts or for a given host.
+ * Values lesser than 0 mean the setting isn't specified, in which case the defaults of the
+ * underlying HTTP client are used.
+ */
+public class HttpConnectionPoolSettings {
+
+    private String host;
+
+    private int maxConnections = -1;
+
+    private int maxTotalConnections = -1;
+
+    private long keepAlive = -1;
+
+    private int validateAfterInactivity = -1;
+
+    private int socketBufferSize = -1;
+
+    /**
+     * @return the host to which these settings apply, or <code>null</code> if they apply to all
+     *         the hosts
+     */
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * @return the maximum number of connections to a same host
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return the maximum number of connections to all the hosts, only for settings applying to
+     *         all the hosts
+     */
+    public int getMaxTotalConnections() {
+        return maxTotalConnections;
+    }
+
+    public void setMaxTotalConnections(int maxTotalConnections) {
+        this.maxTotalConnections = maxTotalConnections;
+    }
+
+    /**
+     * @return the maximum time, in milliseconds, an idle connection is kept alive in the pool
+     */
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(long keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * @return the time, in milliseconds, after which an idle connection is checked before being
+     *         reused, only for settings applying to all the hosts
+     */
+    public int getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(int validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    /**
+     * @return the size, in bytes, of the send and receive buffers of the sockets
+     */
+    public int getSocketBufferSize() {
+        return socketBufferSize;
+    }
+
+    public void setSocketBufferSize(int socketBufferSize) {
+        this.socketBufferSize = socketBufferSize;
+    }
+
+    @Override
+    public String toString() {
+        return (host == null ? "all hosts" : host) + ": maxConnections=" + maxConnections
+                + ", maxTotalConnections=" + maxTotalConnections + ", keepAlive=" + keepAlive
+                + ", validateAfterInactivity=" + validateAfterInactivity + ", socketBufferSize="
+                + socketBufferSize;
+    }
+}
@@ -57,6 +57,7 @@ import org.apache.ivy.plugins.latest.LatestRevisionStrategy;
 import org.apache.ivy.plugins.latest.LatestStrategy;
 import org.apache.ivy.plugins.latest.LatestTimeStrategy;
 import org.apache.ivy.plugins.latest.WorkspaceLatestStrategy;
+import org.apache.ivy.plugins.lock.BlockingFileLockStrategy;
 import org.apache.ivy.plugins.lock.CreateFileLockStrategy;
 import org.apache.ivy.plugins.lock.LockStrategy;
 import org.apache.ivy.plugins.lock.NIOFileLockStrategy;
@@ -87,11 +88,14 @@ import org.apache.ivy.plugins.version.LatestVersionMatcher;
 import org.apache.ivy.plugins.version.SubVersionMatcher;
 import org.apache.ivy.plugins.version.VersionMatcher;
 import org.apache.ivy.plugins.version.VersionRangeMatcher;
+import org.apache.ivy.util.ChecksumHelper;
 import org.apache.ivy.util.Checks;
 import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.Message;
 import org.apache.ivy.util.StringUtils;
 import org.apache.ivy.util.filter.Filter;
+import org.apache.ivy.util.url.PoolingURLHandler;
+import org.apache.ivy.util.url.TimeoutConstrainedURLHandler;
 import org.apache.ivy.util.url.URLHandlerRegistry;
 
 import java.io.File;
@@ -103,15 +107,21 @@ import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.security.AccessControlException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import static org.apache.ivy.util.StringUtils.splitToArray;
 
@@ -162,6 +172,11 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     private IvyVariableContainer variableContainer = new IvyVariableContainerImpl();
 
+    // digest of the elements of the settings files parsed so far, included ones too
+    private MessageDigest settingsDigest;
+
+    private String configurationDigest;
+
     private boolean validate = true;
 
     private LatestStrategy defaultLatestStrategy = null;
@@ -216,6 +231,8 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     private final Map<String, TimeoutConstraint> timeoutConstraints = new HashMap<>();
 
+    private final List<HttpConnectionPoolSettings> httpConnectionPools = new ArrayList<>();
+
     public IvySettings() {
         this(new IvyVariableContainerImpl());
     }
@@ -258,6 +275,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         addLockStrategy("no-lock", new NoLockStrategy());
         addLockStrategy("artifact-lock", new CreateFileLockStrategy(debugLocking()));
         addLockStrategy("artifact-lock-nio", new NIOFileLockStrategy(debugLocking()));
+        addLockStrategy("artifact-lock-blocking", new BlockingFileLockStrategy(debugLocking()));
 
         addConflictManager("latest-revision", new LatestConflictManager("latest-revision",
                 latestRevisionStrategy));
@@ -397,6 +415,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         }
         setVariable("ivy.default.ivy.user.dir", getDefaultIvyUserDir().getAbsolutePath(), false);
         Message.verbose("settings loaded (" + (System.currentTimeMillis() - start) + "ms)");
+        digestConfiguration();
         dumpSettings();
     }
 
@@ -415,6 +434,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         new XmlSettingsParser(this).parse(settingsURL);
         setVariable("ivy.default.ivy.user.dir", getDefaultIvyUserDir().getAbsolutePath(), false);
         Message.verbose("settings loaded (" + (System.currentTimeMillis() - start) + "ms)");
+        digestConfiguration();
         dumpSettings();
     }
 
@@ -1091,6 +1111,43 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return this.timeoutConstraints.get(name);
     }
 
+    /**
+     * Applies the given settings to the pool of connections of the HTTP handler. This pool is
+     * shared by all the Ivy instances of the JVM: the settings are merged with the ones applied
+     * by any other instance, the last value of a setting wins, and a warning is logged when a
+     * value previously applied is changed.
+     *
+     * @param poolSettings
+     *            the settings of the pool for all the hosts, or for a given host
+     */
+    public void addConfigured(final HttpConnectionPoolSettings poolSettings) {
+        if (poolSettings == null) {
+            return;
+        }
+        if (poolSettings.getHost() != null) {
+            StringUtils.assertNotNullNorEmpty(poolSettings.getHost(),
+                "Host of a http connection pool cannot be empty string");
+            if (poolSettings.getMaxTotalConnections() >= 0
+                    || poolSettings.getValidateAfterInactivity() >= 0) {
+                throw new IllegalArgumentException("maxTotalConnections and "
+                        + "validateAfterInactivity can't be set on the http connection pool of a "
+                        + "host: " + poolSettings.getHost());
+            }
+        }
+        this.httpConnectionPools.add(poolSettings);
+        final TimeoutConstrainedURLHandler http = URLHandlerRegistry.getHttp();
+        if (http instanceof PoolingURLHandler) {
+            ((PoolingURLHandler) http).configurePool(poolSettings);
+        } else {
+            Message.verbose("ignoring http connection pool settings since the http handler "
+                    + "doesn't pool its connections: " + poolSettings);
+        }
+    }
+
+    public List<HttpConnectionPoolSettings> getHttpConnectionPools() {
+        return Collections.unmodifiableList(this.httpConnectionPools);
+    }
+
     public synchronized void addConfigured(PatternMatcher m) {
         addMatcher(m);
     }
@@ -1477,6 +1534,67 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         variableContainer = variables;
     }
 
+    /**
+     * Records an element of a settings file being parsed in these settings, with its attributes
+     * once their variables are substituted.
+     */
+    synchronized void startSettingsElement(String qName, Map<String, String> attributes) {
+        StringBuilder element = new StringBuilder("<").append(qName);
+        for (Map.Entry<String, String> attribute : new TreeMap<>(attributes).entrySet()) {
+            element.append(' ').append(attribute.getKey()).append("=\"")
+                    .append(attribute.getValue()).append('"');
+        }
+        updateSettingsDigest(element.append('>').toString());
+    }
+
+    synchronized void endSettingsElement(String qName) {
+        updateSettingsDigest("</" + qName + ">");
+    }
+
+    private void updateSettingsDigest(String s) {
+        if (settingsDigest == null) {
+            try {
+                settingsDigest = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 is not available", e);
+            }
+        }
+        settingsDigest.update(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Completes the configuration digest once a settings file has been loaded, with the variables
+     * it has set, which resolvers may still read later on.
+     */
+    private void digestConfiguration() {
+        if (!(variableContainer instanceof IvyVariableContainerImpl)) {
+            // the variables can't be listed
+            configurationDigest = null;
+            return;
+        }
+        Map<String, String> variables = ((IvyVariableContainerImpl) variableContainer)
+                .getVariables();
+        for (String name : new TreeSet<>(variables.keySet())) {
+            updateSettingsDigest(name + "=" + variableContainer.getVariable(name) + "\n");
+        }
+        byte[] digest = settingsDigest.digest();
+        // a later load of another settings file completes this configuration
+        settingsDigest.update(digest);
+        configurationDigest = ChecksumHelper.byteArrayToHexString(digest);
+    }
+
+    /**
+     * Returns a digest of the configuration loaded from settings files: their elements, with their
+     * attributes once their variables are substituted, and the variables set once they have been
+     * loaded.
+     *
+     * @return the digest, or <code>null</code> if these settings haven't been loaded from a
+     *         settings file
+     */
+    public synchronized String getConfigurationDigest() {
+        return configurationDigest;
+    }
+
     public synchronized RelativeUrlResolver getRelativeUrlResolver() {
         return new NormalRelativeUrlResolver();
     }
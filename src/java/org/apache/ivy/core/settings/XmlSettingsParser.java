@@ -107,7 +107,8 @@ public class XmlSettingsParser extends DefaultHandler {
 
     private List<String> configuratorTags = Arrays.asList("resolvers", "namespaces", "parsers",
         "latest-strategies", "conflict-managers", "outputters", "version-matchers", "statuses",
-        "circular-dependency-strategies", "triggers", "lock-strategies", "caches", "signers", "timeout-constraints");
+        "circular-dependency-strategies", "triggers", "lock-strategies", "caches", "signers", "timeout-constraints",
+        "http-connection-pools");
 
     private IvySettings ivy;
 
@@ -180,6 +181,7 @@ public class XmlSettingsParser extends DefaultHandler {
         for (int i = 0; i < att.getLength(); i++) {
             attributes.put(att.getQName(i), ivy.substitute(att.getValue(i)));
         }
+        ivy.startSettingsElement(qName, attributes);
 
         try {
             if ("ivyconf".equals(qName)) {
@@ -595,6 +597,7 @@ public class XmlSettingsParser extends DefaultHandler {
 
     @Override
     public void endElement(String uri, String localName, String qName) throws SAXException {
+        ivy.endSettingsElement(qName);
         if (configurator.getCurrent() != null) {
             if (configuratorTags.contains(qName) && configurator.getDepth() == 1) {
                 configurator.clear();
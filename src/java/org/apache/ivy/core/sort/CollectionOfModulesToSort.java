@@ -19,21 +19,26 @@ package org.apache.ivy.core.sort;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.plugins.version.VersionMatcher;
 
 /**
  * Wrap a collection of descriptors wrapped themselves in ModuleInSort elements. It contains some
  * dedicated function to retrieve module descriptors based on dependencies descriptors.
  * <p>
+ * The modules are indexed by module id, and the module matching a dependency revision id is
+ * computed once, since many modules of the collection usually depend on the same revisions.
+ * </p>
+ * <p>
  * <i>This class is designed to be used internally by the ModuleDescriptorSorter.</i>
  * </p>
  */
@@ -43,7 +48,9 @@ class CollectionOfModulesToSort implements Iterable<ModuleInSort> {
 
     private final VersionMatcher versionMatcher;
 
-    private final Map<ModuleId, Collection<ModuleInSort>> modulesByModuleId;
+    private final Map<ModuleId, List<ModuleInSort>> modulesByModuleId;
+
+    private final Map<ModuleRevisionId, DependencyMatch> matchesByDependency = new HashMap<>();
 
     private final NonMatchingVersionReporter nonMatchingVersionReporter;
 
@@ -70,12 +77,13 @@ class CollectionOfModulesToSort implements Iterable<ModuleInSort> {
 
     private void addToModulesByModuleId(ModuleDescriptor md, ModuleInSort mdInSort) {
         ModuleId mdId = md.getModuleRevisionId().getModuleId();
-        List<ModuleInSort> mdInSortAsList = new LinkedList<>();
-        mdInSortAsList.add(mdInSort);
-        Collection<ModuleInSort> previousList = modulesByModuleId.put(mdId, mdInSortAsList);
-        if (previousList != null) {
-            mdInSortAsList.addAll(previousList);
+        List<ModuleInSort> modulesOfSameId = modulesByModuleId.get(mdId);
+        if (modulesOfSameId == null) {
+            modulesOfSameId = new ArrayList<>(1);
+            modulesByModuleId.put(mdId, modulesOfSameId);
         }
+        // the last added module is tried first
+        modulesOfSameId.add(0, mdInSort);
     }
 
     public Iterator<ModuleInSort> iterator() {
@@ -94,20 +102,55 @@ class CollectionOfModulesToSort implements Iterable<ModuleInSort> {
      *         returns null.
      */
     public ModuleInSort getModuleDescriptorDependency(DependencyDescriptor descriptor) {
-        Collection<ModuleInSort> modulesOfSameId = modulesByModuleId.get(descriptor
-                .getDependencyId());
+        ModuleRevisionId dependencyRevisionId = descriptor.getDependencyRevisionId();
+        DependencyMatch match = matchesByDependency.get(dependencyRevisionId);
+        if (match == null) {
+            match = match(dependencyRevisionId, descriptor);
+            matchesByDependency.put(dependencyRevisionId, match);
+        }
+        for (ModuleInSort mdInSort : match.nonMatching) {
+            nonMatchingVersionReporter.reportNonMatchingVersion(descriptor,
+                mdInSort.getSortedModuleDescriptor());
+        }
+        return match.module;
+    }
+
+    private DependencyMatch match(ModuleRevisionId dependencyRevisionId,
+            DependencyDescriptor descriptor) {
+        List<ModuleInSort> modulesOfSameId = modulesByModuleId.get(dependencyRevisionId
+                .getModuleId());
         if (modulesOfSameId == null) {
-            return null;
+            return DependencyMatch.NONE;
         }
+        List<ModuleInSort> nonMatching = Collections.emptyList();
         for (ModuleInSort mdInSort : modulesOfSameId) {
             if (mdInSort.match(descriptor, versionMatcher)) {
-                return mdInSort;
-            } else {
-                nonMatchingVersionReporter.reportNonMatchingVersion(descriptor,
-                    mdInSort.getSortedModuleDescriptor());
+                return new DependencyMatch(mdInSort, nonMatching);
+            }
+            if (nonMatching.isEmpty()) {
+                nonMatching = new ArrayList<>();
             }
+            nonMatching.add(mdInSort);
+        }
+        return new DependencyMatch(null, nonMatching);
+    }
+
+    /**
+     * The module matching a dependency revision id, and the modules of the same module id tried
+     * before and not matching it.
+     */
+    private static final class DependencyMatch {
+        private static final DependencyMatch NONE = new DependencyMatch(null,
+                Collections.<ModuleInSort>emptyList());
+
+        private final ModuleInSort module;
+
+        private final List<ModuleInSort> nonMatching;
+
+        private DependencyMatch(ModuleInSort module, List<ModuleInSort> nonMatching) {
+            this.module = module;
+            this.nonMatching = nonMatching;
         }
-        return null;
     }
 
 }
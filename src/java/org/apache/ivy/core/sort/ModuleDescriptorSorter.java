@@ -17,8 +17,10 @@
  */
 package org.apache.ivy.core.sort;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Deque;
 import java.util.List;
 
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -42,7 +44,7 @@ public class ModuleDescriptorSorter {
 
     private final CollectionOfModulesToSort moduleDescriptors;
 
-    private final List<ModuleDescriptor> sorted = new LinkedList<>();
+    private final List<ModuleInSort> sorted = new ArrayList<>();
 
     private final CircularDependencyStrategy circularDepStrategy;
 
@@ -61,20 +63,52 @@ public class ModuleDescriptorSorter {
      * @throws CircularDependencyException somehow
      */
     public List<ModuleDescriptor> sortModuleDescriptors() throws CircularDependencyException {
+        sort();
+        List<ModuleDescriptor> result = new ArrayList<>(sorted.size());
+        for (ModuleInSort m : sorted) {
+            result.add(m.getSortedModuleDescriptor());
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the modules like {@link #sortModuleDescriptors()}, and also groups them by dependency
+     * level.
+     *
+     * @return the sorted modules, and the sorted modules of each level
+     * @throws CircularDependencyException somehow
+     */
+    public SortedModuleDescriptors sortModuleDescriptorsWithLevels()
+            throws CircularDependencyException {
+        sort();
+        List<ModuleDescriptor> result = new ArrayList<>(sorted.size());
+        List<List<ModuleDescriptor>> levels = new ArrayList<>();
+        for (ModuleInSort m : sorted) {
+            result.add(m.getSortedModuleDescriptor());
+            while (levels.size() <= m.getLevel()) {
+                levels.add(new ArrayList<ModuleDescriptor>());
+            }
+            levels.get(m.getLevel()).add(m.getSortedModuleDescriptor());
+        }
+        return new SortedModuleDescriptors(result, levels);
+    }
+
+    private void sort() throws CircularDependencyException {
         Message.debug("Nbr of module to sort : " + moduleDescriptors.size());
         for (ModuleInSort m : moduleDescriptors) {
             sortModuleDescriptorsHelp(m, m);
         }
-        return sorted;
     }
 
     /**
-     * If current module has already been added to list, returns, Otherwise invokes
-     * sortModuleDescriptorsHelp for all dependencies contained within set of moduleDescriptors.
-     * Then finally adds self to list of sorted.<br/>
-     * When a loop is detected by a recursive call, the moduleDescriptors are not added immediately
-     * added to the sorted list. They are added as loop dependencies of the root, and will be added
-     * to the sorted list only when the root itself will be added.
+     * If current module has already been added to list, returns, Otherwise visits all its
+     * dependencies contained within set of moduleDescriptors, in depth first. Then finally adds
+     * self to list of sorted.<br/>
+     * When a loop is detected while visiting the dependencies, the moduleDescriptors are not added
+     * immediately added to the sorted list. They are added as loop dependencies of the root, and
+     * will be added to the sorted list only when the root itself will be added.<br/>
+     * The graph is traversed with a stack rather than by recursive calls, so that long dependency
+     * chains don't overflow the call stack.
      *
      * @param current
      *            Current module to add to sorted list.
@@ -82,26 +116,67 @@ public class ModuleDescriptorSorter {
      */
     private void sortModuleDescriptorsHelp(ModuleInSort current, ModuleInSort caller)
             throws CircularDependencyException {
+        Deque<Visit> visits = new ArrayDeque<>();
+        Visit visit = visit(current, caller);
+        if (visit != null) {
+            visits.push(visit);
+        }
+        while (!visits.isEmpty()) {
+            Visit top = visits.peek();
+            if (top.next < top.descriptors.length) {
+                ModuleInSort child = moduleDescriptors
+                        .getModuleDescriptorDependency(top.descriptors[top.next++]);
+                if (child != null) {
+                    top.module.addDependency(child);
+                    Visit childVisit = visit(child, top.module);
+                    if (childVisit != null) {
+                        visits.push(childVisit);
+                    }
+                }
+            } else {
+                visits.pop();
+                top.module.endOfCall();
+                Message.debug("Sort done for : " + top.module.toString());
+                top.module.addToSortedListIfRequired(sorted);
+            }
+        }
+    }
+
+    /**
+     * Starts the visit of the given module, unless it is already processed or in a loop.
+     *
+     * @return the visit of the module, or null if it shouldn't be visited
+     */
+    private Visit visit(ModuleInSort current, ModuleInSort caller)
+            throws CircularDependencyException {
         // if already sorted return
         if (current.isProcessed()) {
-            return;
+            return null;
         }
         if (current.checkLoop(caller, circularDepStrategy)) {
-            return;
+            return null;
         }
         DependencyDescriptor[] descriptors = current.getDependencies();
         Message.debug("Sort dependencies of : " + current.toString()
                 + " / Number of dependencies = " + descriptors.length);
         current.setCaller(caller);
-        for (DependencyDescriptor descriptor : descriptors) {
-            ModuleInSort child = moduleDescriptors.getModuleDescriptorDependency(descriptor);
-            if (child != null) {
-                sortModuleDescriptorsHelp(child, current);
-            }
+        return new Visit(current, descriptors);
+    }
+
+    /**
+     * A module being visited, and the next of its dependencies to visit.
+     */
+    private static final class Visit {
+        private final ModuleInSort module;
+
+        private final DependencyDescriptor[] descriptors;
+
+        private int next;
+
+        private Visit(ModuleInSort module, DependencyDescriptor[] descriptors) {
+            this.module = module;
+            this.descriptors = descriptors;
         }
-        current.endOfCall();
-        Message.debug("Sort done for : " + current.toString());
-        current.addToSortedListIfRequired(sorted);
     }
 
 }
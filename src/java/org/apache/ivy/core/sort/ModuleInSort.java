@@ -17,6 +17,7 @@
  */
 package org.apache.ivy.core.sort;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -43,8 +44,12 @@ import org.apache.ivy.util.Message;
  *     (excluding the root itself.</li>
  * <li><code>isLoopIntermediateElement</code> : When a loop is detected, all modules included in
  *     the loop (except the root) have <code>isLoopIntermediateElement</code> set to true.</li>
- * <li><code>caller</code> : During the sort, we traverse recursively the graph. When doing that,
+ * <li><code>caller</code> : During the sort, we traverse the graph in depth. When doing that,
  *     caller point to the parent element.</li>
+ * <li><code>dependencies</code> : The modules of the sort this module depends on, found while
+ *     traversing the graph.</li>
+ * <li><code>level</code> : Once sorted, the dependency level of this module, above the levels of
+ *     the modules sorted before it on which it depends.</li>
  * </ul>
  */
 class ModuleInSort {
@@ -53,14 +58,24 @@ class ModuleInSort {
 
     private boolean isSorted = false;
 
-    private List<ModuleInSort> loopElements = new LinkedList<>();
+    private List<ModuleInSort> loopElements = new ArrayList<>();
 
     private boolean isLoopIntermediateElement = false;
 
     private ModuleInSort caller;
 
+    private final List<ModuleInSort> dependencies = new ArrayList<>();
+
+    private int level = -1;
+
+    private final boolean matchesAnyRevision;
+
     public ModuleInSort(ModuleDescriptor moduleToSort) {
         module = moduleToSort;
+        String revision = module.getResolvedModuleRevisionId().getRevision();
+        // Checking revision.equals(Ivy.getWorkingRevision()) allow to consider any local non
+        // resolved ivy.xml as a valid module.
+        matchesAnyRevision = revision == null || revision.equals(Ivy.getWorkingRevision());
     }
 
     public boolean isInLoop() {
@@ -139,7 +154,7 @@ class ModuleInSort {
      * @param sorted
      *            The list of sorted elements on which this module will be added
      */
-    public void addToSortedListIfRequired(List<ModuleDescriptor> sorted) {
+    public void addToSortedListIfRequired(List<ModuleInSort> sorted) {
         if (!isLoopIntermediateElement) {
             addToSortList(sorted);
         }
@@ -149,12 +164,19 @@ class ModuleInSort {
      * Add this module to the sorted list. If current is the 'root' of a loop, then all elements of
      * that loops are added before.
      */
-    private void addToSortList(List<ModuleDescriptor> sortedList) {
+    private void addToSortList(List<ModuleInSort> sortedList) {
         for (ModuleInSort moduleInLoop : loopElements) {
             moduleInLoop.addToSortList(sortedList);
         }
         if (!this.isSorted()) {
-            sortedList.add(module);
+            // the dependencies which are not sorted yet are in a loop with this module
+            level = 0;
+            for (ModuleInSort dependency : dependencies) {
+                if (dependency.isSorted) {
+                    level = Math.max(level, dependency.level + 1);
+                }
+            }
+            sortedList.add(this);
             this.isSorted = true;
         }
     }
@@ -167,6 +189,23 @@ class ModuleInSort {
         return module.getDependencies();
     }
 
+    /**
+     * Records a module of the sort this module depends on.
+     *
+     * @param dependency ModuleInSort
+     */
+    public void addDependency(ModuleInSort dependency) {
+        dependencies.add(dependency);
+    }
+
+    /**
+     * @return the dependency level of this module once sorted: 0 if it doesn't depend on any
+     *         module sorted before it, or else one more than the highest level of these modules
+     */
+    public int getLevel() {
+        return level;
+    }
+
     /** Log a warning saying that a loop is detected */
     public static void logLoopWarning(List<ModuleDescriptor> loopElement) {
         Message.warn("circular dependency detected during sort: "
@@ -178,13 +217,8 @@ class ModuleInSort {
      * this module has no version defined, then true is always returned.
      */
     public boolean match(DependencyDescriptor descriptor, VersionMatcher versionMatcher) {
-        ModuleDescriptor md = module;
-        return md.getResolvedModuleRevisionId().getRevision() == null
-                || md.getResolvedModuleRevisionId().getRevision().equals(Ivy.getWorkingRevision())
-                || versionMatcher.accept(descriptor.getDependencyRevisionId(), md);
-        // Checking md.getResolvedModuleRevisionId().getRevision().equals(Ivy.getWorkingRevision()
-        // allow to consider any local non resolved ivy.xml
-        // as a valid module.
+        return matchesAnyRevision
+                || versionMatcher.accept(descriptor.getDependencyRevisionId(), module);
     }
 
     public ModuleDescriptor getSortedModuleDescriptor() {
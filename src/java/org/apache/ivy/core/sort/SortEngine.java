@@ -107,12 +107,39 @@ public class SortEngine {
     public List<ModuleDescriptor> sortModuleDescriptors(
             Collection<ModuleDescriptor> moduleDescriptors, SortOptions options)
             throws CircularDependencyException {
+        return newSorter(moduleDescriptors, options).sortModuleDescriptors();
+    }
+
+    /**
+     * Sorts the given ModuleDescriptors like {@link #sortModuleDescriptors(Collection, SortOptions)}
+     * and, with the same sort, groups them by dependency level. The first level contains the ModuleDescriptors which
+     * don't depend on other ModuleDescriptors of the collection, and each ModuleDescriptor is in a
+     * level after the levels of all the ModuleDescriptors it depends on, except the ones it depends
+     * on through a circular dependency. Thus the ModuleDescriptors of a level don't depend on each
+     * other.
+     *
+     * @param moduleDescriptors
+     *            a Collection of ModuleDescriptor to sort
+     * @param options
+     *            Options to use to sort the descriptors.
+     * @return the sorted ModuleDescriptors, and the sorted ModuleDescriptors of each level
+     * @throws CircularDependencyException
+     *             if a circular dependency exists and circular dependency strategy decide to throw
+     *             an exception
+     */
+    public SortedModuleDescriptors sortModuleDescriptorsWithLevels(
+            Collection<ModuleDescriptor> moduleDescriptors, SortOptions options)
+            throws CircularDependencyException {
+        return newSorter(moduleDescriptors, options).sortModuleDescriptorsWithLevels();
+    }
+
+    private ModuleDescriptorSorter newSorter(Collection<ModuleDescriptor> moduleDescriptors,
+            SortOptions options) {
         Checks.checkNotNull(options, "options");
-        ModuleDescriptorSorter sorter = new ModuleDescriptorSorter(moduleDescriptors,
-                getVersionMatcher(), options.getNonMatchingVersionReporter(),
+        return new ModuleDescriptorSorter(moduleDescriptors, getVersionMatcher(),
+                options.getNonMatchingVersionReporter(),
                 options.isUseCircularDependencyStrategy() ? getCircularStrategy()
                         : IgnoreCircularDependencyStrategy.getInstance());
-        return sorter.sortModuleDescriptors();
     }
 
     protected CircularDependencyStrategy getCircularStrategy() {
@@ -0,0 +1,56 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.sort;
+
+import java.util.List;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+
+/**
+ * The result of a sort of ModuleDescriptors: their sorted list, and the same ModuleDescriptors
+ * grouped by dependency level.
+ *
+ * @see SortEngine#sortModuleDescriptorsWithLevels(java.util.Collection, SortOptions)
+ */
+public final class SortedModuleDescriptors {
+    private final List<ModuleDescriptor> sortedModules;
+
+    private final List<List<ModuleDescriptor>> levels;
+
+    SortedModuleDescriptors(List<ModuleDescriptor> sortedModules,
+            List<List<ModuleDescriptor>> levels) {
+        this.sortedModules = sortedModules;
+        this.levels = levels;
+    }
+
+    /**
+     * @return the sorted ModuleDescriptors, in the order of
+     *         {@link SortEngine#sortModuleDescriptors(java.util.Collection, SortOptions)}
+     */
+    public List<ModuleDescriptor> getSortedModules() {
+        return sortedModules;
+    }
+
+    /**
+     * @return the sorted ModuleDescriptors of each level, from the level of the
+     *         ModuleDescriptors which don't depend on other ones
+     */
+    public List<List<ModuleDescriptor>> getLevels() {
+        return levels;
+    }
+}
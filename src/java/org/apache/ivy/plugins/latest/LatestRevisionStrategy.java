@@ -17,10 +17,12 @@
  */
 package org.apache.ivy.plugins.latest;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
@@ -33,59 +35,7 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
      */
     final class MridComparator implements Comparator<ModuleRevisionId> {
         public int compare(ModuleRevisionId o1, ModuleRevisionId o2) {
-            String rev1 = o1.getRevision();
-            String rev2 = o2.getRevision();
-
-            rev1 = rev1.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
-            rev1 = rev1.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
-            rev2 = rev2.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
-            rev2 = rev2.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
-
-            String[] parts1 = rev1.split("[\\._\\-\\+]");
-            String[] parts2 = rev2.split("[\\._\\-\\+]");
-
-            int i = 0;
-            for (; i < parts1.length && i < parts2.length; i++) {
-                if (parts1[i].equals(parts2[i])) {
-                    continue;
-                }
-                boolean is1Number = isNumber(parts1[i]);
-                boolean is2Number = isNumber(parts2[i]);
-                if (is1Number && !is2Number) {
-                    return 1;
-                }
-                if (is2Number && !is1Number) {
-                    return -1;
-                }
-                if (is1Number && is2Number) {
-                    return Long.valueOf(parts1[i]).compareTo(Long.valueOf(parts2[i]));
-                }
-                // both are strings, we compare them taking into account special meaning
-                Map<String, Integer> specialMeanings = getSpecialMeanings();
-                Integer sm1 = specialMeanings.get(parts1[i].toLowerCase(Locale.US));
-                Integer sm2 = specialMeanings.get(parts2[i].toLowerCase(Locale.US));
-                if (sm1 != null) {
-                    if (sm2 == null) {
-                        sm2 = new Integer(0);
-                    }
-                    return sm1.compareTo(sm2);
-                }
-                if (sm2 != null) {
-                    return new Integer(0).compareTo(sm2);
-                }
-                return parts1[i].compareTo(parts2[i]);
-            }
-            if (i < parts1.length) {
-                return isNumber(parts1[i]) ? 1 : -1;
-            }
-            if (i < parts2.length) {
-                return isNumber(parts2[i]) ? -1 : 1;
-            }
-            return 0;
-        }
-
-        private boolean isNumber(String str) {
-            return str.matches("\\d+");
+            return getRevisionKey(o1.getRevision()).compareTo(getRevisionKey(o2.getRevision()));
         }
     }
 
@@ -166,8 +116,20 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
 
     private final Comparator<ArtifactInfo> artifactInfoComparator = new ArtifactInfoComparator();
 
+    /**
+     * The maximum number of revisions whose parsed form is kept in memory.
+     */
+    private static final int REVISION_KEYS_CACHE_SIZE = 10000;
+
     private Map<String, Integer> specialMeanings = null;
 
+    /**
+     * The revisions compared so far, parsed with the current special meanings. They are shared by
+     * all the comparisons made with this strategy, be it to sort revisions, to manage conflicts or
+     * to match version ranges.
+     */
+    private final Map<String, RevisionKey> revisionKeys = new ConcurrentHashMap<>();
+
     private boolean usedefaultspecialmeanings = true;
 
     public LatestRevisionStrategy() {
@@ -177,10 +139,20 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
 
     public void addConfiguredSpecialMeaning(SpecialMeaning meaning) {
         meaning.validate();
-        getSpecialMeanings().put(meaning.getName().toLowerCase(Locale.US), meaning.getValue());
+        specialMeanings().put(meaning.getName().toLowerCase(Locale.US), meaning.getValue());
+        revisionKeys.clear();
     }
 
-    public synchronized Map<String, Integer> getSpecialMeanings() {
+    /**
+     * @return the special meanings used to compare revisions, which can't be modified since the
+     *         parsed revisions are cached: use {@link #addConfiguredSpecialMeaning(SpecialMeaning)}
+     *         to add one
+     */
+    public Map<String, Integer> getSpecialMeanings() {
+        return Collections.unmodifiableMap(specialMeanings());
+    }
+
+    private synchronized Map<String, Integer> specialMeanings() {
         if (specialMeanings == null) {
             specialMeanings = new HashMap<>();
             if (isUsedefaultspecialmeanings()) {
@@ -196,5 +168,18 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
 
     public void setUsedefaultspecialmeanings(boolean usedefaultspecialmeanings) {
         this.usedefaultspecialmeanings = usedefaultspecialmeanings;
+        revisionKeys.clear();
+    }
+
+    private RevisionKey getRevisionKey(String revision) {
+        RevisionKey key = revisionKeys.get(revision);
+        if (key == null) {
+            key = RevisionKey.parse(revision, specialMeanings());
+            if (revisionKeys.size() >= REVISION_KEYS_CACHE_SIZE) {
+                revisionKeys.clear();
+            }
+            revisionKeys.put(revision, key);
+        }
+        return key;
     }
 }
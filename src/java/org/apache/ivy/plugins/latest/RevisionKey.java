@@ -0,0 +1,190 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.latest;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A revision split once into the parts compared by the {@link LatestRevisionStrategy}: numeric
+ * parts are parsed, and the special meanings of the other ones are looked up, so that comparing
+ * two revisions doesn't have to parse them again.
+ * <p>
+ * A revision is split on dots, underscores, dashes and plus signs, and between letters and digits,
+ * so that <code>1.0-rc1</code> is made of the parts <code>1</code>, <code>0</code>,
+ * <code>rc</code> and <code>1</code>.
+ * </p>
+ */
+final class RevisionKey implements Comparable<RevisionKey> {
+    private static final String[] NO_PARTS = new String[0];
+
+    private final String[] parts;
+
+    /**
+     * The values of the numeric parts, or <code>null</code> for the other ones.
+     */
+    private final Number[] numbers;
+
+    /**
+     * The special meanings of the parts, <code>null</code> for the ones without special meaning.
+     */
+    private final Integer[] specialMeanings;
+
+    private RevisionKey(String[] parts, Number[] numbers, Integer[] specialMeanings) {
+        this.parts = parts;
+        this.numbers = numbers;
+        this.specialMeanings = specialMeanings;
+    }
+
+    /**
+     * Parses the given revision.
+     *
+     * @param revision
+     *            the revision to parse
+     * @param specialMeanings
+     *            the special meanings of the parts of revisions, indexed by lower case name
+     * @return the parsed revision
+     */
+    static RevisionKey parse(String revision, Map<String, Integer> specialMeanings) {
+        String[] parts = split(revision);
+        Number[] numbers = new Number[parts.length];
+        Integer[] meanings = new Integer[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (isNumber(part)) {
+                // a long can hold any number of up to 18 digits
+                numbers[i] = part.length() <= 18 ? (Number) Long.parseLong(part)
+                        : new BigInteger(part);
+            } else {
+                meanings[i] = specialMeanings.get(part.toLowerCase(Locale.US));
+            }
+        }
+        return new RevisionKey(parts, numbers, meanings);
+    }
+
+    /**
+     * Compares two revisions using an algorithm inspired by PHP version_compare one.
+     */
+    public int compareTo(RevisionKey other) {
+        int i = 0;
+        for (; i < parts.length && i < other.parts.length; i++) {
+            if (parts[i].equals(other.parts[i])) {
+                continue;
+            }
+            Number n1 = numbers[i];
+            Number n2 = other.numbers[i];
+            if (n1 != null && n2 == null) {
+                return 1;
+            }
+            if (n2 != null && n1 == null) {
+                return -1;
+            }
+            if (n1 != null) {
+                // parts such as 1 and 01 differ but are equal numbers, which ends the comparison
+                return compareNumbers(n1, n2);
+            }
+            // both are strings, we compare them taking into account special meaning
+            Integer sm1 = specialMeanings[i];
+            Integer sm2 = other.specialMeanings[i];
+            if (sm1 != null) {
+                return Integer.compare(sm1, sm2 == null ? 0 : sm2);
+            }
+            if (sm2 != null) {
+                return Integer.compare(0, sm2);
+            }
+            return parts[i].compareTo(other.parts[i]);
+        }
+        if (i < parts.length) {
+            return numbers[i] != null ? 1 : -1;
+        }
+        if (i < other.parts.length) {
+            return other.numbers[i] != null ? -1 : 1;
+        }
+        return 0;
+    }
+
+    private static int compareNumbers(Number n1, Number n2) {
+        if (n1 instanceof Long && n2 instanceof Long) {
+            return Long.compare(n1.longValue(), n2.longValue());
+        }
+        return toBigInteger(n1).compareTo(toBigInteger(n2));
+    }
+
+    private static BigInteger toBigInteger(Number n) {
+        return n instanceof BigInteger ? (BigInteger) n : BigInteger.valueOf(n.longValue());
+    }
+
+    /**
+     * Splits the given revision on separators and between letters and digits. As with
+     * {@link String#split(String)}, trailing empty parts are dropped.
+     */
+    private static String[] split(String revision) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int length = revision.length();
+        boolean separatorSeen = false;
+        for (int i = 0; i < length; i++) {
+            char ch = revision.charAt(i);
+            if (ch == '.' || ch == '_' || ch == '-' || ch == '+') {
+                parts.add(revision.substring(start, i));
+                start = i + 1;
+                separatorSeen = true;
+            } else if (i > start && isBoundary(revision.charAt(i - 1), ch)) {
+                parts.add(revision.substring(start, i));
+                start = i;
+                separatorSeen = true;
+            }
+        }
+        if (!separatorSeen) {
+            return new String[] {revision};
+        }
+        parts.add(revision.substring(start));
+        int size = parts.size();
+        while (size > 0 && parts.get(size - 1).isEmpty()) {
+            size--;
+        }
+        return size == 0 ? NO_PARTS : parts.subList(0, size).toArray(new String[size]);
+    }
+
+    private static boolean isBoundary(char previous, char ch) {
+        return isLetter(previous) && isDigit(ch) || isDigit(previous) && isLetter(ch);
+    }
+
+    private static boolean isNumber(String str) {
+        if (str.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < str.length(); i++) {
+            if (!isDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isLetter(char ch) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z';
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.lock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.util.Message;
+
+/**
+ * A lock strategy locking artifacts like {@link NIOFileLockStrategy}, but waiting for locks
+ * instead of polling them.
+ * <p>
+ * Threads of this process waiting for the same file are queued in the order of their requests on
+ * a fair lock dedicated to this file, and only the thread at the head of the queue waits for the
+ * {@link FileLock} held by other processes, blocking until it is released or until the timeout
+ * expires. Threads locking different files never wait for each other.
+ * </p>
+ * <p>
+ * The time spent waiting for locks and the number of contended acquisitions are recorded in
+ * total and per locked file, for a limited number of files, see {@link #getTotalStatistics()}
+ * and {@link #getStatistics()}.
+ * </p>
+ */
+public class BlockingFileLockStrategy extends AbstractLockStrategy {
+    private static final long DEFAULT_TIMEOUT = 2 * 60 * 1000;
+
+    /**
+     * The maximum number of files whose statistics are recorded separately.
+     */
+    private static final int MAX_FILE_STATISTICS = 1000;
+
+    /**
+     * Locks must be static: file locks are held by the entire process, so the locks queuing the
+     * threads of this process must be shared too. An entry is removed once no thread holds or
+     * waits for its lock.
+     */
+    private static final ConcurrentMap<File, FileLockEntry> LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * Aborts waits for file locks which exceed their timeout, by closing their channel.
+     */
+    private static final ScheduledExecutorService WATCHDOG = newWatchdog();
+
+    private long timeout = DEFAULT_TIMEOUT;
+
+    private final ConcurrentMap<File, LockStatistics> statistics = new ConcurrentHashMap<>();
+
+    private volatile LockStatistics totalStatistics = new LockStatistics();
+
+    public BlockingFileLockStrategy(boolean debugLocking) {
+        super(debugLocking);
+        setName("artifact-lock-blocking");
+    }
+
+    private static ScheduledExecutorService newWatchdog() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactory() {
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "ivy-lock-watchdog");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the maximum time to wait for a lock.
+     *
+     * @param timeout
+     *            a time in milliseconds
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public boolean lockArtifact(Artifact artifact, File artifactFileToDownload)
+            throws InterruptedException {
+        return acquireLock(getLockFile(artifactFileToDownload));
+    }
+
+    public void unlockArtifact(Artifact artifact, File artifactFileToDownload) {
+        releaseLock(getLockFile(artifactFileToDownload));
+    }
+
+    private File getLockFile(File artifactFileToDownload) {
+        return new File(artifactFileToDownload.getAbsolutePath() + ".lck");
+    }
+
+    /**
+     * Returns the statistics of the locks acquired with this strategy, per locked file. Only the
+     * first files locked since the statistics have been reset are recorded, see
+     * {@link #getTotalStatistics()} for the statistics of all of them.
+     *
+     * @return a map of the statistics of the locks, indexed by locked file
+     */
+    public Map<File, LockStatistics> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Returns the statistics of all the locks acquired with this strategy.
+     *
+     * @return the statistics of the locks, summed over all the locked files
+     */
+    public LockStatistics getTotalStatistics() {
+        return totalStatistics;
+    }
+
+    /**
+     * Discards the statistics recorded so far.
+     */
+    public void resetStatistics() {
+        totalStatistics = new LockStatistics();
+        statistics.clear();
+    }
+
+    protected boolean acquireLock(File file) throws InterruptedException {
+        if (isDebugLocking()) {
+            debugLocking("acquiring lock on " + file);
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+        FileLockEntry entry = getEntry(file);
+        boolean acquired = false;
+        try {
+            acquired = acquireLock(file, entry, start, deadline);
+        } finally {
+            if (!acquired) {
+                releaseEntry(file, entry);
+            }
+        }
+        return acquired;
+    }
+
+    private boolean acquireLock(File file, FileLockEntry entry, long start, long deadline)
+            throws InterruptedException {
+        // a timed tryLock is used even without waiting, since an untimed one ignores fairness
+        boolean contended = !entry.lock.tryLock(0, TimeUnit.NANOSECONDS);
+        if (contended) {
+            if (isDebugLocking()) {
+                debugLocking("waiting for another thread to release the lock on " + file);
+            }
+            if (!entry.lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                timedOut(file, System.nanoTime() - start);
+                return false;
+            }
+        }
+        if (entry.lock.getHoldCount() > 1) {
+            if (isDebugLocking()) {
+                debugLocking("reentrant lock acquired on " + file + " - hold locks = "
+                        + entry.lock.getHoldCount());
+            }
+            return true;
+        }
+        boolean locked = false;
+        try {
+            Boolean fileContended = entry.lockFile(file, deadline);
+            if (fileContended == null) {
+                timedOut(file, System.nanoTime() - start);
+                return false;
+            }
+            contended |= fileContended;
+            locked = true;
+        } finally {
+            if (!locked) {
+                entry.lock.unlock();
+            }
+        }
+        long wait = System.nanoTime() - start;
+        acquired(file, wait, contended);
+        if (isDebugLocking() || contended) {
+            Message.debug("lock acquired on " + file + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(wait) + "ms");
+        }
+        return true;
+    }
+
+    protected void releaseLock(File file) {
+        if (isDebugLocking()) {
+            debugLocking("releasing lock on " + file);
+        }
+        FileLockEntry entry = LOCKS.get(file);
+        if (entry == null || !entry.lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("lock not held by the current thread: " + file);
+        }
+        try {
+            if (entry.lock.getHoldCount() == 1) {
+                entry.unlockFile(file);
+            }
+        } finally {
+            entry.lock.unlock();
+            releaseEntry(file, entry);
+        }
+    }
+
+    /**
+     * Returns the entry of the given file, registering the current thread as one of its users
+     * until {@link #releaseEntry(File, FileLockEntry)} is called.
+     */
+    private static FileLockEntry getEntry(File file) {
+        while (true) {
+            FileLockEntry entry = LOCKS.get(file);
+            if (entry == null) {
+                FileLockEntry newEntry = new FileLockEntry();
+                entry = LOCKS.putIfAbsent(file, newEntry);
+                if (entry == null) {
+                    entry = newEntry;
+                }
+            }
+            synchronized (entry) {
+                if (entry.users >= 0) {
+                    entry.users++;
+                    return entry;
+                }
+            }
+            // the entry has just been removed, a new one is needed
+        }
+    }
+
+    private static void releaseEntry(File file, FileLockEntry entry) {
+        synchronized (entry) {
+            if (--entry.users == 0) {
+                entry.users = -1;
+                LOCKS.remove(file, entry);
+            }
+        }
+    }
+
+    /**
+     * @return the number of files whose lock is held or waited for by threads of this process
+     */
+    static int getLockedFileCount() {
+        return LOCKS.size();
+    }
+
+    private void acquired(File file, long wait, boolean contended) {
+        totalStatistics.acquired(wait, contended);
+        LockStatistics stats = getStatistics(file);
+        if (stats != null) {
+            stats.acquired(wait, contended);
+        }
+    }
+
+    private void timedOut(File file, long wait) {
+        totalStatistics.timedOut(wait);
+        LockStatistics stats = getStatistics(file);
+        if (stats != null) {
+            stats.timedOut(wait);
+        }
+    }
+
+    private LockStatistics getStatistics(File file) {
+        LockStatistics stats = statistics.get(file);
+        if (stats == null) {
+            if (statistics.size() >= MAX_FILE_STATISTICS) {
+                return null;
+            }
+            LockStatistics newStats = new LockStatistics();
+            stats = statistics.putIfAbsent(file, newStats);
+            if (stats == null) {
+                stats = newStats;
+            }
+        }
+        return stats;
+    }
+
+    private static void debugLocking(String msg) {
+        Message.info(Thread.currentThread() + " " + System.currentTimeMillis() + " " + msg);
+    }
+
+    /**
+     * The lock of a file in this process.
+     */
+    private static final class FileLockEntry {
+        private final ReentrantLock lock = new ReentrantLock(true);
+
+        // the number of threads holding or waiting for the lock, -1 once the entry is removed,
+        // guarded by the entry
+        private int users;
+
+        // guarded by lock
+        private RandomAccessFile raf;
+
+        private FileLock fileLock;
+
+        /**
+         * Locks the file for other processes, waiting until the given deadline at most. Must be
+         * called by the thread holding the lock of the entry.
+         *
+         * @return true if the file was locked by another process, false if it wasn't, and
+         *         <code>null</code> if the file couldn't be locked in time
+         */
+        private Boolean lockFile(File file, long deadline) throws InterruptedException {
+            if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()
+                    && !file.getParentFile().exists()) {
+                Message.verbose("impossible to create the directory of lock " + file);
+                return null;
+            }
+            RandomAccessFile raf = null;
+            FileLock fileLock;
+            try {
+                raf = new RandomAccessFile(file, "rw");
+                fileLock = raf.getChannel().tryLock();
+            } catch (IOException | OverlappingFileLockException e) {
+                // the file may also be locked by another lock strategy of this process
+                Message.verbose("file lock failed due to an exception: " + e + " (" + file + ")");
+                if (raf != null) {
+                    closeSilently(raf);
+                }
+                return null;
+            }
+            boolean contended = fileLock == null;
+            if (contended) {
+                fileLock = waitForFileLock(raf, deadline);
+                if (fileLock == null) {
+                    closeSilently(raf);
+                    return null;
+                }
+            }
+            this.raf = raf;
+            this.fileLock = fileLock;
+            return contended;
+        }
+
+        private FileLock waitForFileLock(final RandomAccessFile raf, long deadline)
+                throws InterruptedException {
+            final FileChannel channel = raf.getChannel();
+            final boolean[] state = new boolean[2]; // acquired, timed out
+            ScheduledFuture<?> watchdog = WATCHDOG.schedule(new Runnable() {
+                public void run() {
+                    synchronized (state) {
+                        if (!state[0]) {
+                            state[1] = true;
+                            closeSilently(raf);
+                        }
+                    }
+                }
+            }, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            try {
+                FileLock fileLock = channel.lock();
+                synchronized (state) {
+                    state[0] = true;
+                    // the channel may have been closed by the watchdog just after the lock
+                    return state[1] ? null : fileLock;
+                }
+            } catch (ClosedByInterruptException e) {
+                Thread.interrupted();
+                throw new InterruptedException("interrupted while waiting for a file lock");
+            } catch (AsynchronousCloseException e) {
+                // closed by the watchdog
+                return null;
+            } catch (IOException e) {
+                Message.verbose("file lock failed due to an exception: " + e.getMessage());
+                return null;
+            } finally {
+                watchdog.cancel(false);
+            }
+        }
+
+        private void unlockFile(File file) {
+            try {
+                fileLock.release();
+            } catch (IOException e) {
+                Message.error("problem while releasing lock on " + file + ": " + e.getMessage());
+            } finally {
+                closeSilently(raf);
+                fileLock = null;
+                raf = null;
+            }
+        }
+
+        private static void closeSilently(RandomAccessFile raf) {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                // ignored
+            }
+        }
+    }
+
+    /**
+     * Statistics of the acquisitions of the lock of a file.
+     */
+    public static final class LockStatistics {
+        private final AtomicLong acquisitions = new AtomicLong();
+
+        private final AtomicLong contentions = new AtomicLong();
+
+        private final AtomicLong timeouts = new AtomicLong();
+
+        private final AtomicLong totalWaitTime = new AtomicLong();
+
+        private final AtomicLong maxWaitTime = new AtomicLong();
+
+        private void acquired(long wait, boolean contended) {
+            acquisitions.incrementAndGet();
+            if (contended) {
+                contentions.incrementAndGet();
+            }
+            waited(wait);
+        }
+
+        private void timedOut(long wait) {
+            timeouts.incrementAndGet();
+            waited(wait);
+        }
+
+        private void waited(long wait) {
+            totalWaitTime.addAndGet(wait);
+            long max = maxWaitTime.get();
+            while (wait > max && !maxWaitTime.compareAndSet(max, wait)) {
+                max = maxWaitTime.get();
+            }
+        }
+
+        /**
+         * @return the number of times the lock has been acquired, reentrant acquisitions excluded
+         */
+        public long getAcquisitions() {
+            return acquisitions.get();
+        }
+
+        /**
+         * @return the number of acquisitions which had to wait for another thread or process
+         */
+        public long getContentions() {
+            return contentions.get();
+        }
+
+        /**
+         * @return the number of times the lock couldn't be acquired before the timeout
+         */
+        public long getTimeouts() {
+            return timeouts.get();
+        }
+
+        /**
+         * @return the total time spent waiting for the lock, in milliseconds
+         */
+        public long getTotalWaitTime() {
+            return TimeUnit.NANOSECONDS.toMillis(totalWaitTime.get());
+        }
+
+        /**
+         * @return the longest time spent waiting for the lock, in milliseconds
+         */
+        public long getMaxWaitTime() {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get());
+        }
+
+        @Override
+        public String toString() {
+            return "acquisitions=" + getAcquisitions() + ", contentions=" + getContentions()
+                    + ", timeouts=" + getTimeouts() + ", totalWait=" + getTotalWaitTime()
+                    + "ms, maxWait=" + getMaxWaitTime() + "ms";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.parser.m2;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.resolve.ResolvedModuleRevision;
+
+/**
+ * A cache of the poms used as parent or whose dependency management is imported by other poms,
+ * keyed by the module revision id they are referred to with.
+ * <p>
+ * A cache is shared by the parses of a same resolve, so that a parent or a bom used by many
+ * modules is looked up once, and its properties and dependency management are extracted from its
+ * module descriptor once. Since the module descriptor of a pom already includes what it inherits
+ * from its own parents and imports, they are the effective properties and dependency management of
+ * the pom.
+ * </p>
+ */
+public final class PomModelCache {
+    private final ConcurrentMap<ModuleRevisionId, PomModel> models = new ConcurrentHashMap<>();
+
+    PomModel get(ModuleRevisionId mrid) {
+        return models.get(mrid);
+    }
+
+    PomModel put(ModuleRevisionId mrid, ResolvedModuleRevision module) {
+        PomModel model = new PomModel(module);
+        PomModel previous = models.putIfAbsent(mrid, model);
+        return previous == null ? model : previous;
+    }
+
+    /**
+     * @return the number of poms in this cache
+     */
+    public int size() {
+        return models.size();
+    }
+
+    /**
+     * The effective content of a pom, extracted from its module descriptor.
+     */
+    static final class PomModel {
+        private final ResolvedModuleRevision module;
+
+        private final Map<String, String> properties;
+
+        private final List<PomDependencyMgt> dependencyManagements;
+
+        private final List<PomDependencyMgt> plugins;
+
+        PomModel(ResolvedModuleRevision module) {
+            this.module = module;
+            ModuleDescriptor md = module.getDescriptor();
+            this.properties = Collections.unmodifiableMap(
+                PomModuleDescriptorBuilder.extractPomProperties(md.getExtraInfos()));
+            this.dependencyManagements = Collections.unmodifiableList(
+                PomModuleDescriptorBuilder.getDependencyManagements(md));
+            this.plugins = Collections.unmodifiableList(PomModuleDescriptorBuilder.getPlugins(md));
+        }
+
+        ResolvedModuleRevision getModule() {
+            return module;
+        }
+
+        ModuleDescriptor getDescriptor() {
+            return module.getDescriptor();
+        }
+
+        Map<String, String> getProperties() {
+            return properties;
+        }
+
+        List<PomDependencyMgt> getDependencyManagements() {
+            return dependencyManagements;
+        }
+
+        List<PomDependencyMgt> getPlugins() {
+            return plugins;
+        }
+    }
+}
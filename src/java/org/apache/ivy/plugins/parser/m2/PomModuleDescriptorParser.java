@@ -46,6 +46,7 @@ import org.apache.ivy.core.resolve.ResolvedModuleRevision;
 import org.apache.ivy.plugins.circular.CircularDependencyException;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.ParserSettings;
+import org.apache.ivy.plugins.parser.m2.PomModelCache.PomModel;
 import org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.PomDependencyDescriptor;
 import org.apache.ivy.plugins.parser.m2.PomReader.PomDependencyData;
 import org.apache.ivy.plugins.parser.m2.PomReader.PomDependencyMgtElement;
@@ -61,9 +62,6 @@ import org.xml.sax.SAXException;
 import static org.apache.ivy.core.module.descriptor.Configuration.Visibility.PUBLIC;
 import static org.apache.ivy.plugins.namespace.NameSpaceHelper.toSystem;
 import static org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.MAVEN2_CONFIGURATIONS;
-import static org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.extractPomProperties;
-import static org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.getDependencyManagements;
-import static org.apache.ivy.plugins.parser.m2.PomModuleDescriptorBuilder.getPlugins;
 
 /**
  * A parser for Maven 2 POM.
@@ -171,6 +169,7 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
             }
 
             ModuleDescriptor parentDescr = null;
+            PomModel parentModel = null;
             if (domReader.hasParent()) {
                 // Is there any other parent properties?
 
@@ -185,17 +184,14 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                     parents.add(parentModRevID);
                 }
 
-                final ResolvedModuleRevision parentModule = parseOtherPom(ivySettings, parentModRevID, true);
-                if (parentModule == null) {
+                parentModel = parseOtherPom(ivySettings, parentModRevID, true);
+                if (parentModel == null) {
                     throw new IOException("Impossible to load parent for " + res.getName()
                             + ". Parent=" + parentModRevID);
                 }
-                parentDescr = parentModule.getDescriptor();
-                if (parentDescr != null) {
-                    for (Map.Entry<String, String> prop
-                            : extractPomProperties(parentDescr.getExtraInfos()).entrySet()) {
-                        domReader.setProperty(prop.getKey(), prop.getValue());
-                    }
+                parentDescr = parentModel.getDescriptor();
+                for (Map.Entry<String, String> prop : parentModel.getProperties().entrySet()) {
+                    domReader.setProperty(prop.getKey(), prop.getValue());
                 }
             }
 
@@ -225,7 +221,7 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                             + ". Please update your dependency to directly use the right version.");
                     Message.warn("Resolution will only pick dependencies of the relocated element."
                             + "  Artifact and other metadata will be ignored.");
-                    ResolvedModuleRevision relocatedModule = parseOtherPom(ivySettings, relocation, false);
+                    PomModel relocatedModule = parseOtherPom(ivySettings, relocation, false);
                     if (relocatedModule == null) {
                         throw new ParseException(
                                 "impossible to load module " + relocation + " to which "
@@ -267,7 +263,7 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                     mdBuilder.addExtraInfos(parentDescr.getExtraInfos());
 
                     // add dependency management info from parent
-                    for (PomDependencyMgt dep : getDependencyManagements(parentDescr)) {
+                    for (PomDependencyMgt dep : parentModel.getDependencyManagements()) {
                         if (dep instanceof PomDependencyMgtElement) {
                             dep = domReader.new PomDependencyMgtElement(
                                     (PomDependencyMgtElement) dep);
@@ -276,7 +272,7 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                     }
 
                     // add plugins from parent
-                    for (PomDependencyMgt pomDependencyMgt : getPlugins(parentDescr)) {
+                    for (PomDependencyMgt pomDependencyMgt : parentModel.getPlugins()) {
                         mdBuilder.addPlugin(pomDependencyMgt);
                     }
                 }
@@ -340,16 +336,15 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
             // in the current module's dependencies
             ModuleRevisionId importModRevID = ModuleRevisionId.newInstance(dep.getGroupId(),
                     dep.getArtifactId(), dep.getVersion());
-            ResolvedModuleRevision importModule = parseOtherPom(ivySettings, importModRevID, false);
-            if (importModule == null) {
+            PomModel importModel = parseOtherPom(ivySettings, importModRevID, false);
+            if (importModel == null) {
                 throw new IOException("Impossible to import module for "
                         + mdBuilder.getModuleDescriptor().getResource().getName() + ". Import="
                         + importModRevID);
             }
-            ModuleDescriptor importDescr = importModule.getDescriptor();
 
             // add dependency management info from imported module
-            for (PomDependencyMgt importedDepMgt : getDependencyManagements(importDescr)) {
+            for (PomDependencyMgt importedDepMgt : importModel.getDependencyManagements()) {
                 mdBuilder.addDependencyMgt(new DefaultPomDependencyMgt(importedDepMgt.getGroupId(),
                         importedDepMgt.getArtifactId(), importedDepMgt.getVersion(),
                         importedDepMgt.getScope(), importedDepMgt.getExcludedModules()));
@@ -428,8 +423,22 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
         }
     }
 
-    private ResolvedModuleRevision parseOtherPom(final ParserSettings ivySettings,
+    /**
+     * Loads the pom with the given module revision id, used as parent or imported by the pom being
+     * parsed. During a resolve, poms are looked up once and kept in the {@link PomModelCache} of
+     * the resolve.
+     */
+    private PomModel parseOtherPom(final ParserSettings ivySettings,
             final ModuleRevisionId parentModRevID, final boolean isParentPom) throws ParseException {
+        ResolveData data = IvyContext.getContext().getResolveData();
+        PomModelCache cache = data == null ? null : data.getPomModelCache();
+        if (cache != null) {
+            PomModel model = cache.get(parentModRevID);
+            if (model != null) {
+                Message.debug("using cached pom of " + parentModRevID);
+                return model;
+            }
+        }
 
         Set<ModuleRevisionId> previousParents = null;
         if (!isParentPom) {
@@ -442,7 +451,6 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
         }
         try {
             DependencyDescriptor dd = new DefaultDependencyDescriptor(parentModRevID, true);
-            ResolveData data = IvyContext.getContext().getResolveData();
             if (data == null) {
                 ResolveEngine engine = IvyContext.getContext().getIvy().getResolveEngine();
                 ResolveOptions options = new ResolveOptions();
@@ -456,7 +464,11 @@ public final class PomModuleDescriptorParser implements ModuleDescriptorParser {
                 return null;
             }
             dd = toSystem(dd, ivySettings.getContextNamespace());
-            return resolver.getDependency(dd, data);
+            ResolvedModuleRevision module = resolver.getDependency(dd, data);
+            if (module == null) {
+                return null;
+            }
+            return cache == null ? new PomModel(module) : cache.put(parentModRevID, module);
         } finally {
             if (!isParentPom) {
                 // switch back to the previous state of the parent tracking
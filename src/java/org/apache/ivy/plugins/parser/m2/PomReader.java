@@ -24,14 +24,11 @@ import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.plugins.repository.Resource;
 import org.apache.ivy.util.XMLHelper;
 import org.apache.ivy.util.url.URLHandlerRegistry;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.EntityResolver;
+import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
 
 import java.io.BufferedInputStream;
 import java.io.File;
@@ -50,8 +47,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
+import javax.xml.parsers.ParserConfigurationException;
+
 /**
- * Provides the method to read some data out of the DOM tree of a pom file.
+ * Provides the method to read some data out of a pom file.
+ * <p>
+ * The pom is parsed with SAX into a lightweight tree of the elements which are read by this class:
+ * the coordinates, parent, licenses, relocation, properties, dependencies, dependency management,
+ * plugins and profiles of the project. The other elements are skipped while parsing.
+ * </p>
  */
 public class PomReader {
 
@@ -113,11 +117,31 @@ public class PomReader {
 
     private static final String PROFILE = "profile";
 
+    /**
+     * The elements read in a pom or in a profile, relative to the project or profile element.
+     */
+    private static final String[] CONTENT_ELEMENTS = {PROPERTIES + "/**",
+            DEPENDENCIES + "/**", DEPENDENCY_MGT + "/" + DEPENDENCIES + "/**",
+            "build/" + PLUGINS + "/" + PLUGIN + "/" + GROUP_ID,
+            "build/" + PLUGINS + "/" + PLUGIN + "/" + ARTIFACT_ID,
+            "build/" + PLUGINS + "/" + PLUGIN + "/" + VERSION};
+
+    /**
+     * The elements read in a pom, relative to its root element.
+     */
+    private static final ElementFilter READ_ELEMENTS = new ElementFilter()
+            .keep(GROUP_ID, ARTIFACT_ID, VERSION, PACKAGING, DESCRIPTION, HOMEPAGE,
+                PARENT + "/**", LICENSES + "/**", DISTRIBUTION_MGT + "/" + RELOCATION + "/**",
+                PROFILES_ELEMENT + "/" + PROFILE + "/id",
+                PROFILES_ELEMENT + "/" + PROFILE + "/activation/**")
+            .keep(CONTENT_ELEMENTS)
+            .keepIn(PROFILES_ELEMENT + "/" + PROFILE, CONTENT_ELEMENTS);
+
     private final Map<String, String> properties = new HashMap<>();
 
-    private final Element projectElement;
+    private final PomElement projectElement;
 
-    private final Element parentElement;
+    private final PomElement parentElement;
 
     @SuppressWarnings("deprecation")
     public PomReader(final URL descriptorURL, final Resource res) throws IOException, SAXException {
@@ -126,23 +150,12 @@ public class PomReader {
         InputSource source = new InputSource(stream);
         source.setSystemId(XMLHelper.toSystemId(descriptorURL));
         try {
-            Document pomDomDoc = XMLHelper.parseToDom(source, new EntityResolver() {
-                public InputSource resolveEntity(String publicId, String systemId)
-                        throws SAXException, IOException {
-                    if (systemId != null && systemId.endsWith("m2-entities.ent")) {
-                        return new InputSource(
-                                PomReader.class.getResourceAsStream("m2-entities.ent"));
-                    }
-                    return null;
-                }
-            });
-            projectElement = pomDomDoc.getDocumentElement();
-            if (!PROJECT.equals(projectElement.getNodeName())
-                    && !MODEL.equals(projectElement.getNodeName())) {
-                throw new SAXParseException("project must be the root tag", res.getName(),
-                        res.getName(), 0, 0);
-            }
+            PomHandler handler = new PomHandler(res);
+            XMLHelper.parse(source, null, handler, null);
+            projectElement = handler.getRoot();
             parentElement = getFirstChildElement(projectElement, PARENT);
+        } catch (ParserConfigurationException e) {
+            throw new SAXException(e);
         } finally {
             try {
                 stream.close();
@@ -256,14 +269,13 @@ public class PomReader {
     }
 
     public License[] getLicenses() {
-        Element licenses = getFirstChildElement(projectElement, LICENSES);
+        PomElement licenses = getFirstChildElement(projectElement, LICENSES);
         if (licenses == null) {
             return new License[0];
         }
-        licenses.normalize();
         List<License> lics = new ArrayList<>();
-        for (Element license : getAllChilds(licenses)) {
-            if (LICENSE.equals(license.getNodeName())) {
+        for (PomElement license : licenses.getChildren()) {
+            if (LICENSE.equals(license.getName())) {
                 String name = getFirstChildText(license, LICENSE_NAME);
                 String url = getFirstChildText(license, LICENSE_URL);
 
@@ -284,8 +296,8 @@ public class PomReader {
     }
 
     public ModuleRevisionId getRelocation() {
-        Element distrMgt = getFirstChildElement(projectElement, DISTRIBUTION_MGT);
-        Element relocation = getFirstChildElement(distrMgt, RELOCATION);
+        PomElement distrMgt = getFirstChildElement(projectElement, DISTRIBUTION_MGT);
+        PomElement relocation = getFirstChildElement(distrMgt, RELOCATION);
         if (relocation == null) {
             return null;
         } else {
@@ -309,17 +321,15 @@ public class PomReader {
         return getDependencies(projectElement);
     }
 
-    private List<PomDependencyData> getDependencies(Element parent) {
-        Element dependenciesElement = getFirstChildElement(parent, DEPENDENCIES);
+    private List<PomDependencyData> getDependencies(PomElement parent) {
+        PomElement dependenciesElement = getFirstChildElement(parent, DEPENDENCIES);
         if (dependenciesElement == null) {
             return Collections.emptyList();
         }
         List<PomDependencyData> dependencies = new LinkedList<>();
-        NodeList children = dependenciesElement.getChildNodes();
-        for (int i = 0, sz = children.getLength(); i < sz; i++) {
-            Node node = children.item(i);
-            if (node instanceof Element && DEPENDENCY.equals(node.getNodeName())) {
-                dependencies.add(new PomDependencyData((Element) node));
+        for (PomElement node : dependenciesElement.getChildren()) {
+            if (DEPENDENCY.equals(node.getName())) {
+                dependencies.add(new PomDependencyData(node));
             }
         }
         return dependencies;
@@ -329,47 +339,43 @@ public class PomReader {
         return getDependencyMgt(projectElement);
     }
 
-    private List<PomDependencyMgt> getDependencyMgt(Element parent) {
-        Element dependenciesElement = getFirstChildElement(
+    private List<PomDependencyMgt> getDependencyMgt(PomElement parent) {
+        PomElement dependenciesElement = getFirstChildElement(
                 getFirstChildElement(parent, DEPENDENCY_MGT), DEPENDENCIES);
         if (dependenciesElement == null) {
             return Collections.emptyList();
         }
         List<PomDependencyMgt> dependencies = new LinkedList<>();
-        NodeList children = dependenciesElement.getChildNodes();
-        for (int i = 0, sz = children.getLength(); i < sz; i++) {
-            Node node = children.item(i);
-            if (node instanceof Element && DEPENDENCY.equals(node.getNodeName())) {
-                dependencies.add(new PomDependencyMgtElement((Element) node));
+        for (PomElement node : dependenciesElement.getChildren()) {
+            if (DEPENDENCY.equals(node.getName())) {
+                dependencies.add(new PomDependencyMgtElement(node));
             }
         }
         return dependencies;
     }
 
     public List<PomProfileElement> getProfiles() {
-        Element profilesElement = getFirstChildElement(projectElement, PROFILES_ELEMENT);
+        PomElement profilesElement = getFirstChildElement(projectElement, PROFILES_ELEMENT);
         if (profilesElement == null) {
             return Collections.emptyList();
         }
         List<PomProfileElement> result = new LinkedList<>();
-        NodeList children = profilesElement.getChildNodes();
-        for (int i = 0, sz = children.getLength(); i < sz; i++) {
-            Node node = children.item(i);
-            if (node instanceof Element && PROFILE.equals(node.getNodeName())) {
-                result.add(new PomProfileElement((Element) node));
+        for (PomElement node : profilesElement.getChildren()) {
+            if (PROFILE.equals(node.getName())) {
+                result.add(new PomProfileElement(node));
             }
         }
         return result;
     }
 
     public class PomDependencyMgtElement implements PomDependencyMgt {
-        private final Element depElement;
+        private final PomElement depElement;
 
         public PomDependencyMgtElement(PomDependencyMgtElement copyFrom) {
             this(copyFrom.depElement);
         }
 
-        PomDependencyMgtElement(Element depElement) {
+        PomDependencyMgtElement(PomElement depElement) {
             this.depElement = depElement;
         }
 
@@ -409,17 +415,15 @@ public class PomReader {
         }
 
         public List<ModuleId> getExcludedModules() {
-            Element exclusionsElement = getFirstChildElement(depElement, EXCLUSIONS);
+            PomElement exclusionsElement = getFirstChildElement(depElement, EXCLUSIONS);
             if (exclusionsElement == null) {
                 return Collections.emptyList();
             }
             List<ModuleId> exclusions = new LinkedList<>();
-            NodeList children = exclusionsElement.getChildNodes();
-            for (int i = 0, sz = children.getLength(); i < sz; i++) {
-                Node node = children.item(i);
-                if (node instanceof Element && EXCLUSION.equals(node.getNodeName())) {
-                    String groupId = getFirstChildText((Element) node, GROUP_ID);
-                    String artifactId = getFirstChildText((Element) node, ARTIFACT_ID);
+            for (PomElement node : exclusionsElement.getChildren()) {
+                if (EXCLUSION.equals(node.getName())) {
+                    String groupId = getFirstChildText(node, GROUP_ID);
+                    String artifactId = getFirstChildText(node, ARTIFACT_ID);
                     if (groupId != null && artifactId != null) {
                         exclusions.add(ModuleId.newInstance(groupId, artifactId));
                     }
@@ -433,41 +437,38 @@ public class PomReader {
         return getPlugins(projectElement);
     }
 
-    private List<PomPluginElement> getPlugins(Element parent) {
-        Element buildElement = getFirstChildElement(parent, "build");
-        Element pluginsElement = getFirstChildElement(buildElement, PLUGINS);
+    private List<PomPluginElement> getPlugins(PomElement parent) {
+        PomElement buildElement = getFirstChildElement(parent, "build");
+        PomElement pluginsElement = getFirstChildElement(buildElement, PLUGINS);
 
         if (pluginsElement == null) {
             return Collections.emptyList();
         }
-        NodeList children = pluginsElement.getChildNodes();
         List<PomPluginElement> plugins = new LinkedList<>();
-        for (int i = 0; i < children.getLength(); i++) {
-            Node node = children.item(i);
-            if (node instanceof Element && PLUGIN.equals(node.getNodeName())) {
-                plugins.add(new PomPluginElement((Element) node));
+        for (PomElement node : pluginsElement.getChildren()) {
+            if (PLUGIN.equals(node.getName())) {
+                plugins.add(new PomPluginElement(node));
             }
         }
         return plugins;
     }
 
-    private static Map<String, String> getProperties(final Element parent) {
-        final Element propsEl = getFirstChildElement(parent, PROPERTIES);
+    private static Map<String, String> getProperties(final PomElement parent) {
+        final PomElement propsEl = getFirstChildElement(parent, PROPERTIES);
         if (propsEl == null) {
             return Collections.emptyMap();
         }
-        propsEl.normalize();
         final Map<String, String> props = new HashMap<>();
-        for (final Element prop : getAllChilds(propsEl)) {
-            props.put(prop.getNodeName(), getTextContent(prop));
+        for (final PomElement prop : propsEl.getChildren()) {
+            props.put(prop.getName(), prop.getText());
         }
         return props;
     }
 
     public class PomPluginElement implements PomDependencyMgt {
-        private Element pluginElement;
+        private PomElement pluginElement;
 
-        PomPluginElement(Element pluginElement) {
+        PomPluginElement(PomElement pluginElement) {
             this.pluginElement = pluginElement;
         }
 
@@ -496,13 +497,13 @@ public class PomReader {
     }
 
     public class PomDependencyData extends PomDependencyMgtElement {
-        private final Element depElement;
+        private final PomElement depElement;
 
         public PomDependencyData(PomDependencyData copyFrom) {
             this(copyFrom.depElement);
         }
 
-        PomDependencyData(Element depElement) {
+        PomDependencyData(PomElement depElement) {
             super(depElement);
             this.depElement = depElement;
         }
@@ -575,9 +576,9 @@ public class PomReader {
 
         private static final String JDK = "jdk";
 
-        private final Element profileElement;
+        private final PomElement profileElement;
 
-        PomProfileElement(Element profileElement) {
+        PomProfileElement(PomElement profileElement) {
             this.profileElement = profileElement;
         }
 
@@ -591,16 +592,16 @@ public class PomReader {
         }
 
         public boolean isActiveByDefault() {
-            Element activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
+            PomElement activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
             return Boolean.parseBoolean(getFirstChildText(activation, ACTIVE_BY_DEFAULT_ELEMENT));
         }
 
         public boolean isActiveByOS() {
-            final Element activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
+            final PomElement activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
             if (activation == null) {
                 return false;
             }
-            final Element osActivation = getFirstChildElement(activation, OS);
+            final PomElement osActivation = getFirstChildElement(activation, OS);
             if (osActivation == null) {
                 return false;
             }
@@ -633,7 +634,7 @@ public class PomReader {
         }
 
         public boolean isActiveByJDK() {
-            final Element activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
+            final PomElement activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
             if (activation == null) {
                 return false;
             }
@@ -648,11 +649,11 @@ public class PomReader {
         }
 
         public boolean isActiveByFile() {
-            final Element activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
+            final PomElement activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
             if (activation == null) {
                 return false;
             }
-            final Element fileActivation = getFirstChildElement(activation, FILE);
+            final PomElement fileActivation = getFirstChildElement(activation, FILE);
             if (fileActivation == null) {
                 return false;
             }
@@ -674,8 +675,8 @@ public class PomReader {
         }
 
         public boolean isActivatedByProperty() {
-            Element activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
-            Element propertyActivation = getFirstChildElement(activation, PROPERTY);
+            PomElement activation = getFirstChildElement(profileElement, ACTIVATION_ELEMENT);
+            PomElement propertyActivation = getFirstChildElement(activation, PROPERTY);
             String propertyName = getFirstChildText(propertyActivation, NAME);
             if (propertyName == null || "".equals(propertyName)) {
                 return false;
@@ -730,61 +731,200 @@ public class PomReader {
         }
     }
 
-    private static String getTextContent(Element element) {
-        StringBuilder result = new StringBuilder();
-
-        NodeList childNodes = element.getChildNodes();
-        for (int i = 0; i < childNodes.getLength(); i++) {
-            Node child = childNodes.item(i);
-
-            switch (child.getNodeType()) {
-                case Node.CDATA_SECTION_NODE:
-                case Node.TEXT_NODE:
-                    result.append(child.getNodeValue());
-                    break;
-                default:
-                    break;
-            }
-        }
-
-        return result.toString();
-    }
-
-    private static String getFirstChildText(Element parentElem, String name) {
-        Element node = getFirstChildElement(parentElem, name);
+    private static String getFirstChildText(PomElement parentElem, String name) {
+        PomElement node = getFirstChildElement(parentElem, name);
         if (node != null) {
-            return getTextContent(node);
+            return node.getText();
         } else {
             return null;
         }
     }
 
-    private static Element getFirstChildElement(Element parentElem, String name) {
+    private static PomElement getFirstChildElement(PomElement parentElem, String name) {
         if (parentElem == null) {
             return null;
         }
-        NodeList childs = parentElem.getChildNodes();
-        for (int i = 0; i < childs.getLength(); i++) {
-            Node node = childs.item(i);
-            if (node instanceof Element && name.equals(node.getNodeName())) {
-                return (Element) node;
+        for (PomElement node : parentElem.getChildren()) {
+            if (name.equals(node.getName())) {
+                return node;
             }
         }
         return null;
     }
 
-    private static List<Element> getAllChilds(Element parent) {
-        List<Element> r = new LinkedList<>();
-        if (parent != null) {
-            NodeList childs = parent.getChildNodes();
-            for (int i = 0; i < childs.getLength(); i++) {
-                Node node = childs.item(i);
-                if (node instanceof Element) {
-                    r.add((Element) node);
+    /**
+     * An element of a pom, with its text and the child elements which are read.
+     */
+    private static final class PomElement {
+        private final String name;
+
+        private final ArrayList<PomElement> children = new ArrayList<>(0);
+
+        private StringBuilder textBuilder;
+
+        private String text = "";
+
+        private PomElement(String name) {
+            this.name = name;
+        }
+
+        private String getName() {
+            return name;
+        }
+
+        /**
+         * @return the text directly contained in the element, not including the text of its
+         *         child elements
+         */
+        private String getText() {
+            return text;
+        }
+
+        private List<PomElement> getChildren() {
+            return children;
+        }
+
+        private void appendText(char[] ch, int start, int length) {
+            if (textBuilder == null) {
+                textBuilder = new StringBuilder(length);
+            }
+            textBuilder.append(ch, start, length);
+        }
+
+        private void end() {
+            if (textBuilder != null) {
+                text = textBuilder.toString();
+                textBuilder = null;
+            }
+            children.trimToSize();
+        }
+    }
+
+    /**
+     * A tree of the names of the elements which are kept when reading a pom.
+     */
+    private static final class ElementFilter {
+        private final Map<String, ElementFilter> children = new HashMap<>();
+
+        private boolean keepAll;
+
+        /**
+         * Keeps the elements at the given paths, relative to the element of this filter. A path
+         * ending with <code>**</code> keeps all the descendants of the element before it.
+         */
+        private ElementFilter keep(String... paths) {
+            for (String path : paths) {
+                ElementFilter filter = this;
+                for (String name : path.split("/")) {
+                    if ("**".equals(name)) {
+                        filter.keepAll = true;
+                        break;
+                    }
+                    ElementFilter child = filter.children.get(name);
+                    if (child == null) {
+                        child = new ElementFilter();
+                        filter.children.put(name, child);
+                    }
+                    filter = child;
+                }
+            }
+            return this;
+        }
+
+        private ElementFilter keepIn(String parentPath, String... paths) {
+            for (String path : paths) {
+                keep(parentPath + "/" + path);
+            }
+            return this;
+        }
+
+        /**
+         * @return the filter of the child elements with the given name, or <code>null</code> if
+         *         they are not kept
+         */
+        private ElementFilter getChild(String name) {
+            return keepAll ? this : children.get(name);
+        }
+    }
+
+    /**
+     * Builds the tree of the elements of a pom which are read, skipping the others (plugin
+     * configurations, reporting, developers, and so on) as they are parsed.
+     */
+    private static final class PomHandler extends DefaultHandler {
+        private final Resource res;
+
+        private final LinkedList<PomElement> elements = new LinkedList<>();
+
+        private final LinkedList<ElementFilter> filters = new LinkedList<>();
+
+        private PomElement root;
+
+        private int skippedDepth;
+
+        private PomHandler(Resource res) {
+            this.res = res;
+        }
+
+        private PomElement getRoot() {
+            return root;
+        }
+
+        @Override
+        public InputSource resolveEntity(String publicId, String systemId) {
+            if (systemId != null && systemId.endsWith("m2-entities.ent")) {
+                return new InputSource(PomReader.class.getResourceAsStream("m2-entities.ent"));
+            }
+            return null;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName,
+                Attributes attributes) throws SAXException {
+            if (skippedDepth > 0) {
+                skippedDepth++;
+                return;
+            }
+            ElementFilter filter;
+            if (root == null) {
+                if (!PROJECT.equals(qName) && !MODEL.equals(qName)) {
+                    throw new SAXParseException("project must be the root tag", res.getName(),
+                            res.getName(), 0, 0);
+                }
+                filter = READ_ELEMENTS;
+            } else {
+                filter = filters.getFirst().getChild(qName);
+                if (filter == null) {
+                    skippedDepth = 1;
+                    return;
                 }
             }
+            PomElement element = new PomElement(qName);
+            if (root == null) {
+                root = element;
+            } else {
+                elements.getFirst().getChildren().add(element);
+            }
+            elements.addFirst(element);
+            filters.addFirst(filter);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (skippedDepth > 0) {
+                skippedDepth--;
+                return;
+            }
+            elements.removeFirst().end();
+            filters.removeFirst();
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (skippedDepth == 0 && !elements.isEmpty()) {
+                elements.getFirst().appendText(ch, start, length);
+            }
         }
-        return r;
     }
 
     private static final class AddDTDFilterInputStream extends FilterInputStream {
@@ -0,0 +1,663 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.report;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.ivy.core.cache.ArtifactOrigin;
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.ConfigurationResolveReport;
+import org.apache.ivy.core.report.DownloadStatus;
+import org.apache.ivy.core.report.MetadataArtifactDownloadReport;
+import org.apache.ivy.core.resolve.IvyNode;
+
+/**
+ * A compact binary form of the XML report of the resolve of a configuration, stored next to it in
+ * the resolution cache so that the tasks run after a resolve don't have to parse the XML report
+ * again and again.
+ * <p>
+ * It holds what the {@link XmlReportParser} reads from the XML report, with numbers encoded as
+ * variable length integers and every string stored once in a string table. It is read at once,
+ * and each part of it is only decoded when it is asked for. It is not memory mapped, since it is
+ * replaced by each resolve, which a mapping would prevent on some platforms, and since it is
+ * written to a temporary file moved into place, a reader never sees a partially written report.
+ * </p>
+ * <p>
+ * The binary report records the length and the last modification date of the XML report it has
+ * been written with, so that it is ignored once the XML report has been replaced by another
+ * writer. It is only an optimization: when it can't be written or read, the XML report is parsed.
+ * </p>
+ */
+final class BinaryReport implements XmlReportParser.ParsedReport {
+    private static final int MAGIC = 0x49565952; // IVYR
+
+    private static final byte VERSION = 1;
+
+    private static final int VERSION_POSITION = 4;
+
+    private static final int FLAGS_POSITION = 5;
+
+    private static final int XML_LENGTH_POSITION = 6;
+
+    private static final int XML_LAST_MODIFIED_POSITION = 14;
+
+    private static final int LENGTH_POSITION = 22;
+
+    private static final int STRINGS_POSITION = 26;
+
+    private static final int REVISIONS_POSITION = 30;
+
+    private static final int ARTIFACTS_POSITION = 34;
+
+    private static final int HEADER_SIZE = 38;
+
+    private static final String SUFFIX = ".bin";
+
+    private static final int FLAG_ERROR = 1;
+
+    private static final int REVISION_DEFAULT = 1;
+
+    private static final int REVISION_PUBDATE = 2;
+
+    private static final int REVISION_METADATA = 4;
+
+    private static final int METADATA_SEARCHED = 1;
+
+    private static final int ORIGIN_LOCAL = 1;
+
+    private final ByteBuffer buffer;
+
+    private final boolean hasError;
+
+    private final int stringsOffset;
+
+    private final int revisionsOffset;
+
+    private final int artifactsOffset;
+
+    private int[] stringOffsets;
+
+    private String[] strings;
+
+    private ModuleRevisionId resolvedModule;
+
+    private List<ModuleRevisionId> mrids;
+
+    private List<ModuleRevisionId> realMrids;
+
+    private List<Date> pubdates;
+
+    private Map<ModuleRevisionId, MetadataArtifactDownloadReport> metadataReports;
+
+    private List<ArtifactDownloadReport> artifactReports;
+
+    private List<Artifact> artifacts;
+
+    private BinaryReport(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.hasError = (buffer.get(FLAGS_POSITION) & FLAG_ERROR) != 0;
+        this.stringsOffset = buffer.getInt(STRINGS_POSITION);
+        this.revisionsOffset = buffer.getInt(REVISIONS_POSITION);
+        this.artifactsOffset = buffer.getInt(ARTIFACTS_POSITION);
+    }
+
+    /**
+     * @param xmlReport
+     *            the XML report of the resolve of a configuration
+     * @return the file of the binary form of this report
+     */
+    static File getFile(File xmlReport) {
+        String name = xmlReport.getName();
+        if (name.endsWith(".xml")) {
+            name = name.substring(0, name.length() - ".xml".length());
+        }
+        return new File(xmlReport.getParentFile(), name + SUFFIX);
+    }
+
+    /**
+     * Opens the binary form of the given XML report.
+     *
+     * @param xmlReport
+     *            the XML report
+     * @return the binary report, or <code>null</code> if there is no binary report matching the
+     *         XML report
+     * @throws IOException
+     *             if the binary report can't be read
+     */
+    static BinaryReport open(File xmlReport) throws IOException {
+        File file = getFile(xmlReport);
+        if (!file.isFile()) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(toPath(file)));
+        } catch (NoSuchFileException e) {
+            // replaced by another resolve in the meantime
+            return null;
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                || buffer.get(VERSION_POSITION) != VERSION
+                || buffer.getLong(XML_LENGTH_POSITION) != xmlReport.length()
+                || buffer.getLong(XML_LAST_MODIFIED_POSITION) != xmlReport.lastModified()
+                || buffer.getInt(LENGTH_POSITION) != buffer.capacity()) {
+            // another format, another XML report, or a partially written file
+            return null;
+        }
+        return new BinaryReport(buffer);
+    }
+
+    /**
+     * Writes the binary form of the given report, which has just been written to the given XML
+     * report.
+     *
+     * @param report
+     *            the report of the resolve of a configuration
+     * @param xmlReport
+     *            the XML report of this resolve
+     * @throws IOException
+     *             if the binary report can't be written
+     */
+    static void write(ConfigurationResolveReport report, File xmlReport) throws IOException {
+        Encoder encoder = new Encoder();
+        encoder.write(report);
+        encoder.writeStringTable();
+        byte[] strings = encoder.strings.toByteArray();
+        byte[] revisions = encoder.revisions.toByteArray();
+        byte[] artifacts = encoder.artifacts.toByteArray();
+        int length = HEADER_SIZE + strings.length + revisions.length + artifacts.length;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).put((byte) (encoder.hasError ? FLAG_ERROR : 0));
+        header.putLong(xmlReport.length()).putLong(xmlReport.lastModified());
+        header.putInt(length).putInt(HEADER_SIZE).putInt(HEADER_SIZE + strings.length)
+                .putInt(HEADER_SIZE + strings.length + revisions.length);
+        File file = getFile(xmlReport);
+        File tmpFile = File.createTempFile(file.getName(), ".part", file.getParentFile());
+        try {
+            try (OutputStream out = new FileOutputStream(tmpFile)) {
+                out.write(header.array());
+                out.write(strings);
+                out.write(revisions);
+                out.write(artifacts);
+            }
+            Files.move(toPath(tmpFile), toPath(file), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            if (tmpFile.exists()) {
+                tmpFile.delete();
+            }
+        }
+    }
+
+    private static Path toPath(File file) throws IOException {
+        try {
+            return file.toPath();
+        } catch (InvalidPathException e) {
+            // a file name which can't be encoded with the encoding of the platform
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    public boolean hasError() {
+        return hasError;
+    }
+
+    public ModuleRevisionId getResolvedModule() {
+        readRevisions();
+        return resolvedModule;
+    }
+
+    public List<ModuleRevisionId> getModuleRevisionIds() {
+        readRevisions();
+        return mrids;
+    }
+
+    public List<ModuleRevisionId> getRealModuleRevisionIds() {
+        readRevisions();
+        return realMrids;
+    }
+
+    public MetadataArtifactDownloadReport getMetadataArtifactReport(ModuleRevisionId id) {
+        readRevisions();
+        return metadataReports.get(id);
+    }
+
+    public List<ArtifactDownloadReport> getArtifactReports() {
+        readArtifacts();
+        return artifactReports;
+    }
+
+    public List<Artifact> getArtifacts() {
+        readArtifacts();
+        return artifacts;
+    }
+
+    private void readRevisions() {
+        if (mrids != null) {
+            return;
+        }
+        ByteBuffer in = at(revisionsOffset);
+        resolvedModule = readModuleRevisionId(in);
+        int count = readInt(in);
+        mrids = new ArrayList<>(count);
+        realMrids = new ArrayList<>(count);
+        pubdates = new ArrayList<>(count);
+        metadataReports = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            ModuleRevisionId mrid = readModuleRevisionId(in);
+            int flags = readInt(in);
+            Date pubdate = (flags & REVISION_PUBDATE) == 0 ? null : new Date(readLong(in));
+            mrids.add(mrid);
+            pubdates.add(pubdate);
+            if ((flags & REVISION_DEFAULT) == 0) {
+                MetadataArtifactDownloadReport madr = new MetadataArtifactDownloadReport(
+                        DefaultArtifact.newIvyArtifact(mrid, pubdate));
+                if ((flags & REVISION_METADATA) != 0) {
+                    readMetadataArtifactReport(in, madr);
+                }
+                metadataReports.put(mrid, madr);
+                realMrids.add(mrid);
+            }
+        }
+    }
+
+    private void readMetadataArtifactReport(ByteBuffer in, MetadataArtifactDownloadReport madr) {
+        madr.setDownloadStatus(DownloadStatus.fromString(readString(in)));
+        madr.setDownloadDetails(readString(in));
+        madr.setSize(readLong(in));
+        madr.setDownloadTimeMillis(readLong(in));
+        madr.setLocalFile(readFile(in));
+        madr.setOriginalLocalFile(readFile(in));
+        int flags = readInt(in);
+        madr.setSearched((flags & METADATA_SEARCHED) != 0);
+        madr.setArtifactOrigin(readOrigin(in, madr.getArtifact()));
+    }
+
+    private void readArtifacts() {
+        if (artifactReports != null) {
+            return;
+        }
+        readRevisions();
+        ByteBuffer in = at(artifactsOffset);
+        int count = readInt(in);
+        List<ArtifactDownloadReport> reports = new ArrayList<>(count);
+        artifacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int revision = readInt(in);
+            String name = readString(in);
+            String type = readString(in);
+            String ext = readString(in);
+            Map<String, String> extraAttributes = readAttributes(in);
+            Artifact artifact = new DefaultArtifact(mrids.get(revision), pubdates.get(revision),
+                    name, type, ext, extraAttributes);
+            ArtifactDownloadReport adr = new ArtifactDownloadReport(artifact);
+            adr.setDownloadStatus(DownloadStatus.fromString(readString(in)));
+            adr.setDownloadDetails(readString(in));
+            adr.setSize(readLong(in));
+            adr.setDownloadTimeMillis(readLong(in));
+            adr.setLocalFile(readFile(in));
+            adr.setUnpackedLocalFile(readFile(in));
+            adr.setArtifactOrigin(readOrigin(in, artifact));
+            reports.add(adr);
+            if (adr.getDownloadStatus() != DownloadStatus.FAILED) {
+                artifacts.add(artifact);
+            }
+        }
+        artifactReports = reports;
+    }
+
+    private ModuleRevisionId readModuleRevisionId(ByteBuffer in) {
+        String organisation = readString(in);
+        String name = readString(in);
+        String branch = readString(in);
+        String revision = readString(in);
+        return ModuleRevisionId.newInstance(organisation, name, branch, revision,
+            readAttributes(in));
+    }
+
+    private Map<String, String> readAttributes(ByteBuffer in) {
+        int count = readInt(in);
+        Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            attributes.put(name, readString(in));
+        }
+        return attributes;
+    }
+
+    private File readFile(ByteBuffer in) {
+        String path = readString(in);
+        return path == null ? null : new File(path);
+    }
+
+    private ArtifactOrigin readOrigin(ByteBuffer in, Artifact artifact) {
+        String location = readString(in);
+        if (location == null) {
+            return null;
+        }
+        boolean local = (readInt(in) & ORIGIN_LOCAL) != 0;
+        if (ArtifactOrigin.isUnknown(location)) {
+            return ArtifactOrigin.unknown(artifact);
+        }
+        return new ArtifactOrigin(artifact, local, location);
+    }
+
+    /**
+     * Reads a reference to the string table, decoding the referenced string the first time it is
+     * used.
+     */
+    private String readString(ByteBuffer in) {
+        int id = readInt(in);
+        if (id == 0) {
+            return null;
+        }
+        if (strings == null) {
+            indexStrings();
+        }
+        String str = strings[id - 1];
+        if (str == null) {
+            ByteBuffer bytes = at(stringOffsets[id - 1]);
+            byte[] data = new byte[readInt(bytes)];
+            bytes.get(data);
+            str = new String(data, StandardCharsets.UTF_8);
+            strings[id - 1] = str;
+        }
+        return str;
+    }
+
+    private void indexStrings() {
+        ByteBuffer in = at(stringsOffset);
+        int count = readInt(in);
+        stringOffsets = new int[count];
+        for (int i = 0; i < count; i++) {
+            stringOffsets[i] = in.position();
+            int length = readInt(in);
+            in.position(in.position() + length);
+        }
+        strings = new String[count];
+    }
+
+    private ByteBuffer at(int offset) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset);
+        return in;
+    }
+
+    private static int readInt(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+
+    private static long readLong(ByteBuffer in) {
+        long zigzag = readVarLong(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Encodes the sections of a binary report, following how the {@link XmlReportParser} reads
+     * what the {@link XmlReportWriter} writes.
+     */
+    private static final class Encoder {
+        private final Bytes strings = new Bytes();
+
+        private final Bytes revisions = new Bytes();
+
+        private final Bytes artifacts = new Bytes();
+
+        private final Map<String, Integer> stringIds = new LinkedHashMap<>();
+
+        private boolean hasError;
+
+        private void write(ConfigurationResolveReport report) {
+            String conf = report.getConfiguration();
+            ModuleRevisionId resolvedModule = report.getModuleDescriptor().getModuleRevisionId();
+            writeModuleRevisionId(revisions, resolvedModule.getOrganisation(),
+                resolvedModule.getName(), resolvedModule, resolvedModule
+                        .getQualifiedExtraAttributes());
+
+            List<ModuleRevisionId> dependencies = new ArrayList<>(report.getModuleRevisionIds());
+            // the artifacts are ordered by the position of their module revision
+            SortedMap<Integer, List<ArtifactDownloadReport>> artifactsByPosition = new TreeMap<>();
+            Map<ArtifactDownloadReport, Integer> revisionIndexes = new HashMap<>();
+            Bytes revisionList = new Bytes();
+            int count = 0;
+            for (ModuleId mid : report.getModuleIds()) {
+                for (IvyNode dep : report.getNodes(mid)) {
+                    if (dep.hasProblem()) {
+                        hasError = true;
+                        continue;
+                    }
+                    if (dep.isEvicted(conf)) {
+                        continue;
+                    }
+                    ModuleRevisionId resolvedId = dep.getResolvedId();
+                    ModuleDescriptor md = dep.getModuleRevision() == null ? null
+                            : dep.getModuleRevision().getDescriptor();
+                    writeModuleRevisionId(revisionList, mid.getOrganisation(), mid.getName(),
+                        resolvedId, md == null ? resolvedId.getQualifiedExtraAttributes()
+                                : md.getQualifiedExtraAttributes());
+                    boolean isDefault = dep.getDescriptor() != null
+                            && dep.getDescriptor().isDefault();
+                    MetadataArtifactDownloadReport madr = dep.getModuleRevision() == null
+                            || isDefault ? null : dep.getModuleRevision().getReport();
+                    int flags = (isDefault ? REVISION_DEFAULT : 0)
+                            | (dep.isLoaded() ? REVISION_PUBDATE : 0)
+                            | (madr == null ? 0 : REVISION_METADATA);
+                    revisionList.writeInt(flags);
+                    if (dep.isLoaded()) {
+                        // the XML report stores publication dates to the second
+                        revisionList.writeLong(dep.getPublication() / 1000 * 1000);
+                    }
+                    if (madr != null) {
+                        writeMetadataArtifactReport(revisionList, madr);
+                    }
+                    List<ArtifactDownloadReport> reports = Arrays.asList(report
+                            .getDownloadReports(resolvedId));
+                    artifactsByPosition.put(dependencies.indexOf(resolvedId), reports);
+                    for (ArtifactDownloadReport adr : reports) {
+                        revisionIndexes.put(adr, count);
+                    }
+                    count++;
+                }
+            }
+            revisions.writeInt(count);
+            revisions.write(revisionList);
+
+            List<ArtifactDownloadReport> reports = new ArrayList<>();
+            for (List<ArtifactDownloadReport> positionReports : artifactsByPosition.values()) {
+                reports.addAll(positionReports);
+            }
+            artifacts.writeInt(reports.size());
+            for (ArtifactDownloadReport adr : reports) {
+                writeArtifactReport(artifacts, adr, revisionIndexes.get(adr));
+            }
+        }
+
+        private void writeMetadataArtifactReport(Bytes out, MetadataArtifactDownloadReport madr) {
+            writeString(out, madr.getDownloadStatus().toString());
+            writeString(out, madr.getDownloadDetails());
+            out.writeLong(madr.getSize());
+            out.writeLong(madr.getDownloadTimeMillis());
+            writeFile(out, madr.getLocalFile());
+            writeFile(out, madr.getOriginalLocalFile());
+            out.writeInt(madr.isSearched() ? METADATA_SEARCHED : 0);
+            writeOrigin(out, madr.getArtifactOrigin());
+        }
+
+        private void writeArtifactReport(Bytes out, ArtifactDownloadReport adr, int revision) {
+            out.writeInt(revision);
+            writeString(out, adr.getName());
+            writeString(out, adr.getType());
+            writeString(out, adr.getExt());
+            writeAttributes(out, adr.getArtifact().getQualifiedExtraAttributes());
+            writeString(out, adr.getDownloadStatus().toString());
+            writeString(out, adr.getDownloadDetails());
+            out.writeLong(adr.getSize());
+            out.writeLong(adr.getDownloadTimeMillis());
+            writeFile(out, adr.getLocalFile());
+            writeFile(out, adr.getUnpackedLocalFile());
+            writeOrigin(out, adr.getArtifactOrigin());
+        }
+
+        private void writeModuleRevisionId(Bytes out, String organisation, String name,
+                ModuleRevisionId mrid, Map<String, String> extraAttributes) {
+            writeString(out, organisation);
+            writeString(out, name);
+            writeString(out, mrid.getBranch());
+            writeString(out, mrid.getRevision());
+            writeAttributes(out, extraAttributes);
+        }
+
+        private void writeAttributes(Bytes out, Map<String, String> attributes) {
+            out.writeInt(attributes.size());
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                writeString(out, attribute.getKey());
+                writeString(out, attribute.getValue());
+            }
+        }
+
+        private void writeFile(Bytes out, File file) {
+            writeString(out, file == null ? null : file.getAbsolutePath());
+        }
+
+        private void writeOrigin(Bytes out, ArtifactOrigin origin) {
+            if (origin == null) {
+                writeString(out, null);
+            } else {
+                writeString(out, origin.getLocation());
+                out.writeInt(origin.isLocal() ? ORIGIN_LOCAL : 0);
+            }
+        }
+
+        /**
+         * Writes a reference to the string table, adding the string to it the first time it is
+         * used.
+         */
+        private void writeString(Bytes out, String str) {
+            if (str == null) {
+                out.writeInt(0);
+                return;
+            }
+            Integer id = stringIds.get(str);
+            if (id == null) {
+                id = stringIds.size() + 1;
+                stringIds.put(str, id);
+            }
+            out.writeInt(id);
+        }
+
+        /**
+         * Writes the strings of the table, in the order of their ids.
+         */
+        private void writeStringTable() {
+            strings.writeInt(stringIds.size());
+            for (String str : stringIds.keySet()) {
+                byte[] data = str.getBytes(StandardCharsets.UTF_8);
+                strings.writeInt(data.length);
+                strings.write(data, 0, data.length);
+            }
+        }
+    }
+
+    /**
+     * A growable array of bytes, to which integers are appended as variable length integers.
+     */
+    private static final class Bytes {
+        private byte[] data = new byte[1024];
+
+        private int size;
+
+        /**
+         * Appends a non negative integer.
+         */
+        private void writeInt(int value) {
+            writeVarLong(value);
+        }
+
+        /**
+         * Appends an integer which may be negative, using a zigzag encoding to keep small negative
+         * numbers short.
+         */
+        private void writeLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        private void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, data, size, length);
+            size += length;
+        }
+
+        private void write(Bytes bytes) {
+            write(bytes.data, 0, bytes.size);
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + length));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -31,7 +31,7 @@ import org.apache.ivy.util.Message;
 
 /**
  * A Report outputter implementation using {@link XmlReportWriter} to write xml reports to the
- * resolution cache.
+ * resolution cache, along with their binary form read back by the {@link XmlReportParser}.
  */
 public class XmlReportOutputter implements ReportOutputter {
     private XmlReportWriter writer = new XmlReportWriter();
@@ -61,6 +61,14 @@ public class XmlReportOutputter implements ReportOutputter {
         Message.verbose("\treport for " + report.getModuleDescriptor().getModuleRevisionId() + " "
                 + report.getConfiguration() + " produced in " + reportFile);
 
+        try {
+            BinaryReport.write(report, reportFile);
+        } catch (IOException e) {
+            // the XML report is parsed instead, the binary one being out of date
+            Message.verbose("\tfailed to write the binary form of " + reportFile + ": "
+                    + e.getMessage());
+        }
+
         File reportXsl = new File(reportParentDir, "ivy-report.xsl");
         File reportCss = new File(reportParentDir, "ivy-report.css");
         if (!reportXsl.exists()) {
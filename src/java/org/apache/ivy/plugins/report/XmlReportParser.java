@@ -18,6 +18,7 @@
 package org.apache.ivy.plugins.report;
 
 import java.io.File;
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Date;
@@ -38,13 +39,33 @@ import org.apache.ivy.core.report.ArtifactDownloadReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.report.MetadataArtifactDownloadReport;
 import org.apache.ivy.util.DateUtil;
+import org.apache.ivy.util.Message;
 import org.apache.ivy.util.extendable.ExtendableItemHelper;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
 public class XmlReportParser {
-    private static class SaxXmlReportParser {
+    /**
+     * What is read from a report.
+     */
+    interface ParsedReport {
+        List<Artifact> getArtifacts();
+
+        List<ArtifactDownloadReport> getArtifactReports();
+
+        List<ModuleRevisionId> getModuleRevisionIds();
+
+        List<ModuleRevisionId> getRealModuleRevisionIds();
+
+        ModuleRevisionId getResolvedModule();
+
+        MetadataArtifactDownloadReport getMetadataArtifactReport(ModuleRevisionId id);
+
+        boolean hasError();
+    }
+
+    private static class SaxXmlReportParser implements ParsedReport {
         private final class XmlReportParserHandler extends DefaultHandler {
             private String organisation;
 
@@ -273,19 +294,41 @@ public class XmlReportParser {
         public MetadataArtifactDownloadReport getMetadataArtifactReport(ModuleRevisionId id) {
             return metadataReports.get(id);
         }
+
+        public boolean hasError() {
+            return hasError;
+        }
     }
 
-    private SaxXmlReportParser parser = null;
+    private ParsedReport parser = null;
 
+    /**
+     * Parses the given report, reading its binary form instead when the resolution cache holds an
+     * up to date one.
+     *
+     * @param report
+     *            the XML report of the resolve of a configuration
+     * @throws ParseException
+     *             if the report can't be parsed
+     */
     public void parse(File report) throws ParseException {
         if (!report.exists()) {
             throw new IllegalStateException("Report file '" + report.getAbsolutePath()
                     + "' does not exist.");
         }
 
-        parser = new SaxXmlReportParser(report);
         try {
-            parser.parse();
+            parser = BinaryReport.open(report);
+            if (parser != null) {
+                return;
+            }
+        } catch (IOException e) {
+            Message.debug("unreadable binary report for " + report + ": " + e.getMessage());
+        }
+        SaxXmlReportParser saxParser = new SaxXmlReportParser(report);
+        parser = saxParser;
+        try {
+            saxParser.parse();
         } catch (Exception e) {
             ParseException pe = new ParseException("failed to parse report: " + report + ": "
                     + e.getMessage(), 0);
@@ -327,6 +370,6 @@ public class XmlReportParser {
     }
 
     public boolean hasError() {
-        return parser.hasError;
+        return parser.hasError();
     }
 }
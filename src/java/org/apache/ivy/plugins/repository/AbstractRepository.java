@@ -31,7 +31,9 @@ public abstract class AbstractRepository implements Repository {
 
     private String name;
 
-    private TransferEvent evt;
+    // the event of the transfer in progress on each thread, transfers being made by the thread
+    // initiating them
+    private final ThreadLocal<TransferEvent> currentEvent = new ThreadLocal<>();
 
     private final TimeoutConstraint timeoutConstraint;
 
@@ -56,16 +58,20 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferInitiated(Resource res, int requestType) {
-        evt = new TransferEvent(this, res, TransferEvent.TRANSFER_INITIATED, requestType);
+        TransferEvent evt = new TransferEvent(this, res, TransferEvent.TRANSFER_INITIATED,
+                requestType);
+        currentEvent.set(evt);
         fireTransferEvent(evt);
     }
 
     protected void fireTransferStarted() {
+        TransferEvent evt = currentEvent.get();
         evt.setEventType(TransferEvent.TRANSFER_STARTED);
         fireTransferEvent(evt);
     }
 
     protected void fireTransferStarted(long totalLength) {
+        TransferEvent evt = currentEvent.get();
         evt.setEventType(TransferEvent.TRANSFER_STARTED);
         evt.setTotalLength(totalLength);
         evt.setTotalLengthSet(true);
@@ -73,6 +79,7 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferProgress(long length) {
+        TransferEvent evt = currentEvent.get();
         evt.setEventType(TransferEvent.TRANSFER_PROGRESS);
         evt.setLength(length);
         if (!evt.isTotalLengthSet()) {
@@ -82,6 +89,7 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferCompleted() {
+        TransferEvent evt = endTransfer();
         evt.setEventType(TransferEvent.TRANSFER_COMPLETED);
         if (evt.getTotalLength() > 0 && !evt.isTotalLengthSet()) {
             evt.setTotalLengthSet(true);
@@ -90,6 +98,7 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferCompleted(long totalLength) {
+        TransferEvent evt = endTransfer();
         evt.setEventType(TransferEvent.TRANSFER_COMPLETED);
         evt.setTotalLength(totalLength);
         evt.setTotalLengthSet(true);
@@ -97,16 +106,38 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferError() {
+        TransferEvent evt = endTransfer();
+        if (evt == null) {
+            // the transfer has already completed, there is nothing left to report
+            return;
+        }
         evt.setEventType(TransferEvent.TRANSFER_ERROR);
         fireTransferEvent(evt);
     }
 
     protected void fireTransferError(Exception ex) {
+        TransferEvent evt = endTransfer();
+        if (evt == null) {
+            return;
+        }
         evt.setEventType(TransferEvent.TRANSFER_ERROR);
         evt.setException(ex);
         fireTransferEvent(evt);
     }
 
+    /**
+     * Returns the event of the transfer in progress on the current thread, and forgets it so that
+     * pooled threads don't keep it (and the resource it refers to) once the transfer is over.
+     * Repositories call it directly when a transfer ends without completing nor failing.
+     *
+     * @return the event of the transfer, or <code>null</code> if there is none in progress
+     */
+    protected TransferEvent endTransfer() {
+        TransferEvent evt = currentEvent.get();
+        currentEvent.remove();
+        return evt;
+    }
+
     protected void fireTransferEvent(TransferEvent evt) {
         Object[] listeners = this.listeners.getListenerList();
         for (int i = listeners.length - 2; i >= 0; i -= 2) {
@@ -27,13 +27,16 @@ public class RepositoryCopyProgressListener implements CopyProgressListener {
         this.repository = repository;
     }
 
-    private Long totalLength = null;
+    // the total length of the copy in progress on each thread, so that a listener can be shared by
+    // concurrent copies
+    private final ThreadLocal<Long> totalLength = new ThreadLocal<>();
 
     public void start(CopyProgressEvent evt) {
-        if (totalLength == null) {
+        Long length = totalLength.get();
+        if (length == null) {
             repository.fireTransferStarted();
         } else {
-            repository.fireTransferStarted(totalLength);
+            repository.fireTransferStarted(length);
         }
     }
 
@@ -47,10 +50,14 @@ public class RepositoryCopyProgressListener implements CopyProgressListener {
     }
 
     public Long getTotalLength() {
-        return totalLength;
+        return totalLength.get();
     }
 
     public void setTotalLength(Long totalLength) {
-        this.totalLength = totalLength;
+        if (totalLength == null) {
+            this.totalLength.remove();
+        } else {
+            this.totalLength.set(totalLength);
+        }
     }
 }
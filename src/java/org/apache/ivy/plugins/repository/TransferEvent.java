@@ -151,6 +151,28 @@ public class TransferEvent extends IvyEvent {
         this.totalLength = length;
     }
 
+    /**
+     * Creates a copy of the given event, in the state it is when this constructor is called. Since
+     * repositories update a same event during a transfer, this is useful to keep track of one of its
+     * steps.
+     *
+     * @param evt
+     *            the event to copy
+     */
+    protected TransferEvent(final TransferEvent evt) {
+        super(evt);
+        this.resource = evt.resource;
+        this.eventType = evt.eventType;
+        this.requestType = evt.requestType;
+        this.exception = evt.exception;
+        this.localFile = evt.localFile;
+        this.repository = evt.repository;
+        this.length = evt.length;
+        this.totalLength = evt.totalLength;
+        this.isTotalLengthSet = evt.isTotalLengthSet;
+        this.timeTracking = evt.timeTracking.clone();
+    }
+
     private static String getName(int eventType) {
         switch (eventType) {
             case TRANSFER_INITIATED:
@@ -24,9 +24,9 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ivy.core.settings.TimeoutConstraint;
 import org.apache.ivy.plugins.repository.AbstractRepository;
@@ -35,11 +35,13 @@ import org.apache.ivy.plugins.repository.Resource;
 import org.apache.ivy.plugins.repository.TransferEvent;
 import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.url.ApacheURLLister;
+import org.apache.ivy.util.url.ConditionalURLHandler;
+import org.apache.ivy.util.url.URLHandler;
+import org.apache.ivy.util.url.URLHandler.URLInfo;
+import org.apache.ivy.util.url.URLHandlerRegistry;
 
 public class URLRepository extends AbstractRepository {
-    private RepositoryCopyProgressListener progress = new RepositoryCopyProgressListener(this);
-
-    private final Map<String, Resource> resourcesCache = new HashMap<>();
+    private final ConcurrentMap<String, Resource> resourcesCache = new ConcurrentHashMap<>();
 
     public URLRepository() {
     }
@@ -52,13 +54,17 @@ public class URLRepository extends AbstractRepository {
         Resource res = resourcesCache.get(source);
         if (res == null) {
             res = new URLResource(new URL(source), this.getTimeoutConstraint());
-            resourcesCache.put(source, res);
+            Resource cached = resourcesCache.putIfAbsent(source, res);
+            if (cached != null) {
+                res = cached;
+            }
         }
         return res;
     }
 
     public void get(String source, File destination) throws IOException {
         fireTransferInitiated(getResource(source), TransferEvent.REQUEST_GET);
+        RepositoryCopyProgressListener progress = new RepositoryCopyProgressListener(this);
         try {
             Resource res = getResource(source);
             long totalLength = res.getContentLength();
@@ -69,8 +75,72 @@ public class URLRepository extends AbstractRepository {
         } catch (IOException | RuntimeException ex) {
             fireTransferError(ex);
             throw ex;
-        } finally {
-            progress.setTotalLength(null);
+        }
+    }
+
+    /**
+     * Tells whether a resource can be downloaded conditionally, which is only the case of HTTP
+     * resources.
+     *
+     * @param source
+     *            the name of the resource
+     * @return true if {@link #getIfModified(String, File, String, long)} can avoid downloading the
+     *         resource again
+     */
+    public boolean isConditionalGetSupported(String source) {
+        return source.regionMatches(true, 0, "http:", 0, 5)
+                || source.regionMatches(true, 0, "https:", 0, 6);
+    }
+
+    /**
+     * Downloads a resource unless it hasn't been modified since it has been described by the
+     * given validators, in which case the destination file is left untouched. The validators are
+     * ignored if the resource can't be downloaded conditionally.
+     *
+     * @param source
+     *            the name of the resource to download
+     * @param destination
+     *            the file to download the resource to
+     * @param etag
+     *            the entity tag of the previously downloaded content, or <code>null</code> if
+     *            unknown
+     * @param lastModified
+     *            the last modification date of the previously downloaded content, or 0 if
+     *            unknown
+     * @return the info of the downloaded content, or <code>null</code> if it hasn't been
+     *         modified
+     * @throws IOException
+     *             if the resource can't be downloaded
+     */
+    @SuppressWarnings("deprecation")
+    public URLInfo getIfModified(String source, File destination, String etag, long lastModified)
+            throws IOException {
+        // the resource of the event is only described on demand: asking for its length, which
+        // would cost a request before the download, is left to the listeners. The total length is
+        // then the length of the downloaded content.
+        fireTransferInitiated(getResource(source), TransferEvent.REQUEST_GET);
+        RepositoryCopyProgressListener progress = new RepositoryCopyProgressListener(this);
+        try {
+            if (!isConditionalGetSupported(source)) {
+                etag = null;
+                lastModified = 0;
+            }
+            URLHandler handler = URLHandlerRegistry.getDefault();
+            if (handler instanceof ConditionalURLHandler) {
+                URLInfo info = ((ConditionalURLHandler) handler).downloadIfModified(
+                    new URL(source), destination, progress, getTimeoutConstraint(), etag,
+                    lastModified);
+                if (info == null) {
+                    // not modified: nothing has been transferred
+                    endTransfer();
+                }
+                return info;
+            }
+            FileUtil.copy(new URL(source), destination, progress, getTimeoutConstraint());
+            return handler.getURLInfo(new URL(source));
+        } catch (IOException | RuntimeException ex) {
+            fireTransferError(ex);
+            throw ex;
         }
     }
 
@@ -80,6 +150,7 @@ public class URLRepository extends AbstractRepository {
         }
 
         fireTransferInitiated(getResource(destination), TransferEvent.REQUEST_PUT);
+        RepositoryCopyProgressListener progress = new RepositoryCopyProgressListener(this);
         try {
             long totalLength = source.length();
             if (totalLength > 0) {
@@ -89,8 +160,6 @@ public class URLRepository extends AbstractRepository {
         } catch (IOException | RuntimeException ex) {
             fireTransferError(ex);
             throw ex;
-        } finally {
-            progress.setTotalLength(null);
         }
     }
 
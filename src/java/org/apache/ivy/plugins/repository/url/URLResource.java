@@ -45,6 +45,8 @@ public class URLResource implements LocalizableResource {
 
     private boolean exists;
 
+    private String etag;
+
     public URLResource(final URL url) {
         this(url, null);
     }
@@ -86,6 +88,7 @@ public class URLResource implements LocalizableResource {
         contentLength = info.getContentLength();
         lastModified = info.getLastModified();
         exists = info.isReachable();
+        etag = info.getETag();
         init = true;
     }
 
@@ -103,6 +106,17 @@ public class URLResource implements LocalizableResource {
         return exists;
     }
 
+    /**
+     * @return the entity tag of the content of this resource, or <code>null</code> if the server
+     *         didn't provide one
+     */
+    public String getETag() {
+        if (!init) {
+            init();
+        }
+        return etag;
+    }
+
     public URL getURL() {
         return url;
     }
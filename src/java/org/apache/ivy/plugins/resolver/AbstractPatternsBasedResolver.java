@@ -91,6 +91,7 @@ public abstract class AbstractPatternsBasedResolver extends BasicResolver {
         Set<String> foundRevisions = new HashSet<>();
         boolean dynamic = getSettings().getVersionMatcher().isDynamic(moduleRevision);
         for (String pattern : patternList) {
+            checkInterrupted();
             ResolvedResource rres = findResourceUsingPattern(moduleRevision, pattern, artifact,
                 rmdparser, date);
             if (rres != null && !foundRevisions.contains(rres.getRevision())) {
@@ -279,6 +280,12 @@ public abstract class AbstractPatternsBasedResolver extends BasicResolver {
         artifactPatterns.add(pattern);
     }
 
+    @Override
+    protected String getMissingKey() {
+        String patterns = getIvyPatterns() + "|" + getArtifactPatterns() + "|" + isM2compatible();
+        return getName() + "#" + Integer.toHexString(patterns.hashCode());
+    }
+
     public List<String> getIvyPatterns() {
         return Collections.unmodifiableList(ivyPatterns);
     }
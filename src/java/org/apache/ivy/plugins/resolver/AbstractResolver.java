@@ -29,6 +29,7 @@ import org.apache.ivy.core.RelativeUrlResolver;
 import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.cache.CacheDownloadOptions;
 import org.apache.ivy.core.cache.CacheMetadataOptions;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.cache.DownloadListener;
 import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.cache.ResolutionCacheManager;
@@ -115,6 +116,8 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
     private String timeoutConstraintName;
     private TimeoutConstraint timeoutConstraint;
 
+    private int maxParallelDownloads = 0;
+
     public ResolverSettings getSettings() {
         return settings;
     }
@@ -162,8 +165,19 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
         this.validate = validate;
     }
 
+    /**
+     * Checks whether the current operation has been interrupted, and throws a runtime exception if
+     * it is the case. Work done by other threads on behalf of the operating thread, like the
+     * speculative lookups of a {@link ChainResolver}, is also interrupted when the thread doing it
+     * is interrupted.
+     */
     protected void checkInterrupted() {
-        IvyContext.getContext().getIvy().checkInterrupted();
+        IvyContext context = IvyContext.getContext();
+        context.getIvy().checkInterrupted();
+        Thread current = Thread.currentThread();
+        if (current != context.getOperatingThread() && current.isInterrupted()) {
+            throw new RuntimeException("operation interrupted");
+        }
     }
 
     public void reportFailure() {
@@ -217,6 +231,22 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
         this.timeoutConstraintName = name;
     }
 
+    /**
+     * Returns the maximum number of dependencies for which this resolver downloads artifacts
+     * concurrently, when the artifacts of a resolve are downloaded in parallel.
+     *
+     * @return the maximum number of concurrent downloads, 0 or less if only the limit of the
+     *         download options applies
+     * @see org.apache.ivy.core.resolve.DownloadOptions#getParallelism()
+     */
+    public int getMaxParallelDownloads() {
+        return maxParallelDownloads;
+    }
+
+    public void setMaxParallelDownloads(int maxParallelDownloads) {
+        this.maxParallelDownloads = maxParallelDownloads;
+    }
+
     /**
      * Default implementation downloads the artifact without taking advantage of its location
      *
@@ -460,6 +490,28 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
         initTimeoutConstraintFromSettings();
     }
 
+    /**
+     * Returns until when what this resolver has resolved for the given dependency is taken from
+     * its cache without checking the repository.
+     *
+     * @param dd
+     *            the dependency resolved by this resolver
+     * @param data
+     *            the data of the resolve
+     * @return the expiration date in milliseconds, 0 if the repository is checked on each resolve
+     * @see DefaultRepositoryCacheManager#getCacheExpiration(DependencyDescriptor, String,
+     *      CacheMetadataOptions)
+     */
+    public long getCacheExpiration(DependencyDescriptor dd, ResolveData data) {
+        RepositoryCacheManager cacheManager = getRepositoryCacheManager();
+        if (!(cacheManager instanceof DefaultRepositoryCacheManager)) {
+            // nothing is known about how long this cache is trusted
+            return 0;
+        }
+        return ((DefaultRepositoryCacheManager) cacheManager).getCacheExpiration(dd, getName(),
+            getCacheOptions(data));
+    }
+
     protected CacheMetadataOptions getCacheOptions(ResolveData data) {
         return (CacheMetadataOptions) new CacheMetadataOptions()
                 .setChangingMatcherName(getChangingMatcherName())
@@ -34,6 +34,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
@@ -42,6 +44,7 @@ import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.cache.ModuleDescriptorWriter;
 import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
@@ -144,9 +147,16 @@ public abstract class BasicResolver extends AbstractResolver {
      */
     private boolean envDependent = true;
 
-    private List<String> ivyattempts = new ArrayList<>();
+    // a resolver may be used by several threads at once when resolving in parallel: attempts to
+    // find module descriptors are recorded per thread, attempts to find artifacts per artifact
+    private final ThreadLocal<List<String>> ivyattempts = new ThreadLocal<List<String>>() {
+        @Override
+        protected List<String> initialValue() {
+            return new ArrayList<>();
+        }
+    };
 
-    private Map<Artifact, List<String>> artattempts = new HashMap<>();
+    private final ConcurrentMap<Artifact, List<String>> artattempts = new ConcurrentHashMap<>();
 
     private boolean checkconsistency = true;
 
@@ -189,6 +199,7 @@ public abstract class BasicResolver extends AbstractResolver {
                 return mr;
             }
 
+            DependencyDescriptor requestedDd = dd;
             if (isForce()) {
                 dd = dd.clone(ModuleRevisionId.newInstance(dd.getDependencyRevisionId(),
                     "latest.integration"));
@@ -198,8 +209,9 @@ public abstract class BasicResolver extends AbstractResolver {
             context.setDependencyDescriptor(systemDd);
             context.setResolveData(data);
 
+            // artifact attempts are shared with the downloads the other threads may be making with
+            // this resolver, only the ones of the artifacts looked up below are cleared
             clearIvyAttempts();
-            clearArtifactAttempts();
             ModuleRevisionId systemMrid = systemDd.getDependencyRevisionId();
             ModuleRevisionId nsMrid = nsDd.getDependencyRevisionId();
 
@@ -207,8 +219,10 @@ public abstract class BasicResolver extends AbstractResolver {
 
             boolean isDynamic = getAndCheckIsDynamic(systemMrid);
 
-            // we first search for the dependency in cache
-            ResolvedModuleRevision rmr = findModuleInCache(systemDd, data);
+            // we first search for the dependency in cache, unless an enclosing chain already has
+            SpeculativeLookups lookups = getSpeculativeLookups(requestedDd);
+            ResolvedModuleRevision rmr = lookups != null && lookups.hasCachedRevision(this)
+                    ? lookups.removeCachedRevision(this) : findModuleInCache(systemDd, data);
             if (rmr != null) {
                 if (rmr.getDescriptor().isDefault() && rmr.getResolver() != this) {
                     Message.verbose("\t" + getName() + ": found revision in cache: " + systemMrid
@@ -230,7 +244,19 @@ public abstract class BasicResolver extends AbstractResolver {
 
             checkInterrupted();
 
-            ResolvedResource ivyRef = findIvyFileRef(nsDd, data);
+            ResolvedResource ivyRef = null;
+            Artifact mdArtifact = isDynamic ? null : DefaultArtifact.newIvyArtifact(systemMrid,
+                null);
+            if (mdArtifact != null && !data.getOptions().isRefresh()
+                    && getRepositoryCacheManager().isMissing(mdArtifact, getMissingKey())) {
+                Message.verbose("\t" + getName() + ": no ivy file found recently for "
+                        + systemMrid + ": not looking for it again");
+            } else {
+                ivyRef = findIvyFileRef(requestedDd, nsDd, data);
+                if (ivyRef == null && mdArtifact != null) {
+                    getRepositoryCacheManager().saveMissing(mdArtifact, getMissingKey());
+                }
+            }
             checkInterrupted();
 
             // get module descriptor
@@ -330,6 +356,114 @@ public abstract class BasicResolver extends AbstractResolver {
         }
     }
 
+    /**
+     * Looks up the module descriptor of the given dependency, using the result of the speculative
+     * lookup started by an enclosing chain if there is one.
+     */
+    private ResolvedResource findIvyFileRef(DependencyDescriptor requestedDd,
+            DependencyDescriptor nsDd, ResolveData data) {
+        SpeculativeLookups lookups = getSpeculativeLookups(requestedDd);
+        if (lookups != null) {
+            SpeculativeLookups.Result result = lookups.get(this);
+            if (result != null) {
+                // the attempts have already been logged by the lookup
+                ivyattempts.get().addAll(result.getAttempts());
+                return result.getIvyRef();
+            }
+        }
+        return findIvyFileRef(nsDd, data);
+    }
+
+    /**
+     * @return the speculative lookups of the given dependency started by an enclosing chain, or
+     *         <code>null</code> if there are none
+     */
+    private static SpeculativeLookups getSpeculativeLookups(DependencyDescriptor requestedDd) {
+        Object lookups = IvyContext.getContext().get(SpeculativeLookups.CONTEXT_KEY);
+        if (lookups instanceof SpeculativeLookups
+                && ((SpeculativeLookups) lookups).isFor(requestedDd)) {
+            return (SpeculativeLookups) lookups;
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether {@link #getDependency(DependencyDescriptor, ResolveData)} would look up the
+     * module descriptor of the given dependency in the repository, i.e. whether it is neither in
+     * the cache nor recorded as missing. Used by a {@link ChainResolver} to start only the lookups
+     * which will be used.
+     *
+     * @param dd
+     *            the dependency to look up, as asked to the chain
+     * @param data
+     *            the resolve data to use
+     * @param lookups
+     *            the lookups in which the module revision found in the cache, if any, is recorded
+     *            for {@link #getDependency(DependencyDescriptor, ResolveData)}, may be null
+     * @return true if the module descriptor would be looked up in the repository
+     */
+    boolean isIvyFileLookupNeeded(DependencyDescriptor dd, ResolveData data,
+            SpeculativeLookups lookups) {
+        IvyContext context = IvyContext.pushNewCopyContext();
+        try {
+            if (isForce()) {
+                dd = dd.clone(ModuleRevisionId.newInstance(dd.getDependencyRevisionId(),
+                    "latest.integration"));
+            }
+            context.setDependencyDescriptor(dd);
+            context.setResolveData(data);
+            ModuleRevisionId mrid = dd.getDependencyRevisionId();
+            ResolvedModuleRevision rmr = findModuleInCache(dd, data);
+            if (lookups != null) {
+                lookups.putCachedRevision(this, rmr);
+            }
+            if (rmr != null && (rmr.getResolver() == this
+                    || !rmr.getDescriptor().isDefault() && !isForce())) {
+                return false;
+            }
+            boolean isDynamic = getSettings().getVersionMatcher().isDynamic(mrid);
+            return isDynamic || data.getOptions().isRefresh()
+                    || !getRepositoryCacheManager().isMissing(
+                        DefaultArtifact.newIvyArtifact(mrid, null), getMissingKey());
+        } catch (RuntimeException ex) {
+            // the resolver will report the problem when asked for the dependency
+            return false;
+        } finally {
+            IvyContext.popContext();
+        }
+    }
+
+    /**
+     * Looks up the module descriptor of the given dependency the same way
+     * {@link #getDependency(DependencyDescriptor, ResolveData)} does, without using nor updating
+     * the cache. Used by a {@link ChainResolver} to look up a dependency in several of its members
+     * concurrently.
+     *
+     * @param dd
+     *            the dependency to look up, as asked to the chain
+     * @param data
+     *            the resolve data to use, which must not be shared with other threads
+     * @return the module descriptor found if any and the locations tried
+     */
+    SpeculativeLookups.Result lookupIvyFileRef(DependencyDescriptor dd, ResolveData data) {
+        IvyContext context = IvyContext.pushNewCopyContext();
+        try {
+            if (isForce()) {
+                dd = dd.clone(ModuleRevisionId.newInstance(dd.getDependencyRevisionId(),
+                    "latest.integration"));
+            }
+            context.setDependencyDescriptor(dd);
+            context.setResolveData(data);
+            ivyattempts.get().clear();
+            checkInterrupted();
+            ResolvedResource ivyRef = findIvyFileRef(fromSystem(dd), data);
+            return new SpeculativeLookups.Result(ivyRef, new ArrayList<>(ivyattempts.get()));
+        } finally {
+            ivyattempts.get().clear();
+            IvyContext.popContext();
+        }
+    }
+
     protected boolean shouldReturnResolvedModule(DependencyDescriptor dd, ResolvedModuleRevision mr) {
         // a resolved module revision has already been found by a prior dependency resolver
         // let's see if it should be returned and bypass this resolver
@@ -767,20 +901,22 @@ public abstract class BasicResolver extends AbstractResolver {
     }
 
     protected void clearIvyAttempts() {
-        ivyattempts.clear();
-        clearArtifactAttempts();
+        ivyattempts.get().clear();
     }
 
     protected void logIvyAttempt(String attempt) {
-        ivyattempts.add(attempt);
+        ivyattempts.get().add(attempt);
         Message.verbose("\t\ttried " + attempt);
     }
 
     protected void logArtifactAttempt(Artifact art, String attempt) {
         List<String> attempts = artattempts.get(art);
         if (attempts == null) {
-            attempts = new ArrayList<>();
-            artattempts.put(art, attempts);
+            attempts = Collections.synchronizedList(new ArrayList<String>());
+            List<String> existing = artattempts.putIfAbsent(art, attempts);
+            if (existing != null) {
+                attempts = existing;
+            }
         }
         attempts.add(attempt);
         Message.verbose("\t\ttried " + attempt);
@@ -798,14 +934,14 @@ public abstract class BasicResolver extends AbstractResolver {
     @Override
     public void reportFailure() {
         Message.warn("==== " + getName() + ": tried");
-        for (String m : ivyattempts) {
+        for (String m : ivyattempts.get()) {
             Message.warn("  " + m);
         }
         for (Map.Entry<Artifact, List<String>> entry : artattempts.entrySet()) {
             List<String> attempts = entry.getValue();
             if (attempts != null) {
                 Message.warn("  -- artifact " + entry.getKey() + ":");
-                for (String m : attempts) {
+                for (String m : new ArrayList<>(attempts)) {
                     Message.warn("  " + m);
                 }
             }
@@ -817,7 +953,7 @@ public abstract class BasicResolver extends AbstractResolver {
         Message.warn("==== " + getName() + ": tried");
         List<String> attempts = artattempts.get(art);
         if (attempts != null) {
-            for (String m : attempts) {
+            for (String m : new ArrayList<>(attempts)) {
                 Message.warn("  " + m);
             }
         }
@@ -830,11 +966,11 @@ public abstract class BasicResolver extends AbstractResolver {
     public DownloadReport download(Artifact[] artifacts, DownloadOptions options) {
         RepositoryCacheManager cacheManager = getRepositoryCacheManager();
 
-        clearArtifactAttempts();
+        clearArtifactAttempts(artifacts);
         DownloadReport dr = new DownloadReport();
         for (Artifact artifact : artifacts) {
             ArtifactDownloadReport adr = cacheManager.download(artifact, artifactResourceResolver,
-                downloader, getCacheDownloadOptions(options));
+                downloader, getCacheDownloadOptions(options).setMissingKey(getMissingKey()));
             if (DownloadStatus.FAILED == adr.getDownloadStatus()) {
                 if (!ArtifactDownloadReport.MISSING_ARTIFACT.equals(adr.getDownloadDetails())) {
                     Message.warn("\t" + adr);
@@ -856,6 +992,19 @@ public abstract class BasicResolver extends AbstractResolver {
         artattempts.clear();
     }
 
+    /**
+     * Clears the attempts recorded for the given artifacts only, leaving untouched the ones of
+     * artifacts which may be downloaded concurrently by other threads.
+     *
+     * @param artifacts
+     *            the artifacts for which attempts should be cleared
+     */
+    protected void clearArtifactAttempts(Artifact[] artifacts) {
+        for (Artifact artifact : artifacts) {
+            artattempts.remove(artifact);
+        }
+    }
+
     @Override
     public ArtifactDownloadReport download(final ArtifactOrigin origin, DownloadOptions options) {
         Checks.checkNotNull(origin, "origin");
@@ -961,17 +1110,43 @@ public abstract class BasicResolver extends AbstractResolver {
 
     protected ResolvedResource findFirstArtifactRef(ModuleDescriptor md, DependencyDescriptor dd,
             ResolveData data) {
+        RepositoryCacheManager cacheManager = getRepositoryCacheManager();
+        boolean recordMisses = !getSettings().getVersionMatcher().isDynamic(
+            md.getModuleRevisionId());
         for (String configName : md.getConfigurationsNames()) {
-            for (Artifact artifact : md.getArtifacts(configName)) {
+            Artifact[] artifacts = md.getArtifacts(configName);
+            clearArtifactAttempts(artifacts);
+            for (Artifact artifact : artifacts) {
+                // misses are recorded for system artifacts, as they are when downloading
+                Artifact systemArtifact = toSystem(artifact);
+                if (recordMisses && !data.getOptions().isRefresh()
+                        && cacheManager.isMissing(systemArtifact, getMissingKey())) {
+                    continue;
+                }
                 ResolvedResource ret = getArtifactRef(artifact, data.getDate());
                 if (ret != null) {
                     return ret;
                 }
+                if (recordMisses) {
+                    cacheManager.saveMissing(systemArtifact, getMissingKey());
+                }
             }
         }
         return null;
     }
 
+    /**
+     * Returns the key under which the resources found missing by this resolver are recorded in
+     * its cache, so that they aren't looked for again until the missing TTL expires. Resolvers
+     * finding resources with patterns should include them in the key, so that the misses recorded
+     * with other patterns are ignored.
+     *
+     * @return the key identifying where this resolver looks for resources
+     */
+    protected String getMissingKey() {
+        return getName();
+    }
+
     protected long getAndCheck(Resource resource, File dest) throws IOException {
         long size = get(resource, dest);
         for (String checksum : getChecksumAlgorithms()) {
@@ -106,7 +106,7 @@ public class CacheResolver extends FileSystemResolver {
     @Override
     public DownloadReport download(Artifact[] artifacts, DownloadOptions options) {
         ensureConfigured();
-        clearArtifactAttempts();
+        clearArtifactAttempts(artifacts);
         DownloadReport dr = new DownloadReport();
         for (Artifact artifact : artifacts) {
             final ArtifactDownloadReport adr = new ArtifactDownloadReport(artifact);
@@ -27,7 +27,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.IvyExecutors;
 import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -71,6 +74,10 @@ public class ChainResolver extends AbstractResolver {
 
     private boolean dual;
 
+    private int parallelLookups = 0;
+
+    private ExecutorService lookupExecutor;
+
     public void add(DependencyResolver resolver) {
         chain.add(resolver);
     }
@@ -93,24 +100,36 @@ public class ChainResolver extends AbstractResolver {
             }
         }
 
-        for (DependencyResolver resolver : chain) {
-            LatestStrategy oldLatest = setLatestIfRequired(resolver, getLatestStrategy());
-            try {
-                ResolvedModuleRevision previouslyResolved = mr;
-                data.setCurrentResolvedModuleRevision(previouslyResolved);
-                mr = resolver.getDependency(dd, data);
-                if (mr != previouslyResolved && isReturnFirst()) {
-                    mr = forcedRevision(mr);
+        SpeculativeLookups lookups = startSpeculativeLookups(dd, data, mr, resolved);
+        try {
+            for (DependencyResolver resolver : chain) {
+                LatestStrategy oldLatest = setLatestIfRequired(resolver, getLatestStrategy());
+                try {
+                    ResolvedModuleRevision previouslyResolved = mr;
+                    data.setCurrentResolvedModuleRevision(previouslyResolved);
+                    mr = resolver.getDependency(dd, data);
+                    if (mr != previouslyResolved && isReturnFirst()) {
+                        mr = forcedRevision(mr);
+                    }
+                } catch (Exception ex) {
+                    Message.verbose("problem occurred while resolving " + dd + " with "
+                            + resolver, ex);
+                    errors.add(ex);
+                } finally {
+                    if (oldLatest != null) {
+                        setLatest(resolver, oldLatest);
+                    }
                 }
-            } catch (Exception ex) {
-                Message.verbose("problem occurred while resolving " + dd + " with " + resolver, ex);
-                errors.add(ex);
-            } finally {
-                if (oldLatest != null) {
-                    setLatest(resolver, oldLatest);
+                if (lookups != null && isDecided(dd, mr, resolved)) {
+                    lookups.cancel();
                 }
+                checkInterrupted();
+            }
+        } finally {
+            if (lookups != null) {
+                lookups.cancel();
+                IvyContext.popContext();
             }
-            checkInterrupted();
         }
         if (mr == null && !errors.isEmpty()) {
             if (errors.size() == 1) {
@@ -139,6 +158,81 @@ public class ChainResolver extends AbstractResolver {
         return resolvedRevision(mr);
     }
 
+    /**
+     * Starts looking up the module descriptor of the given dependency concurrently in the members
+     * of the chain, if parallel lookups are enabled and more than one member may have to be asked.
+     * When lookups are started, or when members have found the dependency in their cache while
+     * checking whether they need a lookup, a new context is pushed, in which the members find
+     * them.
+     */
+    private SpeculativeLookups startSpeculativeLookups(DependencyDescriptor dd, ResolveData data,
+            ResolvedModuleRevision mr, ResolvedModuleRevision resolved) {
+        if (parallelLookups <= 1 || data.getOptions().isUseCacheOnly()
+                || isDecided(dd, mr, resolved)) {
+            return null;
+        }
+        SpeculativeLookups lookups = new SpeculativeLookups(dd);
+        boolean isDynamic = getSettings().getVersionMatcher().isDynamic(
+            dd.getDependencyRevisionId());
+        List<BasicResolver> resolvers = new ArrayList<>();
+        for (DependencyResolver resolver : chain) {
+            if (resolvers.size() == parallelLookups) {
+                break;
+            }
+            if (!(resolver instanceof BasicResolver)) {
+                continue;
+            }
+            // the latest strategy of the chain is set on some members while they are asked,
+            // so their lookup of a dynamic revision can't be done ahead of time
+            String latestName = getLatestStrategyName(resolver);
+            if (isDynamic && latestName != null && !"default".equals(latestName)) {
+                continue;
+            }
+            // members answering from their cache don't need to query their repository
+            if (!((BasicResolver) resolver).isIvyFileLookupNeeded(dd, data, lookups)) {
+                continue;
+            }
+            resolvers.add((BasicResolver) resolver);
+        }
+        if (resolvers.size() >= 2) {
+            lookups.start(getLookupExecutor(), data, resolvers);
+        }
+        if (!lookups.isStarted() && !lookups.hasCachedRevisions()) {
+            return null;
+        }
+        IvyContext.pushNewCopyContext().set(SpeculativeLookups.CONTEXT_KEY, lookups);
+        return lookups;
+    }
+
+    /**
+     * Tells whether the given module revision will be returned as is by the remaining members of
+     * the chain, unless they are in force mode.
+     *
+     * @param resolved
+     *            the module revision resolved before the chain was asked, if any
+     */
+    private boolean isDecided(DependencyDescriptor dd, ResolvedModuleRevision mr,
+            ResolvedModuleRevision resolved) {
+        if (mr == null) {
+            return false;
+        }
+        if (isReturnFirst() && mr != resolved) {
+            // found by this chain, which returns the first revision found
+            return true;
+        }
+        return mr.isForce()
+                || !getSettings().getVersionMatcher().isDynamic(dd.getDependencyRevisionId())
+                && !mr.getDescriptor().isDefault();
+    }
+
+    private synchronized ExecutorService getLookupExecutor() {
+        if (lookupExecutor == null) {
+            lookupExecutor = IvyExecutors.newFixedThreadPool("chain-" + getName(),
+                parallelLookups);
+        }
+        return lookupExecutor;
+    }
+
     private ResolvedModuleRevision resolvedRevision(ResolvedModuleRevision mr) {
         if (isDual() && mr != null) {
             return new ResolvedModuleRevision(mr.getResolver(), this, mr.getDescriptor(),
@@ -268,11 +362,36 @@ public class ChainResolver extends AbstractResolver {
         this.returnFirst = returnFirst;
     }
 
+    public int getParallelLookups() {
+        return parallelLookups;
+    }
+
+    /**
+     * Sets the number of members of this chain in which a module descriptor is looked up
+     * concurrently. The first members of the chain able to do so look up the module descriptor
+     * before the chain is iterated, the result being the same as with a sequential lookup.
+     *
+     * @param parallelLookups
+     *            the number of concurrent lookups, 0 or 1 to look up the members sequentially
+     */
+    public synchronized void setParallelLookups(int parallelLookups) {
+        if (parallelLookups < 0) {
+            throw new IllegalArgumentException("parallelLookups must not be negative: "
+                    + parallelLookups);
+        }
+        this.parallelLookups = parallelLookups;
+        if (lookupExecutor != null) {
+            lookupExecutor.shutdown();
+            lookupExecutor = null;
+        }
+    }
+
     @Override
     public void dumpSettings() {
         Message.verbose("\t" + getName() + " [chain] " + chain);
         Message.debug("\t\treturn first: " + isReturnFirst());
         Message.debug("\t\tdual: " + isDual());
+        Message.debug("\t\tparallel lookups: " + getParallelLookups());
         for (DependencyResolver resolver : chain) {
             Message.debug("\t\t-> " + resolver.getName());
         }
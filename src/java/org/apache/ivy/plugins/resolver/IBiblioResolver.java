@@ -46,6 +46,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -392,7 +393,7 @@ public class IBiblioResolver extends URLResolver {
                 String metadataLocation = pattern.substring(0,
                         pattern.lastIndexOf(partiallyResolvedM2PerModulePattern))
                         + "maven-metadata.xml";
-                List<String> revs = listRevisionsWithMavenMetadata(getRepository(),
+                List<String> revs = listRevisionsWithMavenMetadata(getRepository(), null,
                         metadataLocation);
                 if (revs != null) {
                     return revs.toArray(new String[revs.size()]);
@@ -435,8 +436,7 @@ public class IBiblioResolver extends URLResolver {
     protected ResolvedResource[] listResources(Repository repository, ModuleRevisionId mrid,
                                                String pattern, Artifact artifact) {
         if (shouldUseMavenMetadata(pattern)) {
-            List<String> revs = listRevisionsWithMavenMetadata(repository, mrid.getModuleId()
-                    .getAttributes());
+            List<String> revs = listRevisionsWithMavenMetadata(repository, mrid);
             if (revs != null) {
                 Message.debug("\tfound revs: " + revs);
                 List<ResolvedResource> rres = new ArrayList<>();
@@ -479,18 +479,29 @@ public class IBiblioResolver extends URLResolver {
     }
 
     private List<String> listRevisionsWithMavenMetadata(Repository repository,
-                                                        Map<String, String> tokenValues) {
+                                                        ModuleRevisionId mrid) {
         String metadataLocation = IvyPatternHelper.substituteTokens(root
-                + "[organisation]/[module]/maven-metadata.xml", tokenValues);
-        return listRevisionsWithMavenMetadata(repository, metadataLocation);
+                + "[organisation]/[module]/maven-metadata.xml", mrid.getModuleId().getAttributes());
+        return listRevisionsWithMavenMetadata(repository, mrid, metadataLocation);
     }
 
+    /**
+     * Lists the revisions of a module with its maven metadata, taking them from the cache when the
+     * module is known.
+     */
     private List<String> listRevisionsWithMavenMetadata(Repository repository,
+                                                        ModuleRevisionId mrid,
                                                         String metadataLocation) {
         List<String> revs = null;
         InputStream metadataStream = null;
         try {
             Resource metadata = repository.getResource(metadataLocation);
+            String[] cached = mrid == null ? null
+                    : getCachedListing(mrid, metadataLocation, metadata);
+            if (cached != null) {
+                Message.verbose("\tlisting revisions from cached maven-metadata: " + metadata);
+                return new ArrayList<>(Arrays.asList(cached));
+            }
             if (metadata.exists()) {
                 Message.verbose("\tlisting revisions from maven-metadata: " + metadata);
                 final List<String> metadataRevs = new ArrayList<>();
@@ -506,6 +517,10 @@ public class IBiblioResolver extends URLResolver {
                     }
                 }, null);
                 revs = metadataRevs;
+                if (mrid != null) {
+                    saveListing(mrid, metadataLocation, metadata,
+                        revs.toArray(new String[revs.size()]));
+                }
             } else {
                 Message.verbose("\tmaven-metadata not available: " + metadata);
             }
@@ -530,7 +545,10 @@ public class IBiblioResolver extends URLResolver {
                                    Map<String, String> tokenValues, String token) {
         if (IvyPatternHelper.REVISION_KEY.equals(token)) {
             if (shouldUseMavenMetadata(getWholePattern())) {
-                List<String> revs = listRevisionsWithMavenMetadata(getRepository(), tokenValues);
+                String metadataLocation = IvyPatternHelper.substituteTokens(root
+                        + "[organisation]/[module]/maven-metadata.xml", tokenValues);
+                List<String> revs = listRevisionsWithMavenMetadata(getRepository(), null,
+                        metadataLocation);
                 if (revs != null) {
                     names.addAll(filterNames(revs));
                     return;
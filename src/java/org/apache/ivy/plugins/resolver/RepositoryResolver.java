@@ -30,6 +30,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
@@ -38,11 +39,13 @@ import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.DownloadReport;
 import org.apache.ivy.core.resolve.DownloadOptions;
+import org.apache.ivy.core.resolve.ResolveData;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParserRegistry;
 import org.apache.ivy.plugins.repository.AbstractRepository;
 import org.apache.ivy.plugins.repository.Repository;
 import org.apache.ivy.plugins.repository.Resource;
+import org.apache.ivy.plugins.repository.TransferListener;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.plugins.resolver.util.ResolverHelper;
 import org.apache.ivy.plugins.resolver.util.ResourceMDParser;
@@ -147,7 +150,8 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
             pattern,
             ModuleRevisionId.newInstance(mrid,
                 IvyPatternHelper.getTokenString(IvyPatternHelper.REVISION_KEY)), artifact));
-        ResolvedResource[] rress = listResources(repository, mrid, pattern, artifact);
+        ResolvedResource[] rress = listResources(new ListingCacheRepository(mrid), mrid,
+            pattern, artifact);
         if (rress == null) {
             Message.debug("\t" + name + ": unable to list resources for " + mrid + ": pattern="
                     + pattern);
@@ -187,6 +191,45 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
         return ResolverHelper.findAll(repository, mrid, pattern, artifact);
     }
 
+    /**
+     * Returns the listing of the given location made to find the revisions of the given module, if
+     * it is still in the cache.
+     *
+     * @param mrid
+     *            the module whose revisions are listed
+     * @param location
+     *            the listed location
+     * @param resource
+     *            the listed resource
+     * @return the cached listing, or <code>null</code> if the location should be listed
+     */
+    protected String[] getCachedListing(ModuleRevisionId mrid, String location,
+            Resource resource) {
+        ResolveData data = IvyContext.getContext().getResolveData();
+        if (data != null && data.getOptions().isRefresh()) {
+            return null;
+        }
+        return getRepositoryCacheManager().getListing(getName(), mrid, location, resource);
+    }
+
+    /**
+     * Saves in the cache the listing of the given location made to find the revisions of the given
+     * module.
+     *
+     * @param mrid
+     *            the module whose revisions are listed
+     * @param location
+     *            the listed location
+     * @param resource
+     *            the listed resource
+     * @param values
+     *            the listing
+     */
+    protected void saveListing(ModuleRevisionId mrid, String location, Resource resource,
+            String[] values) {
+        getRepositoryCacheManager().saveListing(getName(), mrid, location, resource, values);
+    }
+
     @Override
     protected long get(Resource resource, File dest) throws IOException {
         Message.verbose("\t" + getName() + ": downloading " + resource.getName());
@@ -370,4 +413,70 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
         this.alwaysCheckExactRevision = alwaysCheckExactRevision;
     }
 
+    /**
+     * The repository of this resolver, whose listings made to find the revisions of a module are
+     * cached.
+     */
+    private final class ListingCacheRepository implements Repository {
+        private final ModuleRevisionId mrid;
+
+        private ListingCacheRepository(ModuleRevisionId mrid) {
+            this.mrid = mrid;
+        }
+
+        public Resource getResource(String source) throws IOException {
+            return repository.getResource(source);
+        }
+
+        public void get(String source, File destination) throws IOException {
+            repository.get(source, destination);
+        }
+
+        public void put(Artifact artifact, File source, String destination, boolean overwrite)
+                throws IOException {
+            repository.put(artifact, source, destination, overwrite);
+        }
+
+        public List<String> list(String parent) throws IOException {
+            Resource resource = repository.getResource(parent);
+            String[] cached = getCachedListing(mrid, parent, resource);
+            if (cached != null) {
+                return new ArrayList<>(Arrays.asList(cached));
+            }
+            List<String> all = repository.list(parent);
+            if (all != null) {
+                saveListing(mrid, parent, resource, all.toArray(new String[all.size()]));
+            }
+            return all;
+        }
+
+        public void addTransferListener(TransferListener listener) {
+            repository.addTransferListener(listener);
+        }
+
+        public void removeTransferListener(TransferListener listener) {
+            repository.removeTransferListener(listener);
+        }
+
+        public boolean hasTransferListener(TransferListener listener) {
+            return repository.hasTransferListener(listener);
+        }
+
+        public String getFileSeparator() {
+            return repository.getFileSeparator();
+        }
+
+        public String standardize(String source) {
+            return repository.standardize(source);
+        }
+
+        public String getName() {
+            return repository.getName();
+        }
+
+        public String toString() {
+            return repository.toString();
+        }
+    }
+
 }
@@ -0,0 +1,223 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.resolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.ivy.core.IvyExecutors;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.resolve.ResolveData;
+import org.apache.ivy.core.resolve.ResolvedModuleRevision;
+import org.apache.ivy.plugins.resolver.util.ResolvedResource;
+import org.apache.ivy.util.Message;
+
+/**
+ * The lookups of the module descriptor of a dependency by several members of a chain, started
+ * concurrently before the chain is iterated.
+ * <p>
+ * Only the location of the module descriptor is looked up ahead of time, which doesn't update any
+ * cache. The chain is then iterated as usual, and each member uses the result of its own lookup
+ * instead of querying its repository, so that the chain gives the same result as a sequential
+ * one.
+ * </p>
+ * <p>
+ * The results of the searches of the members in their cache, done while deciding which of them
+ * need a lookup, are kept too, so that the members don't search their cache again.
+ * </p>
+ *
+ * @see ChainResolver#setParallelLookups(int)
+ */
+class SpeculativeLookups {
+    /**
+     * The key under which the lookups are stored in the context while the chain is iterated.
+     */
+    static final String CONTEXT_KEY = SpeculativeLookups.class.getName();
+
+    /**
+     * The result of the lookup of a module descriptor by a resolver.
+     */
+    static class Result {
+        private final ResolvedResource ivyRef;
+
+        private final List<String> attempts;
+
+        Result(ResolvedResource ivyRef, List<String> attempts) {
+            this.ivyRef = ivyRef;
+            this.attempts = attempts;
+        }
+
+        /**
+         * @return the module descriptor found, or <code>null</code> if none was found
+         */
+        ResolvedResource getIvyRef() {
+            return ivyRef;
+        }
+
+        /**
+         * @return the locations tried to find the module descriptor
+         */
+        List<String> getAttempts() {
+            return attempts;
+        }
+    }
+
+    private final DependencyDescriptor dd;
+
+    private final Map<BasicResolver, Future<Result>> lookups = new HashMap<>();
+
+    // only used by the thread iterating the chain
+    private final Map<BasicResolver, ResolvedModuleRevision> cachedRevisions = new HashMap<>();
+
+    SpeculativeLookups(DependencyDescriptor dd) {
+        this.dd = dd;
+    }
+
+    /**
+     * Starts the lookups of the given resolvers.
+     *
+     * @param executor
+     *            the executor running the lookups
+     * @param data
+     *            the resolve data of the chain
+     * @param resolvers
+     *            the resolvers which should look up the module descriptor
+     */
+    void start(ExecutorService executor, final ResolveData data, List<BasicResolver> resolvers) {
+        for (final BasicResolver resolver : resolvers) {
+            // each lookup uses its own copy of the resolve data, which is updated by the chain
+            final ResolveData lookupData = new ResolveData(data, data.isValidate());
+            Future<Result> lookup = executor.submit(IvyExecutors.inCurrentContext(
+                new Callable<Result>() {
+                    public Result call() throws Exception {
+                        return resolver.lookupIvyFileRef(dd, lookupData);
+                    }
+                }));
+            synchronized (lookups) {
+                lookups.put(resolver, lookup);
+            }
+        }
+    }
+
+    /**
+     * @return true if at least a lookup has been started
+     */
+    boolean isStarted() {
+        synchronized (lookups) {
+            return !lookups.isEmpty();
+        }
+    }
+
+    /**
+     * Records the result of the search of the given resolver in its cache.
+     *
+     * @param resolver
+     *            the resolver which has searched its cache
+     * @param rmr
+     *            the module revision found, or <code>null</code> if none was found
+     */
+    void putCachedRevision(BasicResolver resolver, ResolvedModuleRevision rmr) {
+        cachedRevisions.put(resolver, rmr);
+    }
+
+    /**
+     * @return true if resolvers have searched their cache
+     */
+    boolean hasCachedRevisions() {
+        return !cachedRevisions.isEmpty();
+    }
+
+    /**
+     * @param resolver
+     *            a resolver
+     * @return true if the given resolver has searched its cache and the result hasn't been
+     *         returned yet
+     */
+    boolean hasCachedRevision(BasicResolver resolver) {
+        return cachedRevisions.containsKey(resolver);
+    }
+
+    /**
+     * Returns the result of the search of the given resolver in its cache. It is returned only
+     * once, the resolver searching its cache again if it is asked for the dependency again.
+     *
+     * @param resolver
+     *            the resolver for which the cached module revision should be returned
+     * @return the module revision found, or <code>null</code> if none was found
+     */
+    ResolvedModuleRevision removeCachedRevision(BasicResolver resolver) {
+        return cachedRevisions.remove(resolver);
+    }
+
+    /**
+     * @param dd
+     *            a dependency descriptor
+     * @return true if these lookups are the ones of the given dependency
+     */
+    boolean isFor(DependencyDescriptor dd) {
+        return this.dd == dd;
+    }
+
+    /**
+     * Waits for the lookup of the given resolver to be over and returns its result.
+     *
+     * @param resolver
+     *            the resolver for which the result should be returned
+     * @return the result of the lookup, or <code>null</code> if no lookup has been done by this
+     *         resolver, or if it has failed or has been cancelled
+     */
+    Result get(BasicResolver resolver) {
+        Future<Result> lookup;
+        synchronized (lookups) {
+            lookup = lookups.get(resolver);
+        }
+        if (lookup == null) {
+            return null;
+        }
+        try {
+            return lookup.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (CancellationException e) {
+            // the resolver will do the lookup itself
+        } catch (ExecutionException e) {
+            Message.debug("\t" + resolver.getName() + ": speculative lookup of " + dd
+                    + " failed: " + e.getCause());
+        }
+        return null;
+    }
+
+    /**
+     * Cancels the lookups, whose results won't be necessary. The lookups in progress are
+     * interrupted, so that they stop querying their repository and free the threads of the chain
+     * for the next dependencies.
+     */
+    void cancel() {
+        synchronized (lookups) {
+            for (Future<Result> lookup : lookups.values()) {
+                lookup.cancel(true);
+            }
+        }
+    }
+}
@@ -33,8 +33,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -105,6 +108,49 @@ public final class FileUtil {
         return true;
     }
 
+    /**
+     * Creates a hard link at {@code link} to the {@code target} file, so that both share the same
+     * content without it being copied. Depending on the underlying filesystem, and on whether
+     * {@code target} and {@code link} are on the same one, this method may not always be able to
+     * create a hard link, in which case this method returns {@code false}.
+     *
+     * @param target    The file to link to, which can't be a directory
+     * @param link      The path to the hard link that needs to be created
+     * @param overwrite {@code true} if any existing file at {@code link} has to be overwritten.
+     *                  False otherwise
+     * @return Returns true if the hard link was successfully created, or if {@code link} is
+     * already a link to {@code target}. Returns false if the hard link could not be created
+     * @throws IOException if {@code link} can't be prepared for the creation of the hard link
+     */
+    public static boolean hardlink(final File target, final File link, final boolean overwrite)
+            throws IOException {
+        if (!target.isFile()) {
+            return false;
+        }
+        try {
+            if (link.exists() && Files.isSameFile(target.toPath(), link.toPath())) {
+                Message.verbose(link + " is already a link to " + target);
+                return true;
+            }
+        } catch (IOException ioe) {
+            // try to create the link anyway
+            Message.verbose("Could not determine if " + link + " is already a link to "
+                    + target, ioe);
+        }
+        if (!prepareCopy(target, link, overwrite)) {
+            return false;
+        }
+        // unlike a copy, a link can't be created in place of an existing file
+        Files.deleteIfExists(link.toPath());
+        try {
+            Files.createLink(link.toPath(), target.getAbsoluteFile().toPath());
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            Message.verbose("hard link creation failed at path " + link + ": " + e);
+            return false;
+        }
+    }
+
     /**
      * This is the same as calling {@link #copy(File, File, CopyProgressListener, boolean)} with
      * {@code overwrite} param as {@code true}
@@ -149,6 +195,10 @@ public final class FileUtil {
                 if (Files.isSymbolicLink(dest.toPath()) && unlinkSymlinkIfOverwrite) {
                     // unlink (a.k.a delete the symlink path)
                     dest.delete();
+                } else if (isHardLinked(dest)) {
+                    // writing the file in place would also change the other links to its
+                    // content, like an artifact in the cache, so we unlink it instead
+                    dest.delete();
                 } else if (!dest.canWrite()) {
                     // if the file *isn't* "writable" (see javadoc of File.canWrite() on what
                     // that means) we delete it.
@@ -187,7 +237,11 @@ public final class FileUtil {
             // log and move on and attempt the copy
             Message.verbose("Could not determine if " + src + " and dest " + dest + " are the same file", ioe);
         }
-        copy(new FileInputStream(src), dest, l);
+        if (l == null) {
+            copyChannel(src, dest);
+        } else {
+            copy(new FileInputStream(src), dest, l);
+        }
         long srcLen = src.length();
         long destLen = dest.length();
         if (srcLen != destLen) {
@@ -200,6 +254,38 @@ public final class FileUtil {
         return true;
     }
 
+    /**
+     * Copies a file without going through the java heap when there is no listener to notify of
+     * the progress, leaving it to the operating system to use zero copy transfers when it can.
+     */
+    private static void copyChannel(File src, File dest) throws IOException {
+        try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(dest.toPath(), StandardOpenOption.CREATE,
+                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0) {
+                    // the source has shrunk, which is detected by the caller
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    private static boolean isHardLinked(File file) {
+        try {
+            Object links = Files.getAttribute(file.toPath(), "unix:nlink",
+                LinkOption.NOFOLLOW_LINKS);
+            return links instanceof Integer && (Integer) links > 1;
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            // the number of links is unknown on this file system
+            return false;
+        }
+    }
+
     public static boolean deepCopy(File src, File dest, CopyProgressListener l, boolean overwrite)
             throws IOException {
         // the list of files which already exist in the destination folder
@@ -0,0 +1,192 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of canonical instances of immutable values, used to share equal values instead of
+ * keeping several copies of them in memory.
+ * <p>
+ * The pool only holds weak references to its instances, so that it never holds more instances than
+ * the ones still in use elsewhere. It can be used concurrently without locking: looking up an
+ * instance doesn't allocate any reference, and the entries of the instances which have been
+ * garbage collected are purged as new instances are added.
+ * </p>
+ * <p>
+ * The pool counts the lookups which have found an instance, i.e. the copies it has saved, and the
+ * ones which have added one.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the values, whose <code>equals</code> and <code>hashCode</code> methods
+ *            must be consistent and mustn't change over time
+ */
+public final class Interner<T> {
+    private final String name;
+
+    private final ConcurrentMap<Object, WeakEntry<T>> instances = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param name
+     *            the name of the values, used to describe this pool
+     */
+    public Interner(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the canonical instance equal to the given value, which becomes the canonical
+     * instance if there isn't any yet.
+     *
+     * @param value
+     *            the value to intern. Must not be <code>null</code>.
+     * @return the canonical instance equal to the given value
+     */
+    public T intern(T value) {
+        WeakEntry<T> entry = instances.get(new Lookup(value));
+        T instance = entry == null ? null : entry.get();
+        if (instance != null) {
+            hits.increment();
+            return instance;
+        }
+        purge();
+        WeakEntry<T> newEntry = new WeakEntry<>(value, collected);
+        while (true) {
+            entry = instances.putIfAbsent(newEntry, newEntry);
+            if (entry == null) {
+                misses.increment();
+                return value;
+            }
+            instance = entry.get();
+            if (instance != null) {
+                // added concurrently
+                hits.increment();
+                return instance;
+            }
+            // collected, but not purged yet
+            instances.remove(entry, entry);
+        }
+    }
+
+    /**
+     * @return the number of canonical instances, including the ones which have been garbage
+     *         collected but not purged yet
+     */
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * @return the number of lookups which have found a canonical instance
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups which have added a canonical instance
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the ratio of the lookups which have found a canonical instance, between 0 and 1
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private void purge() {
+        Reference<? extends T> ref;
+        while ((ref = collected.poll()) != null) {
+            instances.remove(ref, ref);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + size() + " instances, " + getHitCount() + " hits, "
+                + getMissCount() + " misses (" + Math.round(getHitRate() * 100) + "% hit rate)";
+    }
+
+    /**
+     * The entry of a canonical instance, equal to the entries and lookups of equal values.
+     */
+    private static final class WeakEntry<T> extends WeakReference<T> {
+        private final int hash;
+
+        private WeakEntry(T value, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof WeakEntry) {
+                Object value = get();
+                return value != null && value.equals(((WeakEntry<?>) obj).get());
+            }
+            return obj instanceof Lookup && obj.equals(this);
+        }
+    }
+
+    /**
+     * The key used to look up an entry, which holds the looked up value without referencing it
+     * weakly.
+     */
+    private static final class Lookup {
+        private final Object value;
+
+        private Lookup(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof WeakEntry && value.equals(((WeakEntry<?>) obj).get());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util.url;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.apache.ivy.core.settings.TimeoutConstraint;
+import org.apache.ivy.util.CopyProgressListener;
+
+/**
+ * A {@link TimeoutConstrainedURLHandler} able to download the content of a URL only if it has
+ * been modified since a previous download, using the validators (entity tag and last
+ * modification date) of this previous download.
+ */
+public interface ConditionalURLHandler extends TimeoutConstrainedURLHandler {
+
+    /**
+     * Downloads the resource available at <code>src</code> to the target <code>dest</code>,
+     * unless it hasn't been modified since it has been described by the given validators, in
+     * which case <code>dest</code> is left untouched.
+     *
+     * @param src               The source URL to download the resource from
+     * @param dest              The destination {@link File} to download the resource to
+     * @param listener          The listener that will be notified of the download progress
+     * @param timeoutConstraint The connectivity timeout constraints. Can be null, in which case
+     *                          the timeouts are implementation specific
+     * @param etag              The entity tag of the previously downloaded content, or
+     *                          <code>null</code> if unknown
+     * @param lastModified      The last modification date of the previously downloaded content,
+     *                          or 0 if unknown
+     * @return the info of the downloaded content, holding its new validators, or
+     *         <code>null</code> if the content hasn't been modified
+     * @throws IOException if something goes wrong
+     */
+    URLInfo downloadIfModified(URL src, File dest, CopyProgressListener listener,
+            TimeoutConstraint timeoutConstraint, String etag, long lastModified)
+            throws IOException;
+}
@@ -19,6 +19,9 @@ package org.apache.ivy.util.url;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.auth.AuthSchemeProvider;
@@ -32,9 +35,13 @@ import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.config.Lookup;
 import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.routing.HttpRoutePlanner;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
@@ -42,9 +49,12 @@ import org.apache.http.impl.auth.BasicSchemeFactory;
 import org.apache.http.impl.auth.DigestSchemeFactory;
 import org.apache.http.impl.auth.NTLMSchemeFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import org.apache.http.protocol.HttpContext;
+import org.apache.ivy.core.settings.HttpConnectionPoolSettings;
 import org.apache.ivy.core.settings.TimeoutConstraint;
 import org.apache.ivy.util.CopyProgressListener;
 import org.apache.ivy.util.FileUtil;
@@ -60,14 +70,17 @@ import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
  */
-public class HttpClientHandler extends AbstractURLHandler implements TimeoutConstrainedURLHandler, AutoCloseable {
+public class HttpClientHandler extends AbstractURLHandler implements ConditionalURLHandler,
+        PoolingURLHandler, AutoCloseable {
     private static final SimpleDateFormat LAST_MODIFIED_FORMAT = new SimpleDateFormat(
             "EEE, d MMM yyyy HH:mm:ss z", Locale.US);
 
@@ -92,6 +105,19 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
+    private final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+
+    // the pool settings of the hosts which have been configured specifically, by lower case name
+    private final ConcurrentHashMap<String, HttpConnectionPoolSettings> hostPoolSettings = new ConcurrentHashMap<>();
+
+    // the routes to which the settings of their host have already been applied
+    private final Set<HttpRoute> configuredRoutes = ConcurrentHashMap.newKeySet();
+
+    private volatile long defaultKeepAlive = -1;
+
+    // the settings applied so far to all the hosts, merged
+    private HttpConnectionPoolSettings allHostsPoolSettings = new HttpConnectionPoolSettings();
+
     private final CloseableHttpClient httpClient;
 
     public HttpClientHandler() {
@@ -100,8 +126,9 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
 
     private CloseableHttpClient buildUnderlyingClient() {
         return HttpClients.custom()
-                .setConnectionManager(createConnectionManager())
-                .setRoutePlanner(createProxyRoutePlanner())
+                .setConnectionManager(this.connectionManager)
+                .setRoutePlanner(createRoutePlanner(createProxyRoutePlanner()))
+                .setKeepAliveStrategy(createKeepAliveStrategy())
                 .setUserAgent(this.getUserAgent())
                 .setDefaultAuthSchemeRegistry(createAuthSchemeRegistry())
                 .setDefaultCredentialsProvider(new IvyCredentialsProvider())
@@ -121,8 +148,157 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
                 .build();
     }
 
-    private static HttpClientConnectionManager createConnectionManager() {
-        return new PoolingHttpClientConnectionManager();
+    /**
+     * Wraps the given route planner so that the pool settings of a host are applied to the routes
+     * to this host, as they are discovered.
+     */
+    private HttpRoutePlanner createRoutePlanner(final HttpRoutePlanner routePlanner) {
+        return new HttpRoutePlanner() {
+            @Override
+            public HttpRoute determineRoute(final HttpHost target, final HttpRequest request,
+                                            final HttpContext context) throws HttpException {
+                final HttpRoute route = routePlanner.determineRoute(target, request, context);
+                if (!configuredRoutes.contains(route)) {
+                    applyHostPoolSettings(route);
+                    configuredRoutes.add(route);
+                }
+                return route;
+            }
+        };
+    }
+
+    /**
+     * Caps the keep alive duration advertised by the servers, with the keep alive of the host, or
+     * else the default one.
+     */
+    private ConnectionKeepAliveStrategy createKeepAliveStrategy() {
+        return new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(final HttpResponse response, final HttpContext context) {
+                final long duration = DefaultConnectionKeepAliveStrategy.INSTANCE
+                        .getKeepAliveDuration(response, context);
+                final HttpHost target = HttpClientContext.adapt(context).getTargetHost();
+                final HttpConnectionPoolSettings hostSettings = target == null ? null
+                        : hostPoolSettings.get(target.getHostName().toLowerCase(Locale.US));
+                final long keepAlive = hostSettings == null || hostSettings.getKeepAlive() < 0
+                        ? defaultKeepAlive : hostSettings.getKeepAlive();
+                if (keepAlive > 0 && (duration <= 0 || duration > keepAlive)) {
+                    return keepAlive;
+                }
+                return duration;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The settings are merged with the ones previously applied to the same hosts, since the pool
+     * is shared by all the Ivy instances of the JVM. A warning is logged when a value previously
+     * applied is changed.
+     * </p>
+     */
+    @Override
+    public synchronized void configurePool(final HttpConnectionPoolSettings newSettings) {
+        final String hostKey = newSettings.getHost() == null ? null
+                : newSettings.getHost().toLowerCase(Locale.US);
+        final HttpConnectionPoolSettings previous = hostKey == null ? allHostsPoolSettings
+                : hostPoolSettings.get(hostKey);
+        final HttpConnectionPoolSettings settings = mergePoolSettings(
+            previous == null ? new HttpConnectionPoolSettings() : previous, newSettings);
+        if (hostKey == null) {
+            this.allHostsPoolSettings = settings;
+            if (settings.getMaxTotalConnections() > 0) {
+                this.connectionManager.setMaxTotal(settings.getMaxTotalConnections());
+            }
+            if (settings.getMaxConnections() > 0) {
+                this.connectionManager.setDefaultMaxPerRoute(settings.getMaxConnections());
+            }
+            if (settings.getValidateAfterInactivity() >= 0) {
+                this.connectionManager.setValidateAfterInactivity(settings.getValidateAfterInactivity());
+            }
+            if (settings.getKeepAlive() >= 0) {
+                this.defaultKeepAlive = settings.getKeepAlive();
+            }
+            if (settings.getSocketBufferSize() > 0) {
+                this.connectionManager.setDefaultSocketConfig(
+                        createSocketConfig(settings.getSocketBufferSize()));
+            }
+        } else {
+            this.hostPoolSettings.put(hostKey, settings);
+        }
+        // the settings are applied again to the known routes when they are next used
+        this.configuredRoutes.clear();
+        Message.verbose("configured HTTP connection pool of " + settings);
+    }
+
+    private static HttpConnectionPoolSettings mergePoolSettings(
+            final HttpConnectionPoolSettings previous, final HttpConnectionPoolSettings settings) {
+        final HttpConnectionPoolSettings merged = new HttpConnectionPoolSettings();
+        merged.setHost(settings.getHost());
+        final StringBuilder conflicts = new StringBuilder();
+        merged.setMaxConnections((int) mergePoolValue("maxConnections",
+            previous.getMaxConnections(), settings.getMaxConnections(), conflicts));
+        merged.setMaxTotalConnections((int) mergePoolValue("maxTotalConnections",
+            previous.getMaxTotalConnections(), settings.getMaxTotalConnections(), conflicts));
+        merged.setKeepAlive(mergePoolValue("keepAlive", previous.getKeepAlive(),
+            settings.getKeepAlive(), conflicts));
+        merged.setValidateAfterInactivity((int) mergePoolValue("validateAfterInactivity",
+            previous.getValidateAfterInactivity(), settings.getValidateAfterInactivity(),
+            conflicts));
+        merged.setSocketBufferSize((int) mergePoolValue("socketBufferSize",
+            previous.getSocketBufferSize(), settings.getSocketBufferSize(), conflicts));
+        if (conflicts.length() > 0) {
+            Message.warn("conflicting settings of the HTTP connection pool of "
+                    + (settings.getHost() == null ? "all hosts" : settings.getHost())
+                    + ": " + conflicts + " (the pool is shared by all the Ivy instances of the"
+                    + " JVM, so the last settings win)");
+        }
+        return merged;
+    }
+
+    private static long mergePoolValue(final String name, final long previous, final long value,
+            final StringBuilder conflicts) {
+        if (value < 0) {
+            return previous;
+        }
+        if (previous >= 0 && previous != value) {
+            if (conflicts.length() > 0) {
+                conflicts.append(", ");
+            }
+            conflicts.append(name).append(" changed from ").append(previous).append(" to ")
+                    .append(value);
+        }
+        return value;
+    }
+
+    private void applyHostPoolSettings(final HttpRoute route) {
+        final HttpConnectionPoolSettings settings = this.hostPoolSettings.get(
+                route.getTargetHost().getHostName().toLowerCase(Locale.US));
+        if (settings == null) {
+            return;
+        }
+        if (settings.getMaxConnections() > 0) {
+            this.connectionManager.setMaxPerRoute(route, settings.getMaxConnections());
+        }
+        if (settings.getSocketBufferSize() > 0) {
+            // sockets are configured by the host they connect to, which is the proxy if any
+            final HttpHost host = route.getProxyHost() == null ? route.getTargetHost()
+                    : route.getProxyHost();
+            this.connectionManager.setSocketConfig(host,
+                    createSocketConfig(settings.getSocketBufferSize()));
+        }
+    }
+
+    private static SocketConfig createSocketConfig(final int bufferSize) {
+        return SocketConfig.custom().setRcvBufSize(bufferSize).setSndBufSize(bufferSize).build();
+    }
+
+    /**
+     * @return the connection manager pooling the connections of this handler, for tests
+     */
+    PoolingHttpClientConnectionManager getConnectionManager() {
+        return this.connectionManager;
     }
 
     private static List<String> getAuthSchemePreferredOrder() {
@@ -152,10 +328,20 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
     @Override
     public void download(final URL src, final File dest, final CopyProgressListener listener,
                          final TimeoutConstraint timeoutConstraint) throws IOException {
+        this.downloadIfModified(src, dest, listener, timeoutConstraint, null, 0);
+    }
 
+    @Override
+    public URLInfo downloadIfModified(final URL src, final File dest, final CopyProgressListener listener,
+                                      final TimeoutConstraint timeoutConstraint, final String etag,
+                                      final long lastModified) throws IOException {
         final int connectionTimeout = (timeoutConstraint == null || timeoutConstraint.getConnectionTimeout() < 0) ? 0 : timeoutConstraint.getConnectionTimeout();
         final int readTimeout = (timeoutConstraint == null || timeoutConstraint.getReadTimeout() < 0) ? 0 : timeoutConstraint.getReadTimeout();
-        try (final CloseableHttpResponse response = doGet(src, connectionTimeout, readTimeout)) {
+        try (final CloseableHttpResponse response = doGet(src, connectionTimeout, readTimeout, etag, lastModified)) {
+            if ((etag != null || lastModified > 0)
+                    && response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                return null;
+            }
             // We can only figure the content we got is want we want if the status is success.
             this.requireSuccessStatus(HttpGet.METHOD_NAME, src, response);
             final Header encoding = this.getContentEncoding(response);
@@ -164,6 +350,7 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
                 FileUtil.copy(is, dest, listener);
             }
             dest.setLastModified(getLastModified(response));
+            return new URLInfo(true, dest.length(), parseLastModified(response), null, getETag(response));
         }
     }
 
@@ -240,7 +427,7 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
                 final HttpEntity responseEntity = response.getEntity();
                 final Charset charSet = ContentType.getOrDefault(responseEntity).getCharset();
                 return new URLInfo(true, responseEntity == null ? 0 : responseEntity.getContentLength(),
-                        getLastModified(response), charSet.name());
+                        getLastModified(response), charSet.name(), getETag(response));
             }
         } catch (IOException | IllegalArgumentException e) {
             // IllegalArgumentException is thrown by HttpClient library to indicate the URL is not valid,
@@ -309,9 +496,18 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
     }
 
     private long getLastModified(final HttpResponse response) {
+        final long lastModified = parseLastModified(response);
+        return lastModified > 0 ? lastModified : System.currentTimeMillis();
+    }
+
+    /**
+     * @return the date of the last-modified header of the response, or 0 if it is missing or
+     *         can't be parsed
+     */
+    private long parseLastModified(final HttpResponse response) {
         final Header header = response.getFirstHeader("last-modified");
         if (header == null) {
-            return System.currentTimeMillis();
+            return 0;
         }
         final String lastModified = header.getValue();
         try {
@@ -319,10 +515,20 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         } catch (ParseException e) {
             // ignored
         }
-        return System.currentTimeMillis();
+        return 0;
+    }
+
+    private String getETag(final HttpResponse response) {
+        final Header header = response.getFirstHeader("ETag");
+        return header == null ? null : header.getValue();
     }
 
     private CloseableHttpResponse doGet(final URL url, final int connectionTimeout, final int readTimeout) throws IOException {
+        return doGet(url, connectionTimeout, readTimeout, null, 0);
+    }
+
+    private CloseableHttpResponse doGet(final URL url, final int connectionTimeout, final int readTimeout,
+                                        final String etag, final long lastModified) throws IOException {
         final RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(readTimeout)
                 .setConnectTimeout(connectionTimeout)
                 .setAuthenticationEnabled(hasCredentialsConfigured(url))
@@ -332,6 +538,12 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         final HttpGet httpGet = new HttpGet(normalizeToString(url));
         httpGet.setConfig(requestConfig);
         httpGet.addHeader("Accept-Encoding", "gzip,deflate");
+        if (etag != null) {
+            httpGet.addHeader("If-None-Match", etag);
+        }
+        if (lastModified > 0) {
+            httpGet.addHeader("If-Modified-Since", DateUtils.formatDate(new Date(lastModified)));
+        }
         return this.httpClient.execute(httpGet);
     }
 
@@ -0,0 +1,36 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util.url;
+
+import org.apache.ivy.core.settings.HttpConnectionPoolSettings;
+
+/**
+ * A {@link TimeoutConstrainedURLHandler} which keeps its HTTP connections in a pool which can be
+ * tuned.
+ */
+public interface PoolingURLHandler extends TimeoutConstrainedURLHandler {
+
+    /**
+     * Applies the given settings to the pool of connections, either to all the hosts or to the
+     * host of the settings. Settings which aren't specified are left unchanged.
+     *
+     * @param settings
+     *            the settings to apply
+     */
+    void configurePool(HttpConnectionPoolSettings settings);
+}
@@ -55,16 +55,24 @@ public interface URLHandler {
 
         private String bodyCharset;
 
+        private String etag;
+
         protected URLInfo(boolean available, long contentLength, long lastModified) {
             this(available, contentLength, lastModified, null);
         }
 
         protected URLInfo(boolean available, long contentLength, long lastModified,
                           String bodyCharset) {
+            this(available, contentLength, lastModified, bodyCharset, null);
+        }
+
+        protected URLInfo(boolean available, long contentLength, long lastModified,
+                          String bodyCharset, String etag) {
             this.available = available;
             this.contentLength = contentLength;
             this.lastModified = lastModified;
             this.bodyCharset = bodyCharset;
+            this.etag = etag;
         }
 
         public boolean isReachable() {
@@ -82,6 +90,14 @@ public interface URLHandler {
         public String getBodyCharset() {
             return bodyCharset;
         }
+
+        /**
+         * @return the entity tag of the content of the url, or <code>null</code> if the server
+         *         didn't provide one
+         */
+        public String getETag() {
+            return etag;
+        }
     }
 
     URLInfo UNAVAILABLE = new URLInfo(false, 0, 0);
@@ -32,7 +32,7 @@ import java.util.Map;
  * and a fallback default {@link URLHandler} for dealing with downloads, uploads and
  * general reachability checks
  */
-public class URLHandlerDispatcher implements TimeoutConstrainedURLHandler {
+public class URLHandlerDispatcher implements ConditionalURLHandler {
     @SuppressWarnings("deprecation")
     private final Map<String, URLHandler> handlers = new HashMap<>();
 
@@ -155,6 +155,22 @@ public class URLHandlerDispatcher implements TimeoutConstrainedURLHandler {
         handler.download(src, dest, listener);
     }
 
+    @SuppressWarnings("deprecation")
+    @Override
+    public URLInfo downloadIfModified(final URL src, final File dest, final CopyProgressListener listener,
+                                      final TimeoutConstraint timeoutConstraint, final String etag,
+                                      final long lastModified) throws IOException {
+        final URLHandler handler = this.getHandler(src.getProtocol());
+        if (handler instanceof ConditionalURLHandler) {
+            return ((ConditionalURLHandler) handler).downloadIfModified(src, dest, listener,
+                    timeoutConstraint, etag, lastModified);
+        }
+        // the handler can't download conditionally, so the content is always downloaded, and its
+        // validators are unknown: the date of the downloaded file is not the one of the resource
+        this.download(src, dest, listener, timeoutConstraint);
+        return new URLInfo(true, dest.length(), 0, null);
+    }
+
     @Override
     public void upload(final File src, final URL dest, final CopyProgressListener l) throws IOException {
         this.upload(src, dest, l, null);
@@ -0,0 +1,72 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the substitution of the tokens of the patterns used by the caches and the resolvers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class IvyPatternHelperBenchmark {
+
+    @Param({"[organisation]/[module]/[type]s/[artifact]-[revision].[ext]",
+            "[organisation]/[module](/[branch])/[type]s/[artifact]-[revision](-[classifier])(.[ext])",
+            "[orgPath]/[module]/[revision]/[artifact]-[revision](-[classifier]).[ext]"})
+    public String pattern;
+
+    private ModuleRevisionId mrid;
+
+    private Artifact artifact;
+
+    @Setup
+    public void setUp() {
+        mrid = ModuleRevisionId.newInstance("org.apache.ivy", "ivy", "2.6.0");
+        artifact = new DefaultArtifact(mrid, null, "ivy", "jar", "jar");
+    }
+
+    @Benchmark
+    public String substituteModuleRevision() {
+        return IvyPatternHelper.substitute(pattern, mrid);
+    }
+
+    @Benchmark
+    public String substituteArtifact() {
+        return IvyPatternHelper.substitute(pattern, artifact);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.module.id;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
+import org.apache.ivy.plugins.matcher.MapMatcher;
+import org.apache.ivy.plugins.matcher.PatternMatcher;
+import org.apache.ivy.plugins.matcher.RegexpPatternMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookup of the rule applying to a module, like the ones used for the time to live
+ * of the cache, the conflict managers or the resolvers of the modules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ModuleRulesBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int rules;
+
+    private ModuleRules<String> moduleRules;
+
+    private ModuleRevisionId exactMatch;
+
+    private ModuleRevisionId patternMatch;
+
+    private ModuleRevisionId noMatch;
+
+    @Setup
+    public void setUp() {
+        moduleRules = new ModuleRules<>();
+        // mostly exact rules, with one pattern based rule every ten rules
+        for (int i = 0; i < rules; i++) {
+            if (i % 10 == 9) {
+                defineRule("org" + i, "mod" + i + ".*", RegexpPatternMatcher.INSTANCE, "pattern" + i);
+            } else {
+                defineRule("org" + i, "mod" + i, ExactPatternMatcher.INSTANCE, "exact" + i);
+            }
+        }
+        exactMatch = ModuleRevisionId.newInstance("org" + (rules - 2), "mod" + (rules - 2), "1.0");
+        patternMatch = ModuleRevisionId.newInstance("org" + (rules - 1), "mod" + (rules - 1)
+                + "-core", "1.0");
+        noMatch = ModuleRevisionId.newInstance("other", "module", "1.0");
+    }
+
+    private void defineRule(String org, String module, PatternMatcher matcher, String rule) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(IvyPatternHelper.ORGANISATION_KEY, org);
+        attributes.put(IvyPatternHelper.MODULE_KEY, module);
+        moduleRules.defineRule(new MapMatcher(attributes, matcher), rule);
+    }
+
+    @Benchmark
+    public String getRuleExactMatch() {
+        return moduleRules.getRule(exactMatch);
+    }
+
+    @Benchmark
+    public String getRulePatternMatch() {
+        return moduleRules.getRule(patternMatch);
+    }
+
+    @Benchmark
+    public String getRuleNoMatch() {
+        return moduleRules.getRule(noMatch);
+    }
+}
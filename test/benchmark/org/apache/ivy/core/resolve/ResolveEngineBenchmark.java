@@ -0,0 +1,151 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.core.LogOptions;
+import org.apache.ivy.core.module.descriptor.Configuration;
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorWriter;
+import org.apache.ivy.plugins.resolver.FileSystemResolver;
+import org.apache.ivy.util.DefaultMessageLogger;
+import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures full resolves of a module depending, directly or transitively, on all the modules of
+ * a generated local file system repository. The cache is filled before the measurements, so
+ * that they reflect the usual resolves of a build whose dependencies haven't changed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ResolveEngineBenchmark {
+
+    private static final String PATTERN = "[module]/[artifact]-[revision].[ext]";
+
+    @Param({"100", "1000", "10000"})
+    public int modules;
+
+    @Param({"1.0", "latest.integration"})
+    public String dependencyRevision;
+
+    private File dir;
+
+    private Ivy ivy;
+
+    private File rootIvyFile;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = File.createTempFile("ivybenchmark", ".dir");
+        dir.delete(); // we want to use the file as a directory, so we delete the file itself
+        File repository = new File(dir, "repository");
+        generateRepository(repository);
+        rootIvyFile = new File(repository, "mod0/ivy-1.0.xml");
+
+        IvySettings settings = new IvySettings();
+        settings.setDefaultCache(new File(dir, "cache"));
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("repository");
+        resolver.addIvyPattern(repository.getAbsolutePath() + "/" + PATTERN);
+        resolver.addArtifactPattern(repository.getAbsolutePath() + "/" + PATTERN);
+        settings.addResolver(resolver);
+        settings.setDefaultResolver("repository");
+        ivy = Ivy.newInstance(settings);
+        ivy.getLoggerEngine().setDefaultLogger(new DefaultMessageLogger(Message.MSG_ERR));
+
+        // fills the cache
+        resolve();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtil.forceDelete(dir);
+    }
+
+    /**
+     * Generates the modules of the repository. Each module depends on two to three modules with
+     * greater indexes, so that all the modules are reached from the first one, some of them
+     * through several paths, while the dependency graph remains shallow.
+     */
+    private void generateRepository(File repository) throws IOException {
+        byte[] jar = "not a real jar".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < modules; i++) {
+            ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "mod" + i, "1.0");
+            DefaultModuleDescriptor md = new DefaultModuleDescriptor(mrid, "integration",
+                    new Date());
+            md.addConfiguration(new Configuration("default"));
+            md.addArtifact("default", new DefaultArtifact(mrid, null, "mod" + i, "jar", "jar"));
+            for (int dep : new int[] {2 * i + 1, 2 * i + 2, 7 * i + 3}) {
+                if (dep < modules) {
+                    DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(md,
+                            ModuleRevisionId.newInstance("org", "mod" + dep, dependencyRevision),
+                            false, false, true);
+                    dd.addDependencyConfiguration("default", "default");
+                    md.addDependency(dd);
+                }
+            }
+            File moduleDir = new File(repository, "mod" + i);
+            XmlModuleDescriptorWriter.write(md, new File(moduleDir, "ivy-1.0.xml"));
+            try (OutputStream out = new FileOutputStream(new File(moduleDir, "mod" + i
+                    + "-1.0.jar"))) {
+                out.write(jar);
+            }
+        }
+    }
+
+    @Benchmark
+    public ResolveReport resolve() throws Exception {
+        ResolveOptions options = new ResolveOptions().setConfs(new String[] {"*"});
+        options.setLog(LogOptions.LOG_QUIET);
+        ResolveReport report = ivy.resolve(rootIvyFile, options);
+        if (report.hasError()) {
+            throw new IllegalStateException("resolve failed: " + report.getAllProblemMessages());
+        }
+        return report;
+    }
+}
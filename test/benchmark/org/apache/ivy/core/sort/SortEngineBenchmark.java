@@ -0,0 +1,110 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.sort;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.circular.IgnoreCircularDependencyStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the sort of a generated graph of modules, each of them depending on a few modules
+ * which are often shared, with exact, latest and range revisions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SortEngineBenchmark {
+
+    private static final String[] REVISIONS = {"1.0", "latest.integration", "[1.0,2.0["};
+
+    @Param({"500", "5000"})
+    public int modules;
+
+    @Param({"8"})
+    public int dependencies;
+
+    private SortEngine sortEngine;
+
+    private List<ModuleDescriptor> toSort;
+
+    private SortOptions options;
+
+    @Setup
+    public void setUp() {
+        IvySettings ivySettings = new IvySettings();
+        SimpleSortEngineSettings settings = new SimpleSortEngineSettings();
+        settings.setCircularDependencyStrategy(IgnoreCircularDependencyStrategy.getInstance());
+        settings.setVersionMatcher(ivySettings.getVersionMatcher());
+        sortEngine = new SortEngine(settings);
+        options = new SortOptions().setNonMatchingVersionReporter(
+            new SilentNonMatchingVersionReporter());
+
+        Random random = new Random(42);
+        toSort = new ArrayList<>(modules);
+        for (int i = 0; i < modules; i++) {
+            DefaultModuleDescriptor md = new DefaultModuleDescriptor(
+                    ModuleRevisionId.newInstance("org", "mod" + i, "1.0"), "integration",
+                    new Date());
+            // depends on previous modules, the first ones being used by most modules
+            for (int j = 0; j < dependencies && i > 0; j++) {
+                int dependency = i > 100 && j % 2 == 0 ? random.nextInt(100) : random.nextInt(i);
+                md.addDependency(new DefaultDependencyDescriptor(md, ModuleRevisionId.newInstance(
+                    "org", "mod" + dependency, REVISIONS[j % REVISIONS.length]), false, false,
+                        true));
+            }
+            toSort.add(md);
+        }
+        // most build lists are not sorted already
+        for (int i = toSort.size() - 1; i > 0; i--) {
+            toSort.set(i, toSort.set(random.nextInt(i + 1), toSort.get(i)));
+        }
+    }
+
+    @Benchmark
+    public List<ModuleDescriptor> sortModuleDescriptors() {
+        return sortEngine.sortModuleDescriptors(toSort, options);
+    }
+
+    @Benchmark
+    public SortedModuleDescriptors sortModuleDescriptorsWithLevels() {
+        return sortEngine.sortModuleDescriptorsWithLevels(toSort, options);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.latest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the comparisons of revisions made by the {@link LatestRevisionStrategy}, when
+ * sorting the revisions of a module or looking for the latest one.
+ * <p>
+ * The <code>regex</code> benchmarks measure the same comparisons made by parsing the revisions
+ * with regular expressions on each comparison, as the strategy used to, so that the gain of
+ * parsing them once can be checked.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class LatestRevisionStrategyBenchmark {
+
+    private static final String[] QUALIFIERS = {"", "-dev1", "-alpha2", "-beta1", "-rc1",
+            "-final", "-SNAPSHOT", ".RELEASE"};
+
+    @Param({"100", "1000"})
+    public int revisions;
+
+    private LatestRevisionStrategy strategy;
+
+    private ArtifactInfo[] infos;
+
+    private ModuleRevisionId[] mrids;
+
+    @Setup
+    public void setUp() {
+        strategy = new LatestRevisionStrategy();
+        // always the same revisions, in the same order, so that the runs can be compared
+        Random random = new Random(42);
+        List<ArtifactInfo> list = new ArrayList<>();
+        for (int i = 0; i < revisions; i++) {
+            list.add(new RevisionInfo(random.nextInt(5) + "." + random.nextInt(20) + "."
+                    + random.nextInt(10) + QUALIFIERS[random.nextInt(QUALIFIERS.length)]));
+        }
+        Collections.shuffle(list, random);
+        infos = list.toArray(new ArtifactInfo[list.size()]);
+        mrids = new ModuleRevisionId[infos.length];
+        for (int i = 0; i < infos.length; i++) {
+            mrids[i] = ModuleRevisionId.newInstance("org", "mod", infos[i].getRevision());
+        }
+    }
+
+    @Benchmark
+    public List<ArtifactInfo> sort() {
+        return strategy.sort(infos);
+    }
+
+    @Benchmark
+    public ArtifactInfo findLatest() {
+        return strategy.findLatest(infos, new Date());
+    }
+
+    @Benchmark
+    public void compare(Blackhole blackhole) {
+        Comparator<ArtifactInfo> comparator = strategy.new ArtifactInfoComparator();
+        for (int i = 1; i < infos.length; i++) {
+            blackhole.consume(comparator.compare(infos[i - 1], infos[i]));
+        }
+    }
+
+    /**
+     * Sorts the revisions with a new strategy, so that parsing them is part of the measure.
+     */
+    @Benchmark
+    public List<ArtifactInfo> sortWithNewStrategy() {
+        return new LatestRevisionStrategy().sort(infos);
+    }
+
+    @Benchmark
+    public void compareRevisions(Blackhole blackhole) {
+        Comparator<ModuleRevisionId> comparator = strategy.new MridComparator();
+        for (int i = 1; i < mrids.length; i++) {
+            blackhole.consume(comparator.compare(mrids[i - 1], mrids[i]));
+        }
+    }
+
+    @Benchmark
+    public void compareRevisionsWithRegex(Blackhole blackhole) {
+        Comparator<ModuleRevisionId> comparator = new RegexMridComparator(
+                strategy.getSpecialMeanings());
+        for (int i = 1; i < mrids.length; i++) {
+            blackhole.consume(comparator.compare(mrids[i - 1], mrids[i]));
+        }
+    }
+
+    @Benchmark
+    public List<ModuleRevisionId> sortRevisionsWithRegex() {
+        List<ModuleRevisionId> sorted = new ArrayList<>(Arrays.asList(mrids));
+        Collections.sort(sorted, new RegexMridComparator(strategy.getSpecialMeanings()));
+        return sorted;
+    }
+
+    @Benchmark
+    public List<ModuleRevisionId> sortRevisions() {
+        List<ModuleRevisionId> sorted = new ArrayList<>(Arrays.asList(mrids));
+        Collections.sort(sorted, strategy.new MridComparator());
+        return sorted;
+    }
+
+    /**
+     * The comparison of revisions as it was made before revisions were parsed once.
+     */
+    private static final class RegexMridComparator implements Comparator<ModuleRevisionId> {
+        private final Map<String, Integer> specialMeanings;
+
+        private RegexMridComparator(Map<String, Integer> specialMeanings) {
+            this.specialMeanings = specialMeanings;
+        }
+
+        public int compare(ModuleRevisionId o1, ModuleRevisionId o2) {
+            String rev1 = o1.getRevision();
+            String rev2 = o2.getRevision();
+
+            rev1 = rev1.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
+            rev1 = rev1.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
+            rev2 = rev2.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
+            rev2 = rev2.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
+
+            String[] parts1 = rev1.split("[\\._\\-\\+]");
+            String[] parts2 = rev2.split("[\\._\\-\\+]");
+
+            int i = 0;
+            for (; i < parts1.length && i < parts2.length; i++) {
+                if (parts1[i].equals(parts2[i])) {
+                    continue;
+                }
+                boolean is1Number = isNumber(parts1[i]);
+                boolean is2Number = isNumber(parts2[i]);
+                if (is1Number && !is2Number) {
+                    return 1;
+                }
+                if (is2Number && !is1Number) {
+                    return -1;
+                }
+                if (is1Number) {
+                    return Long.valueOf(parts1[i]).compareTo(Long.valueOf(parts2[i]));
+                }
+                Integer sm1 = specialMeanings.get(parts1[i].toLowerCase(Locale.US));
+                Integer sm2 = specialMeanings.get(parts2[i].toLowerCase(Locale.US));
+                if (sm1 != null) {
+                    return sm1.compareTo(sm2 == null ? 0 : sm2);
+                }
+                if (sm2 != null) {
+                    return Integer.valueOf(0).compareTo(sm2);
+                }
+                return parts1[i].compareTo(parts2[i]);
+            }
+            if (i < parts1.length) {
+                return isNumber(parts1[i]) ? 1 : -1;
+            }
+            if (i < parts2.length) {
+                return isNumber(parts2[i]) ? -1 : 1;
+            }
+            return 0;
+        }
+
+        private boolean isNumber(String str) {
+            return str.matches("\\d+");
+        }
+    }
+
+    private static final class RevisionInfo implements ArtifactInfo {
+        private final String revision;
+
+        private RevisionInfo(String revision) {
+            this.revision = revision;
+        }
+
+        public String getRevision() {
+            return revision;
+        }
+
+        public long getLastModified() {
+            return 0;
+        }
+    }
+}
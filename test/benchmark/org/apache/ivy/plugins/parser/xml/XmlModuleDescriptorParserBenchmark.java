@@ -0,0 +1,68 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.parser.xml;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.settings.IvySettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing of a full featured Ivy file, with and without validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class XmlModuleDescriptorParserBenchmark {
+
+    private IvySettings settings;
+
+    private URL descriptor;
+
+    @Setup
+    public void setUp() {
+        settings = new IvySettings();
+        descriptor = XmlModuleDescriptorParserBenchmark.class.getResource("test.xml");
+    }
+
+    @Benchmark
+    public ModuleDescriptor parse() throws Exception {
+        return XmlModuleDescriptorParser.getInstance().parseDescriptor(settings, descriptor,
+            false);
+    }
+
+    @Benchmark
+    public ModuleDescriptor parseAndValidate() throws Exception {
+        return XmlModuleDescriptorParser.getInstance().parseDescriptor(settings, descriptor,
+            true);
+    }
+}
@@ -64,6 +64,7 @@ final class LocalFileRepoOverHttp implements HttpHandler {
             if (!available) {
                 httpExchange.sendResponseHeaders(404, -1);
             } else {
+                httpExchange.getResponseHeaders().set("ETag", this.getETag(localFilePath));
                 httpExchange.sendResponseHeaders(200, -1);
             }
             return;
@@ -71,6 +72,14 @@ final class LocalFileRepoOverHttp implements HttpHandler {
         if (!httpExchange.getRequestMethod().equals("GET")) {
             throw new IOException("Cannot handle " + httpExchange.getRequestMethod() + " HTTP method");
         }
+        if (this.isPresent(localFilePath)) {
+            final String etag = this.getETag(localFilePath);
+            if (etag.equals(httpExchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                httpExchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            httpExchange.getResponseHeaders().set("ETag", etag);
+        }
         final OutputStream responseStream = httpExchange.getResponseBody();
         @SuppressWarnings("unused")
         final int numBytes = this.serve(httpExchange, localFilePath, responseStream);
@@ -81,6 +90,11 @@ final class LocalFileRepoOverHttp implements HttpHandler {
         return Files.isRegularFile(localFile);
     }
 
+    private String getETag(final Path localFile) throws IOException {
+        return "\"" + Long.toHexString(Files.getLastModifiedTime(localFile).toMillis()) + "-"
+                + Long.toHexString(Files.size(localFile)) + "\"";
+    }
+
     private int serve(final HttpExchange httpExchange, final Path localFile, final OutputStream os) throws IOException {
         if (!Files.isRegularFile(localFile)) {
             throw new IOException("No such file at path " + localFile);
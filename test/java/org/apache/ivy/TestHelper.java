@@ -57,6 +57,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -372,10 +373,47 @@ public class TestHelper {
      */
     public static AutoCloseable createHttpServerBackedRepository(final InetSocketAddress serverAddress, final String webAppContext,
                                                                  final Path localFilesystemRepoRoot) throws IOException {
+        return createHttpServerBackedRepository(serverAddress, webAppContext,
+            localFilesystemRepoRoot, null);
+    }
+
+    /**
+     * Creates a HTTP server, backed by a local file system, which can be used as a repository to
+     * serve Ivy module descriptors and artifacts, and which records the requests it has handled.
+     * NOTE: This is supposed to be used only in test cases and only a limited functionality is
+     * added in the handler(s) backing the server
+     *
+     * @param serverAddress           The address to which the server will be bound
+     * @param webAppContext           The context root of the application which will be handling
+     *                                the requests to the server
+     * @param localFilesystemRepoRoot The path to the root directory containing the module
+     *                                descriptors and artifacts
+     * @param requests                The list to which the method of each request is added
+     *                                before the request is handled. Can be null.
+     * @return AutoCloseable
+     * @throws IOException if something goes wrong
+     */
+    public static AutoCloseable createHttpServerBackedRepository(final InetSocketAddress serverAddress, final String webAppContext,
+                                                                 final Path localFilesystemRepoRoot,
+                                                                 final List<String> requests) throws IOException {
         final LocalFileRepoOverHttp handler = new LocalFileRepoOverHttp(webAppContext, localFilesystemRepoRoot);
         final HttpServer server = HttpServer.create(serverAddress, -1);
         // setup the handler
-        server.createContext(webAppContext, handler);
+        final HttpContext context = server.createContext(webAppContext, handler);
+        if (requests != null) {
+            context.getFilters().add(new Filter() {
+                @Override
+                public void doFilter(final HttpExchange httpExchange, final Chain chain) throws IOException {
+                    requests.add(httpExchange.getRequestMethod());
+                    chain.doFilter(httpExchange);
+                }
+
+                @Override
+                public String description() {
+                    return "records the handled requests";
+                }
+            });
+        }
         // start the server
         server.start();
         return new AutoCloseable() {
@@ -119,6 +119,36 @@ public class IvyBuildListTest {
         assertListOfFiles("test/buildlist/", new String[] {"B", "C", "A", "D", "E"}, files);
     }
 
+    @Test
+    public void testLevels() {
+        FileSet fs = new FileSet();
+        fs.setDir(new File("test/buildlist"));
+        fs.setIncludes("**/build.xml");
+        fs.setExcludes("E2/build.xml,F/build.xml,G/build.xml");
+
+        buildlist.addFileset(fs);
+        buildlist.setOnMissingDescriptor("skip");
+        buildlist.setParallelism(4);
+        buildlist.setLevelReference("build.level");
+
+        String[] files = getFiles(buildlist);
+
+        // the order is the same as when sorting without levels
+        assertListOfFiles("test/buildlist/", new String[] {"B", "C", "A", "D", "E"}, files);
+
+        assertEquals("4", project.getProperty("ivy.sorted.modules.levels"));
+        assertListOfFiles("test/buildlist/", new String[] {"B", "E"}, getLevel(0));
+        assertListOfFiles("test/buildlist/", new String[] {"C"}, getLevel(1));
+        assertListOfFiles("test/buildlist/", new String[] {"A"}, getLevel(2));
+        assertListOfFiles("test/buildlist/", new String[] {"D"}, getLevel(3));
+    }
+
+    private String[] getLevel(int level) {
+        Path path = (Path) project.getReference("build.level." + level);
+        assertNotNull(path);
+        return path.list();
+    }
+
     @Test
     public void testReverse() {
         FileSet fs = new FileSet();
@@ -17,16 +17,27 @@
  */
 package org.apache.ivy.core.cache;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.ivy.Ivy;
+import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
@@ -35,15 +46,22 @@ import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.resolve.ResolvedModuleRevision;
 import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
 import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorWriter;
+import org.apache.ivy.plugins.repository.ArtifactResourceResolver;
 import org.apache.ivy.plugins.repository.BasicResource;
 import org.apache.ivy.plugins.repository.Resource;
 import org.apache.ivy.plugins.repository.ResourceDownloader;
+import org.apache.ivy.plugins.repository.url.URLRepository;
+import org.apache.ivy.plugins.repository.url.URLResource;
 import org.apache.ivy.plugins.resolver.MockResolver;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.util.DefaultMessageLogger;
+import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.Message;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.taskdefs.Delete;
@@ -138,6 +156,241 @@ public class DefaultRepositoryCacheManagerTest {
         assertTrue(ArtifactOrigin.isUnknown(found));
     }
 
+    @Test
+    public void testArtifactOriginWithIndexedMetadataStore() {
+        cacheManager.setMetadataStore(DefaultRepositoryCacheManager.INDEXED_METADATA_STORE);
+        Artifact originArtifact = createArtifact("org", "module", "rev", "name", "pom.original",
+            "pom");
+        cacheManager.saveArtifactOrigin(originArtifact, origin);
+        cacheManager.saveArtifactOrigin(artifact, origin);
+
+        ArtifactOrigin found = cacheManager.getSavedArtifactOrigin(artifact);
+        assertEquals(origin, found);
+        assertEquals("pom", found.getArtifact().getExt());
+        assertTrue(new File(cacheManager.getRepositoryCacheRoot(), "ivydata.index").exists());
+
+        // the metadata should be found by another cache manager using the same directory
+        DefaultRepositoryCacheManager other = new DefaultRepositoryCacheManager("other",
+                ivy.getSettings(), cacheManager.getBasedir());
+        other.setMetadataStore(DefaultRepositoryCacheManager.INDEXED_METADATA_STORE);
+        assertEquals(origin, other.getSavedArtifactOrigin(artifact));
+        other.getMetadataStore().close();
+
+        artifact = createArtifact("org", "module", "rev", "name", "type2", "ext");
+        assertTrue(ArtifactOrigin.isUnknown(cacheManager.getSavedArtifactOrigin(artifact)));
+        cacheManager.getMetadataStore().close();
+    }
+
+    @Test
+    public void testMissing() throws Exception {
+        // misses are not recorded by default
+        cacheManager.saveMissing(artifact, "resolver1");
+        assertFalse(cacheManager.isMissing(artifact, "resolver1"));
+
+        cacheManager.setDefaultMissingTTL("1h");
+        cacheManager.addMissingTTL(Collections.singletonMap("organisation", "org1"),
+            ExactPatternMatcher.INSTANCE, 0);
+        cacheManager.saveMissing(artifact, "resolver1");
+        assertTrue(cacheManager.isMissing(artifact, "resolver1"));
+        assertFalse(cacheManager.isMissing(artifact, "resolver2"));
+        assertFalse(cacheManager.isMissing(
+            createArtifact("org", "module", "rev", "name", "type2", "ext"), "resolver1"));
+
+        Artifact artifact1 = createArtifact("org1", "module", "rev", "name", "type", "ext");
+        cacheManager.saveMissing(artifact1, "resolver1");
+        assertFalse(cacheManager.isMissing(artifact1, "resolver1"));
+
+        // misses expire after the missing TTL
+        cacheManager.setDefaultMissingTTL(50);
+        Thread.sleep(100);
+        assertFalse(cacheManager.isMissing(artifact, "resolver1"));
+    }
+
+    @Test
+    public void testListing() throws Exception {
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "module",
+            "latest.integration");
+        String location = "/repo/org/module";
+        Resource resource = new BasicResource(location, true, 0, 1000, true);
+        String[] listing = {"/repo/org/module/1.0", "/repo/org/module/1.1"};
+
+        // listings are not cached by default
+        cacheManager.saveListing("resolver1", mrid, location, resource, listing);
+        assertNull(cacheManager.getListing("resolver1", mrid, location, resource));
+
+        cacheManager.setDefaultListingTTL("1h");
+        cacheManager.addListingTTL(Collections.singletonMap("organisation", "org1"),
+            ExactPatternMatcher.INSTANCE, 0);
+        cacheManager.saveListing("resolver1", mrid, location, resource, listing);
+        // the listing is shared by all the revisions of the module
+        assertArrayEquals(listing, cacheManager.getListing("resolver1",
+            ModuleRevisionId.newInstance(mrid, "[1.0,2.0)"), location, resource));
+        assertNull(cacheManager.getListing("resolver2", mrid, location, resource));
+        assertNull(cacheManager.getListing("resolver1", mrid, "/repo/org/other", resource));
+
+        ModuleRevisionId mrid1 = ModuleRevisionId.newInstance("org1", "module",
+            "latest.integration");
+        cacheManager.saveListing("resolver1", mrid1, location, resource, listing);
+        assertNull(cacheManager.getListing("resolver1", mrid1, location, resource));
+
+        cacheManager.saveListing("resolver1", mrid, "/repo/org/empty", resource, new String[0]);
+        assertArrayEquals(new String[0],
+            cacheManager.getListing("resolver1", mrid, "/repo/org/empty", resource));
+
+        // once expired, a listing is kept if the listed resource hasn't been modified
+        cacheManager.setDefaultListingTTL(50);
+        Thread.sleep(100);
+        assertArrayEquals(listing, cacheManager.getListing("resolver1", mrid, location, resource));
+        Thread.sleep(100);
+        assertNull(cacheManager.getListing("resolver1", mrid, location,
+            new BasicResource(location, true, 0, 2000, true)));
+        assertNull(cacheManager.getListing("resolver1", mrid, location, null));
+    }
+
+    @Test
+    public void testDownloadMissing() {
+        cacheManager.setDefaultMissingTTL("1h");
+        final int[] lookups = new int[1];
+        ArtifactResourceResolver resolver = new ArtifactResourceResolver() {
+            public ResolvedResource resolve(Artifact artifact) {
+                lookups[0]++;
+                return null;
+            }
+        };
+        CacheDownloadOptions options = new CacheDownloadOptions().setMissingKey("resolver1");
+
+        ArtifactDownloadReport adr = cacheManager.download(artifact, resolver, null, options);
+        assertEquals(DownloadStatus.FAILED, adr.getDownloadStatus());
+        assertEquals(ArtifactDownloadReport.MISSING_ARTIFACT, adr.getDownloadDetails());
+        assertFalse(adr.isMissingCached());
+        assertEquals(1, lookups[0]);
+
+        adr = cacheManager.download(artifact, resolver, null, options);
+        assertEquals(DownloadStatus.FAILED, adr.getDownloadStatus());
+        assertEquals(ArtifactDownloadReport.MISSING_ARTIFACT, adr.getDownloadDetails());
+        assertTrue(adr.isMissingCached());
+        assertEquals(1, lookups[0]);
+
+        // forced downloads look for the artifact again
+        adr = cacheManager.download(artifact, resolver, null, options.setForce(true));
+        assertFalse(adr.isMissingCached());
+        assertEquals(2, lookups[0]);
+    }
+
+    @Test
+    public void testDownloadRepositoryResourceRevalidation() throws Exception {
+        File repoRoot = new File(cacheManager.getRepositoryCacheRoot().getParentFile(),
+                cacheManager.getRepositoryCacheRoot().getName() + "-repo");
+        repoRoot.mkdirs();
+        File served = new File(repoRoot, "index.xml");
+        FileUtil.copy(new File("test/repositories/ivysettings.xml"), served, null);
+
+        InetSocketAddress serverAddress = new InetSocketAddress("localhost",
+                TestHelper.getMaybeAvailablePort());
+        try (AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverAddress,
+            "/repo", repoRoot.toPath())) {
+            URLRepository repository = new URLRepository();
+            Resource resource = repository.getResource("http://localhost:"
+                    + serverAddress.getPort() + "/repo/index.xml");
+            CacheResourceOptions options = new CacheResourceOptions();
+            options.setTtl(0);
+
+            ArtifactDownloadReport adr = cacheManager.downloadRepositoryResource(resource,
+                "index", "index", "xml", options, repository);
+            assertEquals(DownloadStatus.SUCCESSFUL, adr.getDownloadStatus());
+            String etag = cacheManager.getSavedArtifactOrigin(adr.getArtifact()).getETag();
+            assertNotNull(etag);
+
+            // unchanged: the cached file is revalidated without being downloaded
+            adr = cacheManager.downloadRepositoryResource(resource, "index", "index", "xml",
+                options, repository);
+            assertEquals(DownloadStatus.NO, adr.getDownloadStatus());
+            assertEquals(served.length(), adr.getLocalFile().length());
+            assertEquals(etag, cacheManager.getSavedArtifactOrigin(adr.getArtifact()).getETag());
+
+            FileUtil.copy(new File("test/repositories/ivysettings-1.xml"), served, null,
+                true);
+            served.setLastModified(served.lastModified() - 10000);
+            adr = cacheManager.downloadRepositoryResource(resource, "index", "index", "xml",
+                options, repository);
+            assertEquals(DownloadStatus.SUCCESSFUL, adr.getDownloadStatus());
+            assertEquals(served.length(), adr.getLocalFile().length());
+            assertNotEquals(etag,
+                cacheManager.getSavedArtifactOrigin(adr.getArtifact()).getETag());
+        } finally {
+            FileUtil.forceDelete(repoRoot);
+        }
+    }
+
+    /**
+     * Downloading an HTTP resource takes a single GET, and revalidating it when it is unchanged a
+     * single conditional GET answered by a 304, without HEAD requests to describe it first.
+     */
+    @Test
+    public void testDownloadRepositoryResourceRequests() throws Exception {
+        File repoRoot = new File(cacheManager.getRepositoryCacheRoot().getParentFile(),
+                cacheManager.getRepositoryCacheRoot().getName() + "-repo");
+        repoRoot.mkdirs();
+        File served = new File(repoRoot, "index.xml");
+        FileUtil.copy(new File("test/repositories/ivysettings.xml"), served, null);
+
+        InetSocketAddress serverAddress = new InetSocketAddress("localhost",
+                TestHelper.getMaybeAvailablePort());
+        List<String> requests = new CopyOnWriteArrayList<>();
+        try (AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverAddress,
+            "/repo", repoRoot.toPath(), requests)) {
+            URL url = new URL("http://localhost:" + serverAddress.getPort() + "/repo/index.xml");
+            CacheResourceOptions options = new CacheResourceOptions();
+            options.setTtl(0);
+
+            // as by a later resolve, each download is made with new resource objects
+            ArtifactDownloadReport adr = cacheManager.downloadRepositoryResource(
+                new URLResource(url), "index", "index", "xml", options, new URLRepository());
+            assertEquals(DownloadStatus.SUCCESSFUL, adr.getDownloadStatus());
+            assertEquals(Collections.singletonList("GET"), requests);
+
+            requests.clear();
+            adr = cacheManager.downloadRepositoryResource(new URLResource(url), "index", "index",
+                "xml", options, new URLRepository());
+            // not modified
+            assertEquals(DownloadStatus.NO, adr.getDownloadStatus());
+            assertEquals(Collections.singletonList("GET"), requests);
+        } finally {
+            FileUtil.forceDelete(repoRoot);
+        }
+    }
+
+    /**
+     * Resources which aren't HTTP ones are compared with their cached copy using their last
+     * modification date, and aren't downloaded again when they are unchanged.
+     */
+    @Test
+    public void testDownloadRepositoryResourceNotHttp() throws Exception {
+        File repoRoot = new File(cacheManager.getRepositoryCacheRoot().getParentFile(),
+                cacheManager.getRepositoryCacheRoot().getName() + "-repo");
+        repoRoot.mkdirs();
+        File served = new File(repoRoot, "index.xml");
+        FileUtil.copy(new File("test/repositories/ivysettings.xml"), served, null);
+        served.setLastModified(served.lastModified() - 10000);
+        try {
+            URLRepository repository = new URLRepository();
+            Resource resource = repository.getResource(served.toURI().toURL().toExternalForm());
+            CacheResourceOptions options = new CacheResourceOptions();
+            options.setTtl(0);
+
+            ArtifactDownloadReport adr = cacheManager.downloadRepositoryResource(resource,
+                "index", "index", "xml", options, repository);
+            assertEquals(DownloadStatus.SUCCESSFUL, adr.getDownloadStatus());
+
+            adr = cacheManager.downloadRepositoryResource(resource, "index", "index", "xml",
+                options, repository);
+            assertEquals(DownloadStatus.NO, adr.getDownloadStatus());
+            assertEquals(served.length(), adr.getLocalFile().length());
+        } finally {
+            FileUtil.forceDelete(repoRoot);
+        }
+    }
+
     @Test
     @Ignore
     public void testLatestIntegrationIsCachedPerResolver() throws Exception {
@@ -0,0 +1,189 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.apache.ivy.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexedCacheMetadataStoreTest {
+
+    private File dir;
+
+    private File file;
+
+    private IndexedCacheMetadataStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = File.createTempFile("ivymetadata", ".dir");
+        dir.delete(); // we want to use the file as a directory, so we delete the file itself
+        file = new File(dir, "ivydata.index");
+        store = new IndexedCacheMetadataStore(file);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        FileUtil.forceDelete(dir);
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        assertTrue(store.load("org/mod/ivydata-1.0.properties").isEmpty());
+
+        store.save("org/mod/ivydata-1.0.properties", properties("resolver", "foo"), null);
+        store.save("org/mod/ivydata-2.0.properties", properties("resolver", "bar"), null);
+        store.save("org/mod/ivydata-1.0.properties",
+            properties("resolver", "foo", "artifact.resolver", "baz"), null);
+
+        assertEquals(properties("resolver", "foo", "artifact.resolver", "baz"),
+            store.load("org/mod/ivydata-1.0.properties"));
+        assertEquals(properties("resolver", "bar"), store.load("org/mod/ivydata-2.0.properties"));
+    }
+
+    @Test
+    public void testSharedFile() {
+        IndexedCacheMetadataStore other = new IndexedCacheMetadataStore(file);
+        try {
+            store.save("a", properties("resolved.revision", "1.0"), null);
+            assertEquals(properties("resolved.revision", "1.0"), other.load("a"));
+
+            other.save("a", properties("resolved.revision", "1.1"), null);
+            other.save("b", properties("resolved.revision", "2.0"), null);
+            assertEquals(properties("resolved.revision", "1.1"), store.load("a"));
+            assertEquals(properties("resolved.revision", "2.0"), store.load("b"));
+        } finally {
+            other.close();
+        }
+    }
+
+    /**
+     * Stores of a same process writing the same file concurrently wait for each other.
+     */
+    @Test
+    public void testConcurrentStoresOnSameFile() throws Exception {
+        final IndexedCacheMetadataStore other = new IndexedCacheMetadataStore(file);
+        try {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                final IndexedCacheMetadataStore writer = t % 2 == 0 ? store : other;
+                final String prefix = "thread" + t + "-";
+                threads[t] = new Thread() {
+                    public void run() {
+                        for (int i = 0; i < 200; i++) {
+                            writer.save(prefix + i, properties("index", String.valueOf(i)), null);
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (int t = 0; t < threads.length; t++) {
+                for (int i = 0; i < 200; i++) {
+                    assertEquals(properties("index", String.valueOf(i)),
+                        other.load("thread" + t + "-" + i));
+                }
+            }
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    public void testBrokenTail() throws IOException {
+        store.save("a", properties("resolver", "foo"), null);
+        store.close();
+
+        // simulates a record partially written by a crashed process
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[] {0, 0, 0, 42, 1, 2, 3});
+        }
+
+        assertEquals(properties("resolver", "foo"), store.load("a"));
+        store.save("b", properties("resolver", "bar"), null);
+        store.close();
+        assertEquals(properties("resolver", "foo"), store.load("a"));
+        assertEquals(properties("resolver", "bar"), store.load("b"));
+    }
+
+    @Test
+    public void testCompaction() {
+        IndexedCacheMetadataStore other = new IndexedCacheMetadataStore(file);
+        try {
+            store.save("static", properties("resolver", "foo"), null);
+            assertEquals(properties("resolver", "foo"), other.load("static"));
+            for (int i = 0; i < 50000; i++) {
+                store.save("dynamic", properties("resolved.revision", String.valueOf(i)), null);
+            }
+            assertTrue("file not compacted: " + file.length(), file.length() < 1024 * 1024);
+            assertEquals(properties("resolver", "foo"), store.load("static"));
+            assertEquals(properties("resolved.revision", "49999"), store.load("dynamic"));
+
+            // the other store should notice the file has been replaced
+            assertEquals(properties("resolved.revision", "49999"), other.load("dynamic"));
+            assertEquals(properties("resolver", "foo"), other.load("static"));
+        } finally {
+            other.close();
+        }
+    }
+
+    /**
+     * The metadata missing in the file is imported from the properties files of the cache.
+     */
+    @Test
+    public void testImportProperties() throws IOException {
+        File legacy = new File(dir, "org/mod/ivydata-1.0.properties");
+        legacy.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(legacy)) {
+            properties("resolver", "foo").store(out, null);
+        }
+        store.close();
+        store = new IndexedCacheMetadataStore(file, dir);
+
+        assertEquals(properties("resolver", "foo"), store.load("org/mod/ivydata-1.0.properties"));
+        assertTrue(store.load("org/mod/ivydata-2.0.properties").isEmpty());
+
+        // the imported metadata is kept in the file, and superseded by the metadata saved
+        legacy.delete();
+        store.close();
+        assertEquals(properties("resolver", "foo"), store.load("org/mod/ivydata-1.0.properties"));
+        store.save("org/mod/ivydata-1.0.properties", properties("resolver", "bar"), null);
+        assertEquals(properties("resolver", "bar"), store.load("org/mod/ivydata-1.0.properties"));
+    }
+
+    private static Properties properties(String... keyValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.util.Arrays;
+
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorWriter;
+import org.apache.ivy.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModuleDescriptorDiskCacheTest {
+
+    private static final String XML_DIR = "test/java/org/apache/ivy/plugins/parser/xml/";
+
+    private final IvySettings settings = new IvySettings();
+
+    private final XmlModuleDescriptorParser parser = XmlModuleDescriptorParser.getInstance();
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("ivy-md-cache").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(dir);
+    }
+
+    @Test
+    public void testReadBackSerializedDescriptors() throws Exception {
+        for (String name : Arrays.asList("test.xml", "test-write-full.xml",
+            "test-dependencies.xml", "test-extra-attributes.xml", "test-extrainfo-nested.xml",
+            "test-defaultconfmapping.xml", "test-noartifact.xml")) {
+            File ivyFile = copy(name);
+            ModuleDescriptor parsed = ModuleDescriptorDiskCache.get(ivyFile, settings, false,
+                parser);
+            assertTrue(name, ModuleDescriptorDiskCache.getFile(ivyFile).exists());
+
+            ModuleDescriptor read = ModuleDescriptorDiskCache.get(ivyFile, settings, false, parser);
+            assertNotSame(name, parsed, read);
+            assertEquals(name, write(parsed), write(read));
+            assertEquals(name, parsed.getModuleRevisionId(), read.getModuleRevisionId());
+            assertEquals(name, parsed.getResolvedPublicationDate(),
+                read.getResolvedPublicationDate());
+            assertEquals(name, parsed.getMetadataArtifact(), read.getMetadataArtifact());
+            assertArrayEquals(name, parsed.getConfigurations(), read.getConfigurations());
+            assertArrayEquals(name, parsed.getAllArtifacts(), read.getAllArtifacts());
+            DependencyDescriptor[] parsedDependencies = parsed.getDependencies();
+            DependencyDescriptor[] readDependencies = read.getDependencies();
+            assertEquals(name, parsedDependencies.length, readDependencies.length);
+            for (int i = 0; i < parsedDependencies.length; i++) {
+                assertEquals(name, parsedDependencies[i].toString(),
+                    readDependencies[i].toString());
+                for (String conf : parsed.getConfigurationsNames()) {
+                    assertArrayEquals(name,
+                        parsedDependencies[i].getDependencyConfigurations(conf),
+                        readDependencies[i].getDependencyConfigurations(conf));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedDescriptorIsNotSerialized() throws Exception {
+        // descriptors extending other ones are always parsed
+        copy("test-extends-parent.xml");
+        File ivyFile = copy("test-extends-all.xml");
+        ModuleDescriptor md = ModuleDescriptorDiskCache.get(ivyFile, settings, true, parser);
+        assertFalse(ModuleDescriptorDiskCache.getFile(ivyFile).exists());
+        assertEquals(write(parser.parseDescriptor(settings, ivyFile.toURI().toURL(), true)),
+            write(md));
+    }
+
+    @Test
+    public void testModifiedFileIsParsedAgain() throws Exception {
+        File ivyFile = copy("test-simple.xml");
+        ModuleDescriptorDiskCache.get(ivyFile, settings, false, parser);
+
+        String content = new String(Files.readAllBytes(ivyFile.toPath()),
+                StandardCharsets.UTF_8);
+        content = content.replace("module=\"mymodule\"", "module=\"othermodule\"");
+        Files.write(ivyFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        ModuleDescriptor md = ModuleDescriptorDiskCache.get(ivyFile, settings, false, parser);
+        assertEquals("othermodule", md.getModuleRevisionId().getName());
+    }
+
+    @Test
+    public void testCorruptedFileIsIgnored() throws Exception {
+        File ivyFile = copy("test-simple.xml");
+        ModuleDescriptor parsed = ModuleDescriptorDiskCache.get(ivyFile, settings, false, parser);
+
+        File binFile = ModuleDescriptorDiskCache.getFile(ivyFile);
+        byte[] bytes = Files.readAllBytes(binFile.toPath());
+        Files.write(binFile.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        ModuleDescriptor md = ModuleDescriptorDiskCache.get(ivyFile, settings, false, parser);
+        assertEquals(write(parsed), write(md));
+    }
+
+    @Test
+    public void testUnvalidatedDescriptorIsParsedAgainForValidation() throws Exception {
+        File ivyFile = copy("test-simple.xml");
+        ModuleDescriptorDiskCache.get(ivyFile, settings, false, parser);
+        File binFile = ModuleDescriptorDiskCache.getFile(ivyFile);
+        assertTrue(binFile.setLastModified(0));
+        // the descriptor is serialized again, as validated this time
+        ModuleDescriptorDiskCache.get(ivyFile, settings, true, parser);
+        assertFalse(binFile.lastModified() == 0);
+    }
+
+    private File copy(String name) throws IOException {
+        File ivyFile = new File(dir, name);
+        FileUtil.copy(new File(XML_DIR + name), ivyFile, null, true);
+        return ivyFile;
+    }
+
+    private String write(ModuleDescriptor md) throws IOException, ParseException {
+        File file = File.createTempFile("ivy", ".xml", dir);
+        XmlModuleDescriptorWriter.write(md, file);
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
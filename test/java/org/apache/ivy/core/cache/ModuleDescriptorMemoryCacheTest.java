@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.text.ParseException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class ModuleDescriptorMemoryCacheTest {
@@ -172,6 +173,110 @@ public class ModuleDescriptorMemoryCacheTest {
         providerMock2.assertCalled();
     }
 
+    @Test
+    public void testHeapSizeIsLimited() throws ParseException, IOException {
+        // the estimated size of a default descriptor is a few kilobytes
+        cache = new ModuleDescriptorMemoryCache(10, 5000);
+        cache.get(url1, ivySettings, false, new ModuleDescriptorProviderMock(md1));
+        cache.get(url2, ivySettings, false, new ModuleDescriptorProviderMock(md2));
+        assertEquals(1, cache.getSize());
+        assertTrue(cache.getHeapSize() <= 5000);
+        assertEquals(1, cache.getEvictionCount());
+
+        ModuleDescriptorProviderMock providerMock2 = null;
+        assertEquals(md2, cache.get(url2, ivySettings, false, providerMock2));
+        ModuleDescriptorProviderMock providerMock1b = new ModuleDescriptorProviderMock(md1);
+        cache.get(url1, ivySettings, false, providerMock1b);
+        providerMock1b.assertCalled();
+    }
+
+    @Test
+    public void testCounters() throws ParseException, IOException {
+        ModuleDescriptorProviderMock providerMock = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock2 = new ModuleDescriptorProviderMock(md1);
+        ivySettings2.getVariables().setVariable("val", "firstVal", true);
+        cache.get(url1, ivySettings2, false, providerMock);
+        cache.get(url1, ivySettings2, false, null);
+        ivySettings2.getVariables().setVariable("val", "changedVal", true);
+        cache.get(url1, ivySettings2, false, providerMock2);
+        cache.get(url2, ivySettings2, false, new ModuleDescriptorProviderMock(md2));
+        cache.get(url3, ivySettings2, false, new ModuleDescriptorProviderMock(md3));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(1, cache.getInvalidationCount());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getSize());
+
+        MemoryCacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(4, statistics.getMisses());
+        assertEquals(1, statistics.getInvalidations());
+        assertEquals(1, statistics.getEvictions());
+        assertEquals(2, statistics.getSize());
+    }
+
+    @Test
+    public void testReplacedEntryIsNotEvictedTwice() throws ParseException, IOException {
+        cache.get(url1, ivySettings, false, new ModuleDescriptorProviderMock(md1));
+        cache.get(url2, ivySettings, false, new ModuleDescriptorProviderMock(md2));
+        // replacing url1 queues it again, behind url2
+        cache.getStale(url1, ivySettings, false, new ModuleDescriptorProviderMock(md1));
+        cache.get(url3, ivySettings, false, new ModuleDescriptorProviderMock(md3));
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(md1, cache.get(url1, ivySettings, false, null));
+        assertEquals(md3, cache.get(url3, ivySettings, false, null));
+    }
+
+    @Test
+    public void testInvalidate() throws ParseException, IOException {
+        ModuleDescriptorProviderMock providerMock = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock2 = new ModuleDescriptorProviderMock(md2);
+        ivySettings2.getVariables().setVariable("val", "firstVal", true);
+        cache.get(url1, ivySettings2, false, providerMock);
+        cache.get(url2, ivySettings, false, providerMock2);
+
+        ivySettings2.getVariables().setVariable("val", "changedVal", true);
+        cache.invalidate(ivySettings2);
+        assertEquals(1, cache.getSize());
+        assertEquals(1, cache.getInvalidationCount());
+        ModuleDescriptorProviderMock providerMock2b = null;
+        assertEquals(md2, cache.get(url2, ivySettings2, false, providerMock2b));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        cache = new ModuleDescriptorMemoryCache(2);
+        final File[] urls = {url1, url2, url3};
+        final ModuleDescriptor[] mds = {md1, md2, md3};
+        Thread[] threads = new Thread[4];
+        final Exception[] failure = new Exception[1];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 1000; i++) {
+                            int j = i % urls.length;
+                            assertEquals(mds[j], cache.get(urls[j], ivySettings, false,
+                                new ModuleDescriptorProviderMock(mds[j])));
+                        }
+                    } catch (Exception e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure[0]);
+        assertEquals(4000, cache.getHitCount() + cache.getMissCount());
+        assertEquals(2, cache.getSize());
+    }
+
     private static class ModuleDescriptorProviderMock implements ModuleDescriptorProvider {
 
         private boolean called = false;
@@ -0,0 +1,223 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.event.AsyncListener.OverflowPolicy;
+import org.apache.ivy.plugins.repository.BasicResource;
+import org.apache.ivy.plugins.repository.TransferEvent;
+import org.apache.ivy.plugins.repository.TransferListener;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncListenerTest {
+
+    private final List<IvyEvent> received = Collections.synchronizedList(new ArrayList<IvyEvent>());
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final IvyListener recorder = new IvyListener() {
+        public void progress(IvyEvent event) {
+            received.add(event);
+        }
+    };
+
+    private final IvyListener blockedRecorder = new IvyListener() {
+        public void progress(IvyEvent event) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        }
+    };
+
+    /**
+     * Events are delivered in the order in which they were fired, and not on the firing thread.
+     */
+    @Test
+    public void testDeliversInOrder() throws Exception {
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        EventManager eventManager = new EventManager();
+        eventManager.setAsyncCapacity(4);
+        eventManager.addAsyncIvyListener(new IvyListener() {
+            public void progress(IvyEvent event) {
+                threads.add(Thread.currentThread());
+                received.add(event);
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            eventManager.fireIvyEvent(new IvyEvent("event-" + i));
+        }
+        assertTrue(eventManager.flushAsyncListeners(10000));
+
+        assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("event-" + i, received.get(i).getName());
+        }
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    /**
+     * The filter of an asynchronous listener is applied before queuing the events.
+     */
+    @Test
+    public void testFilter() throws Exception {
+        EventManager eventManager = new EventManager();
+        eventManager.addAsyncIvyListener(recorder, "accepted");
+        eventManager.fireIvyEvent(new IvyEvent("rejected"));
+        eventManager.fireIvyEvent(new IvyEvent("accepted"));
+        assertTrue(eventManager.flushAsyncListeners(10000));
+
+        assertEquals(1, received.size());
+        assertEquals("accepted", received.get(0).getName());
+        assertTrue(eventManager.hasIvyListener(recorder));
+        eventManager.removeIvyListener(recorder);
+        assertFalse(eventManager.hasIvyListener(recorder));
+    }
+
+    @Test
+    public void testDiscard() throws Exception {
+        AsyncListener listener = new AsyncListener(blockedRecorder, 2, OverflowPolicy.DISCARD,
+                false);
+        listener.progress(new IvyEvent("event-0"));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < 5; i++) {
+            listener.progress(new IvyEvent("event-" + i));
+        }
+        release.countDown();
+        assertTrue(listener.flush(10000));
+
+        // the first event is being delivered while the next two fill the buffer
+        assertEquals(3, received.size());
+        assertEquals("event-0", received.get(0).getName());
+        assertEquals("event-2", received.get(2).getName());
+        assertEquals(2, listener.getDiscardedEvents());
+    }
+
+    @Test
+    public void testDiscardOldest() throws Exception {
+        AsyncListener listener = new AsyncListener(blockedRecorder, 2,
+                OverflowPolicy.DISCARD_OLDEST, false);
+        listener.progress(new IvyEvent("event-0"));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < 5; i++) {
+            listener.progress(new IvyEvent("event-" + i));
+        }
+        release.countDown();
+        assertTrue(listener.flush(10000));
+
+        assertEquals(3, received.size());
+        assertEquals("event-0", received.get(0).getName());
+        assertEquals("event-3", received.get(1).getName());
+        assertEquals("event-4", received.get(2).getName());
+        assertEquals(2, listener.getDiscardedEvents());
+    }
+
+    @Test
+    public void testBlock() throws Exception {
+        final AsyncListener listener = new AsyncListener(blockedRecorder, 1,
+                OverflowPolicy.BLOCK, false);
+        Thread firing = new Thread() {
+            public void run() {
+                for (int i = 0; i < 5; i++) {
+                    listener.progress(new IvyEvent("event-" + i));
+                }
+            }
+        };
+        firing.start();
+        firing.join(200);
+        assertTrue(firing.isAlive());
+
+        release.countDown();
+        firing.join(10000);
+        assertTrue(listener.flush(10000));
+        assertEquals(5, received.size());
+        assertEquals(0, listener.getDiscardedEvents());
+    }
+
+    /**
+     * Transfer events are copied when queued, and the progress events of a same transfer waiting
+     * to be delivered are coalesced.
+     */
+    @Test
+    public void testCoalesceTransferProgress() throws Exception {
+        final List<TransferEvent> transfers = Collections
+                .synchronizedList(new ArrayList<TransferEvent>());
+        AsyncListener listener = new AsyncListener(new TransferListener() {
+            public void transferProgress(TransferEvent evt) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                transfers.add(evt);
+            }
+        }, 16, OverflowPolicy.BLOCK, true);
+
+        MutableTransferEvent evt = new MutableTransferEvent();
+        listener.transferProgress(evt);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            evt.progress(100);
+            listener.transferProgress(evt);
+        }
+        evt.completed();
+        listener.transferProgress(evt);
+        release.countDown();
+        assertTrue(listener.flush(10000));
+
+        assertEquals(3, transfers.size());
+        assertEquals(TransferEvent.TRANSFER_STARTED, transfers.get(0).getEventType());
+        assertEquals(TransferEvent.TRANSFER_PROGRESS, transfers.get(1).getEventType());
+        assertEquals(1000, transfers.get(1).getLength());
+        assertEquals(1000, transfers.get(1).getTotalLength());
+        assertEquals(TransferEvent.TRANSFER_COMPLETED, transfers.get(2).getEventType());
+    }
+
+    private static final class MutableTransferEvent extends TransferEvent {
+        MutableTransferEvent() {
+            super(null, new BasicResource("test", true, 1000, 0, true),
+                    TransferEvent.TRANSFER_STARTED, TransferEvent.REQUEST_GET);
+            setTotalLength(1000);
+            setTotalLengthSet(true);
+        }
+
+        void progress(long length) {
+            setEventType(TRANSFER_PROGRESS);
+            setLength(length);
+        }
+
+        void completed() {
+            setEventType(TRANSFER_COMPLETED);
+        }
+    }
+}
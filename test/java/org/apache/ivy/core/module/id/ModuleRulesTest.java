@@ -24,8 +24,10 @@ import java.util.Map;
 
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
+import org.apache.ivy.plugins.matcher.GlobPatternMatcher;
 import org.apache.ivy.plugins.matcher.MapMatcher;
 import org.apache.ivy.plugins.matcher.PatternMatcher;
+import org.apache.ivy.plugins.matcher.RegexpPatternMatcher;
 import org.apache.ivy.util.filter.Filter;
 import org.apache.ivy.util.filter.NoFilter;
 import org.junit.Before;
@@ -74,6 +76,40 @@ public class ModuleRulesTest {
         assertRule(null, "unknown#module4;1.5", acceptAll());
     }
 
+    @Test
+    public void testGetRuleWithPatterns() {
+        // fixture
+        rules.defineRule(mapMatcher().organization("org.apache.ant*").matcher(
+            GlobPatternMatcher.INSTANCE).build(), rule[0]);
+        rules.defineRule(mapMatcher().organization("org\\.apache\\..*").matcher(
+            RegexpPatternMatcher.INSTANCE).build(), rule[1]);
+        rules.defineRule(mapMatcher().organization("org.apaches?").module("mod.*").matcher(
+            RegexpPatternMatcher.INSTANCE).build(), rule[2]);
+        rules.defineRule(mapMatcher().organization("other|org.apache").matcher(
+            RegexpPatternMatcher.INSTANCE).build(), rule[3]);
+        rules.defineRule(mapMatcher().module("*").matcher(GlobPatternMatcher.INSTANCE)
+                .build(), rule[4]);
+
+        // test
+        assertRule(rule[0], "org.apache.ant#ant;1.10");
+        assertRule(rule[1], "org.apache.ivy#ivy;2.5");
+        assertRule(rule[2], "org.apache#module;1.0");
+        assertRule(rule[2], "org.apaches#module;1.0");
+        assertRule(rule[3], "org.apache#other;1.0");
+        assertRule(rule[3], "other#module;1.0");
+        assertRule(rule[4], "unknown#module;1.0");
+    }
+
+    @Test
+    public void testGetRuleAfterRuleDefinition() {
+        rules.defineRule(mapMatcher().organization("apache").build(), rule[0]);
+        assertRule(null, "other#module1;1.5");
+
+        rules.defineRule(mapMatcher().organization("oth*").matcher(GlobPatternMatcher.INSTANCE)
+                .build(), rule[1]);
+        assertRule(rule[1], "other#module1;1.5");
+    }
+
     // test helpers
 
     private Filter<String> acceptNone() {
@@ -140,6 +176,11 @@ public class ModuleRulesTest {
             return this;
         }
 
+        public MridMatcherBuilder matcher(PatternMatcher matcher) {
+            this.matcher = matcher;
+            return this;
+        }
+
         public MapMatcher build() {
             return new MapMatcher(attributes, matcher);
         }
@@ -18,14 +18,25 @@
 package org.apache.ivy.core.resolve;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ivy.Ivy;
 import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.DownloadReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.report.ResolveReport;
 import org.apache.ivy.plugins.resolver.FileSystemResolver;
@@ -37,6 +48,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -117,6 +129,140 @@ public class ResolveEngineTest {
 
     }
 
+    /**
+     * Tests that a resolve fetching module descriptors in parallel gives the same result as a
+     * sequential one, including transitive evictions.
+     */
+    @Test
+    public void testParallelResolve() throws Exception {
+        File ivyFile = new File("test/repositories/2/mod7.3/ivy-1.0.xml");
+        ResolveReport sequential = ivy.resolve(ivyFile,
+            new ResolveOptions().setConfs(new String[] {"*"}).setDownload(false));
+        Map<String, String> sequentialReports = readReports(ivy, sequential);
+        CacheCleaner.deleteDir(cache);
+        createCache();
+        Ivy parallelIvy = Ivy.newInstance();
+        parallelIvy.configure(new File("test/repositories/ivysettings.xml"));
+        ResolveReport parallel = parallelIvy.resolve(ivyFile,
+            new ResolveOptions().setConfs(new String[] {"*"}).setDownload(false).setParallelism(4));
+
+        assertFalse(parallel.hasError());
+        assertEquals(describe(sequential), describe(parallel));
+        // the reports hold the callers, evictions and artifacts of each dependency
+        assertEquals(sequentialReports, readReports(parallelIvy, parallel));
+    }
+
+    /**
+     * Tests that artifacts downloaded in parallel are reported as in a sequential download.
+     */
+    @Test
+    public void testParallelDownload() throws Exception {
+        File ivyFile = new File("test/repositories/1/org2/mod2.6/ivys/ivy-0.8.xml");
+        ResolveReport sequential = ivy.resolve(ivyFile,
+            new ResolveOptions().setConfs(new String[] {"*"}));
+        CacheCleaner.deleteDir(cache);
+        createCache();
+        Ivy parallelIvy = Ivy.newInstance();
+        parallelIvy.configure(new File("test/repositories/ivysettings.xml"));
+        ((FileSystemResolver) parallelIvy.getSettings().getResolver("1"))
+                .setMaxParallelDownloads(2);
+        ResolveReport parallel = parallelIvy.resolve(ivyFile,
+            new ResolveOptions().setConfs(new String[] {"*"}).setParallelism(4));
+
+        assertEquals(describeDownloads(sequential), describeDownloads(parallel));
+        for (ArtifactDownloadReport adr : parallel.getAllArtifactsReports()) {
+            if (adr.getDownloadStatus() == DownloadStatus.SUCCESSFUL) {
+                assertTrue(adr.getLocalFile().exists());
+            }
+        }
+    }
+
+    /**
+     * The downloads of a resolver which has reached its limit of parallel downloads don't hold the
+     * threads of the pool which the downloads of other resolvers could use.
+     */
+    @Test
+    public void testParallelDownloadLimitDoesNotBlockOtherResolvers() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        FileSystemResolver limited = new FileSystemResolver() {
+            @Override
+            public DownloadReport download(Artifact[] artifacts, DownloadOptions options) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new DownloadReport();
+            }
+        };
+        limited.setName("limited");
+        limited.setMaxParallelDownloads(1);
+        FileSystemResolver other = new FileSystemResolver() {
+            @Override
+            public DownloadReport download(Artifact[] artifacts, DownloadOptions options) {
+                return new DownloadReport();
+            }
+        };
+        other.setName("other");
+
+        ResolveData data = new ResolveData(new ResolveEngine(ivy.getSettings(),
+                ivy.getEventManager(), ivy.getSortEngine()), new ResolveOptions());
+        ParallelArtifactDownloader downloader = new ParallelArtifactDownloader(2);
+        try {
+            for (int i = 0; i < 3; i++) {
+                downloader.schedule(newNode(data, "limited" + i), limited, new Artifact[0],
+                    new DownloadOptions());
+            }
+            IvyNode otherNode = newNode(data, "other");
+            downloader.schedule(otherNode, other, new Artifact[0], new DownloadOptions());
+
+            long start = System.currentTimeMillis();
+            assertNotNull(downloader.getReport(otherNode));
+            assertTrue(System.currentTimeMillis() - start < 5000);
+        } finally {
+            release.countDown();
+            downloader.shutdown();
+        }
+    }
+
+    private IvyNode newNode(ResolveData data, String module) {
+        return new IvyNode(data, DefaultModuleDescriptor.newDefaultInstance(
+            ModuleRevisionId.newInstance("org", module, "1.0")));
+    }
+
+    private List<String> describeDownloads(ResolveReport report) {
+        List<String> result = new ArrayList<>();
+        for (ArtifactDownloadReport adr : report.getAllArtifactsReports()) {
+            result.add(adr.getArtifact() + " " + adr.getDownloadStatus());
+        }
+        return result;
+    }
+
+    /**
+     * Reads the XML reports of the configurations of the given resolve from the resolution cache,
+     * without the date of the resolve and the download times, which can't be the same twice.
+     */
+    private Map<String, String> readReports(Ivy ivy, ResolveReport report) throws IOException {
+        Map<String, String> reports = new TreeMap<>();
+        for (String conf : report.getConfigurations()) {
+            File file = ivy.getResolutionCacheManager().getConfigurationResolveReportInCache(
+                report.getResolveId(), conf);
+            String content = new String(Files.readAllBytes(file.toPath()),
+                    StandardCharsets.UTF_8);
+            reports.put(conf, content.replaceFirst("\\sdate=\"\\d+\"", " date=\"\"")
+                    .replaceAll("\\stime=\"\\d+\"", " time=\"\""));
+        }
+        return reports;
+    }
+
+    private List<String> describe(ResolveReport report) {
+        List<String> result = new ArrayList<>();
+        for (IvyNode dep : report.getDependencies()) {
+            result.add(dep.getResolvedId() + " evicted=" + dep.isCompletelyEvicted());
+        }
+        return result;
+    }
+
     private void testLocateThenDownload(ResolveEngine engine, Artifact artifact, File artifactFile) {
         ArtifactOrigin origin = engine.locate(artifact);
         assertNotNull(origin);
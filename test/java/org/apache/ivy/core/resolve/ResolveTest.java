@@ -65,6 +65,8 @@ import javax.xml.parsers.SAXParserFactory;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -297,6 +299,96 @@ public class ResolveTest {
         assertTrue(getArchiveFileInCache("org1", "mod1.2", "2.0", "mod1.2", "jar", "jar").exists());
     }
 
+    @Test
+    public void testResolveWithFingerprint() throws Exception {
+        // mod1.1 depends on mod1.2
+        File ivyFile = new File(workDir, "ivy.xml");
+        FileUtil.copy(new File("test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml"), ivyFile,
+            null);
+        ResolveOptions options = getResolveOptions(new String[] {"*"}).setUseFingerprint(true);
+        ResolveReport report = ivy.resolve(ivyFile, options);
+        assertFalse(report.hasError());
+        assertEquals(1, report.getDependencies().size());
+
+        // nothing has changed: the report is read back from the cache
+        report = ivy.resolve(ivyFile,
+            getResolveOptions(new String[] {"*"}).setUseFingerprint(true));
+        assertFalse(report.hasError());
+        assertFalse(report.hasChanged());
+        assertTrue(report.getDependencies().isEmpty());
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org1", "mod1.2", "2.0");
+        assertEquals(Collections.singleton(mrid),
+            report.getConfigurationReport("default").getModuleRevisionIds());
+        ArtifactDownloadReport[] adrs = report.getAllArtifactsReports();
+        assertEquals(1, adrs.length);
+        assertEquals(getArchiveFileInCache("org1", "mod1.2", "2.0", "mod1.2", "jar", "jar"),
+            adrs[0].getLocalFile());
+        assertEquals(1, report.getArtifacts().size());
+
+        // the module descriptor has changed: the dependencies are resolved again
+        FileUtil.copy(new File("test/repositories/1/org1/mod1.1/ivys/ivy-1.1.xml"), ivyFile,
+            null, true);
+        report = ivy.resolve(ivyFile,
+            getResolveOptions(new String[] {"*"}).setUseFingerprint(true));
+        assertFalse(report.hasError());
+        assertFalse(report.getDependencies().isEmpty());
+    }
+
+    @Test
+    public void testResolveWithFingerprintDetectsSettingsChanges() throws Exception {
+        File settingsFile = new File(workDir, "ivysettings.xml");
+        writeFile(settingsFile, "<ivysettings>"
+                + "<properties file=\"${ivy.settings.dir}/ivysettings.properties\"/>"
+                + "<settings defaultResolver=\"repo\"/>"
+                + "<caches defaultCacheDir=\"${cache.dir}\"/>"
+                + "<include file=\"${ivy.settings.dir}/ivysettings-resolvers.xml\"/>"
+                + "</ivysettings>");
+        File propertiesFile = new File(workDir, "ivysettings.properties");
+        String properties = "cache.dir=" + cache.getAbsolutePath().replace('\\', '/') + "\n"
+                + "repo.dir=" + new File("test/repositories/1").getAbsolutePath().replace('\\', '/')
+                + "\n";
+        writeFile(propertiesFile, properties);
+        File resolversFile = new File(workDir, "ivysettings-resolvers.xml");
+        String resolvers = "<ivysettings><resolvers><filesystem name=\"repo\"%s>"
+                + "<ivy pattern=\"${repo.dir}/[organisation]/[module]/ivys/ivy-[revision].xml\"/>"
+                + "<artifact pattern=\"${repo.dir}/[organisation]/[module]/[type]s/"
+                + "[artifact]-[revision].[ext]\"/>"
+                + "</filesystem></resolvers></ivysettings>";
+        writeFile(resolversFile, String.format(resolvers, ""));
+        // mod1.1 depends on mod1.2
+        File ivyFile = new File(workDir, "ivy.xml");
+        FileUtil.copy(new File("test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml"), ivyFile,
+            null);
+
+        assertFalse(resolveWithFingerprint(settingsFile, ivyFile).getDependencies().isEmpty());
+        // the settings are loaded again, but nothing has changed
+        assertTrue(resolveWithFingerprint(settingsFile, ivyFile).getDependencies().isEmpty());
+
+        // a property loaded by the settings has changed
+        writeFile(propertiesFile, properties + "ivy.checksums=sha1\n");
+        assertFalse(resolveWithFingerprint(settingsFile, ivyFile).getDependencies().isEmpty());
+        assertTrue(resolveWithFingerprint(settingsFile, ivyFile).getDependencies().isEmpty());
+
+        // the included settings file has changed
+        writeFile(resolversFile, String.format(resolvers, " allownomd=\"false\""));
+        assertFalse(resolveWithFingerprint(settingsFile, ivyFile).getDependencies().isEmpty());
+        assertTrue(resolveWithFingerprint(settingsFile, ivyFile).getDependencies().isEmpty());
+    }
+
+    private ResolveReport resolveWithFingerprint(File settingsFile, File ivyFile)
+            throws Exception {
+        Ivy ivy = Ivy.newInstance();
+        ivy.configure(settingsFile);
+        ResolveReport report = ivy.resolve(ivyFile,
+            getResolveOptions(ivy.getSettings(), new String[] {"*"}).setUseFingerprint(true));
+        assertFalse(report.hasError());
+        return report;
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
     @Test
     public void testResolveBadStatus() throws Exception {
         // mod1.4 depends on modfailure, modfailure has a bad status
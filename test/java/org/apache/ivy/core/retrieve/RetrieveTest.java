@@ -234,6 +234,195 @@ public class RetrieveTest {
             file.lastModified());
     }
 
+    /**
+     * An incremental retrieve must skip what hasn't changed since the previous one, relying on its
+     * manifest, and copy what has.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testIncrementalRetrieve() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        assertNotNull(report);
+        ModuleDescriptor md = report.getModuleDescriptor();
+        assertNotNull(md);
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        RetrieveReport retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        assertTrue(new File("build/test/retrieve/" + RetrieveManifest.FILE_NAME).exists());
+
+        retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(0, retrieveReport.getNbrArtifactsCopied());
+        assertEquals(1, retrieveReport.getNbrArtifactsUpToDate());
+
+        // the artifact changes in the cache, it must be retrieved again
+        File cached = report.getArtifactsReports(ModuleRevisionId.newInstance("org1", "mod1.2",
+            "2.0"))[0].getLocalFile();
+        Files.write(cached.toPath(), "changed".getBytes());
+        retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        File file = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default"));
+        assertEquals("changed", new String(Files.readAllBytes(file.toPath())));
+    }
+
+    /**
+     * An incremental retrieve must restore a destination deleted or edited since the previous
+     * one, even though the manifest records it.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testIncrementalRetrieveRestoresDestination() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        ModuleDescriptor md = report.getModuleDescriptor();
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        File file = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default"));
+        File cached = report.getArtifactsReports(ModuleRevisionId.newInstance("org1", "mod1.2",
+            "2.0"))[0].getLocalFile();
+        ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setIncremental(true).setDestArtifactPattern(pattern));
+        assertTrue(file.exists());
+
+        assertTrue(file.delete());
+        RetrieveReport retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        assertEquals(0, retrieveReport.getNbrArtifactsUpToDate());
+        assertTrue(file.exists());
+        assertEquals(cached.length(), file.length());
+
+        // edited by hand
+        Files.write(file.toPath(), "edited".getBytes());
+        file.setLastModified(cached.lastModified() - 10000);
+        retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        assertEquals(cached.length(), file.length());
+    }
+
+    /**
+     * An incremental retrieve with sync must delete what the previous retrieve has recorded and
+     * is no longer retrieved, as well as the directories left empty.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testIncrementalRetrieveSync() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        assertNotNull(report);
+        ModuleDescriptor md = report.getModuleDescriptor();
+        assertNotNull(md);
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        ivy.retrieve(md.getModuleRevisionId(), getRetrieveOptions().setIncremental(true)
+                .setSync(true).setDestArtifactPattern(pattern));
+        File file = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default"));
+        assertTrue(file.exists());
+
+        String newPattern = "build/test/retrieve/[module]/[artifact]-[revision].[ext]";
+        ivy.retrieve(md.getModuleRevisionId(), getRetrieveOptions().setIncremental(true)
+                .setSync(true).setDestArtifactPattern(newPattern));
+        assertTrue(new File(IvyPatternHelper.substitute(newPattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default")).exists());
+        assertFalse(file.exists());
+        assertFalse(file.getParentFile().exists());
+        assertTrue(new File("build/test/retrieve/" + RetrieveManifest.FILE_NAME).exists());
+    }
+
+    /**
+     * Retrieving with hard links must link the destination to the artifact in the cache, and
+     * overwriting it later with a copy must not change the cache.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testRetrieveWithHardlinks() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        assertNotNull(report);
+        ModuleDescriptor md = report.getModuleDescriptor();
+        assertNotNull(md);
+        File cached = report.getArtifactsReports(ModuleRevisionId.newInstance("org1", "mod1.2",
+            "2.0"))[0].getLocalFile();
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        RetrieveReport retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setMakeHardlinks(true).setDestArtifactPattern(pattern));
+        File file = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default"));
+        assertTrue(file.exists());
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        // hard links may not be supported by the file system of the build
+        Assume.assumeTrue(retrieveReport.getNbrArtifactsLinked() == 1);
+        assertTrue(Files.isSameFile(cached.toPath(), file.toPath()));
+
+        byte[] cachedContent = Files.readAllBytes(cached.toPath());
+        cached.setLastModified(cached.lastModified() + 2000);
+        retrieveReport = ivy.retrieve(md.getModuleRevisionId(), getRetrieveOptions()
+                .setOverwriteMode(RetrieveOptions.OVERWRITEMODE_ALWAYS)
+                .setDestArtifactPattern(pattern));
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        assertEquals(0, retrieveReport.getNbrArtifactsLinked());
+        assertFalse(Files.isSameFile(cached.toPath(), file.toPath()));
+        assertTrue(Arrays.equals(cachedContent, Files.readAllBytes(cached.toPath())));
+        assertTrue(Arrays.equals(cachedContent, Files.readAllBytes(file.toPath())));
+    }
+
+    /**
+     * A retrieve copying artifacts concurrently must retrieve the same files as a sequential one.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testParallelRetrieve() throws Exception {
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org20/mod20.1/ivys/ivy-1.2.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        assertNotNull(report);
+        ModuleDescriptor md = report.getModuleDescriptor();
+        assertNotNull(md);
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        RetrieveReport sequential = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setDestArtifactPattern(pattern));
+        assertTrue(sequential.getNbrArtifactsCopied() > 1);
+
+        new File("build/test/retrieve").renameTo(new File("build/test/retrieve-sequential"));
+        try {
+            RetrieveReport parallel = ivy.retrieve(md.getModuleRevisionId(),
+                getRetrieveOptions().setParallelism(4).setDestArtifactPattern(pattern));
+            assertEquals(sequential.getNbrArtifactsCopied(), parallel.getNbrArtifactsCopied());
+            assertEquals(sequential.getCopiedFiles().size(), parallel.getCopiedFiles().size());
+            for (File file : sequential.getCopiedFiles()) {
+                assertTrue(parallel.getCopiedFiles().contains(file));
+                assertTrue(file.exists());
+            }
+        } finally {
+            Delete del = new Delete();
+            del.setProject(new Project());
+            del.setDir(new File("build/test/retrieve-sequential"));
+            del.execute();
+        }
+    }
+
     @Test
     public void testRetrieveWithSymlinks() throws Exception {
         // mod1.1 depends on mod1.2
@@ -735,6 +735,36 @@ public class XmlSettingsParserTest {
 
     }
 
+    /**
+     * Tests that the <code>http-connection-pool</code> elements in a Ivy settings file are parsed
+     * correctly
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testHttpConnectionPools() throws Exception {
+        final IvySettings settings = new IvySettings();
+        final XmlSettingsParser parser = new XmlSettingsParser(settings);
+        parser.parse(XmlSettingsParserTest.class.getResource("ivysettings-http-connection-pools.xml"));
+
+        final List<HttpConnectionPoolSettings> pools = settings.getHttpConnectionPools();
+        assertEquals(2, pools.size());
+
+        final HttpConnectionPoolSettings defaultPool = pools.get(0);
+        assertNull(defaultPool.getHost());
+        assertEquals(40, defaultPool.getMaxTotalConnections());
+        assertEquals(4, defaultPool.getMaxConnections());
+        assertEquals(30000, defaultPool.getKeepAlive());
+        assertEquals(2000, defaultPool.getValidateAfterInactivity());
+        assertEquals(-1, defaultPool.getSocketBufferSize());
+
+        final HttpConnectionPoolSettings hostPool = pools.get(1);
+        assertEquals("repo.example.org", hostPool.getHost());
+        assertEquals(16, hostPool.getMaxConnections());
+        assertEquals(65536, hostPool.getSocketBufferSize());
+        assertEquals(-1, hostPool.getKeepAlive());
+    }
+
     /**
      * Tests that timeout constraints referenced by resolvers, in an ivy settings file, are
      * processed correctly and the corresponding resolvers use the right timeout constraints
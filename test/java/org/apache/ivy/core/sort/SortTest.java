@@ -20,7 +20,9 @@ package org.apache.ivy.core.sort;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 
 import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
@@ -87,6 +89,93 @@ public class SortTest {
         }
     }
 
+    @Test
+    public void testSortByLevel() {
+        addDependency(md2, "md1", "rev1");
+        addDependency(md3, "md1", "rev1");
+        addDependency(md4, "md2", "rev2");
+        addDependency(md4, "md3", "rev3");
+
+        for (List<ModuleDescriptor> toSort : getAllLists(md1, md3, md2, md4)) {
+            SortedModuleDescriptors sorted = sortEngine.sortModuleDescriptorsWithLevels(toSort,
+                new SortOptions().setNonMatchingVersionReporter(nonMatchReporter));
+            assertEquals(sortModuleDescriptors(toSort, nonMatchReporter),
+                sorted.getSortedModules());
+            List<List<ModuleDescriptor>> levels = sorted.getLevels();
+            assertEquals(3, levels.size());
+            assertEquals(Collections.singletonList(md1), levels.get(0));
+            assertEquals(new HashSet<>(Arrays.asList(md2, md3)), new HashSet<>(levels.get(1)));
+            assertEquals(Collections.singletonList(md4), levels.get(2));
+        }
+    }
+
+    /**
+     * The modules of a loop are in different levels, the dependency closing the loop being
+     * ignored.
+     */
+    @Test
+    public void testSortByLevelWithCircularDependency() {
+        addDependency(md2, "md1", "rev1");
+        addDependency(md1, "md2", "rev2");
+        addDependency(md3, "md2", "rev2");
+
+        SortedModuleDescriptors sorted = sortEngine.sortModuleDescriptorsWithLevels(
+            Arrays.<ModuleDescriptor>asList(md1, md2, md3, md4), SortOptions.SILENT);
+        assertEquals(Arrays.<ModuleDescriptor>asList(md2, md1, md3, md4),
+            sorted.getSortedModules());
+        List<List<ModuleDescriptor>> levels = sorted.getLevels();
+        assertEquals(2, levels.size());
+        assertEquals(Arrays.<ModuleDescriptor>asList(md2, md4), levels.get(0));
+        assertEquals(Arrays.<ModuleDescriptor>asList(md1, md3), levels.get(1));
+    }
+
+    /**
+     * Long dependency chains are sorted without overflowing the call stack.
+     */
+    @Test
+    public void testSortLongChain() {
+        List<ModuleDescriptor> toSort = new ArrayList<>();
+        DefaultModuleDescriptor previous = null;
+        for (int i = 0; i < 20000; i++) {
+            DefaultModuleDescriptor md = createModuleDescriptorToSort("chain" + i, null);
+            if (previous != null) {
+                addDependency(previous, "chain" + i, null);
+            }
+            toSort.add(md);
+            previous = md;
+        }
+        List<ModuleDescriptor> sorted = sortModuleDescriptors(toSort, nonMatchReporter);
+        assertEquals(toSort.size(), sorted.size());
+        assertEquals(toSort.get(toSort.size() - 1), sorted.get(0));
+        assertEquals(toSort.get(0), sorted.get(sorted.size() - 1));
+    }
+
+    /**
+     * The version matcher is used once for each distinct dependency revision, whatever the number
+     * of modules depending on it.
+     */
+    @Test
+    public void testVersionMatchedOncePerDependencyRevision() {
+        final List<ModuleRevisionId> asked = new ArrayList<>();
+        settings.setVersionMatcher(new ExactVersionMatcher() {
+            public boolean accept(ModuleRevisionId askedMrid, ModuleDescriptor foundMD) {
+                asked.add(askedMrid);
+                return super.accept(askedMrid, foundMD);
+            }
+        });
+        List<ModuleDescriptor> toSort = new ArrayList<>(Arrays.asList(md2, md3, md4));
+        for (int i = 0; i < 100; i++) {
+            DefaultModuleDescriptor md = createModuleDescriptorToSort("user" + i, null);
+            addDependency(md, "md2", "rev2");
+            addDependency(md, "md3", "rev3");
+            addDependency(md, "md4", "rev4-other");
+            toSort.add(md);
+        }
+        List<ModuleDescriptor> sorted = sortModuleDescriptors(toSort, nonMatchReporter);
+        assertEquals(toSort.size(), sorted.size());
+        assertEquals(3, asked.size());
+    }
+
     /**
      * Sorter does not throw circular dependency, circular dependencies are handled at resolve time
      * only. However the sort respect the transitive order when it is unambiguous. (If A depends
@@ -90,6 +90,40 @@ public class LatestRevisionStrategyTest {
         assertEquals(Arrays.asList(revs), shuffled);
     }
 
+    @Test
+    public void testLongNumbers() {
+        ArtifactInfo[] revs = toMockAI(new String[] {"1.0", "1.0.20180102030405",
+                "1.0.99999999999999999999", "1.0.100000000000000000000", "2.0"});
+
+        List<ArtifactInfo> shuffled = new ArrayList<>(Arrays.asList(revs));
+        Collections.shuffle(shuffled);
+        Collections.sort(shuffled, new LatestRevisionStrategy().new ArtifactInfoComparator());
+        assertEquals(Arrays.asList(revs), shuffled);
+    }
+
+    @Test
+    public void testSpecialMeaningAddedAfterComparison() {
+        LatestRevisionStrategy latestRevisionStrategy = new LatestRevisionStrategy();
+        ArtifactInfo[] revs = toMockAI(new String[] {"1.0-alpha", "1.0-pre"});
+        assertEquals("1.0-pre", latestRevisionStrategy.findLatest(revs, null).getRevision());
+
+        LatestRevisionStrategy.SpecialMeaning specialMeaning = new LatestRevisionStrategy.SpecialMeaning();
+        specialMeaning.setName("pre");
+        specialMeaning.setValue(-2);
+        latestRevisionStrategy.addConfiguredSpecialMeaning(specialMeaning);
+        assertEquals("1.0-alpha", latestRevisionStrategy.findLatest(revs, null).getRevision());
+    }
+
+    /**
+     * The special meanings can't be modified behind the back of the strategy, which caches the
+     * revisions parsed with them.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSpecialMeaningsUnmodifiable() {
+        LatestRevisionStrategy latestRevisionStrategy = new LatestRevisionStrategy();
+        latestRevisionStrategy.getSpecialMeanings().put("pre", -2);
+    }
+
     private static class MockArtifactInfo implements ArtifactInfo {
 
         private long lastModified;
@@ -0,0 +1,230 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.lock;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.channels.FileLock;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ivy.util.FileUtil;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BlockingFileLockStrategyTest {
+    private File dir;
+
+    private File artifactFile;
+
+    private File lockFile;
+
+    private BlockingFileLockStrategy strategy;
+
+    @Before
+    public void setUp() {
+        dir = new File("build/test/lock");
+        FileUtil.forceDelete(dir);
+        artifactFile = new File(dir, "mod-1.0.jar");
+        lockFile = new File(artifactFile.getAbsolutePath() + ".lck");
+        strategy = new BlockingFileLockStrategy(false);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(dir);
+    }
+
+    @Test
+    public void testReentrantLock() throws Exception {
+        assertTrue(strategy.lockArtifact(null, artifactFile));
+        assertTrue(strategy.lockArtifact(null, artifactFile));
+        strategy.unlockArtifact(null, artifactFile);
+        strategy.unlockArtifact(null, artifactFile);
+
+        BlockingFileLockStrategy.LockStatistics stats = strategy.getStatistics().get(lockFile);
+        assertEquals(1, stats.getAcquisitions());
+        assertEquals(0, stats.getContentions());
+        assertEquals(0, BlockingFileLockStrategy.getLockedFileCount());
+    }
+
+    @Test
+    public void testResetStatistics() throws Exception {
+        File otherArtifactFile = new File(dir, "mod-2.0.jar");
+        assertTrue(strategy.lockArtifact(null, artifactFile));
+        strategy.unlockArtifact(null, artifactFile);
+        assertTrue(strategy.lockArtifact(null, otherArtifactFile));
+        strategy.unlockArtifact(null, otherArtifactFile);
+        assertEquals(2, strategy.getStatistics().size());
+        assertEquals(2, strategy.getTotalStatistics().getAcquisitions());
+
+        strategy.resetStatistics();
+        assertTrue(strategy.getStatistics().isEmpty());
+        assertEquals(0, strategy.getTotalStatistics().getAcquisitions());
+    }
+
+    @Test
+    public void testMutualExclusion() throws Exception {
+        final AtomicInteger holders = new AtomicInteger();
+        final AtomicInteger maxHolders = new AtomicInteger();
+        final Exception[] failure = new Exception[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 10; i++) {
+                            assertTrue(strategy.lockArtifact(null, artifactFile));
+                            try {
+                                maxHolders.set(Math.max(maxHolders.get(),
+                                    holders.incrementAndGet()));
+                                Thread.sleep(2);
+                                holders.decrementAndGet();
+                            } finally {
+                                strategy.unlockArtifact(null, artifactFile);
+                            }
+                        }
+                    } catch (Exception e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure[0]);
+        assertEquals(1, maxHolders.get());
+
+        BlockingFileLockStrategy.LockStatistics stats = strategy.getStatistics().get(lockFile);
+        assertEquals(40, stats.getAcquisitions());
+        assertTrue(stats.getContentions() > 0);
+        assertEquals(0, BlockingFileLockStrategy.getLockedFileCount());
+    }
+
+    @Test
+    public void testTimeoutWhenLockedByAnotherThread() throws Exception {
+        strategy.setTimeout(200);
+        final boolean[] locked = new boolean[1];
+        Thread other = new Thread() {
+            public void run() {
+                try {
+                    locked[0] = strategy.lockArtifact(null, artifactFile);
+                } catch (InterruptedException e) {
+                    // ignored
+                }
+            }
+        };
+        assertTrue(strategy.lockArtifact(null, artifactFile));
+        try {
+            other.start();
+            other.join();
+        } finally {
+            strategy.unlockArtifact(null, artifactFile);
+        }
+        assertFalse(locked[0]);
+        assertEquals(1, strategy.getStatistics().get(lockFile).getTimeouts());
+        assertEquals(0, BlockingFileLockStrategy.getLockedFileCount());
+    }
+
+    @Test
+    public void testLockedByAnotherProcess() throws Exception {
+        // the lock can't be acquired while another process holds it
+        strategy.setTimeout(100);
+        Process holder = lockInAnotherProcess(1000);
+        try {
+            assertFalse(strategy.lockArtifact(null, artifactFile));
+        } finally {
+            holder.waitFor();
+        }
+        assertEquals(1, strategy.getStatistics().get(lockFile).getTimeouts());
+
+        // and it's acquired as soon as the other process releases it
+        strategy.setTimeout(60000);
+        holder = lockInAnotherProcess(300);
+        try {
+            assertTrue(strategy.lockArtifact(null, artifactFile));
+            strategy.unlockArtifact(null, artifactFile);
+        } finally {
+            holder.waitFor();
+        }
+        BlockingFileLockStrategy.LockStatistics stats = strategy.getStatistics().get(lockFile);
+        assertEquals(1, stats.getAcquisitions());
+        assertEquals(1, stats.getContentions());
+    }
+
+    /**
+     * A file lock failing with an exception doesn't leak the file it has opened.
+     */
+    @Test
+    public void testFailedLockClosesFile() throws Exception {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        Assume.assumeTrue("Skipping test since the open files can't be counted",
+            os instanceof com.sun.management.UnixOperatingSystemMXBean);
+        com.sun.management.UnixOperatingSystemMXBean unixOs =
+                (com.sun.management.UnixOperatingSystemMXBean) os;
+
+        lockFile.getParentFile().mkdirs();
+        // a lock held by another channel of this process makes tryLock throw an exception
+        try (RandomAccessFile raf = new RandomAccessFile(lockFile, "rw");
+                FileLock lock = raf.getChannel().lock()) {
+            long openFiles = unixOs.getOpenFileDescriptorCount();
+            for (int i = 0; i < 20; i++) {
+                assertFalse(strategy.lockArtifact(null, artifactFile));
+            }
+            assertTrue(unixOs.getOpenFileDescriptorCount() < openFiles + 20);
+        }
+        assertEquals(0, BlockingFileLockStrategy.getLockedFileCount());
+    }
+
+    private Process lockInAnotherProcess(long duration) throws Exception {
+        String java = new File(System.getProperty("java.home"), "bin/java").getPath();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                FileLockHolder.class.getName(), lockFile.getAbsolutePath(),
+                String.valueOf(duration)).redirectErrorStream(true).start();
+        // wait for the other process to hold the lock
+        assertEquals('L', process.getInputStream().read());
+        return process;
+    }
+
+    /**
+     * Holds a lock on a file for some time, in a separate process.
+     */
+    public static class FileLockHolder {
+        public static void main(String[] args) throws Exception {
+            File file = new File(args[0]);
+            file.getParentFile().mkdirs();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                FileLock lock = raf.getChannel().lock();
+                System.out.print('L');
+                System.out.flush();
+                Thread.sleep(Long.parseLong(args[1]));
+                lock.release();
+            }
+        }
+    }
+}
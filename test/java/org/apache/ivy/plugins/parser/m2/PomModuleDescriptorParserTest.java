@@ -39,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
 import org.apache.ivy.core.module.descriptor.DependencyArtifactDescriptor;
@@ -49,6 +50,7 @@ import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.resolve.ResolveData;
+import org.apache.ivy.core.resolve.ResolveOptions;
 import org.apache.ivy.core.resolve.ResolvedModuleRevision;
 import org.apache.ivy.core.settings.IvySettings;
 import org.apache.ivy.plugins.parser.AbstractModuleDescriptorParserTester;
@@ -138,6 +140,32 @@ public class PomModuleDescriptorParserTest extends AbstractModuleDescriptorParse
         assertEquals("jar", artifact[0].getType());
     }
 
+    /**
+     * The elements which aren't read, like plugin configurations or reporting, are skipped while
+     * parsing without affecting the elements which are read.
+     */
+    @Test
+    public void testSkippedElements() throws Exception {
+        URL pomURL = getClass().getResource("test-skipped-elements.pom");
+        ModuleDescriptor md = PomModuleDescriptorParser.getInstance().parseDescriptor(settings,
+            pomURL, false);
+        assertNotNull(md);
+        assertEquals(ModuleRevisionId.newInstance("org.apache", "test-skipped", "1.0"),
+            md.getModuleRevisionId());
+
+        DependencyDescriptor[] dds = md.getDependencies();
+        assertEquals(1, dds.length);
+        assertEquals(ModuleRevisionId.newInstance("commons-logging", "commons-logging", "1.0.4"),
+            dds[0].getDependencyRevisionId());
+
+        PomReader reader = new PomReader(pomURL, new URLResource(pomURL));
+        assertEquals(Collections.singletonMap("logging.version", "1.0.4"),
+            reader.getPomProperties());
+        assertEquals(1, reader.getPlugins().size());
+        assertEquals("maven-compiler-plugin", reader.getPlugins().get(0).getArtifactId());
+        assertEquals("3.8.1", reader.getPlugins().get(0).getVersion());
+    }
+
     @Test
     public void testLargePom() throws Exception {
         ModuleDescriptor md = PomModuleDescriptorParser.getInstance().parseDescriptor(settings,
@@ -824,6 +852,46 @@ public class PomModuleDescriptorParserTest extends AbstractModuleDescriptorParse
         assertEquals("jms", excludes[1].getId().getModuleId().getName());
     }
 
+
+    /**
+     * During a resolve, a parent pom is loaded once for all the poms using it.
+     */
+    @Test
+    public void testParentLoadedOncePerResolve() throws ParseException, IOException {
+        final List<ModuleRevisionId> lookups = new ArrayList<>();
+        settings.setDictatorResolver(new MockResolver() {
+            public ResolvedModuleRevision getDependency(DependencyDescriptor dd, ResolveData data)
+                    throws ParseException {
+                lookups.add(dd.getDependencyRevisionId());
+                try {
+                    ModuleDescriptor moduleDescriptor = PomModuleDescriptorParser.getInstance()
+                            .parseDescriptor(settings,
+                                getClass().getResource("test-dependencyMgt.pom"), false);
+                    return new ResolvedModuleRevision(null, null, moduleDescriptor, null);
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        });
+
+        ResolveData data = new ResolveData(null, new ResolveOptions());
+        IvyContext.pushNewContext().setResolveData(data);
+        try {
+            for (int i = 0; i < 3; i++) {
+                ModuleDescriptor md = PomModuleDescriptorParser.getInstance().parseDescriptor(
+                    settings, getClass().getResource("test-parentDependencyMgt.pom"), false);
+                DependencyDescriptor[] dds = md.getDependencies();
+                assertEquals(2, dds.length);
+                assertEquals(ModuleRevisionId.newInstance("commons-collection",
+                    "commons-collection", "1.0.5"), dds[0].getDependencyRevisionId());
+                assertEquals(2, dds[0].getAllExcludeRules().length);
+            }
+        } finally {
+            IvyContext.popContext();
+        }
+        assertEquals(1, lookups.size());
+        assertEquals(1, data.getPomModelCache().size());
+    }
     @Test
     public void testOverrideParentVersionPropertyDependencyMgt()
             throws ParseException, IOException {
@@ -22,14 +22,20 @@ import java.io.File;
 import org.apache.ivy.Ivy;
 import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ArtifactDownloadReport;
 import org.apache.ivy.core.report.ResolveReport;
 import org.apache.ivy.core.resolve.ResolveOptions;
+import org.apache.ivy.util.FileUtil;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class XmlReportParserTest {
 
@@ -65,6 +71,103 @@ public class XmlReportParserTest {
         assertEquals("Resolved module doesn't equals parsed module", modRevId, parsedModRevId);
     }
 
+    @Test
+    public void testBinaryReport() throws Exception {
+        // mod7.3 depends on mod7.2 v1.0 and on mod7.1 v2.0, mod7.1 v1.0 being evicted
+        ResolveReport report = ivy.resolve(new File("test/repositories/2/mod7.3/ivy-1.0.xml"),
+            getResolveOptions(new String[] {"*"}).setResolveId("testBinaryReport"));
+        assertFalse(report.hasError());
+
+        for (String conf : report.getConfigurations()) {
+            File xmlReport = ivy.getResolutionCacheManager().getConfigurationResolveReportInCache(
+                "testBinaryReport", conf);
+            assertNotNull(BinaryReport.open(xmlReport));
+
+            XmlReportParser binaryParser = new XmlReportParser();
+            binaryParser.parse(xmlReport);
+
+            assertTrue(BinaryReport.getFile(xmlReport).delete());
+            XmlReportParser xmlParser = new XmlReportParser();
+            xmlParser.parse(xmlReport);
+
+            assertEquals(xmlParser.getResolvedModule(), binaryParser.getResolvedModule());
+            assertEquals(xmlParser.hasError(), binaryParser.hasError());
+            assertArrayEquals(xmlParser.getDependencyRevisionIds(),
+                binaryParser.getDependencyRevisionIds());
+            assertArrayEquals(xmlParser.getRealDependencyRevisionIds(),
+                binaryParser.getRealDependencyRevisionIds());
+            assertArrayEquals(xmlParser.getArtifacts(), binaryParser.getArtifacts());
+
+            ArtifactDownloadReport[] expected = xmlParser.getArtifactReports();
+            ArtifactDownloadReport[] actual = binaryParser.getArtifactReports();
+            assertEquals(expected.length, actual.length);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].getArtifact(), actual[i].getArtifact());
+                assertEquals(expected[i].getDownloadStatus(), actual[i].getDownloadStatus());
+                assertEquals(expected[i].getLocalFile(), actual[i].getLocalFile());
+                assertEquals(expected[i].getSize(), actual[i].getSize());
+                assertEquals(expected[i].getArtifactOrigin(), actual[i].getArtifactOrigin());
+            }
+            for (ModuleRevisionId mrid : xmlParser.getRealDependencyRevisionIds()) {
+                assertEquals(xmlParser.getMetadataArtifactReport(mrid).getLocalFile(),
+                    binaryParser.getMetadataArtifactReport(mrid).getLocalFile());
+                assertEquals(xmlParser.getMetadataArtifactReport(mrid).getArtifactOrigin(),
+                    binaryParser.getMetadataArtifactReport(mrid).getArtifactOrigin());
+            }
+        }
+    }
+
+    /**
+     * The binary report must be ignored once the XML report has been replaced.
+     */
+    @Test
+    public void testOutdatedBinaryReport() throws Exception {
+        ivy.resolve(new File("test/repositories/2/mod7.3/ivy-1.0.xml"),
+            getResolveOptions(new String[] {"default"}).setResolveId("testOutdated"));
+        ResolveReport report = ivy.resolve(
+            new File("test/java/org/apache/ivy/plugins/report/ivy-with-info.xml"),
+            getResolveOptions(new String[] {"default"}).setValidate(false).setResolveId(
+                "testOther"));
+
+        File xmlReport = ivy.getResolutionCacheManager().getConfigurationResolveReportInCache(
+            "testOutdated", "default");
+        FileUtil.copy(ivy.getResolutionCacheManager().getConfigurationResolveReportInCache(
+            "testOther", "default"), xmlReport, null, true);
+        assertTrue(BinaryReport.getFile(xmlReport).exists());
+        assertNull(BinaryReport.open(xmlReport));
+
+        XmlReportParser parser = new XmlReportParser();
+        parser.parse(xmlReport);
+        assertEquals(report.getModuleDescriptor().getModuleRevisionId(),
+            parser.getResolvedModule());
+    }
+
+    /**
+     * A binary report being read is left untouched when the resolve is done again, which replaces
+     * it with a new file.
+     */
+    @Test
+    public void testBinaryReportReplacedWhileRead() throws Exception {
+        File ivyFile = new File("test/repositories/2/mod7.3/ivy-1.0.xml");
+        ivy.resolve(ivyFile, getResolveOptions(new String[] {"default"}).setResolveId(
+            "testReplaced"));
+        File xmlReport = ivy.getResolutionCacheManager().getConfigurationResolveReportInCache(
+            "testReplaced", "default");
+        BinaryReport binaryReport = BinaryReport.open(xmlReport);
+        assertNotNull(binaryReport);
+
+        ivy.resolve(ivyFile, getResolveOptions(new String[] {"default"}).setResolveId(
+            "testReplaced"));
+        BinaryReport replaced = BinaryReport.open(xmlReport);
+        assertNotNull(replaced);
+        assertEquals(replaced.getModuleRevisionIds(), binaryReport.getModuleRevisionIds());
+        assertEquals(replaced.getArtifactReports().size(),
+            binaryReport.getArtifactReports().size());
+        for (File file : xmlReport.getParentFile().listFiles()) {
+            assertFalse(file.getName(), file.getName().endsWith(".part"));
+        }
+    }
+
     private ResolveOptions getResolveOptions(String[] confs) {
         return new ResolveOptions().setConfs(confs);
     }
@@ -0,0 +1,124 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.repository.url;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ivy.plugins.repository.TransferEvent;
+import org.apache.ivy.plugins.repository.TransferListener;
+import org.apache.ivy.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class URLRepositoryTest {
+
+    private File workdir;
+
+    @Before
+    public void setUp() {
+        workdir = new File("build/test/urlrepository");
+        workdir.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(workdir);
+    }
+
+    /**
+     * Each transfer has its own event, so concurrent transfers don't mix their progress.
+     */
+    @Test
+    public void testConcurrentTransfers() throws Exception {
+        final URLRepository repository = new URLRepository();
+        final Map<TransferEvent, String> resources = Collections
+                .synchronizedMap(new IdentityHashMap<TransferEvent, String>());
+        final Map<String, String> errors = new ConcurrentHashMap<>();
+        final AtomicInteger completed = new AtomicInteger();
+        repository.addTransferListener(new TransferListener() {
+            public void transferProgress(TransferEvent evt) {
+                String name = evt.getResource().getName();
+                String previous = resources.put(evt, name);
+                if (previous != null && !previous.equals(name)) {
+                    errors.put(name, "event of " + previous + " reused for " + name);
+                }
+                if (evt.getEventType() == TransferEvent.TRANSFER_COMPLETED) {
+                    completed.incrementAndGet();
+                    long expected = new File(name.substring("file:".length())).length();
+                    if (evt.getTotalLength() != expected) {
+                        errors.put(name, "total length " + evt.getTotalLength()
+                                + " instead of " + expected);
+                    }
+                }
+            }
+        });
+
+        final List<File> sources = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            File source = new File(workdir, "source" + i);
+            StringBuilder content = new StringBuilder();
+            for (int j = 0; j < (i + 1) * 10000; j++) {
+                content.append('x');
+            }
+            FileUtil.copy(new ByteArrayInputStream(content.toString().getBytes()),
+                source, null);
+            sources.add(source);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int round = 0; round < 10; round++) {
+                for (final File source : sources) {
+                    final File destination = new File(workdir, "dest-" + round + "-"
+                            + source.getName());
+                    futures.add(pool.submit(new Callable<Void>() {
+                        public Void call() throws Exception {
+                            repository.get(source.toURI().toURL().toExternalForm(), destination);
+                            return null;
+                        }
+                    }));
+                }
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertNull(errors.isEmpty() ? null : errors.toString());
+        assertEquals(80, completed.get());
+    }
+}
@@ -20,15 +20,20 @@ package org.apache.ivy.plugins.resolver;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
@@ -47,6 +52,8 @@ import org.apache.ivy.core.settings.XmlSettingsParser;
 import org.apache.ivy.core.sort.SortEngine;
 import org.apache.ivy.plugins.latest.LatestRevisionStrategy;
 import org.apache.ivy.plugins.latest.LatestTimeStrategy;
+import org.apache.ivy.plugins.resolver.util.ResolvedResource;
+import org.apache.ivy.plugins.resolver.util.ResourceMDParser;
 import org.apache.ivy.util.MockMessageLogger;
 import org.junit.After;
 import org.junit.Before;
@@ -581,4 +588,204 @@ public class ChainResolverTest extends AbstractDependencyResolverTest {
         mockLogger.assertLogDoesntContain("[FAILED     ] org1#mod1.1;1.0!mod1.1.jar");
     }
 
+    /**
+     * Tests that looking up module descriptors concurrently in the sub resolvers gives the same
+     * results as a sequential lookup.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testParallelLookups() throws Exception {
+        for (String revision : new String[] {"1.0", "latest.integration", "9.9"}) {
+            DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                    ModuleRevisionId.newInstance("org1", "mod1.1", revision), false);
+
+            ResolvedModuleRevision expected = parallelLookupsChain(0).getDependency(dd, data);
+            TestHelper.cleanCache();
+            TestHelper.createCache();
+            ResolvedModuleRevision actual = parallelLookupsChain(3).getDependency(dd, data);
+            TestHelper.cleanCache();
+            TestHelper.createCache();
+
+            if (expected == null) {
+                assertNull(revision, actual);
+            } else {
+                assertNotNull(revision, actual);
+                assertEquals(revision, expected.getId(), actual.getId());
+                assertEquals(revision, expected.getResolver().getName(),
+                    actual.getResolver().getName());
+                assertEquals(revision, expected.getDescriptor().isDefault(),
+                    actual.getDescriptor().isDefault());
+            }
+        }
+    }
+
+    /**
+     * Members of the chain which would find the dependency in their cache, or know it is missing,
+     * don't look it up in their repository ahead of time.
+     */
+    @Test
+    public void testParallelLookupsUseCache() throws Exception {
+        ((DefaultRepositoryCacheManager) settings.getDefaultRepositoryCacheManager())
+                .setDefaultMissingTTL(60 * 60 * 1000);
+        ChainResolver chain = parallelLookupsChain(3);
+        BasicResolver nowhere = (BasicResolver) chain.getResolvers().get(1);
+        BasicResolver repository = (BasicResolver) chain.getResolvers().get(2);
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org1", "mod1.1", "1.0"), false);
+        DefaultDependencyDescriptor other = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org1", "mod1.1", "1.1"), false);
+        assertTrue(nowhere.isIvyFileLookupNeeded(dd, data, null));
+        assertTrue(repository.isIvyFileLookupNeeded(dd, data, null));
+
+        assertNotNull(chain.getDependency(dd, data));
+        // missing in the second member, in the cache of the third one
+        assertFalse(nowhere.isIvyFileLookupNeeded(dd, data, null));
+        assertFalse(repository.isIvyFileLookupNeeded(dd, data, null));
+        assertTrue(nowhere.isIvyFileLookupNeeded(other, data, null));
+        assertTrue(repository.isIvyFileLookupNeeded(other, data, null));
+    }
+
+    /**
+     * The members of the chain don't search their cache again when the chain has already done it
+     * for them while deciding which lookups to start.
+     */
+    @Test
+    public void testParallelLookupsSearchCacheOnce() throws Exception {
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org1", "mod1.1", "latest.integration"), false);
+        AtomicInteger sequentialSearches = new AtomicInteger();
+        AtomicInteger parallelSearches = new AtomicInteger();
+        ChainResolver sequential = cacheSearchCountingChain(0, sequentialSearches);
+        ChainResolver parallel = cacheSearchCountingChain(2, parallelSearches);
+        assertNotNull(sequential.getDependency(dd, data));
+
+        sequentialSearches.set(0);
+        ResolvedModuleRevision expected = sequential.getDependency(dd, data);
+        ResolvedModuleRevision actual = parallel.getDependency(dd, data);
+        assertNotNull(actual);
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(2, sequentialSearches.get());
+        assertEquals(sequentialSearches.get(), parallelSearches.get());
+    }
+
+    private ChainResolver cacheSearchCountingChain(int parallelLookups,
+            final AtomicInteger cacheSearches) {
+        ChainResolver chain = new ChainResolver();
+        chain.setName("chain");
+        chain.setSettings(settings);
+        chain.setParallelLookups(parallelLookups);
+        for (String name : new String[] {"1", "2"}) {
+            FileSystemResolver resolver = new FileSystemResolver() {
+                @Override
+                protected ResolvedModuleRevision findModuleInCache(DependencyDescriptor dd,
+                        ResolveData data) {
+                    cacheSearches.incrementAndGet();
+                    return super.findModuleInCache(dd, data);
+                }
+            };
+            resolver.setName(name);
+            resolver.setSettings(settings);
+            resolver.addIvyPattern(settings.getBaseDir()
+                    + "/test/repositories/1/[organisation]/[module]/ivys/ivy-[revision].xml");
+            chain.add(resolver);
+        }
+        return chain;
+    }
+
+    /**
+     * The lookups in progress in the members of the chain which won't be asked are interrupted.
+     */
+    @Test
+    public void testParallelLookupsInterruptedWhenCancelled() throws Exception {
+        final CountDownLatch slowLookupStarted = new CountDownLatch(1);
+        final CountDownLatch slowLookupInterrupted = new CountDownLatch(1);
+        ChainResolver chain = new ChainResolver();
+        chain.setName("chain");
+        chain.setSettings(settings);
+        chain.setParallelLookups(2);
+
+        FileSystemResolver fast = new FileSystemResolver() {
+            @Override
+            protected ResolvedResource findResourceUsingPattern(ModuleRevisionId mrid,
+                    String pattern, Artifact artifact, ResourceMDParser rmdparser, Date date) {
+                try {
+                    // makes sure the slow lookup is in progress when this one ends
+                    slowLookupStarted.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findResourceUsingPattern(mrid, pattern, artifact, rmdparser, date);
+            }
+        };
+        fast.setName("fast");
+        fast.setSettings(settings);
+        fast.addIvyPattern(settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/ivys/ivy-[revision].xml");
+        chain.add(fast);
+
+        FileSystemResolver slow = new FileSystemResolver() {
+            @Override
+            protected ResolvedResource findResourceUsingPattern(ModuleRevisionId mrid,
+                    String pattern, Artifact artifact, ResourceMDParser rmdparser, Date date) {
+                slowLookupStarted.countDown();
+                try {
+                    Thread.sleep(60000);
+                } catch (InterruptedException e) {
+                    slowLookupInterrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+        };
+        slow.setName("slow");
+        slow.setSettings(settings);
+        slow.addIvyPattern(settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/ivys/ivy-[revision].xml");
+        chain.add(slow);
+        settings.addResolver(chain);
+
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org1", "mod1.1", "1.0"), false);
+        ResolvedModuleRevision rmr = chain.getDependency(dd, data);
+        assertNotNull(rmr);
+        assertEquals("fast", rmr.getResolver().getName());
+        assertTrue("the lookup of the slow member should have been interrupted",
+            slowLookupInterrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    private ChainResolver parallelLookupsChain(int parallelLookups) {
+        ChainResolver chain = new ChainResolver();
+        chain.setName("chain");
+        chain.setSettings(settings);
+        chain.setParallelLookups(parallelLookups);
+
+        // first resolver has no ivy pattern: it will only find a 'default' module
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("1");
+        resolver.setSettings(settings);
+        resolver.addArtifactPattern(settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/[type]s/[artifact]-[revision].[type]");
+        chain.add(resolver);
+
+        resolver = new FileSystemResolver();
+        resolver.setName("2");
+        resolver.setSettings(settings);
+        resolver.addIvyPattern(settings.getBaseDir()
+                + "/test/repositories/nowhere/[organisation]/[module]/ivys/ivy-[revision].xml");
+        chain.add(resolver);
+
+        resolver = new FileSystemResolver();
+        resolver.setName("3");
+        resolver.setSettings(settings);
+        resolver.addIvyPattern(settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/ivys/ivy-[revision].xml");
+        resolver.addArtifactPattern(settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/[type]s/[artifact]-[revision].[type]");
+        chain.add(resolver);
+
+        settings.addResolver(chain);
+        return chain;
+    }
+
 }
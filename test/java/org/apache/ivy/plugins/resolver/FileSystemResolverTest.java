@@ -18,17 +18,21 @@
 package org.apache.ivy.plugins.resolver;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.Date;
 import java.util.GregorianCalendar;
 
+import org.apache.ivy.Ivy;
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.ArtifactDownloadReport;
 import org.apache.ivy.core.report.DownloadReport;
@@ -48,6 +52,7 @@ import org.apache.ivy.plugins.latest.LatestTimeStrategy;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.util.CacheCleaner;
 import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.MockMessageLogger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -195,6 +200,108 @@ public class FileSystemResolverTest extends AbstractDependencyResolverTest {
             new File(ivyRef.getResource().getName()).getCanonicalPath());
     }
 
+    @Test
+    public void testMissingModuleIsNotLookedForAgain() throws Exception {
+        cacheManager.setDefaultMissingTTL("1h");
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("test");
+        resolver.setSettings(settings);
+        resolver.addIvyPattern(IVY_PATTERN);
+        resolver.addArtifactPattern(settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/[type]s/[artifact]-[revision].[type]");
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("myorg", "mymodule", "1.0");
+        DependencyDescriptor dd = new DefaultDependencyDescriptor(mrid, false);
+        assertNull(resolver.getDependency(dd, data));
+        assertTrue(cacheManager.isMissing(DefaultArtifact.newIvyArtifact(mrid, null),
+            resolver.getMissingKey()));
+
+        // the module is published after having been found missing
+        File ivyFile = new File("test/repositories/1/myorg/mymodule/ivys/ivy-1.0.xml");
+        ivyFile.getParentFile().mkdirs();
+        FileUtil.copy(new ByteArrayInputStream(("<ivy-module version=\"1.0\">"
+                + "<info organisation=\"myorg\" module=\"mymodule\" revision=\"1.0\"/>"
+                + "</ivy-module>").getBytes()), ivyFile, null);
+        assertNull(resolver.getDependency(dd, data));
+
+        // but it is found when resolving in refresh mode
+        ResolveData refreshData = new ResolveData(engine, new ResolveOptions().setRefresh(true));
+        ResolvedModuleRevision rmr = resolver.getDependency(dd, refreshData);
+        assertNotNull(rmr);
+        assertEquals(mrid, rmr.getId());
+    }
+
+    /**
+     * Resolving a dependency must not clear the attempts recorded by a failed download of another
+     * artifact, which may be made by another thread with the same resolver.
+     */
+    @Test
+    public void testDependencyLookupKeepsArtifactAttempts() throws Exception {
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("test");
+        resolver.setSettings(settings);
+        resolver.addIvyPattern(IVY_PATTERN);
+        resolver.addArtifactPattern(settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/[type]s/[artifact]-[revision].[type]");
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org1", "mod1.1", "1.0");
+        Artifact missing = new DefaultArtifact(mrid, new Date(), "missing", "jar", "jar");
+        DownloadReport report = resolver.download(new Artifact[] {missing},
+            getDownloadOptions());
+        assertEquals(DownloadStatus.FAILED, report.getArtifactReport(missing).getDownloadStatus());
+
+        ModuleRevisionId other = ModuleRevisionId.newInstance("org1", "mod1.2", "2.0");
+        assertNotNull(resolver.getDependency(new DefaultDependencyDescriptor(other, false), data));
+
+        MockMessageLogger logger = new MockMessageLogger();
+        Ivy ivy = new Ivy();
+        ivy.getLoggerEngine().setDefaultLogger(logger);
+        IvyContext.pushNewContext().setIvy(ivy);
+        try {
+            resolver.reportFailure(missing);
+        } finally {
+            IvyContext.popContext();
+        }
+        logger.assertLogContains("missing-1.0.jar");
+    }
+
+    @Test
+    public void testListingIsCached() throws Exception {
+        cacheManager.setDefaultListingTTL("1h");
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("test");
+        resolver.setSettings(settings);
+        resolver.addIvyPattern(IVY_PATTERN);
+
+        File ivys = new File("test/repositories/1/myorg/mymodule/ivys");
+        ivys.mkdirs();
+        FileUtil.copy(new File("test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml"),
+            new File(ivys, "ivy-1.0.xml"), null);
+        DependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("myorg", "mymodule", "latest.integration"), false);
+        ResolvedResource ivyRef = resolver.findIvyFileRef(dd, data);
+        assertNotNull(ivyRef);
+        assertEquals("1.0", ivyRef.getRevision());
+
+        // the revision published afterwards isn't listed until the listing expires
+        FileUtil.copy(new File("test/repositories/1/org1/mod1.1/ivys/ivy-1.1.xml"),
+            new File(ivys, "ivy-1.1.xml"), null);
+        ivyRef = resolver.findIvyFileRef(dd, data);
+        assertNotNull(ivyRef);
+        assertEquals("1.0", ivyRef.getRevision());
+
+        // but it is listed when resolving in refresh mode
+        ResolveData refreshData = new ResolveData(engine, new ResolveOptions().setRefresh(true));
+        IvyContext.getContext().setResolveData(refreshData);
+        try {
+            ivyRef = resolver.findIvyFileRef(dd, refreshData);
+        } finally {
+            IvyContext.getContext().setResolveData(null);
+        }
+        assertNotNull(ivyRef);
+        assertEquals("1.1", ivyRef.getRevision());
+    }
+
     private DownloadOptions getDownloadOptions() {
         return new DownloadOptions();
     }
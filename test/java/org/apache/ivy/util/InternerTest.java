@@ -0,0 +1,81 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class InternerTest {
+
+    @Test
+    public void testIntern() {
+        Interner<String> interner = new Interner<>("strings");
+        String value = new String("value");
+        String copy = new String("value");
+        assertNotSame(value, copy);
+
+        assertSame(value, interner.intern(value));
+        assertSame(value, interner.intern(copy));
+        assertSame(value, interner.intern(value));
+        assertEquals(1, interner.size());
+        assertEquals(2, interner.getHitCount());
+        assertEquals(1, interner.getMissCount());
+        assertEquals(2.0 / 3, interner.getHitRate(), 0.001);
+    }
+
+    @Test
+    public void testConcurrentIntern() throws Exception {
+        final Interner<String> interner = new Interner<>("strings");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    public List<String> call() {
+                        List<String> interned = new ArrayList<>();
+                        for (int j = 0; j < 1000; j++) {
+                            interned.add(interner.intern(new String("value" + j)));
+                        }
+                        return interned;
+                    }
+                }));
+            }
+            List<String> expected = futures.get(0).get();
+            for (Future<List<String>> future : futures) {
+                List<String> interned = future.get();
+                for (int j = 0; j < interned.size(); j++) {
+                    assertSame(expected.get(j), interned.get(j));
+                }
+            }
+            assertEquals(1000, interner.getMissCount());
+            assertEquals(3000, interner.getHitCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -55,6 +55,41 @@ public class IvyPatternHelperTest {
             IvyPatternHelper.substituteTokens("test(-[token])(-[othertoken])", tokens));
     }
 
+    @Test
+    public void testUnsetTokens() {
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("organisation", "org.apache");
+        tokens.put("othertoken", "");
+        assertEquals("org/apache/[module](noToken)/",
+            IvyPatternHelper.substituteTokens("[orgPath]/[module](noToken)/([token])([othertoken])",
+                tokens));
+    }
+
+    @Test
+    public void testExtraAttributes() {
+        Map<String, String> extraModuleAttributes = new HashMap<>();
+        extraModuleAttributes.put("e:platform", "linux");
+        extraModuleAttributes.put("e:classifier", "module");
+        Map<String, String> extraArtifactAttributes = new HashMap<>();
+        extraArtifactAttributes.put("m:classifier", "sources");
+        assertEquals("apache/Test/linux/test-1.0-sources.jar", IvyPatternHelper.substitute(
+            "[organisation]/[module]/[platform]/[artifact]-[revision](-[classifier]).[ext]",
+            "apache", "Test", "1.0", "test", "jar", "jar", null, extraModuleAttributes,
+            extraArtifactAttributes));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnclosedOptionalPart() {
+        IvyPatternHelper.substitute("[organisation]/([module]", "apache", "Test", "1.0", "test",
+            "jar", "jar");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNestedTokens() {
+        IvyPatternHelper.substitute("[organisation]/[mod[ule]]", "apache", "Test", "1.0", "test",
+            "jar", "jar");
+    }
+
     @Test
     public void testOrganization() {
         String pattern = "[organization]/[module]/build/archives/[type]s/[artifact]-[revision].[ext]";
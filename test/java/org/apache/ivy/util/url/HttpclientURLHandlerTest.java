@@ -17,10 +17,16 @@
  */
 package org.apache.ivy.util.url;
 
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.ivy.Ivy;
 import org.apache.ivy.TestHelper;
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.settings.HttpConnectionPoolSettings;
 import org.apache.ivy.core.settings.NamedTimeoutConstraint;
 import org.apache.ivy.core.settings.TimeoutConstraint;
 import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.MockMessageLogger;
 import org.apache.ivy.util.url.URLHandler.URLInfo;
 import org.junit.After;
 import org.junit.Before;
@@ -41,6 +47,8 @@ import static org.apache.ivy.plugins.resolver.IBiblioResolver.DEFAULT_M2_ROOT;
 import static org.hamcrest.Matchers.endsWith;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -179,6 +187,113 @@ public class HttpclientURLHandlerTest {
         }
     }
 
+    /**
+     * Tests that the connection pool settings of a host are applied to the routes to this host.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testConfigurePool() throws Exception {
+        final HttpConnectionPoolSettings defaultPool = new HttpConnectionPoolSettings();
+        defaultPool.setMaxTotalConnections(50);
+        defaultPool.setMaxConnections(3);
+        handler.configurePool(defaultPool);
+        final HttpConnectionPoolSettings localhostPool = new HttpConnectionPoolSettings();
+        localhostPool.setHost("LocalHost");
+        localhostPool.setMaxConnections(12);
+        handler.configurePool(localhostPool);
+
+        final PoolingHttpClientConnectionManager connectionManager = handler.getConnectionManager();
+        assertEquals(50, connectionManager.getMaxTotal());
+        assertEquals(3, connectionManager.getDefaultMaxPerRoute());
+
+        final InetSocketAddress serverBindAddr = new InetSocketAddress("localhost", TestHelper.getMaybeAvailablePort());
+        final String contextRoot = "/testHttpClientHandler";
+        final Path repoRoot = new File("test/repositories").toPath();
+        try (final AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+                contextRoot, repoRoot)) {
+            final URL src = new URL("http://localhost:" + serverBindAddr.getPort() + "/"
+                    + contextRoot + "/ivysettings.xml");
+            assertDownloadOK(src, new File(testDir, "downloaded.xml"));
+        }
+        final HttpRoute route = connectionManager.getRoutes().iterator().next();
+        assertEquals("localhost", route.getTargetHost().getHostName());
+        assertEquals(12, connectionManager.getMaxPerRoute(route));
+    }
+
+    /**
+     * Tests that the connection pool settings applied successively to a same host are merged, and
+     * that a warning is logged when a value previously applied is changed.
+     */
+    @Test
+    public void testConfigurePoolConflict() {
+        final MockMessageLogger logger = new MockMessageLogger();
+        final Ivy ivy = new Ivy();
+        ivy.getLoggerEngine().setDefaultLogger(logger);
+        IvyContext.pushNewContext().setIvy(ivy);
+        try {
+            final HttpConnectionPoolSettings first = new HttpConnectionPoolSettings();
+            first.setMaxTotalConnections(50);
+            first.setMaxConnections(3);
+            handler.configurePool(first);
+            final HttpConnectionPoolSettings same = new HttpConnectionPoolSettings();
+            same.setMaxConnections(3);
+            handler.configurePool(same);
+            logger.assertLogDoesntContain("conflicting settings");
+
+            final HttpConnectionPoolSettings second = new HttpConnectionPoolSettings();
+            second.setMaxConnections(5);
+            handler.configurePool(second);
+        } finally {
+            IvyContext.popContext();
+        }
+        logger.assertLogContains("conflicting settings of the HTTP connection pool of all hosts: "
+                + "maxConnections changed from 3 to 5");
+        final PoolingHttpClientConnectionManager connectionManager = handler.getConnectionManager();
+        assertEquals(50, connectionManager.getMaxTotal());
+        assertEquals(5, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    /**
+     * Tests that a content is downloaded again only if its entity tag has changed.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testDownloadIfModified() throws Exception {
+        final File repoRoot = new File(testDir, "repo");
+        repoRoot.mkdirs();
+        final File served = new File(repoRoot, "module.xml");
+        FileUtil.copy(new File("test/repositories/ivysettings.xml"), served, null);
+
+        final InetSocketAddress serverBindAddr = new InetSocketAddress("localhost", TestHelper.getMaybeAvailablePort());
+        final String contextRoot = "/testHttpClientHandler";
+        try (final AutoCloseable server = TestHelper.createHttpServerBackedRepository(serverBindAddr,
+                contextRoot, repoRoot.toPath())) {
+            final URL src = new URL("http://localhost:" + serverBindAddr.getPort() + "/"
+                    + contextRoot + "/module.xml");
+            final File dest = new File(testDir, "downloaded.xml");
+            final URLInfo info = handler.downloadIfModified(src, dest, null,
+                    defaultTimeoutConstraint, null, 0);
+            assertNotNull(info.getETag());
+            assertEquals(served.length(), dest.length());
+            assertEquals(info.getETag(), handler.getURLInfo(src, defaultTimeoutConstraint).getETag());
+
+            // not modified: the downloaded file is left untouched
+            assertTrue(dest.delete());
+            assertNull(handler.downloadIfModified(src, dest, null, defaultTimeoutConstraint,
+                    info.getETag(), 0));
+            assertFalse(dest.exists());
+
+            served.setLastModified(served.lastModified() - 10000);
+            final URLInfo modified = handler.downloadIfModified(src, dest, null,
+                    defaultTimeoutConstraint, info.getETag(), 0);
+            assertNotNull(modified);
+            assertFalse(info.getETag().equals(modified.getETag()));
+            assertEquals(served.length(), dest.length());
+        }
+    }
+
     private void assertDownloadOK(final URL url, final File file) throws Exception {
         handler.download(url, file, null, defaultTimeoutConstraint);
         assertTrue("Content from " + url + " wasn't downloaded to " + file, file.exists());